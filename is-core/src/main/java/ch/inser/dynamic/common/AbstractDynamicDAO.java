@@ -20,6 +20,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,23 +29,27 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.javaunderground.jdbc.StatementFactory;
-
 import ch.inser.dynamic.common.DAOParameter.Name;
 import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.IValueObject.Type;
 import ch.inser.dynamic.list.IResultContainerFactory;
 import ch.inser.dynamic.util.ChildrenInfo;
+import ch.inser.dynaplus.sql.StatementFactory;
 import ch.inser.jsl.beans.LabelValueBean;
+import ch.inser.jsl.exceptions.ISRuntimeException;
 import ch.inser.jsl.list.ListHandler;
 import ch.inser.jsl.list.ListHandler.Sort;
 import ch.inser.jsl.tools.NumberTools;
@@ -101,11 +106,51 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
      */
     protected transient Map<String, String> iDBNameAttributeNameMap;
 
+    /**
+     * Cache des plans de requêtes de liste, null si pas de cache
+     */
+    private transient StatementPlanCache iStatementPlanCache;
+
+    /**
+     * Nombre de lignes lues par aller-retour à la base pour les curseurs
+     */
+    private int iFetchSize = 500;
+
+    /**
+     * Forme des critères IN et NOT IN des requêtes de ce DAO
+     */
+    private InListStrategy iInListStrategy = InListStrategy.EXACT;
+
+    /**
+     * Les CLOB, SHAPE et BLOB des curseurs sont lus en LazyLob
+     */
+    private boolean iLazyLobs;
+
+    /**
+     * Décodeurs des lignes par attributs et colonnes du résultat
+     */
+    private transient Map<List<Object>, RowDecoder> iRowDecoders;
+
+    /**
+     * Une sous-classe surcharge fillRecord ou fillProperty, null si pas encore testé
+     */
+    private transient Boolean iFillOverridden;
+
+    /**
+     * Nombre maximum de décodeurs gardés par DAO
+     */
+    private static final int ROW_DECODERS_MAX = 64;
+
     /**
      * Buffer par défaut pour un string builder
      */
     public static final int STRING_BUFFER_SIZE = 512;
 
+    /**
+     * Colonne du nombre total de records ajoutée aux requêtes de liste avec le paramètre TOTAL_COUNT
+     */
+    private static final String TOTAL_COUNT_COLUMN = "is_total_count";
+
     /**
      * Lecture d'une entité correspondante à l'identifiant spécifié depuis la base de données. Le record est retourné dans un value objet.
      *
@@ -331,15 +376,48 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             sql.append("SELECT ");
         }
         addAttributesNames(aVo, (List<String>) DAOParameter.getValue(Name.ATTRIBUTES, aParameters), null, sql, Mode.SELECT);
+        if (isTotalCount(aVo, aParameters)) {
+            // Fenêtre évaluée avant la tranche et le nombre maximal de lignes: nombre total de records de la requête
+            sql.append(", COUNT(*) OVER() AS ").append(TOTAL_COUNT_COLUMN);
+        }
         sql.append(" FROM ");
         // ici les jointure sont ajoutées à la Oracle
         addNames((Collection<String>) DAOParameter.getValue(Name.TABLE_NAMES, aParameters), sql);
-        sql.append(getListWhere(aVo, aParameters));
+        StringBuilder where = getListWhere(aVo, aParameters);
+        sql.append(where);
+        sql.append(getKeysetWhere(where.length() > 0, aParameters));
         sql.append(getListGroupBy(aParameters));
         sql.append(getListSort(aParameters));
         return sql;
     }
 
+    /**
+     * Le nombre total est lu avec la page si TOTAL_COUNT est demandé, sauf pour un SELECT DISTINCT (la fenêtre compterait les doublons), la
+     * pagination par seek (la condition de la page réduit le résultat) et un SELECT * si le dialecte n'accepte pas d'autre colonne après *.
+     *
+     * @param aVo
+     *            vo requête
+     * @param aParameters
+     *            paramètres dao
+     * @return true si la requête de liste contient la colonne du nombre total
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isTotalCount(IValueObject aVo, DAOParameter[] aParameters) {
+        if (!Boolean.TRUE.equals(DAOParameter.getValue(Name.TOTAL_COUNT, aParameters))
+                || Boolean.TRUE.equals(aVo.getProperty("DISTINCT")) || DAOParameter.getValue(Name.KEYSET_SIZE, aParameters) != null) {
+            return false;
+        }
+        List<String> attributes = (List<String>) DAOParameter.getValue(Name.ATTRIBUTES, aParameters);
+        return attributes != null && !attributes.isEmpty() || isSelectAllWithColumnsSupported();
+    }
+
+    /**
+     * @return true si le dialecte accepte d'autres colonnes après SELECT *, p.ex. SELECT *, COUNT(*) OVER()
+     */
+    protected boolean isSelectAllWithColumnsSupported() {
+        return false;
+    }
+
     /**
      * Crée la clause ORDER BY selon les éléments de tri données en paramètre
      *
@@ -350,7 +428,11 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
     protected StringBuilder getListSort(DAOParameter... aParameters) {
         StringBuilder sort = new StringBuilder(STRING_BUFFER_SIZE);
         String[] fields = (String[]) DAOParameter.getValue(Name.SORT_FIELDS, aParameters);
+        String keysetId = getKeysetId(fields, aParameters);
         if (fields == null) {
+            if (keysetId != null) {
+                sort.append(" ORDER BY ").append(keysetId).append(" ASC");
+            }
             return sort;
         }
         sort.append(" ORDER BY ");
@@ -370,9 +452,302 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
                 sort.append(", ");
             }
         }
+        if (keysetId != null) {
+            sort.append(", ").append(keysetId).append(" ASC");
+        }
         return sort;
     }
 
+    /**
+     * Donne l'identifiant à ajouter comme dernier critère de tri pour la pagination par seek.
+     *
+     * @param aFields
+     *            champs de tri, peut être null
+     * @param aParameters
+     *            paramètres dao
+     * @return le nom du champ identifiant, null si pas de pagination par seek ou si l'identifiant est déjà un champ de tri
+     */
+    private static String getKeysetId(String[] aFields, DAOParameter[] aParameters) {
+        if (DAOParameter.getValue(Name.KEYSET_SIZE, aParameters) == null) {
+            return null;
+        }
+        String id = (String) DAOParameter.getValue(Name.KEYSET_ID, aParameters);
+        if (id == null) {
+            throw new ISRuntimeException("Keyset pagination needs the KEYSET_ID parameter");
+        }
+        if (aFields != null) {
+            for (String field : aFields) {
+                if (id.equals(field.split(" ")[0])) {
+                    return null;
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Crée la condition de la pagination par seek: les records qui suivent le dernier record de la page précédente dans l'ordre de tri.
+     * Pour les tris (a, b, id): (a &gt; ?) OR (a = ? AND b &gt; ?) OR (a = ? AND b = ? AND id &gt; ?), précédé de la condition redondante a
+     * &gt;= ? (a &lt;= ? en tri descendant) pour l'index, ou une comparaison de row values si le dialecte la supporte. Les valeurs nulles
+     * sont placées comme par Oracle et PostgreSQL: à la fin en tri ascendant, au début en tri descendant.
+     *
+     * @param aHasWhere
+     *            la requête a déjà une clause WHERE
+     * @param aParameters
+     *            paramètres dao avec KEYSET_AFTER
+     * @return condition avec des "?", vide pour la première page
+     */
+    protected StringBuilder getKeysetWhere(boolean aHasWhere, DAOParameter[] aParameters) {
+        StringBuilder where = new StringBuilder();
+        if (DAOParameter.getValue(Name.KEYSET_SIZE, aParameters) == null
+                || DAOParameter.getValue(Name.KEYSET_AFTER, aParameters) == null) {
+            return where;
+        }
+        where.append(aHasWhere ? " AND (" : " WHERE (");
+        addKeysetValues(aParameters, where);
+        where.append(")");
+        return where;
+    }
+
+    /**
+     * Lie les valeurs du dernier record de la page précédente à la condition de la pagination par seek.
+     *
+     * @param aIdx
+     *            index du premier "?" de la condition
+     * @param aVo
+     *            vo requête pour les types
+     * @param aPs
+     *            le PreparedStatement
+     * @param aParameters
+     *            paramètres dao avec KEYSET_AFTER
+     * @throws SQLException
+     *             erreur bd
+     */
+    private void setKeysetValues(int aIdx, IValueObject aVo, PreparedStatement aPs, DAOParameter[] aParameters) throws SQLException {
+        if (DAOParameter.getValue(Name.KEYSET_SIZE, aParameters) == null
+                || DAOParameter.getValue(Name.KEYSET_AFTER, aParameters) == null) {
+            return;
+        }
+        int idx = aIdx;
+        for (String attribute : addKeysetValues(aParameters, null)) {
+            Object value = ((IValueObject) DAOParameter.getValue(Name.KEYSET_AFTER, aParameters)).getProperty(attribute);
+            idx = setValue(idx, value, aVo.getPropertyType(attribute), AttributeType.EQUAL, aPs);
+        }
+    }
+
+    /**
+     * Parcourt les critères de tri de la pagination par seek, écrit la condition et donne les attributs à lier dans l'ordre des "?".
+     *
+     * @param aParameters
+     *            paramètres dao avec KEYSET_AFTER
+     * @param aWhere
+     *            condition à compléter, null pour seulement chercher les attributs
+     * @return noms des attributs à lier
+     */
+    private List<String> addKeysetValues(DAOParameter[] aParameters, StringBuilder aWhere) {
+        String[] sortFields = (String[]) DAOParameter.getValue(Name.SORT_FIELDS, aParameters);
+        IValueObject after = (IValueObject) DAOParameter.getValue(Name.KEYSET_AFTER, aParameters);
+
+        // Champs, sens du tri et valeurs du dernier record
+        List<String> fields = new ArrayList<>();
+        List<Boolean> descendings = new ArrayList<>();
+        if (sortFields != null) {
+            for (int i = 0; i < sortFields.length; i++) {
+                if (sortFields[i].startsWith("text(") || sortFields[i].startsWith("codetext(")) {
+                    throw new ISRuntimeException("Keyset pagination not possible with sort function: " + sortFields[i]);
+                }
+                String[] split = sortFields[i].split(" ");
+                fields.add(split[0]);
+                String orientation = split.length > 1 ? split[split.length - 1] : getListOrientation(i, aParameters).toString().trim();
+                descendings.add("DESC".equalsIgnoreCase(orientation));
+            }
+        }
+        String id = getKeysetId(sortFields, aParameters);
+        if (id != null) {
+            fields.add(id);
+            descendings.add(Boolean.FALSE);
+        }
+
+        List<String> attributes = new ArrayList<>();
+
+        // Condition redondante sur le premier champ de tri, la base peut parcourir l'index depuis la valeur du dernier record
+        boolean leading = fields.size() > 1 && (!descendings.get(0) || after.getProperty(getKeysetAttribute(fields.get(0))) != null);
+        if (leading) {
+            String attribute = getKeysetAttribute(fields.get(0));
+            if (after.getProperty(attribute) == null) {
+                appendIf(aWhere, fields.get(0), " IS NULL AND (");
+            } else if (descendings.get(0)) {
+                appendIf(aWhere, fields.get(0), " <= ? AND (");
+                attributes.add(attribute);
+            } else {
+                appendIf(aWhere, "(" + fields.get(0), " >= ? OR " + fields.get(0) + " IS NULL) AND (");
+                attributes.add(attribute);
+            }
+        }
+
+        if (isKeysetRowValue(fields, descendings, after)) {
+            addKeysetRowValue(fields, descendings.get(0), aWhere, attributes);
+        } else {
+            addKeysetTerms(fields, descendings, after, aWhere, attributes);
+        }
+        if (leading && aWhere != null) {
+            aWhere.append(")");
+        }
+        return attributes;
+    }
+
+    /**
+     * Ecrit la condition de la pagination par seek en une disjonction, un terme par critère de tri.
+     *
+     * @param aFields
+     *            champs de tri
+     * @param aDescendings
+     *            sens de chaque tri
+     * @param aAfter
+     *            dernier record de la page précédente
+     * @param aWhere
+     *            condition à compléter, null pour seulement chercher les attributs
+     * @param aAttributes
+     *            attributs à lier, complétés dans l'ordre des "?"
+     */
+    private void addKeysetTerms(List<String> aFields, List<Boolean> aDescendings, IValueObject aAfter, StringBuilder aWhere,
+            List<String> aAttributes) {
+        boolean firstTerm = true;
+        for (int i = 0; i < aFields.size(); i++) {
+            String attribute = getKeysetAttribute(aFields.get(i));
+            boolean isNull = aAfter.getProperty(attribute) == null;
+            // Aucun record après une valeur nulle en tri ascendant
+            if (isNull && !aDescendings.get(i)) {
+                continue;
+            }
+            if (aWhere != null) {
+                aWhere.append(firstTerm ? "(" : " OR (");
+            }
+            firstTerm = false;
+            for (int j = 0; j < i; j++) {
+                String previous = getKeysetAttribute(aFields.get(j));
+                if (aAfter.getProperty(previous) == null) {
+                    appendIf(aWhere, aFields.get(j), " IS NULL AND ");
+                } else {
+                    appendIf(aWhere, aFields.get(j), " = ? AND ");
+                    aAttributes.add(previous);
+                }
+            }
+            if (isNull) {
+                appendIf(aWhere, aFields.get(i), " IS NOT NULL)");
+            } else if (aDescendings.get(i)) {
+                appendIf(aWhere, aFields.get(i), " < ?)");
+                aAttributes.add(attribute);
+            } else {
+                appendIf(aWhere, "(" + aFields.get(i), " > ? OR " + aFields.get(i) + " IS NULL))");
+                aAttributes.add(attribute);
+            }
+        }
+        if (firstTerm && aWhere != null) {
+            // Le dernier record est le dernier de la liste
+            aWhere.append("1 = 0");
+        }
+    }
+
+    /**
+     * @param aFields
+     *            champs de tri
+     * @param aDescendings
+     *            sens de chaque tri
+     * @param aAfter
+     *            dernier record de la page précédente
+     * @return true si la condition peut être une comparaison de row values: le dialecte la supporte, tous les tris sont dans le même
+     *         sens et le dernier record n'a pas de valeur nulle
+     */
+    private boolean isKeysetRowValue(List<String> aFields, List<Boolean> aDescendings, IValueObject aAfter) {
+        if (aFields.size() < 2 || !isRowValueComparisonSupported()) {
+            return false;
+        }
+        for (int i = 0; i < aFields.size(); i++) {
+            if (!aDescendings.get(i).equals(aDescendings.get(0)) || aAfter.getProperty(getKeysetAttribute(aFields.get(i))) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ecrit la condition de la pagination par seek en une comparaison de row values, p.ex. (a, b, id) &lt; (?, ?, ?) en tri descendant. La
+     * comparaison est inconnue dès qu'une valeur est nulle: en tri descendant ces records sont avant le dernier record, en tri ascendant
+     * ils sont après et sont ajoutés par des termes IS NULL.
+     *
+     * @param aFields
+     *            champs de tri
+     * @param aDescending
+     *            sens de tous les tris
+     * @param aWhere
+     *            condition à compléter, null pour seulement chercher les attributs
+     * @param aAttributes
+     *            attributs à lier, complétés dans l'ordre des "?"
+     */
+    private void addKeysetRowValue(List<String> aFields, boolean aDescending, StringBuilder aWhere, List<String> aAttributes) {
+        if (aWhere != null) {
+            aWhere.append(aDescending ? "" : "(").append("(").append(String.join(", ", aFields)).append(aDescending ? ") < (" : ") > (");
+            for (int i = 0; i < aFields.size(); i++) {
+                aWhere.append(i == 0 ? "?" : ", ?");
+            }
+            aWhere.append(")");
+        }
+        for (String field : aFields) {
+            aAttributes.add(getKeysetAttribute(field));
+        }
+        if (aDescending) {
+            return;
+        }
+        for (int i = 0; i < aFields.size(); i++) {
+            if (aWhere != null) {
+                aWhere.append(" OR ");
+                aWhere.append(i == 0 ? "" : "(");
+            }
+            for (int j = 0; j < i; j++) {
+                appendIf(aWhere, aFields.get(j), " = ? AND ");
+                aAttributes.add(getKeysetAttribute(aFields.get(j)));
+            }
+            appendIf(aWhere, aFields.get(i), i == 0 ? " IS NULL" : " IS NULL)");
+        }
+        if (aWhere != null) {
+            aWhere.append(")");
+        }
+    }
+
+    /**
+     * @return true si le dialecte compare des row values, p.ex. (a, b) &gt; (?, ?), et peut les chercher dans un index composite
+     */
+    protected boolean isRowValueComparisonSupported() {
+        return false;
+    }
+
+    /**
+     * @param aSql
+     *            requête, peut être null
+     * @param aField
+     *            champ
+     * @param aCondition
+     *            condition sur le champ
+     */
+    private static void appendIf(StringBuilder aSql, String aField, String aCondition) {
+        if (aSql != null) {
+            aSql.append(aField).append(aCondition);
+        }
+    }
+
+    /**
+     * @param aField
+     *            champ de tri
+     * @return nom de l'attribut du vo pour le champ
+     */
+    private String getKeysetAttribute(String aField) {
+        if (iDBNameAttributeNameMap != null && iDBNameAttributeNameMap.get(aField) != null) {
+            return iDBNameAttributeNameMap.get(aField);
+        }
+        return aField;
+    }
+
     /**
      * Donne la valeur d'un order by qui est une fonction au lieu d'un nom de champ
      *
@@ -665,15 +1040,16 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
                     search = (String) aVo.getVOInfo().getAttribute(attribute).getInfo("search");
                 }
 
+                InListStrategy inList = iInListStrategy.forType(aVo.getPropertyType(attribute));
                 if (search.equals(AttributeType.EQUAL.toString()) || !(orStatements.get(attribute) instanceof String)) {
-                    DAOTools.addClause(dbattribute, orStatements.get(attribute), AttributeType.EQUAL, aSql);
+                    DAOTools.addClause(dbattribute, orStatements.get(attribute), AttributeType.EQUAL, aSql, inList);
                 } else if (search.equals(AttributeType.FULL_LIKE.toString())) {
-                    DAOTools.addClause(dbattribute, orStatements.get(attribute), AttributeType.FULL_LIKE, aSql);
+                    DAOTools.addClause(dbattribute, orStatements.get(attribute), AttributeType.FULL_LIKE, aSql, inList);
                 } else if (search.equals(AttributeType.LIKE.toString())) {
-                    DAOTools.addClause(dbattribute, orStatements.get(attribute), AttributeType.LIKE, aSql);
+                    DAOTools.addClause(dbattribute, orStatements.get(attribute), AttributeType.LIKE, aSql, inList);
                 } else {
                     // Valeur par défaut de recherche: upper full like
-                    DAOTools.addClause(dbattribute, orStatements.get(attribute), AttributeType.UPPER_FULL_LIKE, aSql);
+                    DAOTools.addClause(dbattribute, orStatements.get(attribute), AttributeType.UPPER_FULL_LIKE, aSql, inList);
                 }
                 if (itOr.hasNext()) {
                     aSql.append(" OR ");
@@ -700,81 +1076,446 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
      * @throws SQLException
      *             erreur au niveau base de données
      */
-    @SuppressWarnings("unchecked")
     protected Collection<IValueObject> getList(IValueObject aVo, Connection aConnection, DAOParameter... aParameters) throws SQLException {
-        StringBuilder sql = getListStatement(aVo, aParameters);
-        sql = getSliceStatement(sql, aParameters);
-        List<IValueObject> vos = new ArrayList<>(1);
-        vos.add(aVo);
-        return getList(vos, sql, (Collection<String>) DAOParameter.getValue(Name.ATTRIBUTES, aParameters), aVo,
-                (Integer) DAOParameter.getValue(Name.ROWNUM_MAX, aParameters), aConnection);
+        return getList(aVo, aConnection, null, aParameters);
     }
 
     /**
+     * Liste d'enregistrements avec le nombre total de records de la requête, sans la tranche ni le nombre maximal de lignes. Le nombre
+     * est lu dans la même requête que la page (COUNT(*) OVER()). Aucune requête de count n'est ajoutée: si la fenêtre n'est pas possible
+     * (voir isTotalCount) ou si la page demandée est vide, le nombre est la taille de la liste.
      *
-     * @param aSql
-     *            le sql statement
+     * @param aVo
+     *            critères de recherche
+     * @param aConnection
+     *            connexion
      * @param aParameters
-     *            additional parameters with start and end rownums
-     * @return statement qui cherche une tranche du résultat selon paramètres début et fin
+     *            paramètres dao, avec TOTAL_COUNT
+     * @return résultat avec la liste et le nombre total dans getNbrRecords
+     * @throws SQLException
+     *             erreur au niveau base de données
      */
-    protected StringBuilder getSliceStatement(StringBuilder aSql, DAOParameter[] aParameters) {
-        Object start = null;
-        Object end = null;
-        for (int j = 0; j < aParameters.length; j++) {
-            if (aParameters[j].getName() == Name.ROWNUM_START) {
-                start = aParameters[j].getValue();
-            } else if (aParameters[j].getName() == Name.ROWNUM_END) {
-                end = aParameters[j].getValue();
-            }
-        }
-        if (start == null || end == null) {
-            return aSql;
+    protected IDAOResult getListWithTotal(IValueObject aVo, Connection aConnection, DAOParameter... aParameters) throws SQLException {
+        int[] total = { -1 };
+        Collection<IValueObject> list = getList(aVo, aConnection, total, aParameters);
+        IDAOResult result = new DAOResult(list);
+        result.setNbrRecords(total[0] < 0 ? list.size() : total[0]);
+        return result;
+    }
+
+    /**
+     * @param aVo
+     *            critères de recherche
+     * @param aConnection
+     *            connexion
+     * @param aTotal
+     *            tableau d'un élément pour le nombre total lu dans la première ligne, null si pas demandé
+     * @param aParameters
+     *            paramètres additionels
+     * @return liste de vos
+     * @throws SQLException
+     *             erreur au niveau base de données
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<IValueObject> getList(IValueObject aVo, Connection aConnection, int[] aTotal, DAOParameter... aParameters)
+            throws SQLException {
+        List<IValueObject> vos = new ArrayList<>(1);
+        vos.add(aVo);
+
+        // Requête déjà préparée pour cette forme de requête
+        StatementPlanCache.Plan plan = getStatementPlan("LIST", aVo, aParameters);
+        if (plan != null) {
+            StringBuilder sql = getSliceStatement(new StringBuilder(plan.getSql()), aParameters);
+            return getList(vos, plan, sql, (Collection<String>) DAOParameter.getValue(Name.ATTRIBUTES, aParameters), aVo,
+                    (Integer) DAOParameter.getValue(Name.ROWNUM_MAX, aParameters), aConnection, aParameters, aTotal);
         }
 
-        StringBuilder sliceSql = new StringBuilder("select * from (select a.*, rownum rn from (");
-        sliceSql.append(aSql);
-        sliceSql.append(") a ) where rn between ");
-        sliceSql.append(start);
-        sliceSql.append(" and ");
-        sliceSql.append(end);
-        return sliceSql;
+        StringBuilder sql = getListStatement(aVo, aParameters);
+        sql = getSliceStatement(sql, aParameters);
+        if (DAOParameter.getValue(Name.KEYSET_AFTER, aParameters) != null || aTotal != null) {
+            // Valeurs de la pagination par seek à lier après celles du vo, nombre total lu dans la première ligne
+            return getList(vos, null, sql, (Collection<String>) DAOParameter.getValue(Name.ATTRIBUTES, aParameters), aVo,
+                    (Integer) DAOParameter.getValue(Name.ROWNUM_MAX, aParameters), aConnection, aParameters, aTotal);
+        }
+        return getList(vos, sql, (Collection<String>) DAOParameter.getValue(Name.ATTRIBUTES, aParameters), aVo,
+                (Integer) DAOParameter.getValue(Name.ROWNUM_MAX, aParameters), aConnection);
     }
 
     /**
-     * Ajoute des conditions de tri à la requête SQL.
+     * Ouvre un curseur sur une liste d'enregistrements. Les records sont lus par paquets de fetch size et un vo est créé par record lu,
+     * la liste n'est jamais chargée en mémoire. Le nombre maximal de lignes du DAO n'est pas appliqué, seulement ROWNUM_MAX s'il est
+     * donné.
      *
-     * @param aSort
-     *            Le tableau contenant, dans l'ordre, les attributs de tri à ajouter.
-     * @param aSortOrientation
-     *            L'ordre de tri.
-     * @param aSql
-     *            La requête à la quelle ajouter les conditions.
+     * Avec PostgreSQL, le fetch size n'est respecté que si la connexion n'est pas en autocommit.
+     *
+     * @param aVo
+     *            critères de recherche
+     * @param aConnection
+     *            connexion, doit rester ouverte tant que le curseur est utilisé
+     * @param aParameters
+     *            paramètres additionels, FETCH_SIZE pour le nombre de lignes lues par aller-retour
+     * @return le curseur, à fermer par l'appelant
+     * @throws SQLException
+     *             erreur au niveau base de données
      */
-    protected void addSort(String[] aSort, ListHandler.Sort aSortOrientation, StringBuilder aSql) {
-
-        if (aSort == null) {
-            return;
+    @SuppressWarnings("unchecked")
+    protected ValueObjectCursor getCursor(IValueObject aVo, Connection aConnection, DAOParameter... aParameters) throws SQLException {
+        StatementPlanCache.Plan plan = getStatementPlan("LIST", aVo, aParameters);
+        StringBuilder sql;
+        if (plan != null) {
+            sql = new StringBuilder(plan.getSql());
+        } else {
+            sql = getListStatement(aVo, aParameters);
         }
-        String orientation = aSortOrientation == ListHandler.Sort.DESCENDING ? " DESC" : " ASC";
-        boolean first = true;
+        sql = getSliceStatement(sql, aParameters);
 
-        for (int i = 0; i < aSort.length; i++) {
-            if (first) {
-                first = false;
+        Integer maxRow = (Integer) DAOParameter.getValue(Name.ROWNUM_MAX, aParameters);
+        Integer fetchSize = (Integer) DAOParameter.getValue(Name.FETCH_SIZE, aParameters);
+        PreparedStatement ps = null;
+        try {
+            ps = getPreparedStatement(sql, maxRow == null ? 0 : maxRow, aConnection);
+            ps.setFetchDirection(ResultSet.FETCH_FORWARD);
+            ps.setFetchSize(fetchSize == null ? iFetchSize : fetchSize);
+            int idx;
+            if (plan != null) {
+                idx = setRecord(aVo, plan, ps);
             } else {
-                aSql.append(", ");
+                List<IValueObject> vos = new ArrayList<>(1);
+                vos.add(aVo);
+                idx = setRecords(vos, ps, Mode.SELECT, null);
             }
-            addSort(aSort[i], orientation, aSql);
+            setKeysetValues(idx, aVo, ps, aParameters);
+
+            StatementFactory.debug(logger, ps);
+            return new ValueObjectCursor(this, ps, ps.executeQuery(), (Collection<String>) DAOParameter.getValue(Name.ATTRIBUTES, aParameters),
+                    aVo);
+        } catch (SQLException e) {
+            String psStr = null;
+            if (ps != null) {
+                psStr = ps.toString();
+                ps.close();
+            }
+            logger.error("SqlException: " + psStr, e);
+
+            // Construit une exception chaînée avec la requête SQL
+            SQLException ex = new SQLException(psStr, null, -1001);
+            e.setNextException(ex);
+            throw e;
         }
     }
 
     /**
-     * Ajoute une condition de tri à la requête SQL.
+     * Cherche le plan de la requête dans le cache des plans. Le plan est créé et mis dans le cache s'il n'y est pas encore.
      *
-     * @param aSort
-     *            L'attribut de tri à ajouter.
-     * @param aOrientation
+     * @param aStatement
+     *            type de requête, LIST ou COUNT
+     * @param aVo
+     *            vo requête
+     * @param aParameters
+     *            paramètres dao
+     * @return le plan ou <code>null</code> si pas de cache ou si la requête ne peut pas être mise en cache
+     */
+    private StatementPlanCache.Plan getStatementPlan(String aStatement, IValueObject aVo, DAOParameter[] aParameters) {
+        if (iStatementPlanCache == null) {
+            return null;
+        }
+        Object key = getStatementPlanKey(aStatement, aVo, aParameters);
+        if (key == null) {
+            return null;
+        }
+        StatementPlanCache.Plan plan = iStatementPlanCache.get(key);
+        if (plan == null) {
+            StringBuilder sql;
+            if ("COUNT".equals(aStatement)) {
+                sql = getCountStatement(aVo, aParameters);
+            } else {
+                sql = getListStatement(aVo, aParameters);
+            }
+            plan = new StatementPlanCache.Plan(sql.toString(), getStatementBinders(aVo));
+            iStatementPlanCache.put(key, plan);
+        } else {
+            // Même nettoyage du vo requête que getListWhere
+            aVo.getProperties().keySet().retainAll(aVo.getTypes().keySet());
+        }
+        return plan;
+    }
+
+    /**
+     * Calcule la forme d'une requête de liste: tables, attributs, critères non nuls et leurs opérateurs, tri, group by et clause de
+     * sécurité. Les requêtes avec clause additionnelle, liste OR, critères sur les enfants, critères de type map ou tri par fonction de
+     * texte ne sont pas mises en cache.
+     *
+     * @param aStatement
+     *            type de requête, LIST ou COUNT
+     * @param aVo
+     *            vo requête
+     * @param aParameters
+     *            paramètres dao
+     * @return clé du plan ou <code>null</code> si la requête ne peut pas être mise en cache
+     */
+    private Object getStatementPlanKey(String aStatement, IValueObject aVo, DAOParameter[] aParameters) {
+        if (!aVo.getOrList().isEmpty() || aVo.getProperty("ADDITIONAL_STATEMENT") != null || aVo.getProperty("childrenmap") != null
+                || aVo.getProperty("hasChildren") != null) {
+            return null;
+        }
+        String[] sortFields = (String[]) DAOParameter.getValue(Name.SORT_FIELDS, aParameters);
+        if (sortFields != null) {
+            for (String field : sortFields) {
+                if (field.startsWith("text(") || field.startsWith("codetext(")) {
+                    return null;
+                }
+            }
+        }
+
+        // Critères et leurs opérateurs, indépendamment de l'ordre du vo
+        Map<String, AttributeType> shape = new TreeMap<>();
+        Map<String, Type> types = aVo.getTypes();
+        for (Entry<String, Object> entry : aVo.getProperties().entrySet()) {
+            if (!types.containsKey(entry.getKey())) {
+                continue;
+            }
+            if (entry.getValue() instanceof Map<?, ?>) {
+                return null;
+            }
+            shape.put(entry.getKey(), getClauseType(getSearch(aVo, entry.getKey()), entry.getValue()));
+        }
+
+        List<Object> key = new ArrayList<>(12);
+        key.add(aStatement);
+        key.add(Boolean.TRUE.equals(aVo.getProperty("DISTINCT")));
+        key.add(shape);
+        key.add(copy(DAOParameter.getValue(Name.TABLE_NAMES, aParameters)));
+        key.add(copy(DAOParameter.getValue(Name.ATTRIBUTES, aParameters)));
+        key.add(copy(DAOParameter.getValue(Name.JOIN_CLAUSES, aParameters)));
+        key.add(DAOParameter.getValue(Name.SECURITY_CLAUSE, aParameters));
+        key.add(DAOParameter.getValue(Name.GROUP_BY, aParameters));
+        key.add(sortFields == null ? null : Arrays.asList(sortFields));
+        key.add(DAOParameter.getValue(Name.SORT_ORIENTATION, aParameters));
+        key.add(copy(DAOParameter.getValue(Name.SORT_ORIENTATIONS, aParameters)));
+        key.add(copy(DAOParameter.getValue(Name.SORT_TOGGABLES, aParameters)));
+        key.add(getKeysetShape(aParameters));
+        key.add(isTotalCount(aVo, aParameters));
+        return key;
+    }
+
+    /**
+     * Forme de la pagination par seek pour la clé de plan: identifiant de tri et condition, qui dépend des valeurs nulles du dernier
+     * record.
+     *
+     * @param aParameters
+     *            paramètres dao
+     * @return null si pas de pagination par seek
+     */
+    private Object getKeysetShape(DAOParameter[] aParameters) {
+        if (DAOParameter.getValue(Name.KEYSET_SIZE, aParameters) == null) {
+            return null;
+        }
+        return DAOParameter.getValue(Name.KEYSET_ID, aParameters) + getKeysetWhere(true, aParameters).toString();
+    }
+
+    /**
+     * Copie une valeur de paramètre pour l'utiliser dans une clé de plan
+     *
+     * @param aValue
+     *            valeur du paramètre
+     * @return copie de la collection ou du tableau, sinon la valeur
+     */
+    private static Object copy(Object aValue) {
+        if (aValue instanceof Object[]) {
+            return Arrays.asList(((Object[]) aValue).clone());
+        }
+        if (aValue instanceof Collection<?>) {
+            return new ArrayList<>((Collection<?>) aValue);
+        }
+        return aValue;
+    }
+
+    /**
+     * Calcule les liaisons des "?" d'une requête de liste, dans l'ordre utilisé par setRecord
+     *
+     * @param aVo
+     *            vo requête après la création de la requête
+     * @return liaisons des attributs
+     */
+    private List<StatementPlanCache.Binder> getStatementBinders(IValueObject aVo) {
+        List<String> keys = new ArrayList<>(aVo.getProperties().keySet());
+        keys.retainAll(aVo.getTypes().keySet());
+        List<StatementPlanCache.Binder> binders = new ArrayList<>(keys.size());
+        for (String attribute : keys) {
+            binders.add(new StatementPlanCache.Binder(attribute, aVo.getPropertyType(attribute), getBindType(aVo, attribute, Mode.SELECT)));
+        }
+        return binders;
+    }
+
+    /**
+     * Lie les valeurs du vo requête aux "?" selon le plan
+     *
+     * @param aVo
+     *            vo requête
+     * @param aPlan
+     *            plan de la requête
+     * @param aPs
+     *            le PreparedStatement
+     * @return index du prochain "?"
+     * @throws SQLException
+     *             erreur bd
+     */
+    private int setRecord(IValueObject aVo, StatementPlanCache.Plan aPlan, PreparedStatement aPs) throws SQLException {
+        int idx = 1;
+        for (StatementPlanCache.Binder binder : aPlan.getBinders()) {
+            Object obj = aVo.getProperty(binder.getAttribute());
+            if (obj != null) {
+                idx = setValue(idx, obj, binder.getType(), binder.getSearchType(), aPs);
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * Active le cache des plans de requêtes de liste et de count.
+     *
+     * @param aMaxSize
+     *            nombre maximal de plans, 0 désactive le cache
+     */
+    public void setStatementPlanCacheSize(int aMaxSize) {
+        if (aMaxSize > 0) {
+            iStatementPlanCache = new StatementPlanCache(aMaxSize);
+        } else {
+            iStatementPlanCache = null;
+        }
+    }
+
+    /**
+     * @return forme des critères IN et NOT IN des requêtes de ce DAO
+     */
+    public InListStrategy getInListStrategy() {
+        return iInListStrategy;
+    }
+
+    /**
+     * @param aInListStrategy
+     *            forme des critères IN et NOT IN, p.ex. ARRAY pour PostgreSQL
+     */
+    public void setInListStrategy(InListStrategy aInListStrategy) {
+        iInListStrategy = aInListStrategy;
+    }
+
+    /**
+     * @return true si les CLOB, SHAPE et BLOB des curseurs sont lus en LazyLob
+     */
+    public boolean isLazyLobs() {
+        return iLazyLobs;
+    }
+
+    /**
+     * Lecture à la demande des LOB dans les curseurs: les valeurs CLOB, SHAPE et BLOB des vos d'un ValueObjectCursor sont des LazyLob,
+     * valables tant que le curseur est ouvert. getList et getRecord lisent toujours les LOB complets, la connexion est fermée avant que
+     * l'appelant utilise les vos.
+     *
+     * @param aLazyLobs
+     *            true pour lire les LOB à la demande
+     */
+    public void setLazyLobs(boolean aLazyLobs) {
+        iLazyLobs = aLazyLobs;
+        iRowDecoders = null;
+    }
+
+    /**
+     * @return nombre de lignes lues par aller-retour à la base pour les curseurs
+     */
+    public int getFetchSize() {
+        return iFetchSize;
+    }
+
+    /**
+     * @param aFetchSize
+     *            nombre de lignes lues par aller-retour à la base pour les curseurs
+     */
+    public void setFetchSize(int aFetchSize) {
+        iFetchSize = aFetchSize;
+    }
+
+    /**
+     * @return le cache des plans de requêtes avec ses compteurs, null si pas activé
+     */
+    public StatementPlanCache getStatementPlanCache() {
+        return iStatementPlanCache;
+    }
+
+    /**
+     *
+     * @param aSql
+     *            le sql statement
+     * @param aParameters
+     *            additional parameters with start and end rownums
+     * @return statement qui cherche une tranche du résultat selon paramètres début et fin, ou la page KEYSET_SIZE
+     */
+    protected StringBuilder getSliceStatement(StringBuilder aSql, DAOParameter[] aParameters) {
+        Object keysetSize = DAOParameter.getValue(Name.KEYSET_SIZE, aParameters);
+        if (keysetSize != null) {
+            // La condition de la page est déjà dans la requête, seulement limiter le nombre de lignes
+            StringBuilder pageSql = new StringBuilder("select * from (");
+            pageSql.append(aSql);
+            pageSql.append(") where rownum <= ");
+            pageSql.append(((Number) keysetSize).intValue());
+            return pageSql;
+        }
+        Object start = null;
+        Object end = null;
+        for (int j = 0; j < aParameters.length; j++) {
+            if (aParameters[j].getName() == Name.ROWNUM_START) {
+                start = aParameters[j].getValue();
+            } else if (aParameters[j].getName() == Name.ROWNUM_END) {
+                end = aParameters[j].getValue();
+            }
+        }
+        if (start == null || end == null) {
+            return aSql;
+        }
+
+        StringBuilder sliceSql = new StringBuilder("select * from (select a.*, rownum rn from (");
+        sliceSql.append(aSql);
+        sliceSql.append(") a ) where rn between ");
+        sliceSql.append(start);
+        sliceSql.append(" and ");
+        sliceSql.append(end);
+        return sliceSql;
+    }
+
+    /**
+     * Ajoute des conditions de tri à la requête SQL.
+     *
+     * @param aSort
+     *            Le tableau contenant, dans l'ordre, les attributs de tri à ajouter.
+     * @param aSortOrientation
+     *            L'ordre de tri.
+     * @param aSql
+     *            La requête à la quelle ajouter les conditions.
+     */
+    protected void addSort(String[] aSort, ListHandler.Sort aSortOrientation, StringBuilder aSql) {
+
+        if (aSort == null) {
+            return;
+        }
+        String orientation = aSortOrientation == ListHandler.Sort.DESCENDING ? " DESC" : " ASC";
+        boolean first = true;
+
+        for (int i = 0; i < aSort.length; i++) {
+            if (first) {
+                first = false;
+            } else {
+                aSql.append(", ");
+            }
+            addSort(aSort[i], orientation, aSql);
+        }
+    }
+
+    /**
+     * Ajoute une condition de tri à la requête SQL.
+     *
+     * @param aSort
+     *            L'attribut de tri à ajouter.
+     * @param aOrientation
      *            L'ordre de tri.
      * @param aSql
      *            La requête à la quelle ajouter la condition.
@@ -936,7 +1677,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
                 idx = DAOTools.set(idx, it.next(), aVo.getPropertyType(aIdName), AttributeType.EQUAL, ps);
             }
             // Exécute le reqête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
 
                 while (rs.next()) {
@@ -969,7 +1710,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         try (PreparedStatement ps = getPreparedStatement(aSql, aConnection)) {
             setRecord(aVo, ps, Mode.SELECT, null);
             // Exécute le reqête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     list.add(new LabelValueBean(rs.getString(2), rs.getString(1)));
@@ -1025,7 +1766,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             setRecord(aVo, ps, Mode.SELECT, null);
 
             // Exécute le reqête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 String label;
                 while (rs.next()) {
@@ -1053,15 +1794,18 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
      *             en cas de problème au niveau de la requête à la base de données. Un erreur au niveau de la base de données.
      */
     protected IDAOResult getListCount(IValueObject aVo, Connection aConnection, DAOParameter... aParameters) throws SQLException {
-        StringBuilder sql = getCountStatement(aVo, aParameters);
-        String psStr = null;
-        try (PreparedStatement ps = StatementFactory.getStatement(aConnection, sql.toString())) {
-            // Utilise un PreparedStatement de type DebuggableStatement
+        StatementPlanCache.Plan plan = getStatementPlan("COUNT", aVo, aParameters);
+        String sql = plan != null ? plan.getSql() : getCountStatement(aVo, aParameters).toString();
+        try (PreparedStatement ps = StatementFactory.getStatement(aConnection, sql)) {
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps.setMaxRows(1);
-            setRecord(aVo, ps, Mode.SELECT, null);
+            if (plan != null) {
+                setRecord(aVo, plan, ps);
+            } else {
+                setRecord(aVo, ps, Mode.SELECT, null);
+            }
             // Exécute le reqête de recherche
-            psStr = ps.toString();
-            logger.debug("Exécute SQL: " + psStr);
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 rs.next();
                 return new DAOResult(NumberTools.getInteger(rs.getObject(1)));
@@ -1105,11 +1849,11 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         Timestamp timestampValue = null;
 
         try (PreparedStatement ps = StatementFactory.getStatement(aConnection, sql.toString())) {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps.setMaxRows(1);
             DAOTools.set(1, aIdValue, aIDType, AttributeType.EQUAL, ps);
             // Exécute le reqête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
 
                 if (rs.next()) {
@@ -1156,18 +1900,62 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
     // de dynaplus)
     protected IDAOResult create(IValueObject aVo, String aTable, Set<String> aAttributeSet, Set<String> aNotCreate, String aMajAttribute,
             String aTimestampAttribute, ILoggedUser aUser, Connection aConnection) throws SQLException {
-        // enregistre les renseignement sur le _srid, cette valeur est
-        // nécessaire pour la création et la mise à jour des champs géométriques
-        long srid = -1;
-        if (aVo.getProperty("_srid") != null) {
-            srid = (Long) aVo.getProperty("_srid");
+        List<String> attributes = getCreateAttributes(aVo, aAttributeSet, aNotCreate, aMajAttribute, aUser);
+        StringBuilder sql = getCreateStatement(aVo, aTable, attributes, aTimestampAttribute);
+
+        PreparedStatement ps = null;
+        try {
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
+            ps = StatementFactory.getStatement(aConnection, sql.toString());
+            ps.setMaxRows(1);
+
+            setRecord(aVo, ps, Mode.CREATE, null);
+
+            // Exécute la requête de mise à jour
+            StatementFactory.debug(logger, ps);
+            int rowCount = ps.executeUpdate();
+
+            IDAOResult result = new DAOResult();
+            result.setStatus(rowCount > 0 ? Status.OK : Status.KO);
+            result.setNbrRecords(rowCount);
+            return result;
+        } catch (SQLException e) {
+            String psStr = null;
+            if (ps != null) {
+                psStr = ps.toString();
+            }
+            logger.error("SqlException: " + psStr, e);
+
+            // Construit une exception chaînée avec la requête SQL
+            SQLException ex = new SQLException(psStr, null, -1001);
+            e.setNextException(ex);
+            throw e;
+        } finally {
+            if (ps != null) {
+                ps.close();
+            }
         }
+    }
 
+    /**
+     * Cherche les attributs à insérer pour un nouveau record. Le vo est préparé comme pour la création: l'auteur de la mise à jour est
+     * renseigné et, sans mapping des noms, les propriétés qui ne sont pas à insérer sont enlevées.
+     *
+     * @param aVo
+     *            L'objet à créer.
+     * @param aAttributeSet
+     *            Les attributs à créer, null pour tous.
+     * @param aNotCreate
+     *            Les attributs qu'il ne faut pas remplir.
+     * @param aMajAttribute
+     *            Le nom de l'attribut contenant l'auteur de la mise à jour.
+     * @param aUser
+     *            L'utilisateur qui demande l'ajout du record.
+     * @return les noms des attributs à insérer, dans l'ordre de la requête
+     */
+    protected List<String> getCreateAttributes(IValueObject aVo, Set<String> aAttributeSet, Set<String> aNotCreate, String aMajAttribute,
+            ILoggedUser aUser) {
         Collection<String> toRemove = aVo.getOmit();
-        StringBuilder sql = new StringBuilder(1024);
-        sql.append("INSERT INTO ");
-        sql.append(aTable);
-        sql.append(" (");
         if (iHasAttributeNamesMappedToDBNames) {
             List<String> attributes = new ArrayList<>(aVo.getProperties().keySet());
             if (aAttributeSet != null) {
@@ -1192,39 +1980,96 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             }
             // Garde que les attributs d'ont on connait le type.
             attributes.retainAll(aVo.getTypes().keySet());
+            return attributes;
+        }
 
-            // On crée la requête SQL pour l'insertion
+        Set<String> attributes = aVo.getProperties().keySet();
+        if (aAttributeSet != null) {
+            attributes.retainAll(aAttributeSet);
+        }
+        if (aNotCreate != null) {
+            attributes.removeAll(aNotCreate);
+        }
+        if (toRemove != null) {
+            toRemove.remove(aMajAttribute);
+            attributes.removeAll(toRemove);
+        }
+        if (aMajAttribute != null) {
+            aVo.setProperty(aMajAttribute, aUser.getUserUpdateName());
+        }
+        // Garde que les attributs d'ont on connait le type.
+        attributes.retainAll(aVo.getTypes().keySet());
+        return new ArrayList<>(attributes);
+    }
+
+    /**
+     * Créé la requête INSERT avec des "?" pour les attributs donnés.
+     *
+     * @param aVo
+     *            L'objet à créer, pour les types et le srid.
+     * @param aTable
+     *            Le nom de la table.
+     * @param aAttributes
+     *            Les attributs à insérer, voir getCreateAttributes.
+     * @param aTimestampAttribute
+     *            Le nom de l'attribut contenant la date de mise à jour.
+     * @return la requête INSERT
+     */
+    protected StringBuilder getCreateStatement(IValueObject aVo, String aTable, List<String> aAttributes, String aTimestampAttribute) {
+        return getCreateStatement(aVo, aTable, aAttributes, aTimestampAttribute, null, null);
+    }
+
+    /**
+     * Créé la requête INSERT avec des "?" pour les attributs donnés et, en première colonne, un id calculé par la base de données.
+     *
+     * @param aVo
+     *            L'objet à créer, pour les types et le srid.
+     * @param aTable
+     *            Le nom de la table.
+     * @param aAttributes
+     *            Les attributs à insérer, voir getCreateAttributes, sans l'id.
+     * @param aTimestampAttribute
+     *            Le nom de l'attribut contenant la date de mise à jour.
+     * @param aIdColumn
+     *            Le nom de la colonne de l'id, null si l'id n'est pas calculé dans la requête.
+     * @param aIdExpression
+     *            L'expression SQL qui donne l'id, par exemple nextval('sequence').
+     * @return la requête INSERT
+     */
+    protected StringBuilder getCreateStatement(IValueObject aVo, String aTable, List<String> aAttributes, String aTimestampAttribute,
+            String aIdColumn, String aIdExpression) {
+        // enregistre les renseignement sur le _srid, cette valeur est
+        // nécessaire pour la création et la mise à jour des champs géométriques
+        long srid = -1;
+        if (aVo.getProperty("_srid") != null) {
+            srid = (Long) aVo.getProperty("_srid");
+        }
 
+        StringBuilder sql = new StringBuilder(1024);
+        sql.append("INSERT INTO ");
+        sql.append(aTable);
+        sql.append(" (");
+        if (aIdColumn != null) {
+            sql.append(aIdColumn);
+            sql.append(", ");
+        }
+        if (iHasAttributeNamesMappedToDBNames) {
+            // On crée la requête SQL pour l'insertion
             Set<String> dbNamesAttributes = new LinkedHashSet<>();
-            for (String attributeName : attributes) {
+            for (String attributeName : aAttributes) {
                 dbNamesAttributes.add(getDBName(attributeName));
             }
 
             addAttributesNames(aVo, new ArrayList<>(dbNamesAttributes), aTimestampAttribute, sql, Mode.CREATE);
             sql.append(") VALUES (");
+            appendIdExpression(aIdExpression, sql);
             addValues(aVo, dbNamesAttributes, sql, srid);
         } else {
-            Set<String> attributes = aVo.getProperties().keySet();
-            if (aAttributeSet != null) {
-                attributes.retainAll(aAttributeSet);
-            }
-            if (aNotCreate != null) {
-                attributes.removeAll(aNotCreate);
-            }
-            if (toRemove != null) {
-                toRemove.remove(aMajAttribute);
-                attributes.removeAll(toRemove);
-            }
-            if (aMajAttribute != null) {
-                aVo.setProperty(aMajAttribute, aUser.getUserUpdateName());
-            }
-            // Garde que les attributs d'ont on connait le type.
-            attributes.retainAll(aVo.getTypes().keySet());
-
             // On crée la requête SQL pour l'insertion
-            addAttributesNames(aVo, new ArrayList<>(attributes), aTimestampAttribute, sql, Mode.CREATE);
+            addAttributesNames(aVo, new ArrayList<>(aAttributes), aTimestampAttribute, sql, Mode.CREATE);
             sql.append(") VALUES (");
-            addValues(aVo, attributes, sql, srid);
+            appendIdExpression(aIdExpression, sql);
+            addValues(aVo, new LinkedHashSet<>(aAttributes), sql, srid);
         }
 
         // Insérer le temps selon le type du champ
@@ -1238,39 +2083,109 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             }
         }
         sql.append(")");
+        return sql;
+    }
 
-        PreparedStatement ps = null;
-        try {
-            // Utilise un PreparedStatement de type DebuggableStatement
-            ps = StatementFactory.getStatement(aConnection, sql.toString());
-            ps.setMaxRows(1);
+    /**
+     * Ajoute l'expression de l'id en première valeur de l'INSERT.
+     *
+     * @param aIdExpression
+     *            expression SQL de l'id, null si l'id n'est pas calculé dans la requête
+     * @param aSql
+     *            requête en construction
+     */
+    private static void appendIdExpression(String aIdExpression, StringBuilder aSql) {
+        if (aIdExpression != null) {
+            aSql.append(aIdExpression);
+            aSql.append(", ");
+        }
+    }
 
-            setRecord(aVo, ps, Mode.CREATE, null);
+    /**
+     * Crée plusieurs records en batch JDBC. Les vos qui ont les mêmes attributs (et le même srid) sont insérés avec un seul
+     * PreparedStatement (addBatch/executeBatch).
+     *
+     * @param aVos
+     *            Les objets à créer.
+     * @param aTable
+     *            Le nom de la table.
+     * @param aAttributeSet
+     *            Les attributs à créer, null pour tous.
+     * @param aNotCreate
+     *            Les attributs qu'il ne faut pas remplir.
+     * @param aMajAttribute
+     *            Le nom de l'attribut contenant l'auteur de la mise à jour.
+     * @param aTimestampAttribute
+     *            Le nom de l'attribut contenant la date de mise à jour.
+     * @param aUser
+     *            L'utilisateur qui demande l'ajout des records.
+     * @param aConnection
+     *            Connexion pour exécuter les requêtes.
+     * @return le nombre de records insérés pour chaque vo, dans l'ordre de aVos (Statement.SUCCESS_NO_INFO si le driver ne le donne pas)
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    protected int[] create(List<IValueObject> aVos, String aTable, Set<String> aAttributeSet, Set<String> aNotCreate, String aMajAttribute,
+            String aTimestampAttribute, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        int[] rowCounts = new int[aVos.size()];
+
+        // Regroupe les vos par attributs à insérer
+        Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+        Map<List<Object>, List<String>> groupAttributes = new HashMap<>();
+        for (int i = 0; i < aVos.size(); i++) {
+            IValueObject vo = aVos.get(i);
+            List<String> attributes = getCreateAttributes(vo, aAttributeSet, aNotCreate, aMajAttribute, aUser);
+            List<Object> key = new ArrayList<>(attributes.size() + 1);
+            key.addAll(new TreeSet<>(attributes));
+            key.add(vo.getProperty("_srid"));
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            groupAttributes.putIfAbsent(key, attributes);
+        }
 
-            // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
-            int rowCount = ps.executeUpdate();
+        for (Map.Entry<List<Object>, List<Integer>> group : groups.entrySet()) {
+            List<Integer> indexes = group.getValue();
+            List<String> attributes = groupAttributes.get(group.getKey());
+            StringBuilder sql = getCreateStatement(aVos.get(indexes.get(0)), aTable, attributes, aTimestampAttribute);
 
-            IDAOResult result = new DAOResult();
-            result.setStatus(rowCount > 0 ? Status.OK : Status.KO);
-            result.setNbrRecords(rowCount);
-            return result;
-        } catch (SQLException e) {
-            String psStr = null;
-            if (ps != null) {
-                psStr = ps.toString();
-            }
-            logger.error("SqlException: " + psStr, e);
+            PreparedStatement ps = null;
+            try {
+                // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
+                ps = StatementFactory.getStatement(aConnection, sql.toString());
+                for (Integer index : indexes) {
+                    IValueObject vo = aVos.get(index);
+                    int idx = 1;
+                    for (String attribute : attributes) {
+                        idx = setValue(idx, vo.getProperty(attribute), vo.getPropertyType(attribute), AttributeType.EQUAL, ps);
+                    }
+                    ps.addBatch();
+                }
 
-            // Construit une exception chaînée avec la requête SQL
-            SQLException ex = new SQLException(psStr, null, -1001);
-            e.setNextException(ex);
-            throw e;
-        } finally {
-            if (ps != null) {
-                ps.close();
+                // Exécute les insertions
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Exécute SQL (batch de " + indexes.size() + "): " + sql);
+                }
+                int[] counts = ps.executeBatch();
+                for (int i = 0; i < indexes.size(); i++) {
+                    rowCounts[indexes.get(i)] = i < counts.length ? counts[i] : Statement.EXECUTE_FAILED;
+                }
+            } catch (SQLException e) {
+                String psStr = null;
+                if (ps != null) {
+                    psStr = ps.toString();
+                }
+                logger.error("SqlException: " + psStr, e);
+
+                // Construit une exception chaînée avec la requête SQL
+                SQLException ex = new SQLException(psStr, null, -1001);
+                e.setNextException(ex);
+                throw e;
+            } finally {
+                if (ps != null) {
+                    ps.close();
+                }
             }
         }
+        return rowCounts;
     }
 
     /**
@@ -1295,11 +2210,11 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
 
         Object nextId = null;
         try (PreparedStatement ps = StatementFactory.getStatement(aConnection, String.format(getNextIdQuery(), aSequence))) {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps.setMaxRows(1);
 
             // Exécute le reqête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     nextId = DAOTools.getFromRS("next", aIdType, rs);
@@ -1319,40 +2234,157 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
     }
 
     /**
-     * Suppression d'un enregistrement.
+     * Retourne un bloc de valeurs d'ID d'une séquence, en une seule requête si getNextIdsQuery est défini.
+     *
+     * @param aSequence
+     *            Le nom de la sequence.
+     * @param aIdType
+     *            type de propriété, ex. Long
+     * @param aCount
+     *            nombre de valeurs
+     * @param aConnection
+     *            Connexion pour exécuter la requête.
+     * @return les valeurs d'ID, liste vide s'il n'y a pas de séquence
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    protected List<Object> getNextIds(String aSequence, IValueObject.Type aIdType, int aCount, Connection aConnection) throws SQLException {
+        List<Object> ids = new ArrayList<>(aCount);
+        if (aSequence == null || aSequence.length() == 0 || aCount <= 0) {
+            return ids;
+        }
+
+        if (getNextIdsQuery() == null || aCount == 1) {
+            for (int i = 0; i < aCount; i++) {
+                ids.add(getNextId(aSequence, aIdType, aConnection));
+            }
+            return ids;
+        }
+
+        try (PreparedStatement ps = StatementFactory.getStatement(aConnection, String.format(getNextIdsQuery(), aSequence, aCount))) {
+            // Exécute le reqête de recherche
+            StatementFactory.debug(logger, ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(DAOTools.getFromRS("next", aIdType, rs));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Get the query to search a block of next IDs, %1$s is the sequence and %2$d the number of IDs.
+     *
+     * @return the query, <code>null</code> if the IDs must be searched one by one
+     */
+    protected String getNextIdsQuery() {
+        return "SELECT %1$s.NEXTVAL next FROM dual CONNECT BY LEVEL <= %2$d";
+    }
+
+    /**
+     * Suppression d'un enregistrement.
+     *
+     * @param aTable
+     *            Le nom de la table.
+     * @param aIdName
+     *            Le nom de l'attribut contenant l'ID.
+     * @param aIdValue
+     *            La valeur de l'ID.
+     * @param aTimestName
+     *            Le nom de l'attribut contenant le timestamp.
+     * @param aTimestValue
+     *            La valeur du timestamp.
+     * @param aConnection
+     *            Connexion pour exécuter la requête.
+     *
+     * @return Le nombre de records supprimés par la requête
+     *
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données. Un erreur au niveau de la base de données.
+     */
+    protected IDAOResult delete(String aTable, String aIdName, Object aIdValue, String aTimestName, Timestamp aTimestValue,
+            Connection aConnection) throws SQLException {
+        return delete(aTable, aIdName, aIdValue, aTimestName, aTimestValue, null, aConnection);
+    }
+
+    protected IDAOResult delete(String aTable, String aIdName, Object aIdValue, String aTimestName, Timestamp aTimestValue,
+            String aSecurityClause, Connection aConnection) throws SQLException {
+
+        return delete(aTable, aIdName, aIdValue, aTimestName, aTimestValue, IValueObject.Type.TIMESTAMP, aSecurityClause, aConnection);
+    }
+
+    protected IDAOResult delete(String aTable, String aIdName, Object aIdValue, String aTimestName, Timestamp aTimestValue,
+            IValueObject.Type aTimestType, String aSecurityClause, Connection aConnection) throws SQLException {
+
+        StringBuilder sql = new StringBuilder(128);
+        sql.append("DELETE FROM ");
+        sql.append(aTable);
+        sql.append(" WHERE ");
+        addClauseDeleteUpdate(aIdName, aTimestName, aSecurityClause, sql);
+
+        PreparedStatement ps = null;
+        int rowCount = 0;
+
+        try {
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
+            ps = StatementFactory.getStatement(aConnection, sql.toString());
+            ps.setMaxRows(1);
+
+            // Ajoute les valeurs des clauses
+            addValuesDeleteUpdate(1, aIdValue, aTimestValue, ps, aTimestType);
+
+            // Exécute la requête de mise à jour
+            StatementFactory.debug(logger, ps);
+            rowCount = ps.executeUpdate();
+
+        } catch (SQLException e) {
+            String psStr = null;
+            if (ps != null) {
+                psStr = ps.toString();
+            }
+            logger.error("SqlException: " + psStr, e);
+
+            // Construit une exception chaînée avec la requête SQL
+            SQLException ex = new SQLException(psStr, null, -1001);
+            e.setNextException(ex);
+            throw e;
+        } finally {
+            if (ps != null) {
+                ps.close();
+            }
+        }
+        return new DAOResult(rowCount);
+    }
+
+    /**
+     * Supprime plusieurs records en batch JDBC, avec un seul PreparedStatement (addBatch/executeBatch).
      *
      * @param aTable
      *            Le nom de la table.
      * @param aIdName
      *            Le nom de l'attribut contenant l'ID.
-     * @param aIdValue
-     *            La valeur de l'ID.
+     * @param aIdValues
+     *            Les IDs des records.
      * @param aTimestName
      *            Le nom de l'attribut contenant le timestamp.
-     * @param aTimestValue
-     *            La valeur du timestamp.
+     * @param aTimestValues
+     *            Les timestamps des records.
+     * @param aTimestType
+     *            Le type du timestamp.
+     * @param aSecurityClause
+     *            filtre de sécurité
      * @param aConnection
-     *            Connexion pour exécuter la requête.
-     *
-     * @return Le nombre de records supprimés par la requête
-     *
+     *            Connexion pour exécuter les requêtes.
+     * @return le nombre de records supprimés pour chaque record, dans l'ordre de aIdValues
      * @throws SQLException
-     *             en cas de problème au niveau de la requête à la base de données. Un erreur au niveau de la base de données.
+     *             en cas de problème au niveau de la requête à la base de données.
      */
-    protected IDAOResult delete(String aTable, String aIdName, Object aIdValue, String aTimestName, Timestamp aTimestValue,
-            Connection aConnection) throws SQLException {
-        return delete(aTable, aIdName, aIdValue, aTimestName, aTimestValue, null, aConnection);
-    }
-
-    protected IDAOResult delete(String aTable, String aIdName, Object aIdValue, String aTimestName, Timestamp aTimestValue,
-            String aSecurityClause, Connection aConnection) throws SQLException {
-
-        return delete(aTable, aIdName, aIdValue, aTimestName, aTimestValue, IValueObject.Type.TIMESTAMP, aSecurityClause, aConnection);
-    }
-
-    protected IDAOResult delete(String aTable, String aIdName, Object aIdValue, String aTimestName, Timestamp aTimestValue,
+    protected int[] delete(String aTable, String aIdName, List<Object> aIdValues, String aTimestName, List<Timestamp> aTimestValues,
             IValueObject.Type aTimestType, String aSecurityClause, Connection aConnection) throws SQLException {
-
+        if (aIdValues.isEmpty()) {
+            return new int[0];
+        }
         StringBuilder sql = new StringBuilder(128);
         sql.append("DELETE FROM ");
         sql.append(aTable);
@@ -1360,20 +2392,24 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         addClauseDeleteUpdate(aIdName, aTimestName, aSecurityClause, sql);
 
         PreparedStatement ps = null;
-        int rowCount = 0;
-
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = StatementFactory.getStatement(aConnection, sql.toString());
-            ps.setMaxRows(1);
-
-            // Ajoute les valeurs des clauses
-            addValuesDeleteUpdate(1, aIdValue, aTimestValue, ps, aTimestType);
-
-            // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
-            rowCount = ps.executeUpdate();
+            for (int i = 0; i < aIdValues.size(); i++) {
+                addValuesDeleteUpdate(1, aIdValues.get(i), aTimestValues.get(i), ps, aTimestType);
+                ps.addBatch();
+            }
 
+            // Exécute les suppressions
+            if (logger.isDebugEnabled()) {
+                logger.debug("Exécute SQL (batch de " + aIdValues.size() + "): " + sql);
+            }
+            int[] counts = ps.executeBatch();
+            int[] rowCounts = new int[aIdValues.size()];
+            for (int i = 0; i < rowCounts.length; i++) {
+                rowCounts[i] = i < counts.length ? counts[i] : Statement.EXECUTE_FAILED;
+            }
+            return rowCounts;
         } catch (SQLException e) {
             String psStr = null;
             if (ps != null) {
@@ -1390,7 +2426,6 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
                 ps.close();
             }
         }
-        return new DAOResult(rowCount);
     }
 
     /**
@@ -1570,7 +2605,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             int rowCount = 0;
 
             try {
-                // Utilise un PreparedStatement de type DebuggableStatement
+                // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
                 ps = StatementFactory.getStatement(aConnection, sql.toString());
                 ps.setMaxRows(1);
 
@@ -1597,7 +2632,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
                 addValuesDeleteUpdate(idx, aIdValue, aTimestValue, ps, aTypes.get(aTimestName));
 
                 // Exécute la requête de mise à jour
-                logger.debug("Exécute SQL: " + ps.toString());
+                StatementFactory.debug(logger, ps);
                 rowCount = ps.executeUpdate();
 
             } catch (SQLException e) {
@@ -1702,7 +2737,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         int rowCount = 0;
 
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = StatementFactory.getStatement(aConnection, sql.toString());
             ps.setMaxRows(1);
 
@@ -1726,7 +2761,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             addValuesDeleteUpdate(idx, aIdValue, aTimestValue, ps, aTypes.get(aTimestName));
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             rowCount = ps.executeUpdate();
 
         } catch (SQLException e) {
@@ -1748,6 +2783,164 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         return rowCount;
     }
 
+    /**
+     * Met à jour plusieurs records en batch JDBC. Les records qui ont les mêmes champs à mettre à jour sont traités avec un seul
+     * PreparedStatement (addBatch/executeBatch). Les records avec des champs géométriques sont mis à jour un à un.
+     *
+     * @param aUpdateFields
+     *            Les champs à mettre à jour de chaque record.
+     * @param fieldsToUpdate
+     *            Les champs qui peuvent être mis à jour, null pour tous.
+     * @param aNotUpdate
+     *            Les champs qu'il ne faut pas mettre à jour.
+     * @param aIdName
+     *            Le nom de l'attribut contenant l'ID.
+     * @param aIdValues
+     *            Les IDs des records.
+     * @param aTable
+     *            Le nom de la table.
+     * @param aTimestName
+     *            Le nom de l'attribut contenant le timestamp.
+     * @param aTimestValues
+     *            Les timestamps des records.
+     * @param aTypes
+     *            Les types des champs.
+     * @param aMajName
+     *            Le nom de l'attribut contenant l'auteur de la mise à jour.
+     * @param aMajType
+     *            Le type de l'attribut contenant l'auteur de la mise à jour.
+     * @param aUser
+     *            L'utilisateur qui demande la mise à jour.
+     * @param aSecurityClause
+     *            filtre de sécurité
+     * @param aConnection
+     *            Connexion pour exécuter les requêtes.
+     * @return le nombre de records mis à jour pour chaque record, dans l'ordre de aIdValues
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    protected int[] update(List<Map<String, Object>> aUpdateFields, Set<String> fieldsToUpdate, Set<String> aNotUpdate, String aIdName,
+            List<Object> aIdValues, String aTable, String aTimestName, List<Timestamp> aTimestValues, Map<String, IValueObject.Type> aTypes,
+            String aMajName, IValueObject.Type aMajType, ILoggedUser aUser, String aSecurityClause, Connection aConnection)
+            throws SQLException {
+        int[] rowCounts = new int[aUpdateFields.size()];
+        boolean hasTimestamp = aTimestName != null && aTimestName.length() > 0;
+        boolean hasMaj = aUser != null && aUser.getUserUpdateName() != null && aMajName != null && aMajName.length() > 0;
+
+        // Regroupe les records par champs à mettre à jour
+        Map<Set<String>, List<Integer>> groups = new LinkedHashMap<>();
+        List<Map<String, Object>> dbFields = new ArrayList<>(aUpdateFields.size());
+        for (int i = 0; i < aUpdateFields.size(); i++) {
+            Map<String, Object> fields = new TreeMap<>();
+            boolean isShape = aUpdateFields.get(i).containsKey("_srid");
+            for (Entry<String, Object> entry : aUpdateFields.get(i).entrySet()) {
+                if ("_srid".equals(entry.getKey())) {
+                    continue;
+                }
+                String dbName = iHasAttributeNamesMappedToDBNames ? getDBName(entry.getKey()) : entry.getKey();
+                if (fieldsToUpdate != null && !fieldsToUpdate.contains(entry.getKey())) {
+                    continue;
+                }
+                isShape |= IValueObject.Type.SHAPE.equals(aTypes.get(dbName));
+                fields.put(dbName, entry.getValue());
+            }
+            if (aNotUpdate != null) {
+                fields.keySet().removeAll(aNotUpdate);
+            }
+            dbFields.add(fields);
+
+            if (isShape) {
+                // Les champs géométriques ont besoin du srid dans la requête
+                rowCounts[i] = update(aUpdateFields.get(i), fieldsToUpdate, aNotUpdate, aIdName, aIdValues.get(i), aTable, aTimestName,
+                        aTimestValues.get(i), aTypes, aMajName, aMajType, aUser, aSecurityClause, aConnection);
+            } else if (!fields.isEmpty()) {
+                groups.computeIfAbsent(new TreeSet<>(fields.keySet()), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (Map.Entry<Set<String>, List<Integer>> group : groups.entrySet()) {
+            // On crée la requête de mise à jour
+            StringBuilder sql = new StringBuilder(STRING_BUFFER_SIZE);
+            sql.append("UPDATE ");
+            sql.append(aTable);
+            sql.append(" SET ");
+            boolean first = true;
+            if (hasTimestamp) {
+                sql.append(aTimestName);
+                if (aTypes.get(aTimestName).equals(IValueObject.Type.LONG)) {
+                    sql.append("=?");
+                } else {
+                    sql.append('=');
+                    sql.append(getDateTimeFunction());
+                }
+                first = false;
+            }
+            if (hasMaj) {
+                if (!first) {
+                    sql.append(", ");
+                }
+                sql.append(aMajName);
+                sql.append("=?");
+                first = false;
+            }
+            for (String field : group.getKey()) {
+                if (!first) {
+                    sql.append(", ");
+                }
+                sql.append(field);
+                sql.append("=?");
+                first = false;
+            }
+            sql.append(" WHERE ");
+            addClauseDeleteUpdate(aIdName, aTimestName, aSecurityClause, sql);
+
+            PreparedStatement ps = null;
+            try {
+                // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
+                ps = StatementFactory.getStatement(aConnection, sql.toString());
+                for (Integer index : group.getValue()) {
+                    int idx = 1;
+                    if (hasTimestamp && aTypes.get(aTimestName).equals(IValueObject.Type.LONG)) {
+                        idx = DAOTools.set(idx, new java.util.Date().getTime(), IValueObject.Type.LONG, AttributeType.EQUAL, ps);
+                    }
+                    if (hasMaj) {
+                        idx = DAOTools.set(idx, aUser.getUserUpdateName(), aMajType, AttributeType.EQUAL, ps);
+                    }
+                    for (Map.Entry<String, Object> me : dbFields.get(index).entrySet()) {
+                        idx = DAOTools.set(idx, me.getValue(), aTypes.get(me.getKey()), AttributeType.EQUAL, ps);
+                    }
+                    addValuesDeleteUpdate(idx, aIdValues.get(index), aTimestValues.get(index), ps, aTypes.get(aTimestName));
+                    ps.addBatch();
+                }
+
+                // Exécute les mises à jour
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Exécute SQL (batch de " + group.getValue().size() + "): " + sql);
+                }
+                int[] counts = ps.executeBatch();
+                for (int i = 0; i < group.getValue().size(); i++) {
+                    rowCounts[group.getValue().get(i)] = i < counts.length ? counts[i] : Statement.EXECUTE_FAILED;
+                }
+            } catch (SQLException e) {
+                String psStr = null;
+                if (ps != null) {
+                    psStr = ps.toString();
+                }
+                logger.error("SqlException: " + psStr, e);
+
+                // Construit une exception chaînée avec la requête SQL
+                SQLException ex = new SQLException(psStr, null, -1001);
+                e.setNextException(ex);
+                throw e;
+            } finally {
+                if (ps != null) {
+                    ps.close();
+                }
+            }
+        }
+        return rowCounts;
+    }
+
     /**
      * Get the current date and time function name.
      *
@@ -1781,6 +2974,37 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
      */
     protected Collection<IValueObject> getList(List<IValueObject> aVos, StringBuilder aSql, Collection<String> aAttributes,
             IValueObject aVo, Integer aMaxRow, Connection aConnection) throws SQLException {
+        return getList(aVos, null, aSql, aAttributes, aVo, aMaxRow, aConnection, null, null);
+    }
+
+    /**
+     * Exécution d'une requête de liste
+     *
+     * @param aVos
+     *            vos requête pour les valeurs des "?"
+     * @param aPlan
+     *            plan de la requête pour lier les valeurs, null pour utiliser setRecord
+     * @param aSql
+     *            requête sql
+     * @param aAttributes
+     *            les attributs à remplir dans les result vos
+     * @param aVo
+     *            vo vide pour créer les result vos
+     * @param aMaxRow
+     *            nbr maximale de résultats
+     * @param aConnection
+     *            connexion
+     * @param aParameters
+     *            paramètres dao pour la pagination par seek, peut être null
+     * @param aTotal
+     *            tableau d'un élément pour le nombre total de la colonne TOTAL_COUNT_COLUMN, null si pas demandé
+     * @return liste de vos
+     * @throws SQLException
+     *             erreur bd
+     */
+    private Collection<IValueObject> getList(List<IValueObject> aVos, StatementPlanCache.Plan aPlan, StringBuilder aSql,
+            Collection<String> aAttributes, IValueObject aVo, Integer aMaxRow, Connection aConnection, DAOParameter[] aParameters,
+            int[] aTotal) throws SQLException {
 
         // On exécute la requête et on stocke le résultat dans une collection
         PreparedStatement ps = null;
@@ -1794,23 +3018,40 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         }
 
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             if (aMaxRow != null) {
                 ps = getPreparedStatement(aSql, aMaxRow, aConnection);
             } else {
                 ps = getPreparedStatement(aSql, aConnection);
             }
 
-            setRecord(aVos, ps, Mode.SELECT, null);
+            int idx;
+            if (aPlan != null) {
+                idx = setRecord(aVos.get(0), aPlan, ps);
+            } else {
+                idx = setRecords(aVos, ps, Mode.SELECT, null);
+            }
+            if (aParameters != null) {
+                setKeysetValues(idx, aVos.get(0), ps, aParameters);
+            }
 
             // Exécute le requête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 List<String> columns = DAOTools.getColumns(rs);
+                RowDecoder decoder = getRowDecoder(voEmpty, aAttributes, rs, columns, false);
+                int totalColumn = aTotal != null ? columns.indexOf(TOTAL_COUNT_COLUMN) + 1 : 0;
                 while (rs.next()) {
+                    if (totalColumn > 0 && aTotal[0] < 0) {
+                        aTotal[0] = rs.getInt(totalColumn);
+                    }
                     // Crée et remplit le Value Object pour ce record
                     // Ajoute le VO à la collection
-                    list.add(fillRecord((IValueObject) voEmpty.clone(), aAttributes, rs, columns).getValueObject());
+                    if (decoder != null) {
+                        list.add(decoder.decode((IValueObject) voEmpty.clone(), rs));
+                    } else {
+                        list.add(fillRecord((IValueObject) voEmpty.clone(), aAttributes, rs, columns).getValueObject());
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -1916,6 +3157,95 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         aValueObject.setProperty(aPropertyName, DAOTools.getFromRS(aPropertyName, aValueObject.getPropertyType(aPropertyName), aResultSet));
     }
 
+    /**
+     * Décodeur des lignes d'un résultat, équivalent à fillRecord mais avec les colonnes lues par index. Le décodeur est gardé par
+     * attributs et colonnes du résultat.
+     *
+     * @param aVo
+     *            vo vide de l'objet métier
+     * @param aAttributes
+     *            attributs à lire, null pour tous
+     * @param aRs
+     *            résultat de la requête, avant la première ligne
+     * @param aRsColumns
+     *            colonnes du résultat
+     * @param aLazyLobs
+     *            true pour lire les LOB en LazyLob, seulement si la connexion reste ouverte pendant l'utilisation des vos
+     * @return le décodeur, null si fillRecord ou fillProperty est surchargé
+     * @throws SQLException
+     *             erreur de lecture de la description du résultat
+     */
+    RowDecoder getRowDecoder(IValueObject aVo, Collection<String> aAttributes, ResultSet aRs, List<String> aRsColumns,
+            boolean aLazyLobs) throws SQLException {
+        if (isFillOverridden()) {
+            return null;
+        }
+        if (iRowDecoders == null) {
+            iRowDecoders = new ConcurrentHashMap<>();
+        }
+        List<Object> key = Arrays.asList(aAttributes == null ? null : new ArrayList<>(aAttributes), aRsColumns, aLazyLobs);
+        RowDecoder decoder = iRowDecoders.get(key);
+        if (decoder != null) {
+            return decoder;
+        }
+
+        List<String> properties = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        List<Type> types = new ArrayList<>();
+        Collection<String> attributes = aAttributes;
+        if (iHasAttributeNamesMappedToDBNames) {
+            if (attributes == null) {
+                attributes = new HashSet<>();
+                for (String attributeName : aVo.getTypes().keySet()) {
+                    String dbNameOfAttribute = getDBName(attributeName);
+                    attributes.add(dbNameOfAttribute == null ? attributeName : dbNameOfAttribute);
+                }
+            }
+            for (String attribute : attributes) {
+                String fieldname = attribute.substring(attribute.indexOf('.') + 1);
+                if (aRsColumns.contains(fieldname)) {
+                    String attributeName = getAttributeName(attribute);
+                    properties.add(attributeName);
+                    fields.add(fieldname);
+                    types.add(aVo.getPropertyType(attributeName));
+                }
+            }
+        } else {
+            if (attributes == null) {
+                attributes = aVo.getTypes().keySet();
+            }
+            for (String attribute : attributes) {
+                properties.add(attribute);
+                fields.add(attribute);
+                types.add(aVo.getPropertyType(attribute));
+            }
+        }
+
+        decoder = new RowDecoder(properties, fields, types, aRs.getMetaData(), aLazyLobs);
+        if (iRowDecoders.size() < ROW_DECODERS_MAX) {
+            iRowDecoders.put(key, decoder);
+        }
+        return decoder;
+    }
+
+    /**
+     * @return true si une sous-classe surcharge fillRecord ou fillProperty, les lignes sont alors lues par fillRecord
+     */
+    private boolean isFillOverridden() {
+        if (iFillOverridden == null) {
+            boolean overridden = false;
+            for (Class<?> c = getClass(); c != AbstractDynamicDAO.class && !overridden; c = c.getSuperclass()) {
+                for (java.lang.reflect.Method method : c.getDeclaredMethods()) {
+                    if ("fillRecord".equals(method.getName()) || "fillProperty".equals(method.getName())) {
+                        overridden = true;
+                    }
+                }
+            }
+            iFillOverridden = overridden;
+        }
+        return iFillOverridden;
+    }
+
     /**
      * Ecriture d'une entité dans la base de données.
      *
@@ -1954,6 +3284,25 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
      *             en cas de problème au niveau de la requête à la base de données. Un erreur au niveau de la base de données.
      */
     protected void setRecord(List<IValueObject> aVos, PreparedStatement aPs, Mode aMode, Integer initIdx) throws SQLException {
+        setRecords(aVos, aPs, aMode, initIdx);
+    }
+
+    /**
+     * Ecriture des valeurs des vos dans le PreparedStatement, voir setRecord.
+     *
+     * @param aVos
+     *            Les valeurs à écrire.
+     * @param aPs
+     *            Le PreparedStatement
+     * @param aMode
+     *            Information sur le mode sélection ou autres(création, update)
+     * @param initIdx
+     *            Premier index pour l'insertion de valeurs dans le prepared statement. Par défaut 1.
+     * @return index du prochain "?"
+     * @throws SQLException
+     *             erreur bd
+     */
+    private int setRecords(List<IValueObject> aVos, PreparedStatement aPs, Mode aMode, Integer initIdx) throws SQLException {
 
         int idx = 1;
         if (initIdx != null && initIdx > 1) {
@@ -2029,24 +3378,51 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
                 }
 
                 if (obj != null) {
-
-                    String search = "";
-                    if (voObj != null && voObj.getVOInfo() != null && voObj.getVOInfo().getAttribute(attribute) != null) {
-                        search = (String) voObj.getVOInfo().getAttribute(attribute).getInfo("search");
-                    }
-
-                    if (aMode.equals(Mode.CREATE) || aMode.equals(Mode.UPDATE) || search.equals(AttributeType.EQUAL.toString())) {
-                        idx = setValue(idx, obj, voObj != null ? voObj.getPropertyType(attribute) : null, AttributeType.EQUAL, aPs);
-                        continue;
-                    }
-                    AttributeType searchOp = AttributeType.parse(search);
-                    if (searchOp == null) {
-                        searchOp = AttributeType.UPPER_FULL_LIKE;
-                    }
-                    idx = setValue(idx, obj, voObj != null ? voObj.getPropertyType(attribute) : null, searchOp, aPs);
+                    idx = setValue(idx, obj, voObj != null ? voObj.getPropertyType(attribute) : null, getBindType(voObj, attribute, aMode),
+                            aPs);
                 }
             }
         }
+        return idx;
+    }
+
+    /**
+     * Type de recherche utilisé pour lier la valeur d'un attribut
+     *
+     * @param aVo
+     *            vo qui contient l'attribut, peut être null
+     * @param aAttribute
+     *            nom de l'attribut
+     * @param aMode
+     *            mode sélection ou autres (création, update)
+     * @return EQUAL en création et update, sinon le type de recherche configuré (UPPER_FULL_LIKE par défaut)
+     */
+    private AttributeType getBindType(IValueObject aVo, String aAttribute, Mode aMode) {
+        String search = aVo != null ? getSearch(aVo, aAttribute) : "";
+        if (aMode.equals(Mode.CREATE) || aMode.equals(Mode.UPDATE) || search.equals(AttributeType.EQUAL.toString())) {
+            return AttributeType.EQUAL;
+        }
+        AttributeType searchOp = AttributeType.parse(search);
+        if (searchOp == null) {
+            searchOp = AttributeType.UPPER_FULL_LIKE;
+        }
+        return searchOp;
+    }
+
+    /**
+     * Type de recherche configuré pour un attribut
+     *
+     * @param aVo
+     *            vo de l'attribut
+     * @param aAttribute
+     *            nom de l'attribut
+     * @return type de recherche configuré ou chaîne vide
+     */
+    private static String getSearch(IValueObject aVo, String aAttribute) {
+        if (aVo.getVOInfo() != null && aVo.getVOInfo().getAttribute(aAttribute) != null) {
+            return (String) aVo.getVOInfo().getAttribute(aAttribute).getInfo("search");
+        }
+        return "";
     }
 
     /**
@@ -2068,7 +3444,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
      */
     protected int setValue(int aIdx, Object aValue, Type aType, DynamicDAO.AttributeType aSearchType, PreparedStatement aPreparedStatement)
             throws SQLException {
-        return DAOTools.set(aIdx, aValue, aType, aSearchType, aPreparedStatement);
+        return DAOTools.set(aIdx, aValue, aType, aSearchType, aPreparedStatement, iInListStrategy);
     }
 
     /**
@@ -2117,7 +3493,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         // On exécute la requête et on stocke le résultat dans un VO
         aVo.clear();
         try (PreparedStatement ps = getPreparedStatement(aSql, aConnection)) {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             if (iHasAttributeNamesMappedToDBNames) {
                 String attributeName = getAttributeName(aIdName);
                 DAOTools.set(1, aIdValue, aVo.getPropertyType(attributeName), AttributeType.EQUAL, ps);
@@ -2126,7 +3502,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             }
 
             // Exécute le requête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) {
                     return new DAOResult(Status.NOTHING_TODO);
@@ -2159,8 +3535,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             aSql.append("*");
         } else {
 
-            if (aVo != null && aVo.getVOInfo() != null && aVo.getVOInfo().getTypes() != null
-                    && aVo.getVOInfo().getTypes().containsValue(Type.SHAPE)) {
+            if (aVo != null && aVo.getVOInfo() != null && aVo.getVOInfo().hasShape()) {
 
                 if (aMode == Mode.CREATE) {
                     // Mode INSERT
@@ -2173,8 +3548,9 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
                     List<String> lstAttrShape = new ArrayList<>();
 
                     // Remplissage des listes
+                    Map<String, Type> types = aVo.getVOInfo().getTypes();
                     for (String att : aAttributes) {
-                        Type tp = aVo.getVOInfo().getTypes().get(att);
+                        Type tp = types.get(att);
                         if (tp.equals(Type.SHAPE)) {
                             lstAttrShape.add(att);
                         } else {
@@ -2312,11 +3688,9 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
     protected void addValues(IValueObject aVo, Set<String> aAttributes, StringBuilder aSql, long aSrid) {
         boolean first = true;
         // vérification si des champs sont avec une geometrie
+        Map<String, Type> types = aVo.getVOInfo() != null && aVo.getVOInfo().hasShape() ? aVo.getVOInfo().getTypes() : null;
         for (String att : aAttributes) {
-            boolean isShape = false;
-            if (aVo.getVOInfo() != null && aVo.getVOInfo().getTypes() != null && aVo.getVOInfo().getTypes().get(att) != null) {
-                isShape = aVo.getVOInfo().getTypes().get(att).equals(Type.SHAPE);
-            }
+            boolean isShape = types != null && types.get(att) == Type.SHAPE;
             if (first) {
                 first = false;
             } else {
@@ -2468,14 +3842,28 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
      *            Requête SQL complète
      */
     private void selectAttType(String aSearch, String aAttribute, String aAttributeDb, IValueObject aVo, StringBuilder aSql) {
+        DAOTools.addClause(aAttributeDb, aVo.getProperty(aAttribute), getClauseType(aSearch, aVo.getProperty(aAttribute)), aSql,
+                iInListStrategy.forType(aVo.getPropertyType(aAttribute)));
+    }
+
+    /**
+     * Type de clause selon le type de recherche et la valeur de l'attribut
+     *
+     * @param aSearch
+     *            type de recherche de l'attribut
+     * @param aValue
+     *            valeur de l'attribut
+     * @return type de clause
+     */
+    private static AttributeType getClauseType(String aSearch, Object aValue) {
         AttributeType search = AttributeType.parse(aSearch);
-        if (aVo.getProperty(aAttribute) instanceof String && search == null) {
+        if (aValue instanceof String && search == null) {
             // Traitement pour les attributs strings
             search = AttributeType.UPPER_FULL_LIKE;
-        } else if (search == null || aVo.getProperty(aAttribute) instanceof Long && !AttributeType.LIKE.toString().equals(aSearch)) {
+        } else if (search == null || aValue instanceof Long && !AttributeType.LIKE.toString().equals(aSearch)) {
             search = AttributeType.EQUAL;
         }
-        DAOTools.addClause(aAttributeDb, aVo.getProperty(aAttribute), search, aSql);
+        return search;
     }
 
     /**
@@ -2698,7 +4086,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             setRecord(aVo, ps, Mode.SELECT, null);
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -2738,7 +4126,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             DAOTools.set(1, aIdValue, aType, AttributeType.EQUAL, ps);
 
             // Exécute la requête
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
 
                 if (!rs.next()) {
@@ -2808,14 +4196,14 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = StatementFactory.getStatement(aConnection, sql.toString());
             ps.setMaxRows(1);
 
             setRecord(aVo, ps, Mode.UPDATE, null);
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             rs = ps.executeQuery();
             if (rs.next()) {
                 return new DAOResult(rs.getObject(1));
@@ -2896,7 +4284,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         int rowCount = 0;
 
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = StatementFactory.getStatement(aConnection, sql.toString());
             ps.setMaxRows(1);
 
@@ -2909,7 +4297,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             }
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             rowCount = ps.executeUpdate();
 
         } catch (SQLException e) {
@@ -2992,7 +4380,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         int rowCount = 0;
 
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = StatementFactory.getStatement(aConnection, sql.toString());
 
             int idx = 1;
@@ -3001,7 +4389,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             setRecord(aVo, ps, Mode.UPDATE, 2);
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             rowCount = ps.executeUpdate();
 
         } catch (SQLException e) {
@@ -3090,7 +4478,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         int rowCount = 0;
 
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = StatementFactory.getStatement(aConnection, sql.toString());
 
             int idx = 1;
@@ -3101,7 +4489,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             setRecord(aVo, ps, Mode.UPDATE, idx);
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             rowCount = ps.executeUpdate();
 
         } catch (SQLException e) {
@@ -3143,7 +4531,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         int rowCount = 0;
 
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = StatementFactory.getStatement(aConnection, sql.toString());
             ps.setMaxRows(1);
 
@@ -3154,7 +4542,7 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
             idx = DAOTools.set(idx, aIdValue, anIdType, AttributeType.EQUAL, ps);
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             rowCount = ps.executeUpdate();
 
         } catch (SQLException e) {
@@ -3202,9 +4590,22 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
     public int updatFields(String aIdName, Collection<Object> aIdValue, IValueObject.Type anIdType, String aTable, String aFieldName,
             Object aValue, IValueObject.Type aType, Connection aConnection) throws SQLException {
 
+        // Liste découpée si elle dépasse la limite des paramètres du driver
+        InListStrategy inList = iInListStrategy.forType(anIdType);
+        int max = inList.getMaxValues();
+        if (aIdValue.size() > max) {
+            List<Object> ids = new ArrayList<>(aIdValue);
+            int rowCount = 0;
+            for (int start = 0; start < ids.size(); start += max) {
+                rowCount += updatFields(aIdName, ids.subList(start, Math.min(start + max, ids.size())), anIdType, aTable, aFieldName,
+                        aValue, aType, aConnection);
+            }
+            return rowCount;
+        }
+
         // On a un IN dans le where...
         Map<Operator, Collection<Object>> valueMap = new EnumMap<>(Operator.class);
-        valueMap.put(Operator.IN, aIdValue);
+        valueMap.put(Operator.IN, aIdValue instanceof List<?> ? aIdValue : new ArrayList<>(aIdValue));
         StringBuilder sql = new StringBuilder(STRING_BUFFER_SIZE);
         sql.append("UPDATE ");
         sql.append(aTable);
@@ -3212,22 +4613,22 @@ public abstract class AbstractDynamicDAO implements DynamicDAO, Serializable {
         sql.append(aFieldName);
         sql.append("=?");
         sql.append(" WHERE ");
-        DAOTools.addClause(aIdName, valueMap, AttributeType.EQUAL, sql);
+        DAOTools.addClause(aIdName, valueMap, AttributeType.EQUAL, sql, inList);
 
         PreparedStatement ps = null;
         int rowCount = 0;
 
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = StatementFactory.getStatement(aConnection, sql.toString());
             ps.setMaxRows(1);
 
             int idx = 1;
             idx = DAOTools.set(idx, aValue, aType, AttributeType.EQUAL, ps);
-            idx = DAOTools.set(idx, valueMap, anIdType, AttributeType.EQUAL, ps);
+            idx = DAOTools.set(idx, valueMap, anIdType, AttributeType.EQUAL, ps, inList);
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             rowCount = ps.executeUpdate();
 
         } catch (SQLException e) {
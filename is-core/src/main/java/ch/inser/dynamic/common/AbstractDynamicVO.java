@@ -84,6 +84,17 @@ public abstract class AbstractDynamicVO implements IValueObject {
         iOrList = new ArrayList<>();
     }
 
+    /**
+     * Constructeur pour une implémentation particulière de la mappe des propriétés.
+     *
+     * @param aProperties
+     *            mappe vide pour conserver les propriétés, la valeur null doit être acceptée
+     */
+    protected AbstractDynamicVO(Map<String, Object> aProperties) {
+        iMap = aProperties;
+        iOrList = new ArrayList<>();
+    }
+
     // ----------------------------------------------------- Méthodes abstraites
 
     /**
@@ -126,6 +137,19 @@ public abstract class AbstractDynamicVO implements IValueObject {
         }
     }
 
+    /**
+     * Modifie une propriété avec une valeur lue de la base de données. Les sous-classes qui transforment les valeurs saisies dans
+     * setProperty peuvent ne pas le faire pour les valeurs de la base.
+     *
+     * @param aName
+     *            Le nom de la propriété.
+     * @param aValue
+     *            La valeur lue.
+     */
+    public void setLoadedProperty(String aName, Object aValue) {
+        setProperty(aName, aValue);
+    }
+
     /**
      * Enlève une propriété.
      *
@@ -27,6 +27,8 @@ import javax.sql.DataSource;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 
+import ch.inser.dynamic.metrics.IMetrics;
+import ch.inser.dynamic.metrics.NoopMetrics;
 import ch.inser.dynamic.quality.IQualityController;
 import ch.inser.dynamic.quality.IQualityTest;
 import ch.inser.jsl.logger.INdc;
@@ -59,6 +61,9 @@ public abstract class ContextManager implements IContextManager, Serializable {
      */
     private INdc iNdc;
 
+    /** Mesures des opérations d'accès aux données */
+    private IMetrics iMetrics = new NoopMetrics();
+
     public void setImplementation(ICtxManagerImpl anImpl) {
         iImpl = anImpl;
     }
@@ -323,4 +328,14 @@ public abstract class ContextManager implements IContextManager, Serializable {
         iNdc = aNdc;
     }
 
+    @Override
+    public IMetrics getMetrics() {
+        return iMetrics;
+    }
+
+    @Override
+    public void setMetrics(IMetrics aMetrics) {
+        iMetrics = aMetrics == null ? new NoopMetrics() : aMetrics;
+    }
+
 }
\ No newline at end of file
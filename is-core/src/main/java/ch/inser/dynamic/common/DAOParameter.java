@@ -76,6 +76,37 @@ public class DAOParameter {
          */
         ROWNUM_MAX,
 
+        /**
+         * Nombre de lignes lues par aller-retour à la base pour un curseur (Int)
+         */
+        FETCH_SIZE,
+
+        /**
+         * Pagination par seek: nombre de lignes de la page (Int). Active le tri avec l'identifiant comme dernier critère.
+         */
+        KEYSET_SIZE,
+
+        /**
+         * Pagination par seek: dernier record de la page précédente (IValueObject), absent pour la première page
+         */
+        KEYSET_AFTER,
+
+        /**
+         * Pagination par seek: nom du champ identifiant, dernier critère de tri (String)
+         */
+        KEYSET_ID,
+
+        /**
+         * Delete cascade: retourne les requêtes planifiées sans les exécuter (Boolean)
+         */
+        DRY_RUN,
+
+        /**
+         * Liste avec le nombre total de records de la requête dans IDAOResult.getNbrRecords, lu avec la page par COUNT(*) OVER(); si la
+         * fenêtre n'est pas possible, le nombre est la taille de la liste et seul getListCount donne le total (Boolean)
+         */
+        TOTAL_COUNT,
+
         /**
          * The transaction id.
          */
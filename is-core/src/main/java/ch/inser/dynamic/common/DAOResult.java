@@ -51,6 +51,11 @@ public class DAOResult implements IDAOResult {
      */
     private int iNbrRecords = Integer.MIN_VALUE;
 
+    /**
+     * The status of each record of a batch operation.
+     */
+    private List<Status> iRowStatuses;
+
     /**
      * Constructor.
      */
@@ -257,6 +262,39 @@ public class DAOResult implements IDAOResult {
         iNbrRecords = aNbrRecords;
     }
 
+    @Override
+    public List<Status> getRowStatuses() {
+        return iRowStatuses;
+    }
+
+    @Override
+    public void setRowStatuses(List<Status> aRowStatuses) {
+        iRowStatuses = aRowStatuses;
+    }
+
+    /**
+     * Result of a batch operation done record by record.
+     *
+     * @param aRowStatuses
+     *            the status of each record, in the order of the records
+     * @return status OK if every record is OK, otherwise the first other status; the number of OK records and the record statuses
+     */
+    public static IDAOResult getBatchResult(List<Status> aRowStatuses) {
+        Status status = aRowStatuses.isEmpty() ? Status.NOTHING_TODO : Status.OK;
+        int nbrRecords = 0;
+        for (Status rowStatus : aRowStatuses) {
+            if (rowStatus == Status.OK) {
+                nbrRecords++;
+            } else if (status == Status.OK) {
+                status = rowStatus;
+            }
+        }
+        IDAOResult result = new DAOResult(status);
+        result.setNbrRecords(nbrRecords);
+        result.setRowStatuses(aRowStatuses);
+        return result;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder(this.getClass().getName());
@@ -270,6 +308,10 @@ public class DAOResult implements IDAOResult {
         builder.append(iValueObject);
         builder.append(",list=");
         builder.append(iList);
+        if (iRowStatuses != null) {
+            builder.append(",row_statuses=");
+            builder.append(iRowStatuses);
+        }
         builder.append(']');
         return builder.toString();
     }
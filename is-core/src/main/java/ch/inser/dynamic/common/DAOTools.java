@@ -33,10 +33,9 @@ import java.util.Map;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.javaunderground.jdbc.StatementFactory;
-
 import ch.inser.dynamic.common.DynamicDAO.AttributeType;
 import ch.inser.dynamic.common.DynamicDAO.Operator;
+import ch.inser.dynaplus.sql.StatementFactory;
 import ch.inser.jsl.tools.NumberTools;
 
 /**
@@ -137,6 +136,42 @@ public abstract class DAOTools {
         }
     }
 
+    /**
+     * Retourne la valeur d'un attribut, les CLOB, SHAPE et BLOB sont retournés en LazyLob sans lire leur contenu.
+     *
+     * @param aProperty
+     *            Le nom de la propriété à lire.
+     * @param aType
+     *            Le type de la propriété à lire.
+     * @param aRs
+     *            Le ResultSet dans le quel lire.
+     *
+     * @return la valeur de la propriété demandé.
+     *
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données. Un erreur au niveau de la base de données.
+     */
+    public static Object getLazyFromRS(String aProperty, IValueObject.Type aType, ResultSet aRs) throws SQLException {
+        if (!isLob(aType)) {
+            return getFromRS(aProperty, aType, aRs);
+        }
+        if (aType == IValueObject.Type.BLOB) {
+            java.sql.Blob blob = aRs.getBlob(aProperty);
+            return blob == null ? null : new LazyLob(blob);
+        }
+        java.sql.Clob clob = aRs.getClob(aProperty);
+        return clob == null ? null : new LazyLob(clob);
+    }
+
+    /**
+     * @param aType
+     *            type d'une propriété
+     * @return true pour les types CLOB, SHAPE et BLOB
+     */
+    public static boolean isLob(IValueObject.Type aType) {
+        return aType == IValueObject.Type.CLOB || aType == IValueObject.Type.SHAPE || aType == IValueObject.Type.BLOB;
+    }
+
     /**
      * Ajoute une condition à la requête SQL (PreparedStatement).
      *
@@ -150,12 +185,30 @@ public abstract class DAOTools {
      *            La requête à la quelle ajouter les conditions.
      */
     public static void addClause(String aAttribute, Object aValue, AttributeType aOpString, StringBuilder aSql) {
+        addClause(aAttribute, aValue, aOpString, aSql, InListStrategy.EXACT);
+    }
+
+    /**
+     * Ajoute une condition à la requête SQL (PreparedStatement).
+     *
+     * @param aAttribute
+     *            Le nom de l'attribut.
+     * @param aValue
+     *            La valeur de la restriction, afin de pouvoir régler la notion de requête complexe
+     * @param aOpString
+     *            Choix de la recherche donné par la configuration de l'attribut
+     * @param aSql
+     *            La requête à la quelle ajouter les conditions.
+     * @param aInList
+     *            forme des listes IN et NOT IN, la même stratégie doit être passée à set
+     */
+    public static void addClause(String aAttribute, Object aValue, AttributeType aOpString, StringBuilder aSql, InListStrategy aInList) {
         AttributeType opAtt = aOpString;
         if (aOpString == null) {
             opAtt = AttributeType.EQUAL;
         }
         if (aValue instanceof Map<?, ?>) {
-            addMapClause(aAttribute, aValue, opAtt, aSql);
+            addMapClause(aAttribute, aValue, opAtt, aSql, aInList);
         } else {
             // Préparation des formatages du squelette de la requête SQL
             switch (opAtt) {
@@ -214,8 +267,10 @@ public abstract class DAOTools {
      *            type d'attribut
      * @param aSql
      *            la requête en construction
+     * @param aInList
+     *            forme des listes IN et NOT IN
      */
-    private static void addMapClause(String aAttribute, Object aValue, AttributeType aOpAtt, StringBuilder aSql) {
+    private static void addMapClause(String aAttribute, Object aValue, AttributeType aOpAtt, StringBuilder aSql, InListStrategy aInList) {
 
         Map<?, ?> valueMap = (Map<?, ?>) aValue;
         boolean isFirst = true;
@@ -286,23 +341,10 @@ public abstract class DAOTools {
                     break;
                 case IN:
                 case NOT_IN:
-                    int i = 0;
                     if (valueMap.get(key) instanceof List<?>) {
-                        i = ((List<?>) valueMap.get(key)).size();
-                        if (i > 0) {
-                            aSql.append(aAttribute);
-                            if (op == Operator.IN) {
-                                aSql.append(" IN (");
-                            } else {
-                                aSql.append(" NOT IN (");
-                            }
-                            for (int j = 1; j <= i; j++) {
-                                if (j < i && i >= 2) {
-                                    aSql.append("?,");
-                                } else {
-                                    aSql.append("?)");
-                                }
-                            }
+                        int size = ((List<?>) valueMap.get(key)).size();
+                        if (size > 0) {
+                            aInList.appendClause(aAttribute, op == Operator.NOT_IN, size, aSql);
                         }
                     }
                     if (valueMap.get(key) instanceof String) {
@@ -357,7 +399,7 @@ public abstract class DAOTools {
                         if (keyOr instanceof Operator) {
                             Map<Operator, Object> orClause = new EnumMap<>(Operator.class);
                             orClause.put((Operator) keyOr, valueMapOr.get(keyOr));
-                            addClause(aAttribute, orClause, aOpAtt, aSql);
+                            addClause(aAttribute, orClause, aOpAtt, aSql, aInList);
                         }
                     }
                     aSql.append(")");
@@ -394,7 +436,36 @@ public abstract class DAOTools {
      */
     public static int set(int aIdx, Object aValue, IValueObject.Type aType, DynamicDAO.AttributeType aAttType, PreparedStatement aPs)
             throws SQLException {
+        return set(aIdx, aValue, aType, aAttType, aPs, InListStrategy.EXACT);
+    }
+
+    /**
+     * Ajoute la valeur d'un attribut à un Preparated Statement.
+     *
+     * @param aIdx
+     *            L'index de l'attribut dans le Preparated Statement.
+     * @param aValue
+     *            La valeur de l'attribut dans le Preparated Statement.
+     * @param aType
+     *            Le type de l'attribut dans le Preparated Statement.
+     * @param aAttType
+     *            Choix de la recherche pour un string like, like_full ou equal
+     * @param aPs
+     *            Le Preparated Statement.
+     * @param aInList
+     *            forme des listes IN et NOT IN, celle passée à addClause
+     *
+     * @return Le prochain index à utiliser
+     *
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données. Un erreur au niveau de la base de données.
+     */
+    public static int set(int aIdx, Object aValue, IValueObject.Type aType, DynamicDAO.AttributeType aAttType, PreparedStatement aPs,
+            InListStrategy aInList) throws SQLException {
 
+        if (aValue instanceof LazyLob) {
+            return set(aIdx, ((LazyLob) aValue).getValue(), aType, aAttType, aPs, aInList);
+        }
         int idx = aIdx;
         if (aType == null) {
             RuntimeException e = new UnsupportedOperationException(
@@ -412,17 +483,14 @@ public abstract class DAOTools {
                 for (Object key : valueMap.keySet()) {
                     switch ((Operator) key) {
                         case OR:
-                            idx = set(idx, valueMap.get(key), aType, aAttType, aPs);
+                            idx = set(idx, valueMap.get(key), aType, aAttType, aPs, aInList);
                             break;
                         case IN:
                         case NOT_IN:
                             // c'est un IN
                             Object value = valueMap.get(key);
-                            if (value instanceof Collection<?>) {
-                                Collection<?> valueList = (Collection<?>) value;
-                                for (Object obj : valueList) {
-                                    idx = set(idx, obj, aType, AttributeType.EQUAL, aPs);
-                                }
+                            if (value instanceof Collection<?> && !((Collection<?>) value).isEmpty()) {
+                                idx = aInList.bind(idx, (Collection<?>) value, aType, aPs);
                             }
                             // value instanceof String
                             // Just do nothing all the informations are
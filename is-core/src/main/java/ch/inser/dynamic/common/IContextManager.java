@@ -25,6 +25,8 @@ import javax.sql.DataSource;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 
+import ch.inser.dynamic.metrics.IMetrics;
+import ch.inser.dynamic.metrics.NoopMetrics;
 import ch.inser.dynamic.quality.IQualityController;
 import ch.inser.dynamic.quality.IQualityTest;
 import ch.inser.jsl.logger.INdc;
@@ -201,4 +203,19 @@ public interface IContextManager {
      */
     public void setNdc(INdc aNdc);
 
+    /**
+     * @return les mesures des opérations d'accès aux données, NoopMetrics si aucune implémentation n'a été injectée
+     */
+    public default IMetrics getMetrics() {
+        return new NoopMetrics();
+    }
+
+    /**
+     * @param aMetrics
+     *            injection de l'implémentation des mesures, p.ex. HistogramMetrics
+     */
+    public default void setMetrics(IMetrics aMetrics) {
+        // Pas de mesure par défaut
+    }
+
 }
\ No newline at end of file
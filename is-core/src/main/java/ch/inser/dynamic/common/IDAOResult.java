@@ -218,4 +218,23 @@ public interface IDAOResult {
      * @return
      */
     public Timestamp getTimestamp();
+
+    /**
+     * Get the status of each record of a batch operation, in the order of the records.
+     *
+     * @return the record statuses, <code>null</code> if it is not the result of a batch operation
+     */
+    public default List<Status> getRowStatuses() {
+        return null;
+    }
+
+    /**
+     * Set the status of each record of a batch operation.
+     *
+     * @param aRowStatuses
+     *            the record statuses, in the order of the records
+     */
+    public default void setRowStatuses(List<Status> aRowStatuses) {
+        // Not kept by default
+    }
 }
@@ -0,0 +1,247 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.common;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import ch.inser.dynamic.common.DynamicDAO.AttributeType;
+import ch.inser.jsl.tools.NumberTools;
+
+/**
+ * Forme SQL des critères IN et NOT IN d'une liste de valeurs.
+ *
+ * Avec EXACT chaque taille de liste donne une requête différente, ce qui remplit les caches de requêtes du driver et de la base. PADDED
+ * arrondit le nombre de "?" à un palier (1, 4, 16, 64, 256, puis par 256) en répétant la dernière valeur, ARRAY lie toute la liste dans un
+ * seul paramètre tableau (PostgreSQL <code>= ANY(?)</code>), pour les types numériques, dates, booléens et uuid; les autres types, dont
+ * les chaînes qui peuvent être comparées à des colonnes enum ou char, passent en PADDED. Les listes de plus de IN_LIST_CHUNK_SIZE valeurs sont découpées en plusieurs
+ * IN liés par OR (NOT IN par AND), limite des listes Oracle.
+ *
+ * La stratégie est choisie par DAO, voir AbstractDynamicDAO.setInListStrategy.
+ *
+ * @author INSER SA
+ *
+ */
+public enum InListStrategy {
+
+    /** Un "?" par valeur, comportement historique */
+    EXACT,
+
+    /** Nombre de "?" arrondi au palier supérieur */
+    PADDED,
+
+    /** Un paramètre tableau, PostgreSQL */
+    ARRAY;
+
+    /** Nombre maximum de valeurs dans un IN (...) */
+    public static final int IN_LIST_CHUNK_SIZE = 1000;
+
+    /** Nombre maximum de paramètres liés dans une requête, sous la limite des drivers (PostgreSQL 32767) */
+    public static final int BIND_LIMIT = 32000;
+
+    /** Paliers de PADDED, au-delà le nombre est arrondi au multiple du dernier palier */
+    private static final int[] BUCKETS = { 1, 4, 16, 64, 256 };
+
+    /**
+     * Stratégie effective pour un type de valeurs, ARRAY devient PADDED si le type n'a pas de tableau SQL. Le critère et la liaison doivent
+     * utiliser la même stratégie effective.
+     *
+     * @param aType
+     *            type des valeurs
+     * @return la stratégie à utiliser pour ce type
+     */
+    public InListStrategy forType(IValueObject.Type aType) {
+        return this == ARRAY && getArrayTypeName(aType) == null ? PADDED : this;
+    }
+
+    /**
+     * Ajoute le critère à la requête
+     *
+     * @param aAttribute
+     *            nom du champ
+     * @param aNot
+     *            true pour NOT IN
+     * @param aSize
+     *            nombre de valeurs, plus grand que 0
+     * @param aSql
+     *            la requête en construction
+     * @see #forType(IValueObject.Type)
+     */
+    public void appendClause(String aAttribute, boolean aNot, int aSize, StringBuilder aSql) {
+        if (this == ARRAY) {
+            aSql.append(aAttribute);
+            aSql.append(aNot ? " <> ALL(?)" : " = ANY(?)");
+            return;
+        }
+        boolean chunked = aSize > IN_LIST_CHUNK_SIZE;
+        if (chunked) {
+            aSql.append('(');
+        }
+        for (int start = 0; start < aSize; start += IN_LIST_CHUNK_SIZE) {
+            if (start > 0) {
+                aSql.append(aNot ? " AND " : " OR ");
+            }
+            aSql.append(aAttribute);
+            aSql.append(aNot ? " NOT IN (" : " IN (");
+            int count = getPlaceholders(Math.min(IN_LIST_CHUNK_SIZE, aSize - start));
+            for (int i = 1; i < count; i++) {
+                aSql.append("?,");
+            }
+            aSql.append("?)");
+        }
+        if (chunked) {
+            aSql.append(')');
+        }
+    }
+
+    /**
+     * Lie les valeurs de la liste, dans l'ordre des "?" de appendClause
+     *
+     * @param aIdx
+     *            index du premier "?"
+     * @param aValues
+     *            valeurs de la liste
+     * @param aType
+     *            type des valeurs
+     * @param aPs
+     *            le PreparedStatement
+     * @return index du prochain "?"
+     * @throws SQLException
+     *             erreur de liaison
+     */
+    public int bind(int aIdx, Collection<?> aValues, IValueObject.Type aType, PreparedStatement aPs) throws SQLException {
+        InListStrategy strategy = forType(aType);
+        if (strategy != this) {
+            return strategy.bind(aIdx, aValues, aType, aPs);
+        }
+        int idx = aIdx;
+        if (this == ARRAY) {
+            Object[] values = new Object[aValues.size()];
+            int i = 0;
+            for (Object value : aValues) {
+                values[i++] = toArrayElement(value, aType);
+            }
+            aPs.setArray(idx, aPs.getConnection().createArrayOf(getArrayTypeName(aType), values));
+            return idx + 1;
+        }
+        List<?> values = aValues instanceof List<?> ? (List<?>) aValues : new ArrayList<>(aValues);
+        for (int start = 0; start < values.size(); start += IN_LIST_CHUNK_SIZE) {
+            int size = Math.min(IN_LIST_CHUNK_SIZE, values.size() - start);
+            int count = getPlaceholders(size);
+            for (int i = 0; i < count; i++) {
+                // Les "?" de remplissage répètent la dernière valeur du morceau, sans effet sur IN et NOT IN
+                idx = DAOTools.set(idx, values.get(start + Math.min(i, size - 1)), aType, AttributeType.EQUAL, aPs);
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * @param aSize
+     *            nombre de valeurs d'un morceau, au plus IN_LIST_CHUNK_SIZE
+     * @return nombre de "?" du morceau
+     */
+    int getPlaceholders(int aSize) {
+        if (this != PADDED) {
+            return aSize;
+        }
+        for (int bucket : BUCKETS) {
+            if (aSize <= bucket) {
+                return bucket;
+            }
+        }
+        int step = BUCKETS[BUCKETS.length - 1];
+        return Math.min(IN_LIST_CHUNK_SIZE, (aSize + step - 1) / step * step);
+    }
+
+    /**
+     * Nombre de valeurs d'une liste par requête, pour découper une requête dont la liste dépasse la limite des paramètres du driver
+     *
+     * @return nombre maximum de valeurs par requête
+     */
+    public int getMaxValues() {
+        return this == ARRAY ? Integer.MAX_VALUE : BIND_LIMIT;
+    }
+
+    /**
+     * @param aValue
+     *            nom de la stratégie, p.ex. la valeur appinfo inlist
+     * @return la stratégie, null si aValue est null
+     */
+    public static InListStrategy parse(String aValue) {
+        return aValue == null ? null : valueOf(aValue.trim().toUpperCase());
+    }
+
+    /**
+     * @param aType
+     *            type des valeurs
+     * @return nom SQL du type des éléments du tableau, null si le type n'est pas lié en tableau
+     */
+    private static String getArrayTypeName(IValueObject.Type aType) {
+        if (aType == null) {
+            return null;
+        }
+        switch (aType) {
+            case LONG:
+                return "int8";
+            case INTEGER:
+                return "int4";
+            case DOUBLE:
+                return "float8";
+            case DATE:
+            case TIMESTAMP:
+                return "timestamp";
+            case TIME:
+                return "time";
+            case BOOLEAN:
+                return "bool";
+            case UUID:
+                return "uuid";
+            default:
+                // STRING: varchar[] n'a pas d'opérateur avec les colonnes enum
+                return null;
+        }
+    }
+
+    /**
+     * @param aValue
+     *            valeur de la liste
+     * @param aType
+     *            type des valeurs
+     * @return valeur convertie comme DAOTools.set
+     */
+    private static Object toArrayElement(Object aValue, IValueObject.Type aType) {
+        if (aValue == null) {
+            return null;
+        }
+        switch (aType) {
+            case LONG:
+                return NumberTools.getLong(aValue);
+            case DATE:
+            case TIMESTAMP:
+                if (aValue instanceof Timestamp) {
+                    return aValue;
+                }
+                return new Timestamp(((java.util.Date) aValue).getTime());
+            default:
+                return aValue;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import javax.sql.rowset.serial.SerialBlob;
+
+import ch.inser.jsl.exceptions.ISRuntimeException;
+
+/**
+ * Valeur d'une colonne CLOB, SHAPE ou BLOB lue à la demande. Le DAO garde seulement le locator du LOB; la valeur complète est chargée au
+ * premier appel de getValue, ou lue en flux avec getReader et getInputStream sans être gardée en mémoire.
+ *
+ * Le DAO ne retourne des LazyLob que dans un ValueObjectCursor (appinfo <code>lob</code> à <code>lazy</code>): le locator n'est valable
+ * que tant que la connexion (ou la transaction, selon la base) qui a lu la ligne est ouverte, c.-à-d. jusqu'à la fermeture du curseur.
+ * La valeur à garder au-delà doit être chargée avec getValue avant, elle est aussi chargée avant la sérialisation.
+ *
+ * @author INSER SA
+ *
+ */
+public class LazyLob implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = 5402291137866409188L;
+
+    /** Locator d'un CLOB, null si BLOB ou chargé */
+    private transient Clob iClob;
+
+    /** Locator d'un BLOB, null si CLOB ou chargé */
+    private transient Blob iBlob;
+
+    /** Valeur chargée: String pour un CLOB, Blob en mémoire pour un BLOB */
+    private Object iValue;
+
+    /**
+     * @param aClob
+     *            locator du CLOB
+     */
+    public LazyLob(Clob aClob) {
+        iClob = aClob;
+    }
+
+    /**
+     * @param aBlob
+     *            locator du BLOB
+     */
+    public LazyLob(Blob aBlob) {
+        iBlob = aBlob;
+    }
+
+    /**
+     * @return true si la valeur est chargée
+     */
+    public synchronized boolean isLoaded() {
+        return iClob == null && iBlob == null;
+    }
+
+    /**
+     * Charge la valeur au premier appel et libère le locator.
+     *
+     * @return String pour un CLOB ou un SHAPE, Blob en mémoire pour un BLOB, comme DAOTools.getFromRS
+     * @throws SQLException
+     *             erreur de lecture du LOB
+     */
+    public synchronized Object getValue() throws SQLException {
+        if (iClob != null) {
+            iValue = iClob.getSubString(1, (int) iClob.length());
+            iClob.free();
+            iClob = null;
+        } else if (iBlob != null) {
+            iValue = new SerialBlob(iBlob.getBytes(1, (int) iBlob.length()));
+            iBlob.free();
+            iBlob = null;
+        }
+        return iValue;
+    }
+
+    /**
+     * @return la taille en caractères (CLOB) ou en octets (BLOB)
+     * @throws SQLException
+     *             erreur de lecture du LOB
+     */
+    public synchronized long length() throws SQLException {
+        if (iClob != null) {
+            return iClob.length();
+        }
+        if (iBlob != null) {
+            return iBlob.length();
+        }
+        if (iValue instanceof String) {
+            return ((String) iValue).length();
+        }
+        return ((Blob) iValue).length();
+    }
+
+    /**
+     * Lecture en flux d'un CLOB, la valeur n'est pas chargée
+     *
+     * @return reader sur le contenu
+     * @throws SQLException
+     *             erreur de lecture du LOB
+     */
+    public synchronized Reader getReader() throws SQLException {
+        if (iClob != null) {
+            return iClob.getCharacterStream();
+        }
+        return new StringReader((String) iValue);
+    }
+
+    /**
+     * Lecture en flux d'un BLOB, la valeur n'est pas chargée
+     *
+     * @return stream sur le contenu
+     * @throws SQLException
+     *             erreur de lecture du LOB
+     */
+    public synchronized InputStream getInputStream() throws SQLException {
+        if (iBlob != null) {
+            return iBlob.getBinaryStream();
+        }
+        if (iClob != null) {
+            return iClob.getAsciiStream();
+        }
+        if (iValue instanceof Blob) {
+            return ((Blob) iValue).getBinaryStream();
+        }
+        return new ByteArrayInputStream(((String) iValue).getBytes());
+    }
+
+    /**
+     * Texte du CLOB, chargé si nécessaire
+     */
+    @Override
+    public String toString() {
+        try {
+            Object value = getValue();
+            return value instanceof String ? (String) value : "BLOB";
+        } catch (SQLException e) {
+            throw new ISRuntimeException("Erreur de lecture du LOB", e);
+        }
+    }
+
+    /**
+     * Deux LazyLob sont égaux si leurs valeurs chargées le sont
+     */
+    @Override
+    public boolean equals(Object aObject) {
+        if (this == aObject) {
+            return true;
+        }
+        if (!(aObject instanceof LazyLob)) {
+            return false;
+        }
+        try {
+            return Objects.equals(getValue(), ((LazyLob) aObject).getValue());
+        } catch (SQLException e) {
+            throw new ISRuntimeException("Erreur de lecture du LOB", e);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        try {
+            return Objects.hashCode(getValue());
+        } catch (SQLException e) {
+            throw new ISRuntimeException("Erreur de lecture du LOB", e);
+        }
+    }
+
+    /**
+     * Charge la valeur, le locator n'est pas sérialisable
+     *
+     * @param aStream
+     *            stream de sérialisation
+     * @throws IOException
+     *             erreur d'écriture ou de lecture du LOB
+     */
+    private void writeObject(ObjectOutputStream aStream) throws IOException {
+        try {
+            getValue();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+        aStream.defaultWriteObject();
+    }
+}
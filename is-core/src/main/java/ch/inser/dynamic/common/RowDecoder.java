@@ -0,0 +1,250 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.common;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Décodeur des lignes d'un ResultSet en value object. Les positions des colonnes et le lecteur de chaque type sont résolus une fois, à
+ * partir du ResultSetMetaData; chaque ligne est ensuite lue par index, sans recherche de colonne par nom.
+ *
+ * Les valeurs lues sont les mêmes que celles de DAOTools.getFromRS. Une propriété sans colonne ou sans type est lue par nom comme avant,
+ * pour garder les mêmes erreurs.
+ *
+ * @author INSER SA
+ *
+ */
+final class RowDecoder {
+
+    /** Définition de la catégorie de logging */
+    private static final Log logger = LogFactory.getLog(RowDecoder.class);
+
+    /**
+     * Lecture d'une colonne
+     */
+    private interface ColumnReader {
+
+        /**
+         * @param aRs
+         *            ResultSet positionné sur la ligne
+         * @param aColumn
+         *            index de la colonne
+         * @return la valeur de la colonne
+         * @throws SQLException
+         *             erreur de lecture
+         */
+        Object read(ResultSet aRs, int aColumn) throws SQLException;
+    }
+
+    /** Noms des propriétés du vo */
+    private final String[] iProperties;
+
+    /** Noms des colonnes, pour les messages et la lecture par nom */
+    private final String[] iColumns;
+
+    /** Types des propriétés */
+    private final IValueObject.Type[] iTypes;
+
+    /** Index des colonnes, 0 pour lire par nom */
+    private final int[] iIndexes;
+
+    /** Lecteurs par propriété */
+    private final ColumnReader[] iReaders;
+
+    /**
+     * @param aProperties
+     *            noms des propriétés du vo
+     * @param aColumns
+     *            noms des colonnes à lire, dans le même ordre
+     * @param aTypes
+     *            types des propriétés, dans le même ordre
+     * @param aMetaData
+     *            description du résultat de la requête
+     * @throws SQLException
+     *             erreur de lecture de la description
+     */
+    RowDecoder(List<String> aProperties, List<String> aColumns, List<IValueObject.Type> aTypes, ResultSetMetaData aMetaData)
+            throws SQLException {
+        this(aProperties, aColumns, aTypes, aMetaData, false);
+    }
+
+    /**
+     * @param aProperties
+     *            noms des propriétés du vo
+     * @param aColumns
+     *            noms des colonnes à lire, dans le même ordre
+     * @param aTypes
+     *            types des propriétés, dans le même ordre
+     * @param aMetaData
+     *            description du résultat de la requête
+     * @param aLazyLobs
+     *            true pour lire les CLOB, SHAPE et BLOB en LazyLob, comme DAOTools.getLazyFromRS
+     * @throws SQLException
+     *             erreur de lecture de la description
+     */
+    RowDecoder(List<String> aProperties, List<String> aColumns, List<IValueObject.Type> aTypes, ResultSetMetaData aMetaData,
+            boolean aLazyLobs) throws SQLException {
+        int size = aProperties.size();
+        iProperties = aProperties.toArray(new String[size]);
+        iColumns = aColumns.toArray(new String[size]);
+        iTypes = aTypes.toArray(new IValueObject.Type[size]);
+        iIndexes = new int[size];
+        iReaders = new ColumnReader[size];
+
+        // Comme ResultSet.findColumn: libellé sans tenir compte de la casse, première colonne trouvée
+        Map<String, Integer> labels = new HashMap<>();
+        for (int i = aMetaData.getColumnCount(); i > 0; i--) {
+            labels.put(aMetaData.getColumnLabel(i).toLowerCase(), i);
+        }
+        for (int i = 0; i < size; i++) {
+            Integer idx = labels.get(iColumns[i].toLowerCase());
+            if (idx != null && iTypes[i] != null) {
+                iIndexes[i] = idx;
+                iReaders[i] = aLazyLobs && DAOTools.isLob(iTypes[i]) ? getLazyReader(iTypes[i]) : getReader(iTypes[i]);
+            }
+        }
+    }
+
+    /**
+     * Remplit un vo avec la ligne courante
+     *
+     * @param aVo
+     *            vo vide
+     * @param aRs
+     *            ResultSet positionné sur la ligne
+     * @return le vo
+     * @throws SQLException
+     *             erreur de lecture
+     */
+    IValueObject decode(IValueObject aVo, ResultSet aRs) throws SQLException {
+        AbstractDynamicVO vo = aVo instanceof AbstractDynamicVO ? (AbstractDynamicVO) aVo : null;
+        for (int i = 0; i < iProperties.length; i++) {
+            if (iReaders[i] == null) {
+                setProperty(aVo, vo, iProperties[i], DAOTools.getFromRS(iColumns[i], iTypes[i], aRs));
+                continue;
+            }
+            try {
+                setProperty(aVo, vo, iProperties[i], iReaders[i].read(aRs, iIndexes[i]));
+            } catch (RuntimeException | SQLException e) {
+                logger.error("Erreur en lisant la propriété '" + iColumns[i] + "' de type '" + iTypes[i] + "' dans le ResultSet", e);
+                throw e;
+            }
+        }
+        return aVo;
+    }
+
+    /**
+     * @param aVo
+     *            vo à remplir
+     * @param aDynamicVo
+     *            le même vo s'il est un AbstractDynamicVO, sinon null
+     * @param aName
+     *            nom de la propriété
+     * @param aValue
+     *            valeur lue
+     */
+    private static void setProperty(IValueObject aVo, AbstractDynamicVO aDynamicVo, String aName, Object aValue) {
+        if (aDynamicVo != null) {
+            aDynamicVo.setLoadedProperty(aName, aValue);
+        } else {
+            aVo.setProperty(aName, aValue);
+        }
+    }
+
+    /**
+     * @param aType
+     *            type CLOB, SHAPE ou BLOB
+     * @return le lecteur du LOB sans son contenu
+     */
+    private static ColumnReader getLazyReader(IValueObject.Type aType) {
+        if (aType == IValueObject.Type.BLOB) {
+            return (aRs, aColumn) -> {
+                java.sql.Blob blob = aRs.getBlob(aColumn);
+                return blob == null ? null : new LazyLob(blob);
+            };
+        }
+        return (aRs, aColumn) -> {
+            java.sql.Clob clob = aRs.getClob(aColumn);
+            return clob == null ? null : new LazyLob(clob);
+        };
+    }
+
+    /**
+     * @param aType
+     *            type de la propriété
+     * @return le lecteur du type, comme DAOTools.getFromRS
+     */
+    private static ColumnReader getReader(IValueObject.Type aType) {
+        switch (aType) {
+            case LIST:
+                return (aRs, aColumn) -> null;
+            case STRING:
+                return ResultSet::getString;
+            case LONG:
+                return (aRs, aColumn) -> {
+                    long lg = aRs.getLong(aColumn);
+                    return aRs.wasNull() ? null : Long.valueOf(lg);
+                };
+            case DOUBLE:
+                return (aRs, aColumn) -> {
+                    double db = aRs.getDouble(aColumn);
+                    return aRs.wasNull() ? null : Double.valueOf(db);
+                };
+            case DATE:
+                return (aRs, aColumn) -> {
+                    Timestamp ts = aRs.getTimestamp(aColumn);
+                    return ts == null ? null : new java.sql.Date(ts.getTime());
+                };
+            case TIMESTAMP:
+                return ResultSet::getTimestamp;
+            case BYTES:
+                return ResultSet::getBytes;
+            case TIME:
+                return ResultSet::getTime;
+            case BOOLEAN:
+                return (aRs, aColumn) -> {
+                    boolean tmp = aRs.getBoolean(aColumn);
+                    return aRs.wasNull() ? null : tmp;
+                };
+            case BLOB:
+                return ResultSet::getBlob;
+            case CLOB:
+            case SHAPE:
+                return (aRs, aColumn) -> {
+                    java.sql.Clob clob = aRs.getClob(aColumn);
+                    if (clob == null) {
+                        return null;
+                    }
+                    return clob.getSubString(1, (int) clob.length());
+                };
+            case UUID:
+            case JSON:
+                return ResultSet::getObject;
+            default:
+                // Lu par nom, DAOTools.getFromRS signale le type inconnu
+                return null;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.inser.dynamic.common.DynamicDAO.AttributeType;
+import ch.inser.dynamic.common.IValueObject.Type;
+
+/**
+ * Cache des plans de requêtes SQL d'un DAO.
+ *
+ * Un plan contient le texte SQL terminé (avec des "?") et la liste ordonnée des attributs à lier au PreparedStatement. Les plans sont
+ * indexés par la forme de la requête (tables, attributs, critères non nuls et leurs opérateurs, tri, clause de sécurité) et le cache est
+ * borné: le plan utilisé le moins récemment est supprimé quand la taille maximale est atteinte.
+ *
+ * @author INSER SA
+ *
+ */
+public class StatementPlanCache {
+
+    /**
+     * Plan d'une requête: SQL et liaisons des paramètres
+     */
+    public static class Plan {
+
+        /** Requête SQL avec des "?" */
+        private final String iSql;
+
+        /** Liaisons des "?" de la requête, dans l'ordre */
+        private final List<Binder> iBinders;
+
+        /**
+         * @param aSql
+         *            requête SQL avec des "?"
+         * @param aBinders
+         *            liaisons des "?" dans l'ordre de la requête
+         */
+        public Plan(String aSql, List<Binder> aBinders) {
+            iSql = aSql;
+            iBinders = Collections.unmodifiableList(new ArrayList<>(aBinders));
+        }
+
+        /**
+         * @return requête SQL avec des "?"
+         */
+        public String getSql() {
+            return iSql;
+        }
+
+        /**
+         * @return liaisons des "?" dans l'ordre de la requête
+         */
+        public List<Binder> getBinders() {
+            return iBinders;
+        }
+    }
+
+    /**
+     * Liaison d'un attribut du vo requête à un "?" de la requête
+     */
+    public static class Binder {
+
+        /** Nom de l'attribut */
+        private final String iAttribute;
+
+        /** Type de l'attribut */
+        private final Type iType;
+
+        /** Type de recherche */
+        private final AttributeType iSearchType;
+
+        /**
+         * @param aAttribute
+         *            nom de l'attribut
+         * @param aType
+         *            type de l'attribut
+         * @param aSearchType
+         *            type de recherche
+         */
+        public Binder(String aAttribute, Type aType, AttributeType aSearchType) {
+            iAttribute = aAttribute;
+            iType = aType;
+            iSearchType = aSearchType;
+        }
+
+        /**
+         * @return nom de l'attribut
+         */
+        public String getAttribute() {
+            return iAttribute;
+        }
+
+        /**
+         * @return type de l'attribut
+         */
+        public Type getType() {
+            return iType;
+        }
+
+        /**
+         * @return type de recherche
+         */
+        public AttributeType getSearchType() {
+            return iSearchType;
+        }
+    }
+
+    /** Plans par forme de requête, ordre d'accès pour l'éviction */
+    private final Map<Object, Plan> iPlans;
+
+    /** Nombre maximal de plans */
+    private final int iMaxSize;
+
+    /** Nombre de plans trouvés dans le cache */
+    private final AtomicLong iHits = new AtomicLong();
+
+    /** Nombre de plans non trouvés dans le cache */
+    private final AtomicLong iMisses = new AtomicLong();
+
+    /**
+     * @param aMaxSize
+     *            nombre maximal de plans gardés dans le cache
+     */
+    public StatementPlanCache(int aMaxSize) {
+        if (aMaxSize <= 0) {
+            throw new IllegalArgumentException("Plan cache size must be positive: " + aMaxSize);
+        }
+        iMaxSize = aMaxSize;
+        iPlans = new LinkedHashMap<Object, Plan>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Plan> aEldest) {
+                return size() > iMaxSize;
+            }
+        };
+    }
+
+    /**
+     * Cherche un plan et met à jour les compteurs
+     *
+     * @param aKey
+     *            forme de la requête
+     * @return le plan ou <code>null</code> s'il n'est pas dans le cache
+     */
+    public Plan get(Object aKey) {
+        Plan plan;
+        synchronized (iPlans) {
+            plan = iPlans.get(aKey);
+        }
+        if (plan == null) {
+            iMisses.incrementAndGet();
+        } else {
+            iHits.incrementAndGet();
+        }
+        return plan;
+    }
+
+    /**
+     * Ajoute un plan au cache
+     *
+     * @param aKey
+     *            forme de la requête
+     * @param aPlan
+     *            le plan
+     */
+    public void put(Object aKey, Plan aPlan) {
+        synchronized (iPlans) {
+            iPlans.put(aKey, aPlan);
+        }
+    }
+
+    /**
+     * Vide le cache, les compteurs sont gardés
+     */
+    public void clear() {
+        synchronized (iPlans) {
+            iPlans.clear();
+        }
+    }
+
+    /**
+     * @return nombre de plans dans le cache
+     */
+    public int size() {
+        synchronized (iPlans) {
+            return iPlans.size();
+        }
+    }
+
+    /**
+     * @return nombre maximal de plans
+     */
+    public int getMaxSize() {
+        return iMaxSize;
+    }
+
+    /**
+     * @return nombre de plans trouvés dans le cache
+     */
+    public long getHits() {
+        return iHits.get();
+    }
+
+    /**
+     * @return nombre de plans non trouvés dans le cache
+     */
+    public long getMisses() {
+        return iMisses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StatementPlanCache[size=" + size() + "/" + iMaxSize + ", hits=" + getHits() + ", misses=" + getMisses() + "]";
+    }
+}
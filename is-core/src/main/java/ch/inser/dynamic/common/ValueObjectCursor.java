@@ -0,0 +1,186 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.common;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Curseur sur le résultat d'une requête de liste. Les records sont lus au fur et à mesure dans le ResultSet (forward only) et un vo est
+ * créé par record lu, aucun record n'est gardé par le curseur.
+ *
+ * Le curseur doit être fermé (try-with-resources) pour libérer le ResultSet, le PreparedStatement et, s'il en est propriétaire, la
+ * connexion. Il est aussi fermé automatiquement après le dernier record.
+ *
+ * @author INSER SA
+ *
+ */
+public class ValueObjectCursor implements Iterator<IValueObject>, AutoCloseable {
+
+    /** Définition de la catégorie de logging */
+    private static final Log logger = LogFactory.getLog(ValueObjectCursor.class);
+
+    /** DAO pour remplir les vos */
+    private final AbstractDynamicDAO iDao;
+
+    /** Requête exécutée */
+    private final PreparedStatement iStatement;
+
+    /** Résultat de la requête */
+    private final ResultSet iResultSet;
+
+    /** Colonnes du résultat */
+    private final List<String> iColumns;
+
+    /** Attributs à remplir, null pour tous */
+    private final Collection<String> iAttributes;
+
+    /** Vo vide pour créer les vos du résultat */
+    private final IValueObject iVoEmpty;
+
+    /** Décodeur des lignes, null si les vos sont remplis par fillRecord */
+    private final RowDecoder iDecoder;
+
+    /** Connexion fermée avec le curseur, null si la connexion appartient à l'appelant */
+    private Connection iConnection;
+
+    /** Résultat du dernier rs.next() pas encore consommé, null s'il faut avancer */
+    private Boolean iHasNext;
+
+    /** Curseur fermé */
+    private boolean iClosed;
+
+    /**
+     * @param aDao
+     *            DAO pour remplir les vos
+     * @param aStatement
+     *            requête exécutée
+     * @param aResultSet
+     *            résultat de la requête
+     * @param aAttributes
+     *            attributs à remplir, null pour tous
+     * @param aVo
+     *            vo pour créer les vos du résultat
+     * @throws SQLException
+     *             erreur de lecture des colonnes
+     */
+    protected ValueObjectCursor(AbstractDynamicDAO aDao, PreparedStatement aStatement, ResultSet aResultSet, Collection<String> aAttributes,
+            IValueObject aVo) throws SQLException {
+        iDao = aDao;
+        iStatement = aStatement;
+        iResultSet = aResultSet;
+        iAttributes = aAttributes;
+        iColumns = DAOTools.getColumns(aResultSet);
+        iVoEmpty = (IValueObject) aVo.clone();
+        iVoEmpty.clear();
+        iDecoder = aDao.getRowDecoder(iVoEmpty, aAttributes, aResultSet, iColumns, aDao.isLazyLobs());
+    }
+
+    /**
+     * Donne la connexion au curseur, elle sera fermée avec lui.
+     *
+     * @param aConnection
+     *            connexion utilisée par la requête
+     */
+    public void setConnection(Connection aConnection) {
+        iConnection = aConnection;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (iClosed) {
+            return false;
+        }
+        if (iHasNext == null) {
+            try {
+                iHasNext = iResultSet.next();
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException(e);
+            }
+            if (!iHasNext) {
+                close();
+            }
+        }
+        return iHasNext;
+    }
+
+    @Override
+    public IValueObject next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        iHasNext = null;
+        try {
+            if (iDecoder != null) {
+                return iDecoder.decode((IValueObject) iVoEmpty.clone(), iResultSet);
+            }
+            return iDao.fillRecord((IValueObject) iVoEmpty.clone(), iAttributes, iResultSet, iColumns).getValueObject();
+        } catch (SQLException e) {
+            close();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return les records du curseur dans un stream, la fermeture du stream ferme le curseur
+     */
+    public Stream<IValueObject> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Ferme le ResultSet, le PreparedStatement et la connexion du curseur.
+     */
+    @Override
+    public void close() {
+        if (iClosed) {
+            return;
+        }
+        iClosed = true;
+        try {
+            iResultSet.close();
+        } catch (SQLException e) {
+            logger.error("SQLException :", e);
+        }
+        try {
+            iStatement.close();
+        } catch (SQLException e) {
+            logger.error("SQLException :", e);
+        }
+        if (iConnection != null) {
+            try {
+                iConnection.close();
+            } catch (SQLException e) {
+                logger.error("SQLException :", e);
+            }
+        }
+    }
+}
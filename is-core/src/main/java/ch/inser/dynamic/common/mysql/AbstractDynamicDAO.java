@@ -37,6 +37,7 @@ import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
 import ch.inser.dynamic.util.JoinInfo;
+import ch.inser.dynaplus.sql.StatementFactory;
 import ch.inser.jsl.list.ListHandler;
 import ch.inser.jsl.tools.StringTools;
 
@@ -66,7 +67,7 @@ public abstract class AbstractDynamicDAO extends ch.inser.dynamic.common.Abstrac
         String nextId = null;
 
         try (PreparedStatement ps = getPreparedStatement(sql, aConnection)) {
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 // Update de la table des séquences!
             }
@@ -76,12 +77,12 @@ public abstract class AbstractDynamicDAO extends ch.inser.dynamic.common.Abstrac
         sql.append("SELECT SEQ_VAL FROM SEQUENCE WHERE SEQ_NOM_TABLE='");
         sql.append(aSequence.toLowerCase());
         sql.append("'");
-        // Utilise un PreparedStatement de type DebuggableStatement
+        // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
         try (PreparedStatement ps = getPreparedStatement(sql, aConnection)) {
             ps.setMaxRows(1);
 
             // Exécute le requête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     nextId = rs.getString(1);
@@ -120,6 +121,14 @@ public abstract class AbstractDynamicDAO extends ch.inser.dynamic.common.Abstrac
      */
     protected abstract Object getNextId(String aSequence, IValueObject.Type aIdType) throws SQLException;
 
+    /**
+     * Pas de bloc de séquence dans mySQL, les IDs sont cherchés un à un avec getNextId
+     */
+    @Override
+    protected String getNextIdsQuery() {
+        return null;
+    }
+
     /**
      * Crée un nouveau record pour une entité.
      *
@@ -188,14 +197,14 @@ public abstract class AbstractDynamicDAO extends ch.inser.dynamic.common.Abstrac
 
         PreparedStatement ps = null;
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = getPreparedStatement(sql, aConnection);
             ps.setMaxRows(1);
 
             setRecord(aVo, ps, Mode.CREATE, null);
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             int rowCount = ps.executeUpdate();
 
             IDAOResult result = new DAOResult();
@@ -323,7 +332,7 @@ public abstract class AbstractDynamicDAO extends ch.inser.dynamic.common.Abstrac
         int rowCount = 0;
 
         try {
-            // Utilise un PreparedStatement de type DebuggableStatement
+            // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
             ps = getPreparedStatement(sql, aConnection);
             ps.setMaxRows(1);
 
@@ -352,7 +361,7 @@ public abstract class AbstractDynamicDAO extends ch.inser.dynamic.common.Abstrac
             addValuesDeleteUpdate(idx, aIdValue, aTimestValue, ps, aTypes.get(aTimestName));
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             rowCount = ps.executeUpdate();
 
         } catch (SQLException e) {
@@ -726,7 +735,7 @@ public abstract class AbstractDynamicDAO extends ch.inser.dynamic.common.Abstrac
             }
 
             // Exécute le reqête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
 
                 while (rs.next()) {
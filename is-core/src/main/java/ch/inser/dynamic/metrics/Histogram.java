@@ -0,0 +1,155 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.metrics;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de valeurs positives à précision relative fixe, comme HdrHistogram: chaque puissance de 2 est découpée en SUB_BUCKETS
+ * intervalles égaux, soit une erreur d'au plus 1/SUB_BUCKETS (12.5%) sur les percentiles. Les valeurs sous 2^40 (12 jours en
+ * microsecondes) tiennent dans 304 compteurs; au-delà elles sont comptées dans le dernier.
+ *
+ * L'enregistrement est sans verrou; une lecture pendant des enregistrements peut être décalée de quelques valeurs.
+ *
+ * @author INSER SA
+ *
+ */
+final class Histogram implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = 7780934207163462418L;
+
+    /** Bits de précision par puissance de 2 */
+    private static final int SUB_BITS = 3;
+
+    /** Intervalles par puissance de 2 */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Plus grande puissance de 2 distinguée */
+    private static final int MAX_BITS = 40;
+
+    /** Nombre de compteurs */
+    private static final int BUCKETS = (MAX_BITS - SUB_BITS + 1) * SUB_BUCKETS;
+
+    /** Compteurs par intervalle */
+    private final AtomicLongArray iCounts = new AtomicLongArray(BUCKETS);
+
+    /** Nombre de valeurs */
+    private final LongAdder iCount = new LongAdder();
+
+    /** Somme des valeurs */
+    private final LongAdder iSum = new LongAdder();
+
+    /** Plus grande valeur */
+    private final AtomicLong iMax = new AtomicLong();
+
+    /**
+     * @param aValue
+     *            valeur à enregistrer, les valeurs négatives comptent pour 0
+     */
+    void record(long aValue) {
+        long value = Math.max(aValue, 0);
+        iCounts.incrementAndGet(index(value));
+        iCount.increment();
+        iSum.add(value);
+        if (value > iMax.get()) {
+            iMax.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * @return nombre de valeurs
+     */
+    long getCount() {
+        return iCount.sum();
+    }
+
+    /**
+     * @return somme des valeurs
+     */
+    long getSum() {
+        return iSum.sum();
+    }
+
+    /**
+     * @return plus grande valeur
+     */
+    long getMax() {
+        return iMax.get();
+    }
+
+    /**
+     * @param aPercentile
+     *            percentile entre 0 et 100
+     * @return borne supérieure de l'intervalle du percentile, au plus la plus grande valeur; 0 si vide
+     */
+    long getPercentile(double aPercentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = iCounts.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(aPercentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @param aValue
+     *            valeur positive
+     * @return index du compteur de la valeur
+     */
+    static int index(long aValue) {
+        if (aValue < SUB_BUCKETS) {
+            return (int) aValue;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(aValue) - SUB_BITS;
+        int idx = (shift + 1) * SUB_BUCKETS + (int) ((aValue >>> shift) & (SUB_BUCKETS - 1));
+        return Math.min(idx, BUCKETS - 1);
+    }
+
+    /**
+     * @param aIndex
+     *            index d'un compteur
+     * @return plus grande valeur comptée par le compteur
+     */
+    static long highestValue(int aIndex) {
+        if (aIndex < SUB_BUCKETS) {
+            return aIndex;
+        }
+        if (aIndex == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        int shift = aIndex / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + aIndex % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.metrics;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures en mémoire: un histogramme des durées en microsecondes et des totaux de lignes et de LOB par objet métier et opération. Les
+ * compteurs sont créés à la première mesure d'une opération.
+ *
+ * <pre>
+ * ctx.setMetrics(new HistogramMetrics());
+ * ...
+ * for (MetricsSnapshot snapshot : ctx.getMetrics().getSnapshots()) {
+ *     logger.info(snapshot);
+ * }
+ * </pre>
+ *
+ * @author INSER SA
+ *
+ */
+public class HistogramMetrics implements IMetrics, Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = 2816390751248703972L;
+
+    /** Percentiles des snapshots */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    /**
+     * Mesures d'une opération
+     */
+    private static final class Stats implements Serializable {
+
+        /**
+         * Serial Version UID
+         */
+        private static final long serialVersionUID = 4127529170731650334L;
+
+        /** Durées en microsecondes */
+        private final Histogram iLatency = new Histogram();
+
+        /** Lignes retournées ou modifiées */
+        private final LongAdder iRows = new LongAdder();
+
+        /** Taille des LOB lus */
+        private final LongAdder iLobBytes = new LongAdder();
+    }
+
+    /** Mesures par objet métier et opération */
+    private final ConcurrentMap<String, ConcurrentMap<Operation, Stats>> iStats = new ConcurrentHashMap<>();
+
+    /** Appels au driver évités par les connexions */
+    private LongAdder iSavedCalls = new LongAdder();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void record(String aEntity, Operation aOperation, long aNanos, long aRows) {
+        Stats stats = getStats(aEntity, aOperation);
+        stats.iLatency.record(TimeUnit.NANOSECONDS.toMicros(aNanos));
+        if (aRows > 0) {
+            stats.iRows.add(aRows);
+        }
+    }
+
+    @Override
+    public void recordLobBytes(String aEntity, Operation aOperation, long aBytes) {
+        if (aBytes > 0) {
+            getStats(aEntity, aOperation).iLobBytes.add(aBytes);
+        }
+    }
+
+    @Override
+    public void recordPoolWait(String aEntity, long aNanos) {
+        record(aEntity, Operation.POOL_WAIT, aNanos, 0);
+    }
+
+    @Override
+    public void recordSavedCalls(long aCalls) {
+        if (aCalls > 0) {
+            iSavedCalls.add(aCalls);
+        }
+    }
+
+    @Override
+    public long getSavedCalls() {
+        return iSavedCalls.sum();
+    }
+
+    @Override
+    public List<MetricsSnapshot> getSnapshots() {
+        List<MetricsSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentMap<Operation, Stats>> entity : new TreeMap<>(iStats).entrySet()) {
+            Map<Operation, Stats> operations = new EnumMap<>(Operation.class);
+            operations.putAll(entity.getValue());
+            for (Map.Entry<Operation, Stats> operation : operations.entrySet()) {
+                Stats stats = operation.getValue();
+                long[] percentiles = new long[PERCENTILES.length];
+                for (int i = 0; i < PERCENTILES.length; i++) {
+                    percentiles[i] = stats.iLatency.getPercentile(PERCENTILES[i]);
+                }
+                snapshots.add(new MetricsSnapshot(entity.getKey(), operation.getKey(), stats.iLatency.getCount(), stats.iLatency.getSum(),
+                        stats.iLatency.getMax(), percentiles, stats.iRows.sum(), stats.iLobBytes.sum()));
+            }
+        }
+        return snapshots;
+    }
+
+    @Override
+    public void reset() {
+        iStats.clear();
+        iSavedCalls.reset();
+    }
+
+    /**
+     * Compteur des appels évités absent des mesures sérialisées par une version précédente
+     *
+     * @param aStream
+     *            stream de désérialisation
+     * @throws IOException
+     *             erreur de lecture
+     * @throws ClassNotFoundException
+     *             classe inconnue
+     */
+    private void readObject(ObjectInputStream aStream) throws IOException, ClassNotFoundException {
+        aStream.defaultReadObject();
+        if (iSavedCalls == null) {
+            iSavedCalls = new LongAdder();
+        }
+    }
+
+    /**
+     * @param aEntity
+     *            nom de l'objet métier
+     * @param aOperation
+     *            opération
+     * @return les mesures de l'opération, créées si besoin
+     */
+    private Stats getStats(String aEntity, Operation aOperation) {
+        ConcurrentMap<Operation, Stats> operations = iStats.get(aEntity);
+        if (operations == null) {
+            operations = iStats.computeIfAbsent(aEntity, aKey -> new ConcurrentHashMap<>());
+        }
+        Stats stats = operations.get(aOperation);
+        return stats != null ? stats : operations.computeIfAbsent(aOperation, aKey -> new Stats());
+    }
+}
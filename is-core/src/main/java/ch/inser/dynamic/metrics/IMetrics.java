@@ -0,0 +1,148 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.metrics;
+
+import java.util.List;
+
+/**
+ * Mesures des opérations d'accès aux données, par objet métier et par opération. Une implémentation est injectée dans le contextmanager
+ * (IContextManager.setMetrics); par défaut NoopMetrics ne mesure rien.
+ *
+ * Les méthodes record sont appelées à chaque opération et doivent être rapides et thread-safe. Les appelants testent isEnabled avant de
+ * calculer une mesure coûteuse, p.ex. la taille des LOB lus.
+ *
+ * Les mesures sont prises dans AbstractBusinessProcess, qui obtient la connexion et couvre toute l'opération (droits, enfants, cascade).
+ * Les appels faits directement sur un objet métier ou un DAO, p.ex. d'un objet métier à un autre, ne sont pas mesurés: les mesurer aussi
+ * compterait plusieurs fois les opérations imbriquées.
+ *
+ * @author INSER SA
+ *
+ */
+public interface IMetrics {
+
+    /**
+     * Opérations mesurées
+     */
+    public enum Operation {
+
+        /** Liste d'enregistrements */
+        GET_LIST(true),
+
+        /** Un enregistrement */
+        GET_RECORD(true),
+
+        /** Création */
+        CREATE(false),
+
+        /** Mise à jour */
+        UPDATE(false),
+
+        /** Suppression */
+        DELETE(false),
+
+        /** Requête de count */
+        COUNT(true),
+
+        /** Attente d'une connexion du pool, avant l'opération */
+        POOL_WAIT(true);
+
+        /** Lecture: les lignes comptées sont retournées, sinon modifiées */
+        private final boolean iRead;
+
+        /**
+         * @param aRead
+         *            true pour une lecture
+         */
+        private Operation(boolean aRead) {
+            iRead = aRead;
+        }
+
+        /**
+         * @return true si les lignes de l'opération sont des lignes retournées, false pour des lignes modifiées
+         */
+        public boolean isRead() {
+            return iRead;
+        }
+    }
+
+    /**
+     * @return false si les mesures ne sont pas enregistrées
+     */
+    public boolean isEnabled();
+
+    /**
+     * Enregistre une opération
+     *
+     * @param aEntity
+     *            nom de l'objet métier
+     * @param aOperation
+     *            opération
+     * @param aNanos
+     *            durée en nanosecondes
+     * @param aRows
+     *            nombre de lignes retournées ou modifiées
+     */
+    public void record(String aEntity, Operation aOperation, long aNanos, long aRows);
+
+    /**
+     * Enregistre la taille des LOB lus par une opération
+     *
+     * @param aEntity
+     *            nom de l'objet métier
+     * @param aOperation
+     *            opération de lecture
+     * @param aBytes
+     *            taille lue, en caractères pour les CLOB et en octets pour les BLOB
+     */
+    public void recordLobBytes(String aEntity, Operation aOperation, long aBytes);
+
+    /**
+     * Enregistre l'attente d'une connexion
+     *
+     * @param aEntity
+     *            nom de l'objet métier
+     * @param aNanos
+     *            attente en nanosecondes
+     */
+    public void recordPoolWait(String aEntity, long aNanos);
+
+    /**
+     * Enregistre les appels au driver évités par une connexion ISConnection, à sa fermeture
+     *
+     * @param aCalls
+     *            nombre d'appels évités: setAutoCommit, commit, rollback et getAutoCommit sans effet
+     */
+    public default void recordSavedCalls(long aCalls) {
+        // Pas de mesure par défaut
+    }
+
+    /**
+     * @return nombre d'appels au driver évités depuis le démarrage ou le dernier reset
+     */
+    public default long getSavedCalls() {
+        return 0;
+    }
+
+    /**
+     * @return état des mesures par objet métier et opération, trié par objet métier puis opération
+     */
+    public List<MetricsSnapshot> getSnapshots();
+
+    /**
+     * Remet les mesures à zéro
+     */
+    public void reset();
+}
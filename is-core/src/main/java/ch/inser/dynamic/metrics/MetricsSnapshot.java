@@ -0,0 +1,186 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.metrics;
+
+import java.io.Serializable;
+
+import ch.inser.dynamic.metrics.IMetrics.Operation;
+
+/**
+ * État des mesures d'une opération d'un objet métier. Les durées sont en microsecondes.
+ *
+ * @author INSER SA
+ *
+ */
+public class MetricsSnapshot implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = -1437716624925546613L;
+
+    /** Nom de l'objet métier */
+    private final String iEntity;
+
+    /** Opération */
+    private final Operation iOperation;
+
+    /** Nombre d'opérations */
+    private final long iCount;
+
+    /** Durée totale */
+    private final long iTotalMicros;
+
+    /** Durée maximum */
+    private final long iMaxMicros;
+
+    /** Percentiles 50, 90, 99 et 99.9 de la durée */
+    private final long[] iPercentiles;
+
+    /** Lignes retournées ou modifiées */
+    private final long iRows;
+
+    /** Taille des LOB lus */
+    private final long iLobBytes;
+
+    /**
+     * @param aEntity
+     *            nom de l'objet métier
+     * @param aOperation
+     *            opération
+     * @param aCount
+     *            nombre d'opérations
+     * @param aTotalMicros
+     *            durée totale
+     * @param aMaxMicros
+     *            durée maximum
+     * @param aPercentiles
+     *            percentiles 50, 90, 99 et 99.9 de la durée
+     * @param aRows
+     *            lignes retournées ou modifiées
+     * @param aLobBytes
+     *            taille des LOB lus
+     */
+    public MetricsSnapshot(String aEntity, Operation aOperation, long aCount, long aTotalMicros, long aMaxMicros, long[] aPercentiles,
+            long aRows, long aLobBytes) {
+        iEntity = aEntity;
+        iOperation = aOperation;
+        iCount = aCount;
+        iTotalMicros = aTotalMicros;
+        iMaxMicros = aMaxMicros;
+        iPercentiles = aPercentiles.clone();
+        iRows = aRows;
+        iLobBytes = aLobBytes;
+    }
+
+    /**
+     * @return nom de l'objet métier
+     */
+    public String getEntity() {
+        return iEntity;
+    }
+
+    /**
+     * @return opération
+     */
+    public Operation getOperation() {
+        return iOperation;
+    }
+
+    /**
+     * @return nombre d'opérations
+     */
+    public long getCount() {
+        return iCount;
+    }
+
+    /**
+     * @return durée totale en microsecondes
+     */
+    public long getTotalMicros() {
+        return iTotalMicros;
+    }
+
+    /**
+     * @return durée moyenne en microsecondes, 0 si aucune opération
+     */
+    public long getMeanMicros() {
+        return iCount == 0 ? 0 : iTotalMicros / iCount;
+    }
+
+    /**
+     * @return durée maximum en microsecondes
+     */
+    public long getMaxMicros() {
+        return iMaxMicros;
+    }
+
+    /**
+     * @return médiane de la durée en microsecondes
+     */
+    public long getP50Micros() {
+        return iPercentiles[0];
+    }
+
+    /**
+     * @return percentile 90 de la durée en microsecondes
+     */
+    public long getP90Micros() {
+        return iPercentiles[1];
+    }
+
+    /**
+     * @return percentile 99 de la durée en microsecondes
+     */
+    public long getP99Micros() {
+        return iPercentiles[2];
+    }
+
+    /**
+     * @return percentile 99.9 de la durée en microsecondes
+     */
+    public long getP999Micros() {
+        return iPercentiles[3];
+    }
+
+    /**
+     * @return lignes retournées par une lecture, 0 pour une écriture
+     */
+    public long getRowsReturned() {
+        return iOperation.isRead() ? iRows : 0;
+    }
+
+    /**
+     * @return lignes modifiées par une écriture, 0 pour une lecture
+     */
+    public long getRowsAffected() {
+        return iOperation.isRead() ? 0 : iRows;
+    }
+
+    /**
+     * @return taille des LOB lus, en caractères pour les CLOB et en octets pour les BLOB
+     */
+    public long getLobBytes() {
+        return iLobBytes;
+    }
+
+    @Override
+    public String toString() {
+        return iEntity + " " + iOperation + ": count=" + iCount + " mean=" + getMeanMicros() + "us p50=" + getP50Micros() + "us p90="
+                + getP90Micros() + "us p99=" + getP99Micros() + "us p99.9=" + getP999Micros() + "us max=" + iMaxMicros + "us rows="
+                + iRows + " lobBytes=" + iLobBytes;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.metrics;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implémentation par défaut: aucune mesure
+ *
+ * @author INSER SA
+ *
+ */
+public class NoopMetrics implements IMetrics, Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = -3162784527704181526L;
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void record(String aEntity, Operation aOperation, long aNanos, long aRows) {
+        // Pas de mesure
+    }
+
+    @Override
+    public void recordLobBytes(String aEntity, Operation aOperation, long aBytes) {
+        // Pas de mesure
+    }
+
+    @Override
+    public void recordPoolWait(String aEntity, long aNanos) {
+        // Pas de mesure
+    }
+
+    @Override
+    public List<MetricsSnapshot> getSnapshots() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void reset() {
+        // Pas de mesure
+    }
+}
@@ -24,7 +24,6 @@
  * <li>ISjsl</li>
  * <li>commons-logging</li>
  * <li>jdom</li>
- * <li>javaunderground</li>
  * </ul>
  *
  * <h2>Construction de la requête</h2> Il y a deux manière de construire la requête, ces deux manières passent par un ValueObject:
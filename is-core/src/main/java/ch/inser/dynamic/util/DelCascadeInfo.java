@@ -15,6 +15,8 @@
 
 package ch.inser.dynamic.util;
 
+import java.io.Serializable;
+
 import org.jdom2.Element;
 
 /**
@@ -23,7 +25,12 @@ import org.jdom2.Element;
  * @author INSER SA
  * @version 1.0
  */
-public class DelCascadeInfo {
+public class DelCascadeInfo implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = -1406612057389349638L;
 
     /**
      * Le nom du ValueObject.
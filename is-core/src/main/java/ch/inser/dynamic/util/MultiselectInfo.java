@@ -15,6 +15,8 @@
 
 package ch.inser.dynamic.util;
 
+import java.io.Serializable;
+
 import org.jdom2.Element;
 
 /**
@@ -23,7 +25,12 @@ import org.jdom2.Element;
  * @author INSER SA
  * @version 1.0
  */
-public class MultiselectInfo {
+public class MultiselectInfo implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = -2617964757147985650L;
 
     /**
      * Le nom du ValueObject.
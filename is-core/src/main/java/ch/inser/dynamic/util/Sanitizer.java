@@ -0,0 +1,117 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.util;
+
+import java.io.Serializable;
+import java.util.regex.Pattern;
+
+/**
+ * Nettoyage des chaînes d'un attribut, défini par les informations cleanexpr, cleanreplacement et cleantrim de l'attribut. L'expression
+ * est compilée une fois; une expression sans caractère spécial est traitée comme un texte, cherché avec indexOf avant tout remplacement.
+ *
+ * @author INSER SA
+ *
+ */
+public final class Sanitizer implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = -3305712268429519642L;
+
+    /** Caractères spéciaux des expressions régulières */
+    private static final String REGEX_CHARS = "\\[](){}.*+?^$|";
+
+    /** Expression compilée, null si pas d'expression ou si elle est un texte */
+    private final Pattern iPattern;
+
+    /** Texte à remplacer si l'expression n'a pas de caractère spécial */
+    private final String iLiteral;
+
+    /** Remplacement */
+    private final String iReplacement;
+
+    /** true pour enlever les espaces au début et à la fin */
+    private final boolean iTrim;
+
+    /**
+     * @param aExpr
+     *            expression régulière à remplacer, null pour ne pas remplacer
+     * @param aReplacement
+     *            remplacement, null pour enlever
+     * @param aTrim
+     *            true pour enlever les espaces au début et à la fin
+     */
+    public Sanitizer(String aExpr, String aReplacement, boolean aTrim) {
+        iReplacement = aReplacement == null ? "" : aReplacement;
+        iTrim = aTrim;
+        if (aExpr == null || aExpr.isEmpty()) {
+            iPattern = null;
+            iLiteral = null;
+        } else if (isLiteral(aExpr) && iReplacement.indexOf('$') < 0 && iReplacement.indexOf('\\') < 0) {
+            iPattern = null;
+            iLiteral = aExpr;
+        } else {
+            iPattern = Pattern.compile(aExpr);
+            iLiteral = null;
+        }
+    }
+
+    /**
+     * @param aAttribute
+     *            information de l'attribut
+     * @return le nettoyage de l'attribut, null s'il n'en a pas
+     */
+    static Sanitizer of(AttributeInfo aAttribute) {
+        String expr = (String) aAttribute.getInfo("cleanexpr");
+        boolean trim = "true".equals(aAttribute.getInfo("cleantrim"));
+        if (expr == null && !trim) {
+            return null;
+        }
+        return new Sanitizer(expr, (String) aAttribute.getInfo("cleanreplacement"), trim);
+    }
+
+    /**
+     * @param aValue
+     *            chaîne à nettoyer
+     * @return la chaîne nettoyée, la même instance si rien n'a changé
+     */
+    public String apply(String aValue) {
+        String value = aValue;
+        if (iLiteral != null) {
+            if (value.indexOf(iLiteral) >= 0) {
+                value = value.replace(iLiteral, iReplacement);
+            }
+        } else if (iPattern != null) {
+            value = iPattern.matcher(value).replaceAll(iReplacement);
+        }
+        return iTrim ? value.trim() : value;
+    }
+
+    /**
+     * @param aExpr
+     *            expression régulière
+     * @return true si l'expression n'a pas de caractère spécial
+     */
+    private static boolean isLiteral(String aExpr) {
+        for (int i = 0; i < aExpr.length(); i++) {
+            if (REGEX_CHARS.indexOf(aExpr.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -16,6 +16,7 @@
 package ch.inser.dynamic.util;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -39,7 +40,12 @@ import org.jdom2.input.SAXBuilder;
  * @author INSER SA
  * @version 1.0
  */
-public class SchemaInfo {
+public class SchemaInfo implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = 4320394922427331813L;
 
     public static final Namespace XS = Namespace.getNamespace("xs", "http://www.w3.org/2001/XMLSchema");
 
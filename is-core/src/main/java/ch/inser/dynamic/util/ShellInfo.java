@@ -15,6 +15,8 @@
 
 package ch.inser.dynamic.util;
 
+import java.io.Serializable;
+
 import org.jdom2.Element;
 
 /**
@@ -23,7 +25,12 @@ import org.jdom2.Element;
  * @author INSER SA
  *
  */
-public class ShellInfo {
+public class ShellInfo implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = -8963716282372353309L;
 
     /**
      * Le nom du ValueObject.
@@ -15,6 +15,7 @@
 
 package ch.inser.dynamic.util;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -32,7 +33,12 @@ import ch.inser.jsl.list.ListHandler.Sort;
  * @author INSER SA
  * @version 1.0
  */
-public class SortInfo {
+public class SortInfo implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = 3873967497689746629L;
 
     private static final Log logger = LogFactory.getLog(SortInfo.class);
 
@@ -15,12 +15,16 @@
 
 package ch.inser.dynamic.util;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -86,6 +90,11 @@ public class VOInfo implements Serializable {
      */
     private static final String UPDATEUSER = "updateuser";
 
+    /**
+     * Clé pour nettoyer aussi les valeurs lues de la base, true par défaut
+     */
+    private static final String CLEAN_ON_READ = "cleanonread";
+
     /**
      * Clé des jointures utilisées pour trouver l'ensemble des attributs de ce type de ValueObject.
      */
@@ -156,6 +165,32 @@ public class VOInfo implements Serializable {
      */
     private Map<String, Object> iInfo;
 
+    /**
+     * Noms des attributs triés par position. Comme les index suivants, calculé une fois à la fin du constructeur et partagé sans copie par
+     * les DAO et les ValueObjects. Les index ne sont pas sérialisés, readObject les recalcule.
+     */
+    private transient List<String> iOrderedNames;
+
+    /**
+     * Types des attributs par nom
+     */
+    private transient Map<String, IValueObject.Type> iTypes;
+
+    /**
+     * <code>true</code> si un attribut est de type SHAPE
+     */
+    private transient boolean iShape;
+
+    /**
+     * Nettoyage des chaînes par attribut, seulement pour les attributs avec cleanexpr ou cleantrim
+     */
+    private transient Map<String, Sanitizer> iSanitizers;
+
+    /**
+     * <code>false</code> si les valeurs lues de la base ne sont pas nettoyées
+     */
+    private transient boolean iCleanOnRead;
+
     /**
      * @param aElement
      *            xml element
@@ -199,6 +234,52 @@ public class VOInfo implements Serializable {
             }
             id.setValue(AttributeInfo.SEARCH, AttributeType.EQUAL.toString());
         }
+
+        freeze();
+    }
+
+    /**
+     * Fige les attributs et calcule les index: les méthodes des requêtes (getTypes, getOrderedNames, ...) ne font ensuite plus d'allocation.
+     */
+    private void freeze() {
+        List<AttributeInfo> attributes = new ArrayList<>(getAttributes().values());
+        attributes.sort((aAttribute1, aAttribute2) -> Integer.compare(aAttribute1.getPosition(), aAttribute2.getPosition()));
+
+        Map<String, AttributeInfo> attributeMap = new LinkedHashMap<>(attributes.size() * 2);
+        List<String> names = new ArrayList<>(attributes.size());
+        Map<String, IValueObject.Type> types = new HashMap<>(attributes.size() * 2);
+        Map<String, Sanitizer> sanitizers = new HashMap<>();
+        for (AttributeInfo attribute : attributes) {
+            IValueObject.Type type = AbstractDynamicVO.type(attribute.getType());
+            names.add(attribute.getName());
+            attributeMap.put(attribute.getName(), attribute);
+            types.put(attribute.getName(), type);
+            iShape |= type == IValueObject.Type.SHAPE;
+            Sanitizer sanitizer = Sanitizer.of(attribute);
+            if (sanitizer != null) {
+                sanitizers.put(attribute.getName(), sanitizer);
+            }
+        }
+        iSanitizers = sanitizers.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(sanitizers);
+        iCleanOnRead = !"false".equals(getValue(CLEAN_ON_READ));
+        iInfo.put(ATTRIBUTES, Collections.unmodifiableMap(attributeMap));
+        iOrderedNames = Collections.unmodifiableList(names);
+        iTypes = Collections.unmodifiableMap(types);
+    }
+
+    /**
+     * Recalcule les index, absents du flux et des VOInfo sérialisés par une version précédente
+     *
+     * @param aStream
+     *            stream de désérialisation
+     * @throws IOException
+     *             erreur de lecture
+     * @throws ClassNotFoundException
+     *             classe inconnue
+     */
+    private void readObject(ObjectInputStream aStream) throws IOException, ClassNotFoundException {
+        aStream.defaultReadObject();
+        freeze();
     }
 
     private AttributeInfo put(AttributeInfo aAttributeInfo) {
@@ -294,7 +375,7 @@ public class VOInfo implements Serializable {
     }
 
     /**
-     * Retourne la mappe des attributs du ValueObject.
+     * Retourne la mappe des attributs du ValueObject, non modifiable et triée par position une fois le ValueObject lu.
      *
      * @return La mappe des attributs du ValueObject.
      */
@@ -376,14 +457,50 @@ public class VOInfo implements Serializable {
      */
     public List<String> getNamesList() {
 
-        // Mappe triée
-        SortedMap<Object, String> map = new TreeMap<>();
-        for (Map.Entry<String, Object> entry : getInfos(AttributeInfo.POSITION).entrySet()) {
-            // Ajoute à la mappe triée le nom de l'attribut
-            map.put(entry.getValue(), entry.getKey());
-        }
-        // Retourne seulement les noms des attributs.
-        return new ArrayList<>(map.values());
+        return new ArrayList<>(iOrderedNames);
+    }
+
+    /**
+     * Retourne la <code>List</code> non modifiable des noms des attributs triés par position, sans copie.
+     *
+     * @return Les noms des attributs triés par position.
+     */
+    public List<String> getOrderedNames() {
+
+        return iOrderedNames;
+    }
+
+    /**
+     * Retourne le nettoyage des chaînes d'un attribut, compilé depuis cleanexpr, cleanreplacement et cleantrim.
+     *
+     * @param aAttributeName
+     *            Le nom de l'attribut.
+     * @return Le nettoyage de l'attribut, <code>null</code> s'il n'en a pas.
+     */
+    public Sanitizer getSanitizer(String aAttributeName) {
+
+        return iSanitizers.get(aAttributeName);
+    }
+
+    /**
+     * Indique si les chaînes lues de la base sont nettoyées comme celles saisies. Avec &lt;cleanonread&gt;false&lt;/cleanonread&gt; dans
+     * l'appinfo, les valeurs de la base sont considérées comme déjà propres.
+     *
+     * @return <code>true</code> si les valeurs lues de la base sont nettoyées.
+     */
+    public boolean isCleanOnRead() {
+
+        return iCleanOnRead;
+    }
+
+    /**
+     * Indique si un attribut est une géométrie SHAPE.
+     *
+     * @return <code>true</code> si un attribut est de type SHAPE.
+     */
+    public boolean hasShape() {
+
+        return iShape;
     }
 
     /**
@@ -565,21 +682,13 @@ public class VOInfo implements Serializable {
 
     /**
      * Retourne la mappe des types des attributs. La clé est le nom de l'attribut la valeur est un <cod>Byte</code> spécifiant le type selon
-     * la spécification de <code>DynamicVO</code>.
+     * la spécification de <code>DynamicVO</code>. La mappe n'est pas modifiable, la même instance est retournée à chaque appel.
      *
      * @return La mappe des types des attributs.
      */
     public Map<String, IValueObject.Type> getTypes() {
 
-        // La mappe des types selon le format du fichier "ValueObject.xsd"
-        Map<String, Object> map = getInfos(AttributeInfo.TYPE);
-        Map<String, IValueObject.Type> result = new HashMap<>(map.size());
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            // Remplace le type au format du fichier "ValueObject.xsd" par
-            // le format psécifié dans <code>DynamicVO</code>
-            result.put(entry.getKey(), AbstractDynamicVO.type((String) entry.getValue()));
-        }
-        return result;
+        return iTypes;
     }
 
     /**
@@ -30,6 +30,7 @@ import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynamic.quality.IQualityController;
 import ch.inser.dynaplus.bo.BOFactory;
 import ch.inser.dynaplus.bo.IBusinessObject;
@@ -207,6 +208,11 @@ public class BOAnonymous implements IBusinessObject {
         throw new UnsupportedOperationException("Not implemented!");
     }
 
+    @Override
+    public ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters) {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
     @Override
     public IDAOResult updateField(List<Object> aLstId, String aFieldName, List<Object> aLstValue, Connection aCon, ILoggedUser aUser)
             throws SQLException {
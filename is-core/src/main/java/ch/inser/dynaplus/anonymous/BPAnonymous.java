@@ -15,6 +15,7 @@
 
 package ch.inser.dynaplus.anonymous;
 
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -29,6 +30,7 @@ import ch.inser.dynamic.common.IContextManager;
 import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynaplus.bo.BOFactory;
 import ch.inser.dynaplus.bo.IBusinessProcess;
 import ch.inser.dynaplus.format.IFormatEngine;
@@ -178,6 +180,16 @@ public class BPAnonymous implements IBusinessProcess, Serializable {
         throw new UnsupportedOperationException("Not implemented!");
     }
 
+    @Override
+    public ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
+    @Override
+    public IDAOResult getList(IValueObject aVo, OutputStream aStream, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
     @Override
     public IDAOResult getListCount(IValueObject aVo, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
         throw new UnsupportedOperationException("Not implemented!");
@@ -30,8 +30,6 @@ import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.javaunderground.jdbc.StatementFactory;
-
 import ch.inser.dynamic.common.DAOParameter;
 import ch.inser.dynamic.common.DAOResult;
 import ch.inser.dynamic.common.DynamicDAO.Aggregator;
@@ -40,8 +38,10 @@ import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynamic.util.VOInfo;
 import ch.inser.dynaplus.dao.IDataAccessObject;
+import ch.inser.dynaplus.sql.StatementFactory;
 import ch.inser.dynaplus.util.Constants.Entity;
 import ch.inser.dynaplus.vo.IVOFactory;
 import ch.inser.dynaplus.vo.VOFactory;
@@ -79,7 +79,7 @@ public class DAOAnonymous implements IDataAccessObject {
         sql.append(aField);
         sql.append(" = ?");
 
-        // Utilise un PreparedStatement de type DebuggableStatement
+        // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
         try (PreparedStatement ps = StatementFactory.getStatement(aCon, sql.toString())) {
             ps.setMaxRows(cResultSetMaxRows);
             if (aValue instanceof Long) {
@@ -93,7 +93,7 @@ public class DAOAnonymous implements IDataAccessObject {
             }
 
             // Exécute le reqête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) {
                     return new DAOResult(Status.NOTHING_TODO);
@@ -139,7 +139,7 @@ public class DAOAnonymous implements IDataAccessObject {
             }
         }
 
-        // Utilise un PreparedStatement de type DebuggableStatement
+        // Utilise un PreparedStatement de StatementFactory, avec les valeurs liées en debug
         try (PreparedStatement ps = StatementFactory.getStatement(aCon, sql.toString())) {
             if (aRowNum != null) {
                 ps.setMaxRows(aRowNum);
@@ -155,7 +155,7 @@ public class DAOAnonymous implements IDataAccessObject {
             }
 
             // Exécute le requête de recherche
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
             try (ResultSet rs = ps.executeQuery()) {
 
                 // Mettre le résultat dans une liste
@@ -274,6 +274,12 @@ public class DAOAnonymous implements IDataAccessObject {
         throw new UnsupportedOperationException("Not implemented!");
     }
 
+    @Override
+    public ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters)
+            throws ISException {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
     @Override
     public IDAOResult getListCount(IValueObject aVo, Connection aConnection, ILoggedUser aUser, DAOParameter... aParameters)
             throws SQLException {
@@ -291,16 +297,42 @@ public class DAOAnonymous implements IDataAccessObject {
         throw new UnsupportedOperationException("Not implemented!");
     }
 
+    @Override
+    public List<Object> getNextIds(int aCount, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
     @Override
     public IDAOResult create(IValueObject aVo, ILoggedUser aUser, Connection aConnection) throws SQLException {
         throw new UnsupportedOperationException("Not implemented!");
     }
 
+    @Override
+    public IDAOResult createReturning(IValueObject aVo, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
+    @Override
+    public IDAOResult create(List<IValueObject> aVos, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
+    @Override
+    public IDAOResult update(List<Map<String, Object>> aUpdateFields, List<Object> aIds, List<Timestamp> aTimestamps, ILoggedUser aUser,
+            Connection aConnection) throws SQLException {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
     @Override
     public IDAOResult delete(Object aId, Timestamp aTimestamp, ILoggedUser aUser, Connection aConnection) throws SQLException {
         throw new UnsupportedOperationException("Not implemented!");
     }
 
+    @Override
+    public IDAOResult delete(List<Object> aIds, List<Timestamp> aTimestamps, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        throw new UnsupportedOperationException("Not implemented!");
+    }
+
     @Override
     public IDAOResult getTimestamp(Object aId, ILoggedUser aUser, Connection aConnection) throws SQLException {
         throw new UnsupportedOperationException("Not implemented!");
@@ -23,9 +23,8 @@ import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.javaunderground.jdbc.StatementFactory;
-
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynaplus.sql.StatementFactory;
 import ch.inser.jsl.exceptions.ISException;
 
 /**
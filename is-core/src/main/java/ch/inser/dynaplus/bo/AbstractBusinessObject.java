@@ -20,9 +20,12 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +42,8 @@ import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.InListStrategy;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynamic.quality.IQualityController;
 import ch.inser.dynamic.quality.IQualityTest;
 import ch.inser.dynamic.quality.QCParameter;
@@ -114,6 +119,16 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
     /** Objet pour lancer des tests de qualité */
     protected transient IQualityTest iQualityTest;
 
+    /**
+     * Nombre de records par batch JDBC pour create(List) et update(List), 0 ou 1 pour traiter les records un à un
+     */
+    protected int iBatchSize;
+
+    /**
+     * true pour relire les records d'un batch par une requête sur les ids (contrôle des droits) au lieu de relire chaque record
+     */
+    protected boolean iBatchRightsCheck;
+
     /**
      * BOFactory à disposition de l'objet métier
      */
@@ -140,6 +155,11 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
             if (tests != null) {
                 iTestUpdate = tests.split(",");
             }
+            String batchSize = (String) aVOInfo.getValue("batchsize");
+            if (batchSize != null) {
+                iBatchSize = Integer.parseInt(batchSize.trim());
+            }
+            iBatchRightsCheck = "true".equals(aVOInfo.getValue("batchrightscheck"));
         }
 
     }
@@ -235,43 +255,16 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
             return timestampCheckResult;
         }
 
-        // On fabrique la liste de test
-        String[] testList = iTestUpdate;
-        if (iQualityController != null) {
-            QCParameter[] aParameters = new QCParameter[] { new QCParameter(QCParameter.Name.VALUEOBJECT, valueObject),
-                    new QCParameter(QCParameter.Name.USER, user) };
-            String[] testListQC = iQualityController.getRules(TierName.BO, EntityAction.UPDATE, iName, aParameters);
-            if (testListQC != null) {
-                testList = testListQC;
-            }
-        }
-
         // Tests de qualité
-        if (testList != null && iQualityTest != null) {
-            try {
-                iQualityTest.check(testList, valueObject, user, con);
-            } catch (ISException e) {
-                throw new SQLException(e);
-            }
-        }
+        checkQuality(EntityAction.UPDATE, valueObject, con, user);
 
         // Comparaison avec le VO original et constitution d'une collection
         // Map des attributs à modifier.
-        Map<String, Object> updateFields = voOriginal.getDiffProperties(valueObject);
-
-        updateFields.keySet().retainAll(iDao.getListUpdateFields());
-
-        writeFilter(updateFields, user);
-
-        if (updateFields.isEmpty()) {
+        Map<String, Object> updateFields = getUpdateFields(voOriginal, valueObject, user);
+        if (updateFields == null) {
             return new DAOResult(Status.NOTHING_TODO);
         }
 
-        // prendre valeur srid dans update fields si existant
-        if (valueObject.getProperty("_srid") != null) {
-            updateFields.put("_srid", valueObject.getProperty("_srid"));
-        }
-
         // Effectue la mise à jour
         rowCount = iDao.update(updateFields, valueObject.getId(), valueObject.getTimestamp(), user, con);
 
@@ -297,6 +290,71 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
         return result;
     }
 
+    /**
+     * Lance les tests de qualité configurés (testsupdate ou règles du quality controller) pour une action
+     *
+     * @param aAction
+     *            action sur l'entité, CREATE ou UPDATE
+     * @param aValueObject
+     *            vo à tester
+     * @param aCon
+     *            connection à la source de données
+     * @param aUser
+     *            utilisateur effectuant la requête
+     * @throws SQLException
+     *             test de qualité en erreur
+     */
+    private void checkQuality(EntityAction aAction, IValueObject aValueObject, Connection aCon, ILoggedUser aUser) throws SQLException {
+        // On fabrique la liste de test
+        String[] testList = iTestUpdate;
+        if (iQualityController != null) {
+            QCParameter[] aParameters = new QCParameter[] { new QCParameter(QCParameter.Name.VALUEOBJECT, aValueObject),
+                    new QCParameter(QCParameter.Name.USER, aUser) };
+            String[] testListQC = iQualityController.getRules(TierName.BO, aAction, iName, aParameters);
+            if (testListQC != null) {
+                testList = testListQC;
+            }
+        }
+
+        // Tests de qualité
+        if (testList != null && iQualityTest != null) {
+            try {
+                iQualityTest.check(testList, aValueObject, aUser, aCon);
+            } catch (ISException e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    /**
+     * Champs à mettre à jour: différences avec le record original, limitées aux champs modifiables et filtrées selon l'utilisateur
+     *
+     * @param aOriginal
+     *            record original lu dans la base de données
+     * @param aValueObject
+     *            record modifié
+     * @param aUser
+     *            utilisateur effectuant la requête
+     * @return les champs à mettre à jour avec le _srid éventuel, null s'il n'y a rien à mettre à jour
+     */
+    private Map<String, Object> getUpdateFields(IValueObject aOriginal, IValueObject aValueObject, ILoggedUser aUser) {
+        Map<String, Object> updateFields = aOriginal.getDiffProperties(aValueObject);
+
+        updateFields.keySet().retainAll(iDao.getListUpdateFields());
+
+        writeFilter(updateFields, aUser);
+
+        if (updateFields.isEmpty()) {
+            return null;
+        }
+
+        // prendre valeur srid dans update fields si existant
+        if (aValueObject.getProperty("_srid") != null) {
+            updateFields.put("_srid", aValueObject.getProperty("_srid"));
+        }
+        return updateFields;
+    }
+
     protected IDAOResult checkTimestamp(IValueObject originalValueObject, IValueObject aValueObject) {
         if (originalValueObject.getTimestamp() != null && !originalValueObject.getTimestamp().equals(aValueObject.getTimestamp())) {
             logger.debug(originalValueObject.getTimestamp() + "!=" + aValueObject.getTimestamp());
@@ -428,6 +486,9 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
      * {@inheritDoc}
      */
     public IDAOResult update(List<IValueObject> aLstValueObject, Connection aCon, ILoggedUser aUser) throws SQLException {
+        if (iBatchSize > 1) {
+            return updateBatch(aLstValueObject, aCon, aUser);
+        }
         List<IValueObject> results = new ArrayList<>(aLstValueObject.size());
         for (IValueObject vo : aLstValueObject) {
             IValueObject voBackup = (IValueObject) vo.clone();
@@ -503,55 +564,19 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
             return new DAOResult(Status.NOTHING_TODO);
         }
 
-        // On fabrique la liste de test
-        String[] testList = iTestUpdate;
-        if (iQualityController != null) {
-            QCParameter[] aParameters = new QCParameter[] { new QCParameter(QCParameter.Name.VALUEOBJECT, valueObject),
-                    new QCParameter(QCParameter.Name.USER, user) };
-            String[] testListQC = iQualityController.getRules(TierName.BO, EntityAction.CREATE, iName, aParameters);
-            if (testListQC != null) {
-                testList = testListQC;
-            }
-        }
-
         // Tests de qualité
-        if (testList != null && iQualityTest != null) {
-            try {
-                iQualityTest.check(testList, valueObject, user, con);
-            } catch (ISException e) {
-                throw new SQLException(e);
-            }
-        }
+        checkQuality(EntityAction.CREATE, valueObject, con, user);
 
         // Get the informations for multiselect
         Map<String, List<?>> multiselects = new HashMap<>();
         for (MultiselectInfo multiselect : iVOInfo.getMultiselects()) {
             multiselects.put(multiselect.getSelectName(), (List<?>) valueObject.getProperty(multiselect.getSelectName()));
         }
-        Object id = valueObject.getId();
 
-        // Donner le ID...
-        if (id == null) {
-            id = iDao.getNextId(user, con);
-            if (id != null) {
-                valueObject.setId(id);
-            }
-        }
-
-        // Crée un record
-        IDAOResult result = iDao.create(valueObject, user, con);
-
-        // On vérifie que l'utilisateur avait bien le droit d'effectuer cet
-        // insert
-        if (id != null) {
-            IValueObject rec = iDao.getRecord(id, user, con).getValueObject();
-            if (rec == null) {
-                // La sécurité indique qu'il n'avait pas le droit de faire
-                // cette opération
-                result.setStatus(Status.NO_RIGHTS);
-            }
-            result.setValueObject(rec);
-        }
+        // Crée un record, avec l'id de la séquence si nécessaire, et vérifie que l'utilisateur avait bien le droit d'effectuer cet insert
+        // (statut NO_RIGHTS)
+        IDAOResult result = iDao.createReturning(valueObject, user, con);
+        Object id = valueObject.getId();
 
         // Add the multiselect things
         for (MultiselectInfo multiselect : iVOInfo.getMultiselects()) {
@@ -569,6 +594,9 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
      */
     @Override
     public IDAOResult create(List<IValueObject> valueObjects, Connection con, ILoggedUser user) throws SQLException {
+        if (iBatchSize > 1) {
+            return createBatch(valueObjects, con, user);
+        }
         List<IValueObject> results = new ArrayList<>(valueObjects.size());
         for (IValueObject valueObject : valueObjects) {
             IValueObject voBackup = (IValueObject) valueObject.clone();
@@ -586,6 +614,304 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
         return new DAOResult(results);
     }
 
+    /**
+     * Création en batch JDBC, par tranches de iBatchSize records. Les ids sont pris en bloc dans la séquence et les records créés sont relus
+     * par une requête sur les ids si iBatchRightsCheck est actif. Les multiselects et les enfants sont traités record par record.
+     *
+     * @param aValueObjects
+     *            records à créer
+     * @param aCon
+     *            connection à la source de données
+     * @param aUser
+     *            utilisateur effectuant la requête
+     * @return les records créés et le statut de chaque record, le traitement s'arrête à la tranche du premier record en erreur
+     * @throws SQLException
+     *             erreur bd
+     */
+    private IDAOResult createBatch(List<IValueObject> aValueObjects, Connection aCon, ILoggedUser aUser) throws SQLException {
+        List<IValueObject> results = new ArrayList<>(aValueObjects.size());
+        List<Status> statuses = new ArrayList<>(aValueObjects.size());
+        for (int start = 0; start < aValueObjects.size(); start += iBatchSize) {
+            List<IValueObject> batch = aValueObjects.subList(start, Math.min(start + iBatchSize, aValueObjects.size()));
+
+            // Tests de qualité et backup pour les enfants
+            List<IValueObject> backups = new ArrayList<>(batch.size());
+            List<Map<String, List<?>>> multiselects = new ArrayList<>(batch.size());
+            int nbrNewIds = 0;
+            for (IValueObject vo : batch) {
+                backups.add((IValueObject) vo.clone());
+                checkQuality(EntityAction.CREATE, vo, aCon, aUser);
+                Map<String, List<?>> voMultiselects = new HashMap<>();
+                for (MultiselectInfo multiselect : iVOInfo.getMultiselects()) {
+                    voMultiselects.put(multiselect.getSelectName(), (List<?>) vo.getProperty(multiselect.getSelectName()));
+                }
+                multiselects.add(voMultiselects);
+                if (vo.getId() == null) {
+                    nbrNewIds++;
+                }
+            }
+
+            // Donner les IDs en bloc
+            Iterator<Object> ids = iDao.getNextIds(nbrNewIds, aUser, aCon).iterator();
+            for (IValueObject vo : batch) {
+                if (vo.getId() == null && ids.hasNext()) {
+                    vo.setId(ids.next());
+                }
+            }
+
+            // Crée les records
+            List<Status> batchStatuses = new ArrayList<>(iDao.create(batch, aUser, aCon).getRowStatuses());
+            List<IValueObject> records = getRecordsWithRights(batch, aCon, aUser);
+
+            for (int i = 0; i < batch.size(); i++) {
+                IValueObject vo = batch.get(i);
+                if (batchStatuses.get(i) == Status.OK && records.get(i) == null) {
+                    // La sécurité indique qu'il n'avait pas le droit de faire cette opération
+                    batchStatuses.set(i, Status.NO_RIGHTS);
+                }
+                statuses.add(batchStatuses.get(i));
+                if (batchStatuses.get(i) != Status.OK) {
+                    continue;
+                }
+
+                // Add the multiselect things
+                for (MultiselectInfo multiselect : iVOInfo.getMultiselects()) {
+                    try {
+                        updateMultiselected(multiselect, vo.getId(), multiselects.get(i).get(multiselect.getSelectName()), aUser, aCon);
+                    } catch (ISException e) {
+                        throw (SQLException) e.getCause();
+                    }
+                }
+
+                // Modification des enfants
+                IDAOResult resultChildren = loadChildrenObjects(backups.get(i), vo, aCon, aUser);
+                if (!resultChildren.isStatusOK() && !resultChildren.isStatusNOTHING_TODO()) {
+                    statuses.set(statuses.size() - 1, resultChildren.getStatus());
+                    continue;
+                }
+                results.add(records.get(i));
+            }
+
+            IDAOResult error = getBatchError(results, statuses);
+            if (error != null) {
+                return error;
+            }
+        }
+        IDAOResult result = new DAOResult(results);
+        result.setRowStatuses(statuses);
+        return result;
+    }
+
+    /**
+     * Mise à jour en batch JDBC, par tranches de iBatchSize records. Les originaux sont lus par une requête sur les ids pour les tests de
+     * timestamp et le calcul des différences, les mises à jour sont envoyées en batch et les records mis à jour sont relus par une requête
+     * sur les ids si iBatchRightsCheck est actif.
+     *
+     * @param aValueObjects
+     *            records à mettre à jour
+     * @param aCon
+     *            connection à la source de données
+     * @param aUser
+     *            utilisateur effectuant la requête
+     * @return les records mis à jour et le statut de chaque record, le traitement s'arrête à la tranche du premier record en erreur
+     * @throws SQLException
+     *             erreur bd
+     */
+    private IDAOResult updateBatch(List<IValueObject> aValueObjects, Connection aCon, ILoggedUser aUser) throws SQLException {
+        List<IValueObject> results = new ArrayList<>(aValueObjects.size());
+        List<Status> statuses = new ArrayList<>(aValueObjects.size());
+        for (int start = 0; start < aValueObjects.size(); start += iBatchSize) {
+            List<IValueObject> batch = aValueObjects.subList(start, Math.min(start + iBatchSize, aValueObjects.size()));
+            List<IValueObject> backups = new ArrayList<>(batch.size());
+            List<Status> batchStatuses = new ArrayList<>(batch.size());
+
+            // Lecture des originaux et calcul des champs à mettre à jour
+            List<Integer> updateIndexes = new ArrayList<>(batch.size());
+            List<Map<String, Object>> updateFields = new ArrayList<>(batch.size());
+            List<Object> ids = new ArrayList<>(batch.size());
+            List<Timestamp> timestamps = new ArrayList<>(batch.size());
+            for (IValueObject vo : batch) {
+                ids.add(vo.getId());
+            }
+            Map<Object, IValueObject> originals = getRecords(ids, aCon, aUser);
+            ids.clear();
+            for (int i = 0; i < batch.size(); i++) {
+                IValueObject vo = batch.get(i);
+                backups.add((IValueObject) vo.clone());
+                IValueObject voOriginal = vo.getId() == null ? null : originals.get(vo.getId());
+                if (voOriginal == null) {
+                    batchStatuses.add(Status.NOT_FOUND);
+                    continue;
+                }
+                IDAOResult timestampCheckResult = checkTimestamp(voOriginal, vo);
+                if (timestampCheckResult != null) {
+                    batchStatuses.add(timestampCheckResult.getStatus());
+                    continue;
+                }
+                checkQuality(EntityAction.UPDATE, vo, aCon, aUser);
+                Map<String, Object> fields = getUpdateFields(voOriginal, vo, aUser);
+                if (fields == null) {
+                    batchStatuses.add(Status.NOTHING_TODO);
+                    continue;
+                }
+                batchStatuses.add(Status.OK);
+                updateIndexes.add(i);
+                updateFields.add(fields);
+                ids.add(vo.getId());
+                timestamps.add(vo.getTimestamp());
+            }
+
+            // Effectue les mises à jour
+            if (!updateIndexes.isEmpty()) {
+                List<Status> updateStatuses = iDao.update(updateFields, ids, timestamps, aUser, aCon).getRowStatuses();
+                for (int i = 0; i < updateIndexes.size(); i++) {
+                    if (updateStatuses.get(i) != Status.OK) {
+                        // Le record a changé ou n'est pas modifiable depuis sa lecture
+                        batchStatuses.set(updateIndexes.get(i), Status.CHANGED_TIMESTAMP);
+                    }
+                }
+            }
+            List<IValueObject> records = getRecordsWithRights(batch, aCon, aUser);
+
+            for (int i = 0; i < batch.size(); i++) {
+                IValueObject vo = batch.get(i);
+                Status status = batchStatuses.get(i);
+                if (status == Status.OK && records.get(i) == null) {
+                    // On arrive pas à le relire, il n'avait pas le droit...
+                    status = Status.NO_RIGHTS;
+                }
+                statuses.add(status);
+                if (status != Status.OK && status != Status.NOTHING_TODO) {
+                    continue;
+                }
+
+                // Add the multiselect things
+                if (status == Status.OK) {
+                    for (MultiselectInfo multiselect : iVOInfo.getMultiselects()) {
+                        try {
+                            updateMultiselected(multiselect, vo.getId(), (List<?>) vo.getProperty(multiselect.getLinkName()), aUser, aCon);
+                        } catch (ISException e) {
+                            throw (SQLException) e.getCause();
+                        }
+                    }
+                }
+
+                // Modification des enfants
+                IDAOResult resultChildren = loadChildrenObjects(backups.get(i), vo, aCon, aUser);
+                if (!resultChildren.isStatusOK() && !resultChildren.isStatusNOTHING_TODO()) {
+                    statuses.set(statuses.size() - 1, resultChildren.getStatus());
+                    continue;
+                }
+                if (status == Status.OK || resultChildren.isStatusOK()) {
+                    results.add(records.get(i) != null ? records.get(i) : vo);
+                }
+            }
+
+            IDAOResult error = getBatchError(results, statuses);
+            if (error != null) {
+                return error;
+            }
+        }
+        IDAOResult result = new DAOResult(results);
+        result.setRowStatuses(statuses);
+        return result;
+    }
+
+    /**
+     * Relit les records d'un batch pour contrôler que l'utilisateur a le droit de les voir. Avec iBatchRightsCheck, les records sont relus
+     * par une requête sur les ids par tranche, sinon un à un.
+     *
+     * @param aBatch
+     *            records du batch
+     * @param aCon
+     *            connection à la source de données
+     * @param aUser
+     *            utilisateur effectuant la requête
+     * @return pour chaque record, le record relu (ou le record du batch s'il n'a pas d'id), null si pas le droit
+     * @throws SQLException
+     *             erreur bd
+     */
+    private List<IValueObject> getRecordsWithRights(List<IValueObject> aBatch, Connection aCon, ILoggedUser aUser) throws SQLException {
+        List<IValueObject> records = new ArrayList<>(aBatch.size());
+        if (iBatchRightsCheck) {
+            List<Object> ids = new ArrayList<>(aBatch.size());
+            for (IValueObject vo : aBatch) {
+                ids.add(vo.getId());
+            }
+            Map<Object, IValueObject> recs = getRecords(ids, aCon, aUser);
+            for (IValueObject vo : aBatch) {
+                // Sans id (pas de séquence) le record ne peut pas être relu
+                records.add(vo.getId() == null ? vo : recs.get(vo.getId()));
+            }
+            return records;
+        }
+        for (IValueObject vo : aBatch) {
+            // Sans id (pas de séquence) le record ne peut pas être relu
+            records.add(vo.getId() == null ? vo : iDao.getRecord(vo.getId(), aUser, aCon).getValueObject());
+        }
+        return records;
+    }
+
+    /**
+     * Lit des records avec la sécurité de l'utilisateur, par une requête sur les ids par tranche de InListStrategy.IN_LIST_CHUNK_SIZE. Les
+     * champs lus sont ceux de getRecordFull.
+     *
+     * @param aIds
+     *            ids des records, les ids null sont ignorés
+     * @param aCon
+     *            connection à la source de données
+     * @param aUser
+     *            utilisateur effectuant la requête
+     * @return les records lus par id, un id absent n'existe pas ou n'est pas visible par l'utilisateur
+     * @throws SQLException
+     *             erreur bd
+     */
+    private Map<Object, IValueObject> getRecords(List<Object> aIds, Connection aCon, ILoggedUser aUser) throws SQLException {
+        List<Object> ids = new ArrayList<>(aIds.size());
+        for (Object id : aIds) {
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        Map<Object, IValueObject> records = new HashMap<>();
+        DAOParameter attributesParam = new DAOParameter(Name.ATTRIBUTES, new ArrayList<>(iVOInfo.getSelectFields()));
+        for (int start = 0; start < ids.size(); start += InListStrategy.IN_LIST_CHUNK_SIZE) {
+            IValueObject query = iVOFactory.getVO(iName);
+            int end = Math.min(start + InListStrategy.IN_LIST_CHUNK_SIZE, ids.size());
+            query.setProperty(iVOInfo.getId(), Operator.getIn(ids.subList(start, end)));
+            try {
+                for (Object obj : iDao.getList(query, aUser, aCon, attributesParam).getListObject()) {
+                    IValueObject rec = (IValueObject) obj;
+                    records.put(rec.getId(), rec);
+                }
+            } catch (ISException e) {
+                throw (SQLException) e.getCause();
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Résultat d'erreur d'un batch
+     *
+     * @param aResults
+     *            records traités avec succès
+     * @param aStatuses
+     *            statuts des records traités
+     * @return résultat avec le statut du premier record en erreur, null si pas d'erreur
+     */
+    private static IDAOResult getBatchError(List<IValueObject> aResults, List<Status> aStatuses) {
+        for (Status status : aStatuses) {
+            if (status != Status.OK && status != Status.NOTHING_TODO) {
+                IDAOResult result = new DAOResult(status);
+                result.setList(aResults);
+                result.setRowStatuses(aStatuses);
+                return result;
+            }
+        }
+        return null;
+    }
+
     /**
      * Delete interne utilisé lors du delete cascade
      *
@@ -629,6 +955,19 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
             return new DAOResult(Status.NOTHING_TODO);
         }
 
+        // Delete cascade ensembliste, activé avec <deletecascade>set</deletecascade> dans l'appinfo
+        boolean dryRun = Boolean.TRUE.equals(DAOParameter.getValue(Name.DRY_RUN, aParameters));
+        if (dryRun || "set".equals(iVOInfo.getValue("deletecascade"))) {
+            try {
+                IDAOResult result = deleteCascadeSetBased(aId, aConnection, aUser, dryRun);
+                if (result != null) {
+                    return result;
+                }
+            } catch (SQLException e) {
+                throw new ISException(e);
+            }
+        }
+
         int ret = 0;
         // Effacement des champs dans les tables enfants ayant comme
         // référence id
@@ -700,6 +1039,46 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
         return new DAOResult(ret);
     }
 
+    /**
+     * Delete cascade ensembliste: une requête par objet métier enfant au lieu d'une lecture et d'une suppression par enfant, voir
+     * DeleteCascadePlanner.
+     *
+     * @param aId
+     *            identifiant du record maître
+     * @param aConnection
+     *            connexion
+     * @param aUser
+     *            utilisateur
+     * @param aDryRun
+     *            true pour retourner les requêtes (getList) sans les exécuter
+     * @return le nombre de records supprimés ou modifiés, par objet métier dans getValue, null si la cascade doit être faite record par
+     *         record (cycle dans la configuration)
+     * @throws SQLException
+     *             erreur bd
+     */
+    private IDAOResult deleteCascadeSetBased(Object aId, Connection aConnection, ILoggedUser aUser, boolean aDryRun) throws SQLException {
+        IValueObject record = iDao.getRecord(aId, aUser, aConnection).getValueObject();
+        if (record == null) {
+            return new DAOResult(Status.NOT_FOUND);
+        }
+        DeleteCascadePlanner planner = new DeleteCascadePlanner(iBOFactory, iVOFactory, aUser,
+                DeleteCascadePlanner.getDateTimeFunction(aConnection));
+        IDAOResult error = planner.plan(this, iVOInfo, record);
+        if (planner.isCyclic()) {
+            logger.debug("Delete cascade de " + iName + " cyclique, pas de requêtes ensemblistes");
+            return aDryRun ? new DAOResult(Status.KO) : null;
+        }
+        if (error != null) {
+            return error;
+        }
+        if (aDryRun) {
+            IDAOResult result = new DAOResult(Status.OK);
+            result.setList(planner.getStatements());
+            return result;
+        }
+        return planner.execute(aConnection);
+    }
+
     /**
      *
      * @param aChildrenName
@@ -779,6 +1158,78 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
         return new DAOResult(ret);
     }
 
+    /**
+     * Supprime plusieurs enregistrements en un batch JDBC, avec les mêmes contrôles que delete: les enregistrements sont relus avec la
+     * sécurité de l'utilisateur (NOT_FOUND s'il n'est pas visible) et leur timestamp comparé (CHANGED_TIMESTAMP). Si delete est redéfini
+     * par la classe ou si l'objet métier a des multiselects, chaque enregistrement est supprimé par delete.
+     */
+    @Override
+    public IDAOResult deleteMulti(List<Object> aIds, List<Timestamp> aTimestamps, Connection aConnection, ILoggedUser aUser,
+            DAOParameter... aParameters) throws ISException {
+        if (isDeleteOverridden() || !iVOInfo.getMultiselects().isEmpty()) {
+            return IBusinessObject.super.deleteMulti(aIds, aTimestamps, aConnection, aUser, aParameters);
+        }
+
+        try {
+            // Timestamps actuels des enregistrements visibles par l'utilisateur
+            Map<Object, Timestamp> originals = new HashMap<>();
+            List<String> attributes = iVOInfo.getTimestamp() == null ? Collections.singletonList(iVOInfo.getId())
+                    : Arrays.asList(iVOInfo.getId(), iVOInfo.getTimestamp());
+            DAOParameter attributesParam = new DAOParameter(Name.ATTRIBUTES, attributes);
+            for (int start = 0; start < aIds.size(); start += InListStrategy.IN_LIST_CHUNK_SIZE) {
+                IValueObject query = iVOFactory.getVO(iName);
+                int end = Math.min(start + InListStrategy.IN_LIST_CHUNK_SIZE, aIds.size());
+                query.setProperty(iVOInfo.getId(), Operator.getIn(aIds.subList(start, end)));
+                for (Object obj : iDao.getList(query, aUser, aConnection, attributesParam).getListObject()) {
+                    IValueObject rec = (IValueObject) obj;
+                    originals.put(rec.getId(), rec.getTimestamp());
+                }
+            }
+
+            List<Object> ids = new ArrayList<>(aIds.size());
+            List<Timestamp> timestamps = new ArrayList<>(aIds.size());
+            IDAOResult failure = null;
+            for (int i = 0; i < aIds.size(); i++) {
+                Object id = aIds.get(i);
+                if (id == null) {
+                    continue;
+                }
+                if (!originals.containsKey(id)) {
+                    failure = failure == null ? new DAOResult(Status.NOT_FOUND) : failure;
+                } else if (originals.get(id) != null && !originals.get(id).equals(aTimestamps.get(i))) {
+                    logger.debug(originals.get(id) + "!=" + aTimestamps.get(i));
+                    failure = failure == null ? new DAOResult(Status.CHANGED_TIMESTAMP) : failure;
+                } else {
+                    ids.add(id);
+                    timestamps.add(aTimestamps.get(i));
+                }
+            }
+            int ret = 0;
+            if (!ids.isEmpty()) {
+                IDAOResult result = iDao.delete(ids, timestamps, aUser, aConnection);
+                if (!result.isStatusOK() && failure == null) {
+                    failure = result;
+                }
+                ret = Math.max(result.getNbrRecords(), 0);
+            }
+            return failure == null ? new DAOResult(ret) : failure;
+        } catch (SQLException e) {
+            throw new ISException(e);
+        }
+    }
+
+    /**
+     * @return true si delete est redéfini par la classe de l'objet métier, le batch de deleteMulti ne l'appellerait pas
+     */
+    private boolean isDeleteOverridden() {
+        try {
+            return getClass().getMethod("delete", Object.class, Timestamp.class, Connection.class, ILoggedUser.class, DAOParameter[].class)
+                    .getDeclaringClass() != AbstractBusinessObject.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
     @Override
     public IDAOResult deleteMultiQuery(List<IValueObject> aVos, Connection aConnection, ILoggedUser aUser, DAOParameter... aParameters)
             throws ISException {
@@ -1100,8 +1551,27 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
         return iDao.getList(aVo, aUser, aConnection, aParameters);
     }
 
+    @Override
+    public ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters)
+            throws ISException {
+        return iDao.getCursor(aVo, aUser, aConnection, aParameters);
+    }
+
+    /**
+     * Le curseur est lu directement dans le dao, il ne passe pas par un getList redéfini par la classe de l'objet métier.
+     */
+    @Override
+    public boolean isCursorSupported() {
+        try {
+            return getClass().getMethod("getList", IValueObject.class, ILoggedUser.class, Connection.class, DAOParameter[].class)
+                    .getDeclaringClass() == AbstractBusinessObject.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     /**
-     * Return the actual multiselected of a multiselected field
+     * Return the actual links of a multiselected field
      *
      * @param multiselect
      *            multiselect info
@@ -1111,29 +1581,25 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
      *            utilisateur
      * @param con
      *            connexion
-     * @return liste de multiselect infos
+     * @return liste des records de l'objet de liaison
      * @throws ISException
      *             erreur de récuperation des enregistrements sélectionnées
      */
-    private List<?> getMultiselected(MultiselectInfo multiselect, Object voId, ILoggedUser user, Connection con) throws ISException {
+    private Collection<?> getMultiselectLinks(MultiselectInfo multiselect, Object voId, ILoggedUser user, Connection con)
+            throws ISException {
         IBusinessObject boSelected = iBOFactory.getBO(multiselect.getLinkName());
         IValueObject voSelected = iVOFactory.getVO(multiselect.getLinkName());
         voSelected.setProperty(multiselect.getMasterLink(), voId);
         Collection<?> colSelected = boSelected.getList(voSelected, user, con).getListObject();
-        List<Object> selSelected = new ArrayList<>();
-        if (colSelected != null && !colSelected.isEmpty()) {
-            Iterator<?> itSelected = colSelected.iterator();
-            for (int i = 0; i < colSelected.size(); i++) {
-                IValueObject objVO = (IValueObject) itSelected.next();
-                // Adding the effective selected...
-                selSelected.add(objVO.getProperty(multiselect.getSelectLink()));
-            }
+        if (colSelected == null) {
+            return new ArrayList<>();
         }
-        return selSelected;
+        return colSelected;
     }
 
     /**
-     * update the multiselect informations
+     * update the multiselect informations. Les liens existants sont lus avec une seule requête, les liens enlevés sont supprimés par le
+     * deleteMulti de leur objet métier et les nouveaux liens créés en un batch.
      *
      * @param multiselect
      *            multiselect info
@@ -1152,39 +1618,44 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
      */
     protected void updateMultiselected(MultiselectInfo multiselect, Object voId, List<?> aList, ILoggedUser user, Connection con)
             throws SQLException, ISException {
-        List<?> oldList = getMultiselected(multiselect, voId, user, con);
         List<?> newList = aList;
         if (newList == null) {
             newList = new ArrayList<>();
         }
         IBusinessObject boSelected = iBOFactory.getBO(multiselect.getLinkName());
-        IValueObject voSelected = iVOFactory.getVO(multiselect.getLinkName());
-        // Delete operations
-        for (Object id : oldList) {
-            if (!newList.contains(id)) {
-                voSelected.setProperty(multiselect.getMasterLink(), voId);
-                voSelected.setProperty(multiselect.getSelectLink(), id);
-                Collection<?> col = boSelected.getList(voSelected, user, con).getListObject();
-                Iterator<?> it = col.iterator();
-                while (it.hasNext()) {
-                    voSelected = (IValueObject) it.next();
-                    try {
-                        boSelected.delete(voSelected.getId(), voSelected.getTimestamp(), con, user, DAOParameter.EMPTY_PARAMETER);
-                    } catch (ISException e) {
-                        throw (SQLException) e.getCause();
-                    }
-                }
+
+        // Liens à supprimer: ceux dont la valeur n'est plus sélectionnée
+        List<Object> oldList = new ArrayList<>();
+        List<Object> deleteIds = new ArrayList<>();
+        List<Timestamp> deleteTimestamps = new ArrayList<>();
+        for (Object obj : getMultiselectLinks(multiselect, voId, user, con)) {
+            IValueObject link = (IValueObject) obj;
+            Object selected = link.getProperty(multiselect.getSelectLink());
+            oldList.add(selected);
+            if (!newList.contains(selected)) {
+                deleteIds.add(link.getId());
+                deleteTimestamps.add(link.getTimestamp());
             }
         }
 
+        // Delete operations
+        if (!deleteIds.isEmpty()) {
+            boSelected.deleteMulti(deleteIds, deleteTimestamps, con, user, DAOParameter.EMPTY_PARAMETER);
+        }
+
         // Create operations
+        List<IValueObject> creates = new ArrayList<>();
         for (Object obj : newList) {
             if (!oldList.contains(obj)) {
+                IValueObject voSelected = iVOFactory.getVO(multiselect.getLinkName());
                 voSelected.setProperty(multiselect.getMasterLink(), voId);
                 voSelected.setProperty(multiselect.getSelectLink(), obj);
-                boSelected.create(voSelected, con, user);
+                creates.add(voSelected);
             }
         }
+        if (!creates.isEmpty()) {
+            boSelected.create(creates, con, user);
+        }
     }
 
     /**
@@ -1296,15 +1767,7 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
             }
 
             // Modification des enfants
-            for (IValueObject vo : cpListVO) {
-                if (vo.getTimestamp() == null) {
-                    IValueObject voBase = bo.getRecord(vo.getId(), con, user, false).getValueObject();
-                    if (voBase != null) {
-                        vo.setTimestamp(voBase.getTimestamp());
-                    }
-                }
-
-            }
+            setMissingTimestamps(children.getKey(), bo, cpListVO, con, user);
             IDAOResult updates = bo.update(cpListVO, con, user);
             if (updates.getNbrRecords() >= 0) {
                 ret += updates.getNbrRecords();
@@ -1377,17 +1840,59 @@ public abstract class AbstractBusinessObject implements IBusinessObject, Seriali
         IBusinessObject bo = iBOFactory.getBO(aChildren.getObjectType());
         List<IValueObject> listUpdate = aChildren.getUpdateList();
         if (listUpdate != null) {
-            for (IValueObject vo : listUpdate) {
-                if (vo.getTimestamp() == null) {
-                    IValueObject voBase = bo.getRecord(vo.getId(), aCon, aUser, false).getValueObject();
-                    if (voBase != null) {
-                        vo.setTimestamp(voBase.getTimestamp());
+            setMissingTimestamps(aChildren.getObjectType(), bo, listUpdate, aCon, aUser);
+            return bo.update(listUpdate, aCon, aUser);
+        }
+        return new DAOResult(0);
+    }
+
+    /**
+     * Complète le timestamp des enfants à modifier qui n'en ont pas. Les timestamps sont lus avec une requête IN par bloc
+     * d'identifiants, avec la sécurité de l'objet métier de l'enfant.
+     *
+     * @param aName
+     *            nom de l'objet métier des enfants
+     * @param aBo
+     *            objet métier des enfants
+     * @param aVos
+     *            enfants à modifier
+     * @param aCon
+     *            connexion
+     * @param aUser
+     *            utilisateur
+     * @throws SQLException
+     *             erreur bd
+     */
+    private void setMissingTimestamps(String aName, IBusinessObject aBo, List<IValueObject> aVos, Connection aCon, ILoggedUser aUser)
+            throws SQLException {
+        Map<Object, List<IValueObject>> missing = new LinkedHashMap<>();
+        for (IValueObject vo : aVos) {
+            if (vo.getTimestamp() == null && vo.getId() != null) {
+                missing.computeIfAbsent(vo.getId(), k -> new ArrayList<>()).add(vo);
+            }
+        }
+        VOInfo info = iVOFactory.getVO(aName).getVOInfo();
+        if (missing.isEmpty() || info == null || info.getTimestamp() == null) {
+            return;
+        }
+
+        List<Object> ids = new ArrayList<>(missing.keySet());
+        DAOParameter attributes = new DAOParameter(Name.ATTRIBUTES, Arrays.asList(info.getId(), info.getTimestamp()));
+        for (int start = 0; start < ids.size(); start += InListStrategy.IN_LIST_CHUNK_SIZE) {
+            IValueObject query = iVOFactory.getVO(aName);
+            int end = Math.min(start + InListStrategy.IN_LIST_CHUNK_SIZE, ids.size());
+            query.setProperty(info.getId(), Operator.getIn(ids.subList(start, end)));
+            try {
+                for (Object obj : aBo.getList(query, aUser, aCon, attributes).getListObject()) {
+                    IValueObject rec = (IValueObject) obj;
+                    for (IValueObject vo : missing.getOrDefault(rec.getId(), Collections.emptyList())) {
+                        vo.setTimestamp(rec.getTimestamp());
                     }
                 }
+            } catch (ISException e) {
+                throw (SQLException) e.getCause();
             }
-            return bo.update(listUpdate, aCon, aUser);
         }
-        return new DAOResult(0);
     }
 
     /**
@@ -16,13 +16,19 @@
 package ch.inser.dynaplus.bo;
 
 import java.io.File;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.sql.DataSource;
 
@@ -32,18 +38,25 @@ import org.apache.commons.logging.LogFactory;
 import ch.inser.dynamic.common.DAOParameter;
 import ch.inser.dynamic.common.DAOParameter.Name;
 import ch.inser.dynamic.common.DAOResult;
+import ch.inser.dynamic.common.DAOTools;
 import ch.inser.dynamic.common.DynamicDAO.Aggregator;
 import ch.inser.dynamic.common.IContextManager;
 import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.LazyLob;
+import ch.inser.dynamic.common.ValueObjectCursor;
+import ch.inser.dynamic.metrics.IMetrics;
+import ch.inser.dynamic.metrics.IMetrics.Operation;
 import ch.inser.dynamic.util.MultiselectInfo;
 import ch.inser.dynamic.util.ShellInfo;
 import ch.inser.dynamic.util.VOInfo;
 import ch.inser.dynaplus.format.IFormatEngine;
 import ch.inser.dynaplus.shell.GenericShellProcess;
 import ch.inser.dynaplus.shell.ShellResult;
+import ch.inser.dynaplus.sql.ISDataSource;
+import ch.inser.dynaplus.sql.UnitOfWork;
 import ch.inser.dynaplus.util.Constants.Mode;
 import ch.inser.dynaplus.vo.IVOFactory;
 import ch.inser.jsl.exceptions.ISException;
@@ -94,6 +107,12 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     /** Engine pour transformer des enregistrements en format pdf, csv etc. */
     private transient IFormatEngine iFormatEngine;
 
+    /** Cache des résultats de getList et getRecord, null si pas activé (appinfo querycache) */
+    private transient QueryCache iQueryCache;
+
+    /** Nombre d'écritures par objet métier, pour les caches qui dépendent de plusieurs objets métier */
+    private static final Map<String, AtomicLong> cWriteCounts = new ConcurrentHashMap<>();
+
     /**
      * Constructeur par défaut
      *
@@ -111,9 +130,11 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     public IDAOResult create(IValueObject valueObject, ILoggedUser user) throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
         IDAOResult result = new DAOResult(Status.KO);
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
             IValueObject voBackup = (IValueObject) valueObject.clone();
+            long start = startMetrics();
             result = bo.create(valueObject, con, user);
+            recordMetrics(Operation.CREATE, start, result);
             if (!result.isStatusOK()) {
                 con.rollback();
                 return result;
@@ -133,7 +154,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
                 return new DAOResult(Status.KO);
             }
             // OK then commit!
-            con.commit();
+            commit(con);
         } catch (SQLException e) {
             throw new ISException(e);
         }
@@ -143,16 +164,17 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     @Override
     public IDAOResult create(List<IValueObject> valueObjects, ILoggedUser user) throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
-        DataSource ds = iContextManager.getDataSource(iDbObjectName);
 
         Connection con = null;
         boolean isOK = false;
         IDAOResult result = null;
         try {
-            con = ds.getConnection();
+            con = getConnection();
             con.setAutoCommit(false);
+            long start = startMetrics();
             result = bo.create(valueObjects, con, user);
-            con.commit();
+            recordMetrics(Operation.CREATE, start, result);
+            commit(con);
             isOK = true;
         } catch (SQLException e) {
             throw new ISException(e);
@@ -180,9 +202,11 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult deleteMulti(List<Object> aIds, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = iBOFactory.getBO(iName).deleteMulti(aIds, con, aUser, aParameters);
-            con.commit();
+            recordMetrics(Operation.DELETE, start, result);
+            commit(con);
             return result;
         } catch (SQLException e) {
             throw new ISException(e);
@@ -192,9 +216,11 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     @Override
     public IDAOResult deleteMultiQuery(List<IValueObject> aVos, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = bo.deleteMultiQuery(aVos, con, aUser, aParameters);
-            con.commit();
+            recordMetrics(Operation.DELETE, start, result);
+            commit(con);
             return result;
         } catch (SQLException e) {
             throw new ISException(e);
@@ -203,9 +229,11 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult deleteQuery(IValueObject aVo, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = iBOFactory.getBO(iName).deleteQuery(aVo, con, aUser, aParameters);
-            con.commit();
+            recordMetrics(Operation.DELETE, start, result);
+            commit(con);
             return result;
         } catch (SQLException e) {
             throw new ISException(e);
@@ -214,7 +242,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult getField(Object id, String fieldName) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getReadConnection()) {
             return iBOFactory.getBO(iName).getField(id, fieldName, con);
         } catch (SQLException e) {
             throw new ISException(e);
@@ -223,7 +251,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult getFieldsRequest(IValueObject aVo, String aFieldName, DAOParameter... aParameters) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getReadConnection()) {
             return iBOFactory.getBO(iName).getFieldsRequest(aVo, aFieldName, con, aParameters);
         } catch (SQLException e) {
             throw new ISException(e);
@@ -233,7 +261,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     @Override
     public IDAOResult getFieldsRequest(IValueObject aVo, String aFieldName, ILoggedUser aUser, DAOParameter... aParameters)
             throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getReadConnection()) {
             return iBOFactory.getBO(iName).getFieldsRequest(aVo, aFieldName, aUser, con, aParameters);
         } catch (SQLException e) {
             throw new ISException(e);
@@ -242,7 +270,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult getAggregateField(IValueObject aVo, String aFieldName, Aggregator aggr) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getReadConnection()) {
             return iBOFactory.getBO(iName).getAggregateField(aVo, aFieldName, aggr, con);
         } catch (SQLException e) {
             throw new ISException(e);
@@ -253,7 +281,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     public IValueObject getInitVO(ILoggedUser user) throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
         IValueObject vo = null;
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getReadConnection()) {
             vo = bo.getInitVO(user, con, true);
         } catch (SQLException e) {
             throw new ISException(e);
@@ -265,7 +293,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     public IValueObject getInitVO(Mode mode, ILoggedUser user) throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
         IValueObject vo = null;
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getReadConnection()) {
             vo = bo.getInitVO(mode, user, con, true);
         } catch (SQLException e) {
             throw new ISException(e);
@@ -283,8 +311,24 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
             }
 
             // Cherche l'enregistrement en format VO
-            try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+            QueryCache cache = getQueryCache();
+            String key = null;
+            long epoch = 0;
+            if (cache != null) {
+                key = cache.getKey("record", id, user, aParameters);
+                epoch = cache.getEpoch();
+                result = cache.get(key);
+                if (result != null) {
+                    return result;
+                }
+            }
+            try (Connection con = getReadConnection()) {
+                long start = startMetrics();
                 result = iBOFactory.getBO(iName).getRecord(id, con, user, true, aParameters);
+                recordMetrics(Operation.GET_RECORD, start, result);
+                if (cache != null) {
+                    cache.put(key, result, epoch);
+                }
                 return result;
             }
 
@@ -303,8 +347,10 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
             }
 
             // Cherche l'enregistrement en format VO
-            try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+            try (Connection con = getReadConnection()) {
+                long start = startMetrics();
                 result = iBOFactory.getBO(iName).getRecordFull(id, con, user, true, aParameters);
+                recordMetrics(Operation.GET_RECORD, start, result);
                 return result;
             }
 
@@ -334,7 +380,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
         // Verify that the record exists and then close the connection!
         IDAOResult result = null;
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getReadConnection()) {
             result = iBOFactory.getBO(iName).getRecord(aId, con, aUser, false);
             if (!result.isStatusOK()) {
                 return result;
@@ -389,7 +435,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult getTimestamp(Object id, ILoggedUser user) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getReadConnection()) {
             IDAOResult result = iBOFactory.getBO(iName).getTimestamp(id, con, user);
             return result;
         } catch (SQLException e) {
@@ -400,8 +446,10 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     @Override
     public IDAOResult update(IValueObject valueObject, ILoggedUser user) throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = bo.update(valueObject, con, user);
+            recordMetrics(Operation.UPDATE, start, result);
 
             if (result.isStatusOK() || result.isStatusNOTHING_TODO()) {
                 IDAOResult resultChildren = null;
@@ -421,9 +469,10 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
             // LE update du BO générique retourne un ValueObject dans la
             // réponse, mais c'est pas forcement le cas pour les surchargements
             if (result.getValueObject() == null) {
-                result.setValueObject(getRecord(valueObject.getId(), user).getValueObject());
+                // Lu dans la transaction de la mise à jour
+                result.setValueObject(bo.getRecord(valueObject.getId(), con, user, true).getValueObject());
             }
-            con.commit();
+            commit(con);
             return result;
         } catch (SQLException e) {
             throw new ISException(e);
@@ -434,7 +483,8 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     public IDAOResult update(List<IValueObject> aRecords, List<IValueObject> aDeletes, ILoggedUser user, DAOParameter... aParameters)
             throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             List<IValueObject> results;
 
             // Add and/or update
@@ -478,8 +528,10 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
                 }
             }
 
-            con.commit();
-            return new DAOResult(results);
+            commit(con);
+            IDAOResult result = new DAOResult(results);
+            recordMetrics(Operation.UPDATE, start, result);
+            return result;
         } catch (SQLException e) {
             throw new ISException(e);
         }
@@ -494,25 +546,109 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
             aVo.removeProperty(multiselect.getSelectName());
         }
 
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
-            IDAOResult result = iBOFactory.getBO(iName).getList(aVo, aUser, con, aParameters);
+        QueryCache cache = getQueryCache();
+        String key = null;
+        long epoch = 0;
+        IDAOResult result = null;
+        if (cache != null) {
+            key = cache.getKey("list", aVo, aUser, aParameters);
+            epoch = cache.getEpoch();
+            result = cache.get(key);
+        }
 
-            // Cherche l'enregistrement dans un format spécifié
-            if (DAOParameter.getValue(DAOParameter.Name.RESULT_FORMAT, aParameters) != null) {
-                return getFormattedList(result.getListObject(), aUser, aParameters);
+        if (result == null) {
+            try (Connection con = getReadConnection()) {
+                long start = startMetrics();
+                result = iBOFactory.getBO(iName).getList(aVo, aUser, con, aParameters);
+                recordMetrics(Operation.GET_LIST, start, result);
+            } catch (SQLException e) {
+                throw new ISException(e);
             }
-            return result;
+            if (cache != null) {
+                cache.put(key, result, epoch);
+            }
+        }
 
+        // Cherche l'enregistrement dans un format spécifié
+        if (DAOParameter.getValue(DAOParameter.Name.RESULT_FORMAT, aParameters) != null) {
+            return getFormattedList(result.getListObject(), aUser, aParameters);
+        }
+        return result;
+    }
+
+    @Override
+    public ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
+        // Remove all multiselect things
+        for (MultiselectInfo multiselect : iVOInfo.getMultiselects()) {
+            aVo.removeProperty(multiselect.getSelectName() + "_list");
+            aVo.removeProperty(multiselect.getSelectName());
+        }
+
+        Connection con = null;
+        try {
+            con = getReadConnection();
+            ValueObjectCursor cursor = iBOFactory.getBO(iName).getCursor(aVo, aUser, con, aParameters);
+            // La connexion est fermée avec le curseur
+            cursor.setConnection(con);
+            return cursor;
         } catch (SQLException e) {
+            closeQuietly(con);
             throw new ISException(e);
+        } catch (ISException | RuntimeException e) {
+            closeQuietly(con);
+            throw e;
+        }
+    }
+
+    @Override
+    public IDAOResult getList(IValueObject aVo, OutputStream aStream, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
+        // Vérify that format engine has been set
+        if (iFormatEngine == null) {
+            logger.error("No format engine has been set for business process " + iName);
+            return new DAOResult(Status.KO);
+        }
+
+        if (!iBOFactory.getBO(iName).isCursorSupported()) {
+            // getList redéfini par l'objet métier: les records sont lus par getList et formattés depuis la liste
+            List<DAOParameter> params = new ArrayList<>(aParameters.length);
+            for (DAOParameter param : aParameters) {
+                if (param.getName() != Name.RESULT_FORMAT) {
+                    params.add(param);
+                }
+            }
+            List<IValueObject> records = getList(aVo, aUser, params.toArray(new DAOParameter[params.size()])).getListObject();
+            return iFormatEngine.format(records.iterator(), aStream, aUser, aParameters);
+        }
+
+        try (ValueObjectCursor cursor = getCursor(aVo, aUser, aParameters)) {
+            return iFormatEngine.format(cursor, aStream, aUser, aParameters);
+        }
+    }
+
+    /**
+     * Ferme une connexion après une erreur, l'erreur de fermeture est seulement loggée.
+     *
+     * @param aConnection
+     *            connexion, peut être null
+     */
+    private static void closeQuietly(Connection aConnection) {
+        if (aConnection == null) {
+            return;
+        }
+        try {
+            aConnection.close();
+        } catch (SQLException e) {
+            logger.error("SQLException :", e);
         }
     }
 
     @Override
     public IDAOResult updateField(List<Object> aLstId, String aFieldName, List<Object> aLstValue, ILoggedUser aUser) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = iBOFactory.getBO(iName).updateField(aLstId, aFieldName, aLstValue, con, aUser);
-            con.commit();
+            recordMetrics(Operation.UPDATE, start, result);
+            commit(con);
             return result;
         } catch (SQLException e) {
             throw new ISException(e);
@@ -521,10 +657,12 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult updateFields(Object id, String[] aFieldNames, Object[] aValues) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = iBOFactory.getBO(iName).updateFields(id, aFieldNames, aValues, con);
+            recordMetrics(Operation.UPDATE, start, result);
             if (result.getNbrRecords() >= 0 || result.isStatusNOTHING_TODO()) {
-                con.commit();
+                commit(con);
             }
             return result;
         } catch (SQLException e) {
@@ -534,10 +672,12 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult updateFields(IValueObject aValueObject, ILoggedUser aUser) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = iBOFactory.getBO(iName).updateFields(aValueObject, con, aUser);
+            recordMetrics(Operation.UPDATE, start, result);
             if (result.getNbrRecords() >= 0 || result.isStatusNOTHING_TODO()) {
-                con.commit();
+                commit(con);
             }
             return result;
         } catch (SQLException e) {
@@ -548,10 +688,12 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     @Override
     public IDAOResult updateFieldRequest(IValueObject aVo, String aFieldName, Object aValue) throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = bo.updateFieldRequest(aVo, aFieldName, aValue, con);
+            recordMetrics(Operation.UPDATE, start, result);
             if (result.getNbrRecords() >= 0 || result.isStatusNOTHING_TODO()) {
-                con.commit();
+                commit(con);
             }
             return result;
         } catch (SQLException e) {
@@ -618,7 +760,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
         Collection<?> ret = null;
         try (Connection con = ds.getConnection()) {
             ret = bo.executeMethode(aNameMethode, aVos, aUser, con);
-            con.commit();
+            commit(con);
         } catch (SQLException e) {
             throw new ISException(e);
         }
@@ -632,7 +774,7 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
         Object ret = null;
         try (Connection con = ds.getConnection()) {
             ret = bo.executeMethode(aNameMethode, anObject, aUser, con);
-            con.commit();
+            commit(con);
         } catch (SQLException e) {
             throw new ISException(e);
         }
@@ -693,6 +835,168 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
             iDbObjectName = iContextManager.getProperty((String) iVOInfo.getValue("connection"));
             logger.info(iVOInfo.getName() + " datasource: " + iDbObjectName);
         }
+        iQueryCache = QueryCache.create(iContextManager, iVOInfo);
+    }
+
+    /**
+     * Connexion pour les lectures, celle de l'unité de travail du thread s'il y en a une, aussi dans une unité en lecture seule. Ce qui
+     * est écrit sur cette connexion n'est jamais validé: la connexion est annulée à la fermeture.
+     *
+     * @return la connexion
+     * @throws SQLException
+     *             erreur de connexion
+     */
+    protected Connection getReadConnection() throws SQLException {
+        DataSource ds = iContextManager.getDataSource(iDbObjectName);
+        long start = startMetrics();
+        Connection con = ds instanceof ISDataSource ? ((ISDataSource) ds).getReadOnlyConnection() : ds.getConnection();
+        recordPoolWait(start);
+        return con;
+    }
+
+    /**
+     * @return le cache des requêtes, null s'il n'est pas activé ou si une unité de travail en écriture est ouverte: ses lectures ne
+     *         doivent ni mettre en cache des données pas encore validées ni lire le cache
+     */
+    private QueryCache getQueryCache() {
+        if (iQueryCache == null || UnitOfWork.isReadWrite(iContextManager.getDataSource(iDbObjectName))) {
+            return null;
+        }
+        return iQueryCache;
+    }
+
+    /**
+     * Connexion pour les écritures, celle de l'unité de travail du thread s'il y en a une
+     *
+     * @return la connexion
+     * @throws SQLException
+     *             erreur de connexion
+     */
+    protected Connection getConnection() throws SQLException {
+        long start = startMetrics();
+        Connection con = iContextManager.getDataSource(iDbObjectName).getConnection();
+        recordPoolWait(start);
+        return con;
+    }
+
+    /**
+     * @return début de la mesure d'une opération, 0 si les mesures ne sont pas activées
+     */
+    private long startMetrics() {
+        return iContextManager.getMetrics().isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Enregistre l'attente d'une connexion
+     *
+     * @param aStart
+     *            début de l'attente, résultat de startMetrics
+     */
+    private void recordPoolWait(long aStart) {
+        if (aStart != 0) {
+            iContextManager.getMetrics().recordPoolWait(iName, System.nanoTime() - aStart);
+        }
+    }
+
+    /**
+     * Enregistre la durée et les lignes d'une opération, et pour une lecture la taille des LOB lus
+     *
+     * @param aOperation
+     *            opération
+     * @param aStart
+     *            début de l'opération, résultat de startMetrics
+     * @param aResult
+     *            résultat de l'objet métier
+     */
+    private void recordMetrics(Operation aOperation, long aStart, IDAOResult aResult) {
+        if (aStart == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - aStart;
+        IMetrics metrics = iContextManager.getMetrics();
+        List<IValueObject> rows = null;
+        if (aResult != null && aOperation == Operation.GET_LIST) {
+            rows = aResult.getListObject();
+        } else if (aResult != null && aOperation == Operation.GET_RECORD && aResult.getValueObject() != null) {
+            rows = Collections.singletonList(aResult.getValueObject());
+        }
+        long count;
+        if (aOperation.isRead()) {
+            count = rows == null ? 0 : rows.size();
+        } else {
+            count = aResult == null ? 0 : Math.max(aResult.getNbrRecords(), 0);
+        }
+        metrics.record(iName, aOperation, nanos, count);
+        if (rows != null && !rows.isEmpty()) {
+            metrics.recordLobBytes(iName, aOperation, getLobBytes(rows));
+        }
+    }
+
+    /**
+     * @param aRows
+     *            enregistrements lus
+     * @return taille des CLOB (en caractères) et des BLOB (en octets) chargés; un LazyLob pas encore lu compte pour 0
+     */
+    private static long getLobBytes(List<IValueObject> aRows) {
+        List<String> lobs = new ArrayList<>();
+        for (Map.Entry<String, IValueObject.Type> type : aRows.get(0).getTypes().entrySet()) {
+            if (DAOTools.isLob(type.getValue())) {
+                lobs.add(type.getKey());
+            }
+        }
+        long bytes = 0;
+        for (IValueObject row : aRows) {
+            for (String lob : lobs) {
+                Object value = row.getProperty(lob);
+                try {
+                    if (value instanceof String) {
+                        bytes += ((String) value).length();
+                    } else if (value instanceof Blob) {
+                        bytes += ((Blob) value).length();
+                    } else if (value instanceof LazyLob && ((LazyLob) value).isLoaded()) {
+                        bytes += ((LazyLob) value).length();
+                    }
+                } catch (SQLException e) {
+                    logger.debug("Taille du LOB '" + lob + "' pas disponible", e);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Valide les écritures du process métier. Le cache des requêtes est vidé après le commit effectif: celui de l'unité de travail si la
+     * connexion en fait partie.
+     *
+     * @param aConnection
+     *            connexion des écritures
+     * @throws SQLException
+     *             erreur de commit
+     */
+    protected void commit(Connection aConnection) throws SQLException {
+        aConnection.commit();
+        UnitOfWork.afterCommit(aConnection, this::invalidateQueryCache);
+    }
+
+    /**
+     * Vide le cache des requêtes de l'objet métier et de ses enfants après une écriture
+     */
+    protected void invalidateQueryCache() {
+        QueryCache.invalidate(iContextManager, iVOInfo);
+        cWriteCounts.computeIfAbsent(iName, aName -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Nombre d'écritures faites par le process métier d'un objet métier. Un cache construit à partir de plusieurs objets métier garde la
+     * somme de leurs compteurs et se recharge quand elle change.
+     *
+     * @param aName
+     *            nom de l'objet métier
+     * @return nombre d'écritures depuis le démarrage
+     */
+    public static long getWriteCount(String aName) {
+        AtomicLong count = cWriteCounts.get(aName);
+        return count == null ? 0 : count.get();
     }
 
     /**
@@ -718,9 +1022,11 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
 
     @Override
     public IDAOResult delete(Object aId, Timestamp aTimestamp, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result = iBOFactory.getBO(iName).delete(aId, aTimestamp, con, aUser, aParameters);
-            con.commit();
+            recordMetrics(Operation.DELETE, start, result);
+            commit(con);
             return result;
         } catch (SQLException e) {
             throw new ISException(e);
@@ -731,7 +1037,8 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
     public IDAOResult deleteCascade(Object aId, Timestamp aTimestamp, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
         IBusinessObject bo = iBOFactory.getBO(iName);
         IDAOResult result2 = new DAOResult();
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
+        try (Connection con = getConnection()) {
+            long start = startMetrics();
             IDAOResult result1 = bo.deleteCascade(aId, aTimestamp, con, aUser, aParameters);
 
             // Message d'erreur sur les champs enfants
@@ -739,8 +1046,13 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
                 return new DAOResult(Status.KO);
             }
 
+            // Requêtes planifiées seulement, le record maître n'est pas supprimé
+            if (Boolean.TRUE.equals(DAOParameter.getValue(Name.DRY_RUN, aParameters))) {
+                return result1;
+            }
+
             result2 = bo.delete(aId, aTimestamp, con, aUser, new DAOParameter(Name.TRANSACTION_ID, aParameters));
-            con.commit();
+            commit(con);
 
             // Message d'erreur sur le champ maitre
             if (!result2.isStatusOK()) {
@@ -748,7 +1060,9 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
             }
 
             // Retourne le nombre de champ supprimé
-            return new DAOResult(result1.getNbrRecords() + result2.getNbrRecords());
+            IDAOResult result = new DAOResult(result1.getNbrRecords() + result2.getNbrRecords());
+            recordMetrics(Operation.DELETE, start, result);
+            return result;
         } catch (SQLException e) {
             throw new ISException(e);
         }
@@ -783,8 +1097,11 @@ public abstract class AbstractBusinessProcess implements IBusinessProcess, Seria
      */
     @Override
     public IDAOResult getListCount(IValueObject vo, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
-        try (Connection con = iContextManager.getDataSource(iDbObjectName).getConnection()) {
-            return iBOFactory.getBO(iName).getListCount(vo, con, aUser, aParameters);
+        try (Connection con = getReadConnection()) {
+            long start = startMetrics();
+            IDAOResult result = iBOFactory.getBO(iName).getListCount(vo, con, aUser, aParameters);
+            recordMetrics(Operation.COUNT, start, result);
+            return result;
         } catch (SQLException e) {
             throw new ISException(e);
         }
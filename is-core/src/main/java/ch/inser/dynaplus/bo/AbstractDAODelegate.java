@@ -28,6 +28,7 @@ import ch.inser.dynamic.common.DynamicDAO.Aggregator;
 import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynaplus.dao.IDataAccessObject;
 import ch.inser.jsl.exceptions.ISException;
 import ch.inser.jsl.list.ListHandler.Sort;
@@ -55,11 +56,67 @@ public abstract class AbstractDAODelegate implements IDAODelegate, Serializable
         return iDao.create(vo, user, connection);
     }
 
+    /**
+     * Si create, getNextId ou getRecord sont redéfinis par la classe du délégué, le record est créé et relu par ces méthodes.
+     */
+    @Override
+    public IDAOResult createReturning(IValueObject aVo, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        if (isOverridden("create", IValueObject.class, ILoggedUser.class, Connection.class)
+                || isOverridden("getNextId", ILoggedUser.class, Connection.class)
+                || isOverridden("getRecord", Object.class, ILoggedUser.class, Connection.class)) {
+            return IDAODelegate.super.createReturning(aVo, aUser, aConnection);
+        }
+        return iDao.createReturning(aVo, aUser, aConnection);
+    }
+
+    /**
+     * Si create est redéfini par la classe du délégué, chaque record est créé par create.
+     */
+    @Override
+    public IDAOResult create(List<IValueObject> aVos, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        if (isOverridden("create", IValueObject.class, ILoggedUser.class, Connection.class)) {
+            return IDAODelegate.super.create(aVos, aUser, aConnection);
+        }
+        return iDao.create(aVos, aUser, aConnection);
+    }
+
+    /**
+     * @param aName
+     *            nom de la méthode
+     * @param aTypes
+     *            types des paramètres
+     * @return true si la méthode est redéfinie par la classe du délégué, la requête du dao ne l'appellerait pas
+     */
+    private boolean isOverridden(String aName, Class<?>... aTypes) {
+        try {
+            return getClass().getMethod(aName, aTypes).getDeclaringClass() != AbstractDAODelegate.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public IDAOResult update(List<Map<String, Object>> aUpdateFields, List<Object> aIds, List<Timestamp> aTimestamps, ILoggedUser aUser,
+            Connection aConnection) throws SQLException {
+        return iDao.update(aUpdateFields, aIds, aTimestamps, aUser, aConnection);
+    }
+
     @Override
     public IDAOResult delete(Object id, Timestamp timestamp, ILoggedUser user, Connection connection) throws SQLException {
         return iDao.delete(id, timestamp, user, connection);
     }
 
+    /**
+     * Si delete est redéfini par la classe du délégué, chaque record est supprimé par delete.
+     */
+    @Override
+    public IDAOResult delete(List<Object> aIds, List<Timestamp> aTimestamps, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        if (isOverridden("delete", Object.class, Timestamp.class, ILoggedUser.class, Connection.class)) {
+            return IDAODelegate.super.delete(aIds, aTimestamps, aUser, aConnection);
+        }
+        return iDao.delete(aIds, aTimestamps, aUser, aConnection);
+    }
+
     @Override
     public IDAOResult getField(Object id, String fieldName, Connection connection) throws SQLException {
         return iDao.getField(id, fieldName, connection);
@@ -87,11 +144,22 @@ public abstract class AbstractDAODelegate implements IDAODelegate, Serializable
         return iDao.getList(aVo, aUser, aConnection, aParameters);
     }
 
+    @Override
+    public ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters)
+            throws ISException {
+        return iDao.getCursor(aVo, aUser, aConnection, aParameters);
+    }
+
     @Override
     public Object getNextId(ILoggedUser user, Connection connection) throws SQLException {
         return iDao.getNextId(user, connection);
     }
 
+    @Override
+    public List<Object> getNextIds(int aCount, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        return iDao.getNextIds(aCount, aUser, aConnection);
+    }
+
     @Override
     public IDAOResult getRecord(Object id, ILoggedUser user, Connection connection) throws SQLException {
         return iDao.getRecord(id, user, connection);
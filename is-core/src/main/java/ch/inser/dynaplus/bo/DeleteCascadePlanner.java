@@ -0,0 +1,427 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.bo;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import ch.inser.dynamic.common.DAOResult;
+import ch.inser.dynamic.common.DAOTools;
+import ch.inser.dynamic.common.DynamicDAO.AttributeType;
+import ch.inser.dynamic.common.DynamicDAO.Mode;
+import ch.inser.dynamic.common.IDAOResult;
+import ch.inser.dynamic.common.IDAOResult.Status;
+import ch.inser.dynamic.common.ILoggedUser;
+import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.util.DelCascadeInfo;
+import ch.inser.dynamic.util.VOInfo;
+import ch.inser.dynaplus.sql.StatementFactory;
+import ch.inser.dynaplus.vo.IVOFactory;
+
+/**
+ * Delete cascade ensembliste. Le graphe des DelCascadeInfo est parcouru une fois et donne une requête par objet métier enfant, les
+ * niveaux les plus profonds en premier:
+ *
+ * DELETE FROM enfant WHERE fk IN (SELECT pk FROM parent WHERE fk_parent = ?)
+ *
+ * ou, pour les cascades avec <code>&lt;delete&gt;false&lt;/delete&gt;</code>:
+ *
+ * UPDATE enfant SET fk = NULL, timestamp = date courante, utilisateur de mise à jour = ? WHERE fk = ?
+ *
+ * Les filtres de sécurité (select pour la recherche des enfants, delete ou update pour la requête elle-même) et les filtres de
+ * doDocumentFields sont ajoutés à chaque niveau. Les objets métier enfants ne sont pas appelés record par record: leurs contrôles et
+ * multiselects ne sont pas exécutés.
+ *
+ * @author INSER SA
+ *
+ */
+class DeleteCascadePlanner {
+
+    /** Définition de la catégorie de logging */
+    private static final Log logger = LogFactory.getLog(DeleteCascadePlanner.class);
+
+    /** Statut d'une cascade non activée, comme le delete cascade record par record */
+    private static final int NOT_ACTIVATED = -2;
+
+    /** Usine des objets métier, pour les filtres doDocumentFields */
+    private final BOFactory iBOFactory;
+
+    /** Usine des value objects, pour les VOInfo des enfants */
+    private final IVOFactory iVOFactory;
+
+    /** Utilisateur, pour les filtres de sécurité et l'utilisateur de mise à jour */
+    private final ILoggedUser iUser;
+
+    /** Fonction SQL de la date courante, pour le timestamp des mises à null */
+    private final String iDateTimeFunction;
+
+    /** Noms des champs dans la base de données par objet métier */
+    private final Map<String, Map<String, String>> iDBNames = new HashMap<>();
+
+    /** Requêtes planifiées, les plus profondes en premier */
+    private final List<Step> iSteps = new ArrayList<>();
+
+    /** Cycle trouvé par le dernier plan */
+    private boolean iCyclic;
+
+    /**
+     * Requête d'un niveau de la cascade
+     */
+    private static final class Step {
+
+        /** Nom de l'objet métier modifié */
+        private final String iName;
+
+        /** Requête */
+        private final String iSql;
+
+        /** Valeurs des "?" */
+        private final List<Object> iValues;
+
+        /** Types des valeurs */
+        private final List<IValueObject.Type> iTypes;
+
+        /**
+         * @param aName
+         *            nom de l'objet métier modifié
+         * @param aSql
+         *            requête
+         * @param aSelection
+         *            sélection des records, pour les valeurs
+         */
+        Step(String aName, String aSql, Selection aSelection) {
+            iName = aName;
+            iSql = aSql;
+            iValues = aSelection.iValues;
+            iTypes = aSelection.iTypes;
+        }
+    }
+
+    /**
+     * Condition qui sélectionne les records d'un niveau de la cascade
+     */
+    private static final class Selection {
+
+        /** Condition SQL */
+        private final StringBuilder iWhere = new StringBuilder();
+
+        /** Valeurs des "?" de la condition */
+        private final List<Object> iValues = new ArrayList<>();
+
+        /** Types des valeurs */
+        private final List<IValueObject.Type> iTypes = new ArrayList<>();
+
+        /**
+         * @param aValue
+         *            valeur d'un "?"
+         * @param aType
+         *            type de la valeur
+         */
+        void add(Object aValue, IValueObject.Type aType) {
+            iValues.add(aValue);
+            iTypes.add(aType);
+        }
+    }
+
+    /**
+     * @param aBOFactory
+     *            usine des objets métier
+     * @param aVOFactory
+     *            usine des value objects
+     * @param aUser
+     *            utilisateur
+     * @param aDateTimeFunction
+     *            fonction SQL de la date courante, voir getDateTimeFunction
+     */
+    DeleteCascadePlanner(BOFactory aBOFactory, IVOFactory aVOFactory, ILoggedUser aUser, String aDateTimeFunction) {
+        iBOFactory = aBOFactory;
+        iVOFactory = aVOFactory;
+        iUser = aUser;
+        iDateTimeFunction = aDateTimeFunction;
+    }
+
+    /**
+     * Planifie les requêtes de la cascade d'un record.
+     *
+     * @param aMaster
+     *            objet métier du record
+     * @param aInfo
+     *            configuration de l'objet métier du record
+     * @param aRecord
+     *            record à supprimer, pour les valeurs des primary keys
+     * @return null si la cascade est planifiée, sinon le résultat d'erreur (voir aussi isCyclic)
+     */
+    IDAOResult plan(IBusinessObject aMaster, VOInfo aInfo, IValueObject aRecord) {
+        iSteps.clear();
+        iCyclic = false;
+        Set<String> path = new HashSet<>();
+        path.add(aInfo.getName());
+        return plan(aMaster, aInfo, null, aRecord, path);
+    }
+
+    /**
+     * @return true si le graphe des cascades contient un cycle (objet métier enfant de lui-même), la cascade doit alors être faite record
+     *         par record
+     */
+    boolean isCyclic() {
+        return iCyclic;
+    }
+
+    /**
+     * Planifie les cascades d'un objet métier
+     *
+     * @param aOwner
+     *            objet métier parent
+     * @param aOwnerInfo
+     *            configuration de l'objet métier parent
+     * @param aOwnerSelection
+     *            sélection des records parents, null pour le record maître
+     * @param aRecord
+     *            record maître
+     * @param aPath
+     *            objets métier parcourus depuis le maître
+     * @return null si la cascade est planifiée, sinon le résultat d'erreur
+     */
+    private IDAOResult plan(IBusinessObject aOwner, VOInfo aOwnerInfo, Selection aOwnerSelection, IValueObject aRecord, Set<String> aPath) {
+        for (DelCascadeInfo delcascade : aOwnerInfo.getDelCascade()) {
+            if (!"true".equalsIgnoreCase(delcascade.getActivate())) {
+                iSteps.clear();
+                return new DAOResult(NOT_ACTIVATED);
+            }
+            String name = delcascade.getName();
+            if (aPath.contains(name)) {
+                iSteps.clear();
+                iCyclic = true;
+                return new DAOResult(Status.NOTHING_TODO);
+            }
+            IValueObject query = iVOFactory.getVO(name);
+            VOInfo info = query.getVOInfo();
+
+            // Sélection des enfants par la foreign key
+            Selection selection = new Selection();
+            selection.iWhere.append(getDBName(info, delcascade.getForeignKey()));
+            if (aOwnerSelection == null) {
+                Object primaryKeyValue = aRecord.getProperty(delcascade.getPrimaryKey());
+                if (primaryKeyValue == null) {
+                    iSteps.clear();
+                    return new DAOResult(Status.KO);
+                }
+                selection.iWhere.append(" = ?");
+                selection.add(primaryKeyValue, aOwnerInfo.getTypes().get(delcascade.getPrimaryKey()));
+            } else {
+                selection.iWhere.append(" IN (SELECT ");
+                selection.iWhere.append(getDBName(aOwnerInfo, delcascade.getPrimaryKey()));
+                selection.iWhere.append(" FROM ");
+                selection.iWhere.append(aOwnerInfo.getTable());
+                selection.iWhere.append(" WHERE ");
+                selection.iWhere.append(aOwnerSelection.iWhere);
+                selection.iWhere.append(")");
+                selection.iValues.addAll(aOwnerSelection.iValues);
+                selection.iTypes.addAll(aOwnerSelection.iTypes);
+            }
+
+            // Filtres de l'objet métier parent (documents)
+            if (aOwner instanceof AbstractBusinessObject) {
+                ((AbstractBusinessObject) aOwner).doDocumentFields(name, query);
+            }
+            for (Map.Entry<String, Object> entry : query.getProperties().entrySet()) {
+                if (entry.getValue() != null && info.getTypes().containsKey(entry.getKey())) {
+                    selection.iWhere.append(" AND ");
+                    selection.iWhere.append(getDBName(info, entry.getKey()));
+                    selection.iWhere.append(" = ?");
+                    selection.add(entry.getValue(), info.getTypes().get(entry.getKey()));
+                }
+            }
+            appendSecurityClause(name, Mode.SELECT, selection.iWhere);
+
+            StringBuilder sql = new StringBuilder(256);
+            Selection values = selection;
+            if ("false".equalsIgnoreCase(delcascade.getDelete())) {
+                // Mise à null de la foreign key, les enfants de l'enfant restent
+                sql.append("UPDATE ");
+                sql.append(info.getTable());
+                sql.append(" SET ");
+                sql.append(getDBName(info, delcascade.getForeignKey()));
+                sql.append(" = NULL");
+                values = new Selection();
+                appendUpdateStamp(info, sql, values);
+                values.iValues.addAll(selection.iValues);
+                values.iTypes.addAll(selection.iTypes);
+                sql.append(" WHERE ");
+                sql.append(selection.iWhere);
+                appendSecurityClause(name, Mode.UPDATE, sql);
+            } else {
+                // Les enfants de l'enfant en premier
+                aPath.add(name);
+                IDAOResult error = plan(iBOFactory.getBO(name), info, selection, aRecord, aPath);
+                aPath.remove(name);
+                if (error != null) {
+                    return error;
+                }
+                sql.append("DELETE FROM ");
+                sql.append(info.getTable());
+                sql.append(" WHERE ");
+                sql.append(selection.iWhere);
+                appendSecurityClause(name, Mode.DELETE, sql);
+            }
+            iSteps.add(new Step(name, sql.toString(), values));
+        }
+        return null;
+    }
+
+    /**
+     * @return les requêtes planifiées, les plus profondes en premier
+     */
+    List<String> getStatements() {
+        List<String> statements = new ArrayList<>(iSteps.size());
+        for (Step step : iSteps) {
+            statements.add(step.iSql);
+        }
+        return statements;
+    }
+
+    /**
+     * Exécute les requêtes planifiées.
+     *
+     * @param aConnection
+     *            connexion
+     * @return nombre total de records supprimés ou modifiés, le nombre par objet métier dans getValue (Map)
+     * @throws SQLException
+     *             erreur bd
+     */
+    IDAOResult execute(Connection aConnection) throws SQLException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int total = 0;
+        for (Step step : iSteps) {
+            PreparedStatement ps = null;
+            try {
+                ps = StatementFactory.getStatement(aConnection, step.iSql);
+                int idx = 1;
+                for (int i = 0; i < step.iValues.size(); i++) {
+                    idx = DAOTools.set(idx, step.iValues.get(i), step.iTypes.get(i), AttributeType.EQUAL, ps);
+                }
+                StatementFactory.debug(logger, ps);
+                int rowCount = ps.executeUpdate();
+                counts.merge(step.iName, rowCount, Integer::sum);
+                total += rowCount;
+            } catch (SQLException e) {
+                String psStr = null;
+                if (ps != null) {
+                    psStr = ps.toString();
+                }
+                logger.error("SqlException: " + psStr, e);
+
+                // Construit une exception chaînée avec la requête SQL
+                SQLException ex = new SQLException(psStr, null, -1001);
+                e.setNextException(ex);
+                throw e;
+            } finally {
+                if (ps != null) {
+                    ps.close();
+                }
+            }
+        }
+        IDAOResult result = new DAOResult(total);
+        result.setValue(counts);
+        return result;
+    }
+
+    /**
+     * Ajoute au SET d'un UPDATE le timestamp et l'utilisateur de la mise à jour, comme AbstractDynamicDAO.update: le timestamp est la date
+     * de la base de données, ou l'heure en millisecondes pour un timestamp de type LONG.
+     *
+     * @param aInfo
+     *            configuration de l'objet métier modifié
+     * @param aSql
+     *            requête, après les champs modifiés
+     * @param aValues
+     *            valeurs des "?" de la requête
+     */
+    private void appendUpdateStamp(VOInfo aInfo, StringBuilder aSql, Selection aValues) {
+        String timestamp = aInfo.getTimestamp();
+        if (timestamp != null && timestamp.length() > 0) {
+            aSql.append(", ");
+            aSql.append(getDBName(aInfo, timestamp));
+            if (IValueObject.Type.LONG.equals(aInfo.getTypes().get(timestamp))) {
+                aSql.append(" = ?");
+                aValues.add(new java.util.Date().getTime(), IValueObject.Type.LONG);
+            } else {
+                aSql.append(" = ");
+                aSql.append(iDateTimeFunction);
+            }
+        }
+        String majName = aInfo.getUpdateUser();
+        if (iUser.getUserUpdateName() != null && majName != null && majName.length() > 0) {
+            aSql.append(", ");
+            aSql.append(getDBName(aInfo, majName));
+            aSql.append(" = ?");
+            aValues.add(iUser.getUserUpdateName(), aInfo.getTypes().get(majName));
+        }
+    }
+
+    /**
+     * @param aConnection
+     *            connexion
+     * @return fonction SQL de la date courante, comme getDateTimeFunction des DAO de la base de données
+     * @throws SQLException
+     *             erreur de lecture des métadonnées
+     */
+    static String getDateTimeFunction(Connection aConnection) throws SQLException {
+        String product = aConnection.getMetaData().getDatabaseProductName();
+        return product != null && product.toLowerCase().contains("postgres") ? "NOW()" : "SYSTIMESTAMP";
+    }
+
+    /**
+     * Ajoute le filtre de sécurité de l'utilisateur
+     *
+     * @param aName
+     *            nom de l'objet métier
+     * @param aMode
+     *            mode de l'accès
+     * @param aSql
+     *            requête
+     */
+    private void appendSecurityClause(String aName, Mode aMode, StringBuilder aSql) {
+        String securityClause = iUser.getAdditionnalClause(aName, aMode);
+        if (securityClause != null && !"".equals(securityClause)) {
+            aSql.append(" AND ");
+            aSql.append(securityClause);
+        }
+    }
+
+    /**
+     * @param aInfo
+     *            configuration de l'objet métier
+     * @param aAttribute
+     *            nom de l'attribut
+     * @return nom du champ dans la base de données
+     */
+    private String getDBName(VOInfo aInfo, String aAttribute) {
+        String dbName = iDBNames.computeIfAbsent(aInfo.getName(), k -> aInfo.getAttributeNameDBNameMap()).get(aAttribute);
+        return dbName == null ? aAttribute : dbName;
+    }
+}
@@ -23,11 +23,13 @@ import java.util.List;
 import java.util.Map;
 
 import ch.inser.dynamic.common.DAOParameter;
+import ch.inser.dynamic.common.DAOResult;
 import ch.inser.dynamic.common.DynamicDAO.Aggregator;
 import ch.inser.dynamic.common.IContextManager;
 import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynamic.quality.IQualityController;
 import ch.inser.dynaplus.util.Constants.Mode;
 import ch.inser.dynaplus.vo.IVOFactory;
@@ -173,6 +175,39 @@ public interface IBusinessObject {
     public IDAOResult delete(Object aId, Timestamp aTimestamp, Connection aConnection, ILoggedUser aUser, DAOParameter... aParameters)
             throws ISException;
 
+    /**
+     * Supprime plusieurs enregistrements avec leur timestamp. Par défaut chaque enregistrement est supprimé par delete, tous les
+     * enregistrements sont traités même si l'un d'eux ne peut pas être supprimé.
+     *
+     * @param aIds
+     *            identifiants des enregistrements
+     * @param aTimestamps
+     *            timestamps des enregistrements, dans l'ordre des identifiants
+     * @param aConnection
+     *            connection à la source de données
+     * @param aUser
+     *            utilisateur
+     * @param aParameters
+     *            les paramètres
+     * @return le nombre d'enregistrements supprimés, ou le premier résultat qui n'est pas OK
+     * @throws ISException
+     *             en cas de problème au niveau de la requête à la base de données
+     */
+    public default IDAOResult deleteMulti(List<Object> aIds, List<Timestamp> aTimestamps, Connection aConnection, ILoggedUser aUser,
+            DAOParameter... aParameters) throws ISException {
+        IDAOResult failure = null;
+        int ret = 0;
+        for (int i = 0; i < aIds.size(); i++) {
+            IDAOResult result = delete(aIds.get(i), aTimestamps.get(i), aConnection, aUser, aParameters);
+            if (result.isStatusOK()) {
+                ret += Math.max(result.getNbrRecords(), 0);
+            } else if (failure == null) {
+                failure = result;
+            }
+        }
+        return failure == null ? new DAOResult(ret) : failure;
+    }
+
     /**
      * Supprime un enregistrement et ses enfants (configuration dans fichier de config du BO).
      *
@@ -472,6 +507,34 @@ public interface IBusinessObject {
      */
     public IDAOResult getList(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters) throws ISException;
 
+    /**
+     * Ouvre un curseur sur le résultat d'une requête de recherche. Les entités sont lues au fur et à mesure, le curseur doit être fermé par
+     * l'appelant.
+     *
+     * @param aVo
+     *            Value object contenant les critères de recherche
+     * @param aUser
+     *            Utilisateur
+     * @param aConnection
+     *            Connexion pour exécuter la requête, doit rester ouverte tant que le curseur est utilisé
+     * @param aParameters
+     *            Les paramêtres, FETCH_SIZE pour le nombre de lignes lues par aller-retour
+     * @return Le curseur sur le resultat de la recherche
+     * @throws ISException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    public default ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters)
+            throws ISException {
+        throw new ISException("Cursor not supported by " + getClass().getName());
+    }
+
+    /**
+     * @return true si getCursor lit les mêmes records que getList, sinon un export en stream est fait depuis getList
+     */
+    public default boolean isCursorSupported() {
+        return false;
+    }
+
     /**
      * Requête de count
      *
@@ -16,6 +16,7 @@
 package ch.inser.dynaplus.bo;
 
 import java.sql.Timestamp;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.List;
 
@@ -25,6 +26,7 @@ import ch.inser.dynamic.common.IContextManager;
 import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynaplus.format.IFormatEngine;
 import ch.inser.dynaplus.util.Constants.Mode;
 import ch.inser.dynaplus.vo.IVOFactory;
@@ -293,6 +295,46 @@ public interface IBusinessProcess {
      */
     public IDAOResult getList(IValueObject aVo, ILoggedUser aUser, DAOParameter... aParameters) throws ISException;
 
+    /**
+     * Ouvre un curseur sur le résultat d'une requête de recherche. La connexion est ouverte pour le curseur et fermée avec lui, le curseur
+     * doit donc être fermé par l'appelant (try-with-resources ou stream().close()).
+     *
+     * @param aVo
+     *            Value object contenant les critères de recherche
+     * @param aUser
+     *            Utilisateur
+     * @param aParameters
+     *            Les paramêtres, FETCH_SIZE pour le nombre de lignes lues par aller-retour
+     * @return Le curseur sur le resultat de la recherche
+     * @throws ISException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    public default ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, DAOParameter... aParameters) throws ISException {
+        throw new ISException("Cursor not supported by " + getClass().getName());
+    }
+
+    /**
+     * Ecrit le résultat d'une requête de recherche dans le format demandé (RESULT_FORMAT) directement dans un stream, ligne par ligne
+     * depuis un curseur. La liste n'est pas chargée en mémoire, sauf si l'objet métier ne supporte pas le curseur (isCursorSupported); le
+     * stream n'est pas fermé.
+     *
+     * @param aVo
+     *            Value object contenant les critères de recherche
+     * @param aStream
+     *            stream de destination, p.ex. la réponse http
+     * @param aUser
+     *            Utilisateur
+     * @param aParameters
+     *            Les paramêtres, RESULT_FORMAT et RESULT_FIELDS obligatoires
+     * @return Le résultat avec le nombre d'enregistrements écrits
+     * @throws ISException
+     *             en cas de problème au niveau de la requête ou de l'écriture
+     */
+    public default IDAOResult getList(IValueObject aVo, OutputStream aStream, ILoggedUser aUser, DAOParameter... aParameters)
+            throws ISException {
+        throw new ISException("Stream list not supported by " + getClass().getName());
+    }
+
     /**
      * Permet de modifier un champ sur chaque ligne d'une liste, la valeur à inserér pour le changement se trouve dans aLstValue, la
      * sécurité est assurée. Seule les champs passés sont modifiés, sous réserve d'actions de triggers de la base.
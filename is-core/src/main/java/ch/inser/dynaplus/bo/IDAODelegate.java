@@ -18,15 +18,19 @@ package ch.inser.dynaplus.bo;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import ch.inser.dynamic.common.DAOParameter;
+import ch.inser.dynamic.common.DAOResult;
 import ch.inser.dynamic.common.DynamicDAO.Aggregator;
 import ch.inser.dynamic.common.IDAOResult;
+import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynaplus.util.IService;
 import ch.inser.jsl.exceptions.ISException;
 import ch.inser.jsl.list.ListHandler.Sort;
@@ -72,6 +76,27 @@ public interface IDAODelegate extends IService {
      */
     public IDAOResult getList(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters) throws ISException;
 
+    /**
+     * Ouvre un curseur sur le résultat d'une requête de recherche. Les entités sont lues au fur et à mesure, le curseur doit être fermé par
+     * l'appelant.
+     *
+     * @param aVo
+     *            Value object contenant les critères de recherche
+     * @param aUser
+     *            Utilisateur
+     * @param aConnection
+     *            Connexion pour exécuter la requête, doit rester ouverte tant que le curseur est utilisé
+     * @param aParameters
+     *            Les paramêtres, FETCH_SIZE pour le nombre de lignes lues par aller-retour
+     * @return Le curseur sur le resultat de la recherche
+     * @throws ISException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    public default ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters)
+            throws ISException {
+        throw new ISException("Cursor not supported by " + getClass().getName());
+    }
+
     /**
      * Requête de count
      *
@@ -126,6 +151,33 @@ public interface IDAODelegate extends IService {
      */
     public Object getNextId(ILoggedUser user, Connection connection) throws SQLException;
 
+    /**
+     * Retourne un bloc de valeurs d'ID de l'entité, en une requête si la base de données le permet.
+     *
+     * @param aCount
+     *            nombre de valeurs
+     * @param aUser
+     *            Utilisateur.
+     * @param aConnection
+     *            Connexion pour exécuter la requête.
+     * @return ids proposés par la séquence, liste vide sans séquence
+     *
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    public default List<Object> getNextIds(int aCount, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        // Par défaut une requête par id
+        List<Object> ids = new ArrayList<>(aCount);
+        for (int i = 0; i < aCount; i++) {
+            Object id = getNextId(aUser, aConnection);
+            if (id == null) {
+                return new ArrayList<>();
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
     /**
      * Crée un nouveau record pour une entité.
      *
@@ -142,6 +194,93 @@ public interface IDAODelegate extends IService {
      */
     public IDAOResult create(IValueObject vo, ILoggedUser user, Connection connection) throws SQLException;
 
+    /**
+     * Crée un nouveau record et relit le record créé avec la clause de sécurité. L'id est donné par la séquence s'il n'est pas dans le vo.
+     *
+     * @param aVo
+     *            L'objet à créer, l'id est mis à jour.
+     * @param aUser
+     *            Utilisateur.
+     * @param aConnection
+     *            Connexion pour exécuter la requête.
+     * @return le record créé dans getValueObject, le statut NO_RIGHTS si la sécurité ne permet pas de lire le record créé
+     *
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    public default IDAOResult createReturning(IValueObject aVo, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        // Par défaut en trois requêtes: id de la séquence, insert et relecture du record avec la sécurité
+        Object id = aVo.getId();
+        if (id == null) {
+            id = getNextId(aUser, aConnection);
+            if (id != null) {
+                aVo.setId(id);
+            }
+        }
+
+        IDAOResult result = create(aVo, aUser, aConnection);
+        if (id != null) {
+            IValueObject rec = getRecord(id, aUser, aConnection).getValueObject();
+            if (rec == null) {
+                result.setStatus(Status.NO_RIGHTS);
+            }
+            result.setValueObject(rec);
+        }
+        return result;
+    }
+
+    /**
+     * Crée plusieurs records en batch JDBC.
+     *
+     * @param aVos
+     *            Les objets à créer, avec leur id.
+     * @param aUser
+     *            Utilisateur.
+     * @param aConnection
+     *            Connexion pour exécuter les requêtes.
+     * @return nbr d'enregistrements crées et le statut de chaque record (getRowStatuses)
+     *
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    public default IDAOResult create(List<IValueObject> aVos, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        // Par défaut un create par record
+        List<Status> statuses = new ArrayList<>(aVos.size());
+        for (IValueObject vo : aVos) {
+            statuses.add(create(vo, aUser, aConnection).getStatus());
+        }
+        return DAOResult.getBatchResult(statuses);
+    }
+
+    /**
+     * Met à jour plusieurs records en batch JDBC.
+     *
+     * @param aUpdateFields
+     *            Les champs à mettre à jour de chaque record.
+     * @param aIds
+     *            Les identifiants des records.
+     * @param aTimestamps
+     *            Les timestamps des records pour la gestion de la transaction longue.
+     * @param aUser
+     *            Utilisateur.
+     * @param aConnection
+     *            Connexion pour exécuter les requêtes.
+     * @return nbr d'enregistrements mis à jour et le statut de chaque record (getRowStatuses)
+     *
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    public default IDAOResult update(List<Map<String, Object>> aUpdateFields, List<Object> aIds, List<Timestamp> aTimestamps,
+            ILoggedUser aUser, Connection aConnection) throws SQLException {
+        // Par défaut un update par record
+        List<Status> statuses = new ArrayList<>(aIds.size());
+        for (int i = 0; i < aIds.size(); i++) {
+            int count = update(aUpdateFields.get(i), aIds.get(i), aTimestamps.get(i), aUser, aConnection);
+            statuses.add(count > 0 ? Status.OK : new DAOResult(count).getStatus());
+        }
+        return DAOResult.getBatchResult(statuses);
+    }
+
     /**
      * Suppression d'une entité.
      *
@@ -161,6 +300,32 @@ public interface IDAODelegate extends IService {
      */
     public IDAOResult delete(Object id, Timestamp timestamp, ILoggedUser user, Connection connection) throws SQLException;
 
+    /**
+     * Supprime plusieurs records en batch JDBC.
+     *
+     * @param aIds
+     *            Identifiants des records
+     * @param aTimestamps
+     *            Timestamps des records, dans l'ordre des identifiants
+     * @param aUser
+     *            Utilisateur
+     * @param aConnection
+     *            Connexion pour exécuter les requêtes
+     * @return nbr d'enregistrements supprimés et le statut de chaque record (getRowStatuses)
+     *
+     * @throws SQLException
+     *             en cas de problème au niveau de la requête à la base de données.
+     */
+    public default IDAOResult delete(List<Object> aIds, List<Timestamp> aTimestamps, ILoggedUser aUser, Connection aConnection)
+            throws SQLException {
+        // Par défaut un delete par record
+        List<Status> statuses = new ArrayList<>(aIds.size());
+        for (int i = 0; i < aIds.size(); i++) {
+            statuses.add(delete(aIds.get(i), aTimestamps.get(i), aUser, aConnection).getStatus());
+        }
+        return DAOResult.getBatchResult(statuses);
+    }
+
     /**
      * Lecture du timestamp d'une entité correspondant à l'identifiant spécifié.
      *
@@ -0,0 +1,325 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.bo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.EternalExpiryPolicy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import ch.inser.dynamic.common.DAOParameter;
+import ch.inser.dynamic.common.DAOResult;
+import ch.inser.dynamic.common.DynamicDAO;
+import ch.inser.dynamic.common.IContextManager;
+import ch.inser.dynamic.common.IDAOResult;
+import ch.inser.dynamic.common.ILoggedUser;
+import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.util.ChildrenInfo;
+import ch.inser.dynamic.util.DelCascadeInfo;
+import ch.inser.dynamic.util.MultiselectInfo;
+import ch.inser.dynamic.util.VOInfo;
+
+/**
+ * Cache des résultats de getList et getRecord d'un process métier, dans le CacheManager (javax.cache) du contexte.
+ *
+ * Activé par objet métier avec la valeur appinfo <code>&lt;querycache&gt;300&lt;/querycache&gt;</code>: durée de vie des résultats en
+ * secondes, <code>true</code> pour aucune expiration. La clé contient la requête, les paramètres et ce qui dépend de l'utilisateur (clause
+ * de sécurité, langue, champs non lisibles). Toute écriture validée via un process métier vide le cache de l'objet métier, celui de ses
+ * enfants, liens multiselect et suppressions en cascade, et celui des objets métier qui les déclarent (dont les records contiennent les
+ * leurs).
+ *
+ * Chaque objet métier a une époque, incrémentée avant de vider son cache. Une lecture prend l'époque avant la requête; son résultat n'est
+ * pas gardé si l'époque a changé entre temps, une lecture commencée avant un commit ne remet donc pas d'anciennes données en cache.
+ *
+ * @author INSER SA
+ *
+ */
+final class QueryCache {
+
+    /** Définition de la catégorie de logging */
+    private static final Log logger = LogFactory.getLog(QueryCache.class);
+
+    /** Préfixe des noms de cache */
+    private static final String CACHE_PREFIX = "queryCache.";
+
+    /** Objets métier dont le cache est activé */
+    private static final Set<String> cEnabled = ConcurrentHashMap.newKeySet();
+
+    /** Époque par objet métier, incrémentée à chaque invalidation */
+    private static final Map<String, AtomicLong> cEpochs = new ConcurrentHashMap<>();
+
+    /** Objets métier avec cache par enfant, lien multiselect ou suppression en cascade qu'ils déclarent */
+    private static final Map<String, Set<String>> cDependents = new ConcurrentHashMap<>();
+
+    /** Nom de l'objet métier */
+    private final String iName;
+
+    /** Cache des résultats par clé */
+    private final Cache<String, IDAOResult> iCache;
+
+    /**
+     * @param aName
+     *            nom de l'objet métier
+     * @param aCache
+     *            cache des résultats
+     */
+    private QueryCache(String aName, Cache<String, IDAOResult> aCache) {
+        iName = aName;
+        iCache = aCache;
+    }
+
+    /**
+     * Crée le cache d'un objet métier si la valeur appinfo querycache est définie.
+     *
+     * @param aCtx
+     *            contexte avec le CacheManager
+     * @param aVOInfo
+     *            configuration de l'objet métier
+     * @return le cache, null si pas activé
+     */
+    static QueryCache create(IContextManager aCtx, VOInfo aVOInfo) {
+        Object ttl = aVOInfo.getValue("querycache");
+        if (ttl == null || "false".equalsIgnoreCase(ttl.toString())) {
+            return null;
+        }
+        CacheManager manager = aCtx.getCacheManager();
+        String name = CACHE_PREFIX + aVOInfo.getName();
+        Cache<String, IDAOResult> cache = manager.getCache(name, String.class, IDAOResult.class);
+        if (cache == null) {
+            MutableConfiguration<String, IDAOResult> config = new MutableConfiguration<String, IDAOResult>()
+                    .setTypes(String.class, IDAOResult.class).setStoreByValue(false);
+            if ("true".equalsIgnoreCase(ttl.toString())) {
+                config.setExpiryPolicyFactory(EternalExpiryPolicy.factoryOf());
+            } else {
+                config.setExpiryPolicyFactory(
+                        CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, Long.parseLong(ttl.toString().trim()))));
+            }
+            cache = manager.createCache(name, config);
+        }
+        cEnabled.add(aVOInfo.getName());
+        for (String dependency : getDependencies(aVOInfo)) {
+            cDependents.computeIfAbsent(dependency, aKey -> ConcurrentHashMap.newKeySet()).add(aVOInfo.getName());
+        }
+        logger.info(aVOInfo.getName() + " query cache: " + ttl);
+        return new QueryCache(aVOInfo.getName(), cache);
+    }
+
+    /**
+     * @param aKey
+     *            clé de la requête
+     * @return copie du résultat en cache, null si absent
+     */
+    IDAOResult get(String aKey) {
+        IDAOResult result = iCache.get(aKey);
+        return result == null ? null : copy(result);
+    }
+
+    /**
+     * @return l'époque de l'objet métier, à prendre avant la requête dont le résultat sera passé à put
+     */
+    long getEpoch() {
+        return getEpoch(iName).get();
+    }
+
+    /**
+     * Garde une copie du résultat s'il est OK ou vide et si aucune invalidation n'a eu lieu depuis aEpoch.
+     *
+     * @param aKey
+     *            clé de la requête
+     * @param aResult
+     *            résultat de la requête
+     * @param aEpoch
+     *            époque prise avant la requête
+     */
+    void put(String aKey, IDAOResult aResult, long aEpoch) {
+        if (!aResult.isStatusOK() && !aResult.isStatusNOTHING_TODO() || getEpoch() != aEpoch) {
+            return;
+        }
+        IDAOResult copy = copy(aResult);
+        iCache.put(aKey, copy);
+        if (getEpoch() != aEpoch) {
+            // Invalidation pendant le put: le clear a pu passer avant
+            iCache.remove(aKey, copy);
+        }
+    }
+
+    /**
+     * Clé d'une requête
+     *
+     * @param aKind
+     *            type de requête, p.ex. list ou record
+     * @param aQuery
+     *            vo de la requête ou id
+     * @param aUser
+     *            utilisateur, peut être null
+     * @param aParameters
+     *            paramètres de la requête
+     * @return la clé
+     */
+    String getKey(String aKind, Object aQuery, ILoggedUser aUser, DAOParameter... aParameters) {
+        StringBuilder key = new StringBuilder(aKind).append('|');
+        if (aQuery instanceof IValueObject) {
+            key.append(new TreeMap<>(((IValueObject) aQuery).getProperties()));
+        } else {
+            key.append(aQuery);
+        }
+        key.append('|');
+        if (aParameters != null) {
+            for (DAOParameter param : aParameters) {
+                if (param == null || param.getName() == DAOParameter.Name.TRANSACTION_ID) {
+                    continue;
+                }
+                key.append(param.getName() == DAOParameter.Name.OTHER ? param.getOtherName() : param.getName()).append('=')
+                        .append(param.getValue()).append(';');
+            }
+        }
+        key.append('|');
+        if (aUser != null) {
+            key.append(aUser.getAdditionnalClause(iName, DynamicDAO.Mode.SELECT)).append('|');
+            key.append(aUser.getLocale()).append('|');
+            key.append(aUser.getNoReadFields(iName));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Vide le cache des objets métier touchés par une écriture: l'objet lui-même, ses enfants, ses liens multiselect et ses
+     * suppressions en cascade, puis, de proche en proche, les objets métier qui déclarent un objet métier vidé comme enfant, lien ou
+     * suppression en cascade.
+     *
+     * @param aCtx
+     *            contexte avec le CacheManager
+     * @param aVOInfo
+     *            configuration de l'objet métier écrit
+     */
+    static void invalidate(IContextManager aCtx, VOInfo aVOInfo) {
+        if (cEnabled.isEmpty()) {
+            return;
+        }
+        Set<String> cleared = new HashSet<>();
+        clear(aCtx, aVOInfo.getName(), cleared);
+        for (String dependency : getDependencies(aVOInfo)) {
+            clear(aCtx, dependency, cleared);
+        }
+        Deque<String> pending = new ArrayDeque<>(cleared);
+        while (!pending.isEmpty()) {
+            Set<String> dependents = cDependents.get(pending.poll());
+            if (dependents != null) {
+                for (String dependent : dependents) {
+                    if (clear(aCtx, dependent, cleared)) {
+                        pending.add(dependent);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param aVOInfo
+     *            configuration de l'objet métier
+     * @return noms des enfants, liens multiselect et suppressions en cascade de l'objet métier
+     */
+    private static List<String> getDependencies(VOInfo aVOInfo) {
+        List<String> names = new ArrayList<>();
+        for (ChildrenInfo child : aVOInfo.getChildrens()) {
+            names.add(child.getChildrenName());
+        }
+        for (MultiselectInfo multiselect : aVOInfo.getMultiselects()) {
+            names.add(multiselect.getLinkName());
+        }
+        for (DelCascadeInfo delCascade : aVOInfo.getDelCascade()) {
+            names.add(delCascade.getName());
+        }
+        names.removeIf(aName -> aName == null);
+        return names;
+    }
+
+    /**
+     * @param aName
+     *            nom de l'objet métier
+     * @return compteur de l'époque de l'objet métier
+     */
+    private static AtomicLong getEpoch(String aName) {
+        return cEpochs.computeIfAbsent(aName, aKey -> new AtomicLong());
+    }
+
+    /**
+     * Incrémente l'époque puis vide le cache d'un objet métier, une seule fois par invalidation
+     *
+     * @param aCtx
+     *            contexte avec le CacheManager
+     * @param aName
+     *            nom de l'objet métier
+     * @param aCleared
+     *            objets métier déjà traités par l'invalidation
+     * @return true si l'objet métier n'était pas encore traité
+     */
+    private static boolean clear(IContextManager aCtx, String aName, Set<String> aCleared) {
+        if (aName == null || !aCleared.add(aName)) {
+            return false;
+        }
+        if (!cEnabled.contains(aName)) {
+            return true;
+        }
+        getEpoch(aName).incrementAndGet();
+        Cache<String, IDAOResult> cache = aCtx.getCacheManager().getCache(CACHE_PREFIX + aName, String.class, IDAOResult.class);
+        if (cache != null) {
+            cache.clear();
+        }
+        return true;
+    }
+
+    /**
+     * Copie un résultat, les vos sont clonés pour que l'appelant puisse les modifier.
+     *
+     * @param aResult
+     *            résultat
+     * @return la copie
+     */
+    private static IDAOResult copy(IDAOResult aResult) {
+        IDAOResult copy = new DAOResult(aResult.getStatus());
+        if (aResult.getValueObject() != null) {
+            copy.setValueObject((IValueObject) aResult.getValueObject().clone());
+        }
+        if (aResult.getList() != null) {
+            List<Object> list = new ArrayList<>(aResult.getList().size());
+            for (Object obj : aResult.getList()) {
+                list.add(obj instanceof IValueObject ? ((IValueObject) obj).clone() : obj);
+            }
+            copy.setList(list);
+        }
+        copy.setValue(aResult.getValue());
+        copy.setNbrRecords(aResult.getNbrRecords());
+        return copy;
+    }
+}
@@ -125,7 +125,6 @@ public class BOUser extends GenericBusinessObject {<br>
  *      <li>ISjsl</li>
  *      <li>commons-logging</li>
  *      <li>jdom</li>
- *      <li>javaunderground</li>
  *      </ul>
  * 
  * 
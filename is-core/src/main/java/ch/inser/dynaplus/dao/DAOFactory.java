@@ -24,6 +24,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import ch.inser.dynamic.util.VOInfo;
+import ch.inser.dynaplus.sql.StatementFactory;
 import ch.inser.dynaplus.util.AbstractFactory;
 
 /**
@@ -64,6 +65,22 @@ public final class DAOFactory extends AbstractFactory implements Serializable {
         return cInstance;
     }
 
+    /**
+     * Initialise les DAO. La propriété slowQueryThreshold active le log des requêtes plus lentes que sa valeur en millisecondes.
+     */
+    @Override
+    public boolean init() {
+        String threshold = iCtx.getProperty("slowQueryThreshold");
+        if (threshold != null) {
+            try {
+                StatementFactory.setSlowQueryThreshold(Long.parseLong(threshold.trim()));
+            } catch (NumberFormatException e) {
+                logger.error("slowQueryThreshold invalide: " + threshold, e);
+            }
+        }
+        return super.init();
+    }
+
     @Override
     protected void initFactoryObject(VOInfo aVOInfo) {
         IDataAccessObject oldObj = (IDataAccessObject) iFactoryObjects.get(aVOInfo.getName());
@@ -17,6 +17,7 @@ package ch.inser.dynaplus.dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -35,10 +36,14 @@ import org.apache.commons.logging.LogFactory;
 import ch.inser.dynamic.common.DAOParameter;
 import ch.inser.dynamic.common.DAOParameter.Name;
 import ch.inser.dynamic.common.DAOResult;
+import ch.inser.dynamic.common.DAOTools;
 import ch.inser.dynamic.common.IDAOResult;
+import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.ValueObjectCursor;
 import ch.inser.dynamic.common.IValueObject.Type;
+import ch.inser.dynamic.common.InListStrategy;
 import ch.inser.dynamic.util.ChildrenInfo;
 import ch.inser.dynamic.util.JoinInfo;
 import ch.inser.dynamic.util.VOInfo;
@@ -122,11 +127,21 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
      */
     private String iSequence;
 
+    /**
+     * Création en une seule requête qui retourne le record créé, activé avec <createreturning>true</createreturning> dans l'appinfo.
+     */
+    private boolean iCreateReturning;
+
     /**
      * Le nom des attributs à rechercher pour créer les listes.
      */
     private List<String> iList;
 
+    /**
+     * Attributs des listes sans les LOB, null si les LOB sont lus dans les listes
+     */
+    private List<String> iListWithoutLobs;
+
     /**
      * Nom des tables des champs contenu dans les listes
      */
@@ -214,6 +229,7 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
         iTimestampType = voInfo.getTypes().get(iTimestampName);
         iMajName = voInfo.getUpdateUser();
         iSequence = (String) voInfo.getValue("sequence");
+        iCreateReturning = "true".equals(voInfo.getValue("createreturning"));
         iNoCreateUpdate = voInfo.getNoCreateUpdate();
         iSelectFields = voInfo.getSelectFields();
         iSort = voInfo.getSortArray();
@@ -234,6 +250,47 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
         iListUpdateFields.removeAll(iNoCreateUpdate);
 
         setAttributeNameDBNameMaps(voInfo);
+
+        // Cache des plans de requêtes, activé avec <statementCache>taille</statementCache> dans l'appinfo
+        if (voInfo.getValue("statementCache") != null) {
+            setStatementPlanCacheSize(Integer.parseInt(((String) voInfo.getValue("statementCache")).trim()));
+        }
+
+        // Forme des listes IN, <inlist>exact|padded|array</inlist> dans l'appinfo, sinon celle du dialecte
+        InListStrategy inList = InListStrategy.parse((String) voInfo.getValue("inlist"));
+        setInListStrategy(inList == null ? getDefaultInListStrategy() : inList);
+
+        // <lob>lazy</lob> dans l'appinfo: LOB à la demande dans les curseurs. <lob>skip</lob>: les listes ne lisent pas les LOB, sauf si
+        // l'appelant les demande dans DAOParameter.Name.ATTRIBUTES
+        String lob = (String) voInfo.getValue("lob");
+        setLazyLobs("lazy".equals(lob));
+        if ("skip".equals(lob)) {
+            iListWithoutLobs = getListWithoutLobs();
+        }
+    }
+
+    /**
+     * @return les attributs des listes sans les CLOB, SHAPE et BLOB
+     */
+    private List<String> getListWithoutLobs() {
+        List<String> list = new ArrayList<>(iList.size());
+        for (String attribute : iList) {
+            Type type = iTypes.get(attribute);
+            if (type == null) {
+                type = iTypes.get(attribute.substring(attribute.indexOf('.') + 1));
+            }
+            if (!DAOTools.isLob(type)) {
+                list.add(attribute);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @return forme des listes IN du dialecte: nombre de "?" arrondi par palier pour limiter le nombre de requêtes différentes
+     */
+    protected InListStrategy getDefaultInListStrategy() {
+        return InListStrategy.PADDED;
     }
 
     // ---PROTECTED GETTERS
@@ -257,6 +314,14 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
         return iSelectFields;
     }
 
+    protected String getSequence() {
+        return iSequence;
+    }
+
+    protected boolean isCreateReturning() {
+        return iCreateReturning;
+    }
+
     // ---PROTECTED GETTERS END
 
     @Override
@@ -302,6 +367,38 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
 
     @Override
     public IDAOResult getList(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters) throws ISException {
+        try {
+            if (Boolean.TRUE.equals(DAOParameter.getValue(Name.TOTAL_COUNT, aParameters))) {
+                return getListWithTotal(aVo, aConnection, getListParameters(aVo, aUser, aParameters));
+            }
+            return new DAOResult(getList(aVo, aConnection, getListParameters(aVo, aUser, aParameters)));
+        } catch (SQLException e) {
+            throw new ISException(e);
+        }
+    }
+
+    @Override
+    public ValueObjectCursor getCursor(IValueObject aVo, ILoggedUser aUser, Connection aConnection, DAOParameter... aParameters)
+            throws ISException {
+        try {
+            return getCursor(aVo, aConnection, getListParameters(aVo, aUser, aParameters));
+        } catch (SQLException e) {
+            throw new ISException(e);
+        }
+    }
+
+    /**
+     * Prépare les enfants du vo requête et les paramètres d'une requête de liste: tables, jointures, sécurité, attributs et tri.
+     *
+     * @param aVo
+     *            vo requête
+     * @param aUser
+     *            utilisateur
+     * @param aParameters
+     *            paramètres de l'appelant
+     * @return paramètres dao complétés
+     */
+    private DAOParameter[] getListParameters(IValueObject aVo, ILoggedUser aUser, DAOParameter... aParameters) {
         // Prepare children
         prepareChildren(aVo);
 
@@ -315,7 +412,7 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
         params.add(new DAOParameter(Name.TABLE_NAMES, tableNames));
         params.add(new DAOParameter(Name.JOIN_CLAUSES, getJoinClauses(tableNames)));
         params.add(new DAOParameter(Name.SECURITY_CLAUSE, getSecurityClause(aUser)));
-        params.add(new DAOParameter(Name.ATTRIBUTES, iList));
+        params.add(new DAOParameter(Name.ATTRIBUTES, iListWithoutLobs == null ? iList : iListWithoutLobs));
 
         // Sort fields
         Integer sortIndex = getSortIndex(aParameters);
@@ -327,11 +424,11 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
         }
         params.addAll(getSortItemParameters(sortIndex));
 
-        try {
-            return new DAOResult(getList(aVo, aConnection, params.toArray(new DAOParameter[params.size()])));
-        } catch (SQLException e) {
-            throw new ISException(e);
+        // Pagination par seek: l'identifiant est le dernier critère de tri
+        if (DAOParameter.getValue(Name.KEYSET_SIZE, aParameters) != null && DAOParameter.getValue(Name.KEYSET_ID, aParameters) == null) {
+            params.add(new DAOParameter(Name.KEYSET_ID, iIdName));
         }
+        return params.toArray(new DAOParameter[params.size()]);
     }
 
     /**
@@ -549,11 +646,111 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
         return getNextId(iSequence, iTypes.get(iIdName), connection);
     }
 
+    @Override
+    public List<Object> getNextIds(int aCount, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        return getNextIds(iSequence, iTypes.get(iIdName), aCount, aConnection);
+    }
+
     @Override
     public IDAOResult create(IValueObject vo, ILoggedUser user, Connection connection) throws SQLException {
         return create(vo, iTableName, iListFields, iNoCreateUpdate, iMajName, iTimestampName, user, connection);
     }
 
+    /**
+     * Version générique en trois requêtes: id de la séquence, insert et relecture du record avec la sécurité. Les DAO spécifiques à une
+     * base de données peuvent le faire en une seule requête.
+     */
+    @Override
+    public IDAOResult createReturning(IValueObject aVo, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        Object id = aVo.getId();
+        if (id == null) {
+            id = getNextId(aUser, aConnection);
+            if (id != null) {
+                aVo.setId(id);
+            }
+        }
+
+        IDAOResult result = create(aVo, aUser, aConnection);
+
+        // Vérifie que l'utilisateur a le droit de lire le record créé
+        if (id != null) {
+            IValueObject rec = getRecord(id, aUser, aConnection).getValueObject();
+            if (rec == null) {
+                result.setStatus(Status.NO_RIGHTS);
+            }
+            result.setValueObject(rec);
+        }
+        return result;
+    }
+
+    /**
+     * Requête INSERT de l'entité, avec l'id calculé par une expression SQL si le vo n'a pas d'id. Le vo est préparé comme pour create.
+     *
+     * @param aVo
+     *            L'objet à créer
+     * @param aUser
+     *            Utilisateur
+     * @param aIdExpression
+     *            Expression SQL de l'id, utilisée seulement si le vo n'a pas d'id, null pour ne pas donner d'id
+     * @return la requête INSERT avec des "?" pour les attributs, voir setRecord
+     */
+    protected StringBuilder getCreateStatement(IValueObject aVo, ILoggedUser aUser, String aIdExpression) {
+        List<String> attributes = getCreateAttributes(aVo, iListFields, iNoCreateUpdate, iMajName, aUser);
+        if (aVo.getId() != null || aIdExpression == null) {
+            return getCreateStatement(aVo, iTableName, attributes, iTimestampName);
+        }
+        attributes.remove(iIdName);
+        return getCreateStatement(aVo, iTableName, attributes, iTimestampName, getDBName(iIdName), aIdExpression);
+    }
+
+    @Override
+    public IDAOResult create(List<IValueObject> aVos, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        return getBatchResult(create(aVos, iTableName, iListFields, iNoCreateUpdate, iMajName, iTimestampName, aUser, aConnection));
+    }
+
+    @Override
+    public IDAOResult update(List<Map<String, Object>> aUpdateFields, List<Object> aIds, List<Timestamp> aTimestamps, ILoggedUser aUser,
+            Connection aConnection) throws SQLException {
+        String securityClause = aUser.getAdditionnalClause(iName, Mode.UPDATE);
+        if ("".equals(securityClause)) {
+            securityClause = null;
+        }
+        return getBatchResult(update(aUpdateFields, iListFields, iNoCreateUpdate, iIdName, aIds, iTableName, iTimestampName, aTimestamps,
+                iTypes, iMajName, iTypes.get(iMajName), aUser, securityClause, aConnection));
+    }
+
+    /**
+     * Résultat d'une opération en batch
+     *
+     * @param aRowCounts
+     *            nombre de records traités pour chaque record du batch
+     * @return le nombre total de records traités et le statut de chaque record, le statut global est celui du premier record en erreur
+     */
+    private static IDAOResult getBatchResult(int[] aRowCounts) {
+        List<Status> statuses = new ArrayList<>(aRowCounts.length);
+        Status status = aRowCounts.length > 0 ? Status.OK : Status.NOTHING_TODO;
+        int nbrRecords = 0;
+        for (int rowCount : aRowCounts) {
+            Status rowStatus;
+            if (rowCount > 0 || rowCount == Statement.SUCCESS_NO_INFO) {
+                rowStatus = Status.OK;
+                nbrRecords += Math.max(rowCount, 1);
+            } else if (rowCount == 0) {
+                rowStatus = Status.NOTHING_TODO;
+            } else {
+                rowStatus = Status.KO;
+            }
+            if (status == Status.OK && rowStatus != Status.OK) {
+                status = rowStatus;
+            }
+            statuses.add(rowStatus);
+        }
+        IDAOResult result = new DAOResult(status);
+        result.setNbrRecords(nbrRecords);
+        result.setRowStatuses(statuses);
+        return result;
+    }
+
     @Override
     public IDAOResult delete(Object id, Timestamp timestamp, ILoggedUser user, Connection connection) throws SQLException {
 
@@ -566,6 +763,15 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
 
     }
 
+    @Override
+    public IDAOResult delete(List<Object> aIds, List<Timestamp> aTimestamps, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        String securityClause = aUser.getAdditionnalClause(iName, Mode.DELETE);
+        if ("".equals(securityClause)) {
+            securityClause = null;
+        }
+        return getBatchResult(delete(iTableName, iIdName, aIds, iTimestampName, aTimestamps, iTimestampType, securityClause, aConnection));
+    }
+
     @Override
     public IDAOResult getTimestamp(Object id, ILoggedUser user, Connection connection) throws SQLException {
         return getTimestamp(iTimestampName, iTimestampType, iIdName, id, iTypes.get(iIdName), iTableName, connection);
@@ -674,6 +880,10 @@ public class GenericDataAccessObject extends AbstractDataAcessObject {
 
         iIdNames = applyAttributeNameDBNameMappingForSet(attributeDBNameMappingOfAllTablesMap, iIdNames);
 
+        if (iListWithoutLobs != null) {
+            iListWithoutLobs = getListWithoutLobs();
+        }
+
     }
 
     /**
@@ -67,7 +67,6 @@
  * <li>ISjsl</li>
  * <li>commons-logging</li>
  * <li>jdom</li>
- * <li>javaunderground</li>
  * </ul>
  * 
  * 
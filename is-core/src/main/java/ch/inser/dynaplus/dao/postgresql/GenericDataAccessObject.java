@@ -28,8 +28,6 @@ import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.javaunderground.jdbc.StatementFactory;
-
 import ch.inser.dynamic.common.DAOParameter;
 import ch.inser.dynamic.common.DAOParameter.Name;
 import ch.inser.dynamic.common.DAOResult;
@@ -39,8 +37,10 @@ import ch.inser.dynamic.common.IDAOResult.Status;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
 import ch.inser.dynamic.common.IValueObject.Type;
+import ch.inser.dynamic.common.InListStrategy;
 import ch.inser.dynamic.util.JoinInfo;
 import ch.inser.dynamic.util.VOInfo;
+import ch.inser.dynaplus.sql.StatementFactory;
 
 /**
  * To implement specific PostgreSQL code.
@@ -80,10 +80,18 @@ public class GenericDataAccessObject extends ch.inser.dynaplus.dao.GenericDataAc
      *            The SQL statement
      * @param aParameters
      *            additional parameters with start and end row numbers
-     * @return statement limiting the result using the ROWNUM_START and ROWNUM_ENDparameters
+     * @return statement limiting the result using the ROWNUM_START and ROWNUM_ENDparameters, or the KEYSET_SIZE parameter
      */
     @Override
     protected StringBuilder getSliceStatement(StringBuilder aSql, DAOParameter[] aParameters) {
+        Object keysetSize = DAOParameter.getValue(Name.KEYSET_SIZE, aParameters);
+        if (keysetSize != null) {
+            // The seek condition is already in the WHERE clause
+            aSql.append(" FETCH FIRST ");
+            aSql.append(((Number) keysetSize).intValue());
+            aSql.append(" ROWS ONLY");
+            return aSql;
+        }
         Object start = null;
         Object end = null;
         for (int j = 0; j < aParameters.length; j++) {
@@ -114,11 +122,115 @@ public class GenericDataAccessObject extends ch.inser.dynaplus.dao.GenericDataAc
         return "NOW()";
     }
 
+    @Override
+    protected InListStrategy getDefaultInListStrategy() {
+        return InListStrategy.ARRAY;
+    }
+
+    /**
+     * PostgreSQL accepts SELECT *, COUNT(*) OVER(), so a list without attributes can also return its total count.
+     */
+    @Override
+    protected boolean isSelectAllWithColumnsSupported() {
+        return true;
+    }
+
+    /**
+     * PostgreSQL compares row values in a composite index, the keyset condition can be (a, b, id) &gt; (?, ?, ?).
+     */
+    @Override
+    protected boolean isRowValueComparisonSupported() {
+        return true;
+    }
+
     @Override
     protected String getNextIdQuery() {
         return "SELECT nextval('%1$s') as next";
     }
 
+    @Override
+    protected String getNextIdsQuery() {
+        return "SELECT nextval('%1$s') as next FROM generate_series(1, %2$d)";
+    }
+
+    /**
+     * Création en une seule requête si <createreturning>true</createreturning> est dans l'appinfo: l'id est donné par nextval dans
+     * l'INSERT, le record créé est retourné par RETURNING et relu avec les jointures et la clause de sécurité dans la même requête:
+     *
+     * WITH is_ins AS (INSERT INTO table (...) VALUES (...) RETURNING *) SELECT *, (sécurité) AS is_allowed FROM is_ins AS table JOIN ...
+     *
+     * La clause de sécurité est évaluée sur la ligne retournée, une sous-requête de la clause sur la table elle-même ne voit pas encore le
+     * nouveau record. Les objets avec des géométries (shape, _srid) ou une table avec un schéma utilisent la version générique.
+     */
+    @Override
+    public IDAOResult createReturning(IValueObject aVo, ILoggedUser aUser, Connection aConnection) throws SQLException {
+        if (!isCreateReturning() || iTypes.containsValue(Type.SHAPE) || aVo.getProperty("_srid") != null
+                || getTableName().indexOf('.') >= 0) {
+            return super.createReturning(aVo, aUser, aConnection);
+        }
+        String securityClause = aUser.getAdditionnalClause(getName(), Mode.SELECT);
+        if ("".equals(securityClause)) {
+            securityClause = null;
+        }
+
+        StringBuilder sql = new StringBuilder(STRING_BUFFER_SIZE);
+        sql.append("WITH is_ins AS (");
+        sql.append(getCreateStatement(aVo, aUser, getSequence() == null ? null : "nextval('" + getSequence() + "')"));
+        sql.append(" RETURNING *) SELECT *");
+        if (securityClause != null) {
+            sql.append(", (");
+            sql.append(securityClause);
+            sql.append(") AS is_allowed");
+        }
+        sql.append(" FROM ");
+        sql.append(getJoinTables("is_ins AS " + getTableName(), getJoins()));
+
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = StatementFactory.getStatement(aConnection, sql.toString());
+            setRecord(aVo, ps, Mode.CREATE, null);
+
+            StatementFactory.debug(logger, ps);
+            rs = ps.executeQuery();
+
+            IDAOResult result = new DAOResult();
+            result.setNbrRecords(1);
+            if (!rs.next()) {
+                // Record créé mais perdu par une jointure
+                result.setStatus(Status.NO_RIGHTS);
+                return result;
+            }
+            IValueObject rec = fillRecord(getVOFactory().getVO(getName()), null, rs, null).getValueObject();
+            aVo.setId(rec.getId());
+            if (securityClause != null && !rs.getBoolean("is_allowed")) {
+                result.setStatus(Status.NO_RIGHTS);
+                return result;
+            }
+            result.setStatus(Status.OK);
+            result.setValueObject(rec);
+            return result;
+        } catch (SQLException e) {
+            String psStr = null;
+            if (ps != null) {
+                psStr = ps.toString();
+            }
+            logger.error("SqlException: " + psStr, e);
+
+            // Construit une exception chaînée avec la requête SQL
+            SQLException ex = new SQLException(psStr, null, -1001);
+            e.setNextException(ex);
+            throw e;
+        } finally {
+            if (rs != null) {
+                rs.close();
+            }
+            if (ps != null) {
+                ps.close();
+            }
+        }
+    }
+
     /**
      * Surcharge pour avoir des jointures standars, la config doit être
      *
@@ -150,7 +262,9 @@ public class GenericDataAccessObject extends ch.inser.dynaplus.dao.GenericDataAc
         sql.append(" FROM ");
         // ici les jointure sont ajoutées à la Oracle
         sql.append(getJoinTables(getTableName(), getJoins()));
-        sql.append(getListWhere(aVo, aParameters));
+        StringBuilder where = getListWhere(aVo, aParameters);
+        sql.append(where);
+        sql.append(getKeysetWhere(where.length() > 0, aParameters));
         sql.append(getListGroupBy(aParameters));
         sql.append(getListSort(aParameters));
         return sql;
@@ -178,7 +292,7 @@ public class GenericDataAccessObject extends ch.inser.dynaplus.dao.GenericDataAc
             setRecord(aVo, ps, Mode.SELECT, null);
 
             // Exécute la requête de mise à jour
-            logger.debug("Exécute SQL: " + ps.toString());
+            StatementFactory.debug(logger, ps);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -17,10 +17,18 @@ package ch.inser.dynaplus.format;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -47,6 +55,15 @@ import ch.inser.jsl.exceptions.ISException;
  */
 public class AbstractFormatEngine implements IFormatEngine {
 
+    /** Format des timestamps, thread-safe */
+    private static final DateTimeFormatter cTimestampFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+    /** Format des dates, thread-safe */
+    private static final DateTimeFormatter cDateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    /** Taille du buffer d'encodage d'un fichier csv */
+    private static final int CSV_BUFFER_SIZE = 8192;
+
     /** Context manager */
     private IContextManager iCtx;
 
@@ -69,6 +86,51 @@ public class AbstractFormatEngine implements IFormatEngine {
         throw new UnsupportedOperationException("Format " + DAOParameter.getValue(Name.RESULT_FORMAT, aParams) + " not implemented!");
     }
 
+    @Override
+    public IDAOResult format(Iterator<IValueObject> aRecords, OutputStream aStream, ILoggedUser aUser, DAOParameter... aParams)
+            throws ISException {
+        return format(aRecords, new CsvWriter(aStream, null), aUser, aParams);
+    }
+
+    @Override
+    public IDAOResult format(Iterator<IValueObject> aRecords, WritableByteChannel aChannel, ILoggedUser aUser, DAOParameter... aParams)
+            throws ISException {
+        return format(aRecords, new CsvWriter(null, aChannel), aUser, aParams);
+    }
+
+    /**
+     * Formatte les enregistrements au fur et à mesure de leur lecture, la mémoire utilisée ne dépend pas du nombre d'enregistrements.
+     *
+     * @param aRecords
+     *            enregistrements, p.ex. un ValueObjectCursor
+     * @param aWriter
+     *            destination du fichier
+     * @param aUser
+     *            utilisateur logué
+     * @param aParams
+     *            paramètres d'export (format, noms des champs)
+     * @return résultat avec le nombre d'enregistrements écrits
+     * @throws ISException
+     *             erreur d'écriture de csv
+     */
+    private IDAOResult format(Iterator<IValueObject> aRecords, CsvWriter aWriter, ILoggedUser aUser, DAOParameter... aParams)
+            throws ISException {
+        if (Format.CSV.equals(DAOParameter.getValue(Name.RESULT_FORMAT, aParams))) {
+            Locale lang = getLanguage(aParams);
+            writeHeaders(aWriter, aParams, lang);
+            int count = writeRecords(aWriter, aParams, aRecords, lang, aUser);
+            try {
+                aWriter.flush();
+            } catch (IOException e) {
+                throw new ISException("Erreur de création de fichier CSV", e);
+            }
+            IDAOResult result = new DAOResult(Status.OK);
+            result.setNbrRecords(count);
+            return result;
+        }
+        throw new UnsupportedOperationException("Format " + DAOParameter.getValue(Name.RESULT_FORMAT, aParams) + " not implemented!");
+    }
+
     /**
      * Formatte une liste de vos en fichier csv
      *
@@ -84,9 +146,11 @@ public class AbstractFormatEngine implements IFormatEngine {
      */
     private byte[] formatCSV(List<IValueObject> aRecords, DAOParameter[] aParams, ILoggedUser aUser) throws ISException {
         try (ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
+            CsvWriter writer = new CsvWriter(stream, null);
             Locale lang = getLanguage(aParams);
-            writeHeaders(stream, aParams, lang);
-            writeRecords(stream, aParams, aRecords, lang, aUser);
+            writeHeaders(writer, aParams, lang);
+            writeRecords(writer, aParams, aRecords.iterator(), lang, aUser);
+            writer.flush();
             return stream.toByteArray();
         } catch (IOException e) {
             throw new ISException("Erreur de création de fichier CSV", e);
@@ -110,8 +174,8 @@ public class AbstractFormatEngine implements IFormatEngine {
     /**
      * Ecrit les données dans le CSV
      *
-     * @param aStream
-     *            le stream pour le fichier csv
+     * @param aWriter
+     *            destination du fichier csv
      * @param aParams
      *            paramètres de la tâche d'export (noms des champs)
      * @param aRecords
@@ -120,22 +184,26 @@ public class AbstractFormatEngine implements IFormatEngine {
      *            langue
      * @param aUser
      *            utilisateur logué
+     * @return le nombre d'enregistrements écrits
      * @throws ISException
      *             erreur d'écriture
      */
-    private void writeRecords(ByteArrayOutputStream aStream, DAOParameter[] aParams, List<IValueObject> aRecords, Locale aLang,
-            ILoggedUser aUser) throws ISException {
-        if (aRecords.isEmpty()) {
-            return;
+    private int writeRecords(CsvWriter aWriter, DAOParameter[] aParams, Iterator<IValueObject> aRecords, Locale aLang, ILoggedUser aUser)
+            throws ISException {
+        if (!aRecords.hasNext()) {
+            return 0;
         }
         String fieldsStr = (String) DAOParameter.getValue(Name.RESULT_FIELDS, aParams);
         if (fieldsStr == null) {
-            return;
+            return 0;
         }
         String[] fields = fieldsStr.split(",");
         Map<String, Map<Object, String>> codes = getCodes(aLang);
-        for (IValueObject vo : aRecords) {
-            StringBuilder row = new StringBuilder();
+        StringBuilder row = new StringBuilder();
+        int count = 0;
+        while (aRecords.hasNext()) {
+            IValueObject vo = aRecords.next();
+            row.setLength(0);
 
             for (int i = 0; i < fields.length; i++) {
                 String field = fields[i];
@@ -148,11 +216,13 @@ public class AbstractFormatEngine implements IFormatEngine {
             }
             row.append("\n");
             try {
-                aStream.write(row.toString().getBytes(StandardCharsets.ISO_8859_1));
+                aWriter.write(row);
             } catch (IOException e) {
                 throw new ISException("Erreur d'écriture de ligne dans le fichier CSV", e);
             }
+            count++;
         }
+        return count;
     }
 
     /**
@@ -206,10 +276,10 @@ public class AbstractFormatEngine implements IFormatEngine {
             return null;
         }
         if (aValue instanceof Timestamp) {
-            return new SimpleDateFormat("dd.MM.yyyy HH:mm:ss").format(aValue);
+            return cTimestampFormatter.format(((Timestamp) aValue).toLocalDateTime());
         }
         if (aValue instanceof Date) {
-            return new SimpleDateFormat("dd.MM.yyyy").format(aValue);
+            return cDateFormatter.format(((Date) aValue).toLocalDate());
         }
         return aValue.toString().replace("\r", "");
     }
@@ -217,8 +287,8 @@ public class AbstractFormatEngine implements IFormatEngine {
     /**
      * Ecrit les entêtes des colonnes du CSV
      *
-     * @param aStream
-     *            stream pour écrire le fichier csv
+     * @param aWriter
+     *            destination du fichier csv
      * @param aParams
      *            paramètres de format de CSV
      * @param aLang
@@ -226,7 +296,7 @@ public class AbstractFormatEngine implements IFormatEngine {
      * @throws ISException
      *             erreur d'écriture dans le fichier csv
      */
-    private void writeHeaders(ByteArrayOutputStream aStream, DAOParameter[] aParams, Locale aLang) throws ISException {
+    private void writeHeaders(CsvWriter aWriter, DAOParameter[] aParams, Locale aLang) throws ISException {
         if (DAOParameter.getValue(Name.RESULT_LABEL_KEYS, aParams) == null) {
             return;
         }
@@ -248,7 +318,7 @@ public class AbstractFormatEngine implements IFormatEngine {
         }
         row.append("\n");
         try {
-            aStream.write(row.toString().getBytes(StandardCharsets.ISO_8859_1));
+            aWriter.write(row);
         } catch (IOException e) {
             throw new ISException("Erreur d'écriture des headers du CSV", e);
         }
@@ -335,4 +405,86 @@ public class AbstractFormatEngine implements IFormatEngine {
         iVOFactory = aVOF;
     }
 
+    /**
+     * Ecrit les lignes d'un fichier csv en ISO-8859-1 dans un stream ou un channel. L'encodeur et le buffer sont réutilisés pour toutes les
+     * lignes; les caractères non représentables sont remplacés par "?" comme avec String.getBytes.
+     */
+    private static final class CsvWriter {
+
+        /** Stream de destination, null si channel */
+        private final OutputStream iStream;
+
+        /** Channel de destination, null si stream */
+        private final WritableByteChannel iChannel;
+
+        /** Encodeur ISO-8859-1 */
+        private final CharsetEncoder iEncoder = StandardCharsets.ISO_8859_1.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        /** Buffer des bytes encodés */
+        private final ByteBuffer iBuffer = ByteBuffer.allocate(CSV_BUFFER_SIZE);
+
+        /**
+         * @param aStream
+         *            stream de destination
+         * @param aChannel
+         *            channel de destination, si pas de stream
+         */
+        CsvWriter(OutputStream aStream, WritableByteChannel aChannel) {
+            iStream = aStream;
+            iChannel = aChannel;
+        }
+
+        /**
+         * Encode une ligne
+         *
+         * @param aRow
+         *            ligne complète, avec le retour à la ligne
+         * @throws IOException
+         *             erreur d'écriture
+         */
+        void write(CharSequence aRow) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(aRow);
+            iEncoder.reset();
+            CoderResult result = iEncoder.encode(chars, iBuffer, true);
+            while (result.isOverflow()) {
+                drain();
+                result = iEncoder.encode(chars, iBuffer, true);
+            }
+            while (iEncoder.flush(iBuffer).isOverflow()) {
+                drain();
+            }
+        }
+
+        /**
+         * Ecrit les bytes encodés qui restent
+         *
+         * @throws IOException
+         *             erreur d'écriture
+         */
+        void flush() throws IOException {
+            drain();
+            if (iStream != null) {
+                iStream.flush();
+            }
+        }
+
+        /**
+         * Vide le buffer dans la destination
+         *
+         * @throws IOException
+         *             erreur d'écriture
+         */
+        private void drain() throws IOException {
+            iBuffer.flip();
+            if (iStream != null) {
+                iStream.write(iBuffer.array(), iBuffer.arrayOffset() + iBuffer.position(), iBuffer.remaining());
+            } else {
+                while (iBuffer.hasRemaining()) {
+                    iChannel.write(iBuffer);
+                }
+            }
+            iBuffer.clear();
+        }
+    }
 }
@@ -15,6 +15,12 @@
 
 package ch.inser.dynaplus.format;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import ch.inser.dynamic.common.DAOParameter;
@@ -71,4 +77,55 @@ public interface IFormatEngine {
      *             erreur de génération du format
      */
     public IDAOResult format(List<IValueObject> aRecords, ILoggedUser aUser, DAOParameter... aParams) throws ISException;
+
+    /**
+     * Transforme les enregistrements en format demandé en les écrivant au fur et à mesure dans un stream. Le stream n'est pas fermé.
+     *
+     * @param aRecords
+     *            enregistrements, p.ex. le curseur d'une requête
+     * @param aStream
+     *            stream de destination
+     * @param aUser
+     *            utilisateur
+     * @param aParams
+     *            paramètres de formattage, ex. champs, clés des entêtes, langue
+     * @return résultat avec le nombre d'enregistrements écrits
+     * @throws ISException
+     *             erreur de génération du format
+     */
+    public default IDAOResult format(Iterator<IValueObject> aRecords, OutputStream aStream, ILoggedUser aUser, DAOParameter... aParams)
+            throws ISException {
+        // Par défaut les enregistrements sont formattés en mémoire puis écrits
+        List<IValueObject> records = new ArrayList<>();
+        aRecords.forEachRemaining(records::add);
+        IDAOResult result = format(records, aUser, aParams);
+        try {
+            aStream.write((byte[]) result.getValue());
+        } catch (IOException e) {
+            throw new ISException(e);
+        }
+        result.setValue(null);
+        result.setNbrRecords(records.size());
+        return result;
+    }
+
+    /**
+     * Transforme les enregistrements en format demandé en les écrivant au fur et à mesure dans un channel. Le channel n'est pas fermé.
+     *
+     * @param aRecords
+     *            enregistrements, p.ex. le curseur d'une requête
+     * @param aChannel
+     *            channel de destination
+     * @param aUser
+     *            utilisateur
+     * @param aParams
+     *            paramètres de formattage, ex. champs, clés des entêtes, langue
+     * @return résultat avec le nombre d'enregistrements écrits
+     * @throws ISException
+     *             erreur de génération du format
+     */
+    public default IDAOResult format(Iterator<IValueObject> aRecords, WritableByteChannel aChannel, ILoggedUser aUser,
+            DAOParameter... aParams) throws ISException {
+        return format(aRecords, Channels.newOutputStream(aChannel), aUser, aParams);
+    }
 }
@@ -17,6 +17,7 @@ package ch.inser.dynaplus.list;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import java.util.Map;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import ch.inser.dynamic.common.IDAOResult;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
 import ch.inser.jsl.exceptions.ISException;
@@ -48,6 +50,9 @@ public abstract class AbstractListHandler extends ch.inser.jsl.list.AbstractList
     /** Nombre de résultat max pour les liste */
     protected Integer iMaxRowResult = null;
 
+    /** Nombre total de records demandé avec la liste, voir setTotalCount */
+    protected boolean iTotalCount;
+
     /** Nom objet métier */
     private String iType;
 
@@ -68,6 +73,12 @@ public abstract class AbstractListHandler extends ch.inser.jsl.list.AbstractList
     /** Numéro de ligne ou il y a eu la modification cliente */
     protected String iNumRowToModify;
 
+    /** Positions des lignes par id, construit à la première recherche */
+    private transient RowIndex iRowIndex;
+
+    /** Liste indexée par iRowIndex, pour reconstruire l'index quand iList est remplacée */
+    private transient List<IValueObject> iIndexedList;
+
     /**
      * Constructeur pour liste handler
      *
@@ -153,6 +164,38 @@ public abstract class AbstractListHandler extends ch.inser.jsl.list.AbstractList
         return iType;
     }
 
+    /**
+     * @return true si refresh demande le nombre total de records de la requête avec la liste
+     */
+    public boolean isTotalCount() {
+        return iTotalCount;
+    }
+
+    /**
+     * Demande le nombre total de records (getNbQueryResults) avec la liste, par DAOParameter.Name.TOTAL_COUNT. Le total est lu avec la
+     * page par COUNT(*) OVER(), ce qui oblige la base à lire toutes les lignes même avec un nombre maximal de lignes; sans fenêtre possible
+     * (SELECT DISTINCT, dialecte) le total est la taille de la liste. Par défaut false.
+     *
+     * @param aTotalCount
+     *            true pour lire le nombre total de records
+     */
+    public void setTotalCount(boolean aTotalCount) {
+        iTotalCount = aTotalCount;
+    }
+
+    /**
+     * Reprend la liste d'un getList. Le nombre de records de la requête est celui du résultat si isTotalCount, au moins la taille de la
+     * liste.
+     *
+     * @param aResult
+     *            résultat du getList
+     */
+    protected void setResult(IDAOResult aResult) {
+        iList = aResult.getListObject();
+        iListSize = iList.size();
+        iNbQueryResults = Math.max(aResult.getNbrRecords(), iListSize);
+    }
+
     @Override
     public void setMaxRowResult(Integer aMaxRowResult) {
         iMaxRowResult = aMaxRowResult;
@@ -180,6 +223,13 @@ public abstract class AbstractListHandler extends ch.inser.jsl.list.AbstractList
         if (aFieldname == null) {
             return lstIndex;
         }
+        if (isIdField(aFieldname)) {
+            int index = indexOf(aValue);
+            if (index >= 0) {
+                lstIndex.add(index);
+            }
+            return lstIndex;
+        }
         for (int index = 0; index < iList.size(); index++) {
             if (iList != null && iList.get(index) != null && iList.get(index).getProperty(aFieldname) != null
                     && iList.get(index).getProperty(aFieldname).equals(aValue)) {
@@ -195,6 +245,13 @@ public abstract class AbstractListHandler extends ch.inser.jsl.list.AbstractList
         if (aFieldname == null) {
             return lstVo;
         }
+        if (isIdField(aFieldname)) {
+            int index = indexOf(aValue);
+            if (index >= 0) {
+                lstVo.add(iList.get(index));
+            }
+            return lstVo;
+        }
         for (int index = 0; index < iList.size(); index++) {
             if (iList != null && iList.get(index) != null && iList.get(index).getProperty(aFieldname) != null
                     && iList.get(index).getProperty(aFieldname).equals(aValue)) {
@@ -212,49 +269,121 @@ public abstract class AbstractListHandler extends ch.inser.jsl.list.AbstractList
         if (getRecordIndexInList() <= anIndex) {
             setRecordIndexInList(getRecordIndexInList() - 1);
         }
-        iListSize--;
-        Map<Integer, String> mapTampon = new HashMap<>();
-
-        for (Map.Entry<Integer, String> val : iMapVoState.entrySet()) {
-            if (val.getKey() > anIndex) {
-                mapTampon.put(val.getKey() - 1, val.getValue());
-            } else if (val.getKey() < anIndex) {
-                mapTampon.put(val.getKey(), val.getValue());
-            }
-        }
-        iMapVoState = mapTampon;
-        return iList.remove(anIndex);
+        return removeRow(anIndex);
     }
 
     @Override
     public Boolean removeVO(Object aId) {
-        int index = 0;
-        boolean exist = false;
-        if (aId != null) {
-            for (index = 0; index < iList.size() && !exist; index++) {
-                if (iList.get(index).getId() != null && iList.get(index).getId().equals(aId)) {
-                    exist = true;
-                    index--;
-                }
+        int index = indexOf(aId);
+        if (index < 0) {
+            return false;
+        }
+        // Suppression du champ
+        iLstRemoveField.add(aId);
+        removeRow(index);
+        return true;
+    }
+
+    /**
+     * Position d'une ligne par id. La position vient de l'index des lignes et est vérifiée dans la liste. L'id est cherché dans toute la
+     * liste seulement si l'index n'est pas sûr: position fausse, liste remplacée ou de taille changée hors du list handler (p.ex. par
+     * getList), ou lignes non indexées. Un remplacement de ligne par getList().set n'est pas vu tant que la taille ne change pas.
+     *
+     * @param aId
+     *            id de la ligne
+     * @return la position de la première ligne avec l'id, -1 si aucune
+     */
+    protected int indexOf(Object aId) {
+        if (aId == null || iList == null) {
+            return -1;
+        }
+        boolean current = iRowIndex != null && iIndexedList == iList && iRowIndex.size() == iList.size();
+        RowIndex rowIndex = getRowIndex();
+        int index = rowIndex.indexOf(aId);
+        if (index >= 0 && index < iList.size() && isRow(index, aId)) {
+            return index;
+        }
+        if (index < 0 && current && rowIndex.isComplete()) {
+            return -1;
+        }
+        if (index >= 0 || !current) {
+            iRowIndex = null;
+        }
+        for (index = 0; index < iList.size(); index++) {
+            if (isRow(index, aId)) {
+                iRowIndex = null;
+                return index;
             }
         }
-        if (exist) {
-            // Suppression du champ
-            iLstRemoveField.add(aId);
-            iList.remove(index);
-            iListSize--;
-            Map<Integer, String> mapTampon = new HashMap<>();
-
-            for (Map.Entry<Integer, String> val : iMapVoState.entrySet()) {
-                if (val.getKey() > index) {
-                    mapTampon.put(val.getKey() - 1, val.getValue());
-                }
+        return -1;
+    }
+
+    /**
+     * Enlève une ligne de la liste, avec son état. Les états des lignes suivantes sont décalés, les autres ne changent pas.
+     *
+     * @param aIndex
+     *            position de la ligne
+     * @return la ligne enlevée
+     */
+    protected IValueObject removeRow(int aIndex) {
+        RowIndex rowIndex = getRowIndex();
+        IValueObject vo = iList.remove(aIndex);
+        rowIndex.remove(aIndex, vo == null ? null : vo.getId());
+        iListSize--;
+
+        iMapVoState.remove(aIndex);
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : iMapVoState.keySet()) {
+            if (key > aIndex) {
+                keys.add(key);
             }
-            iMapVoState = mapTampon;
-            return true;
         }
+        // Dans l'ordre, chaque état prend la place libérée par le précédent
+        Collections.sort(keys);
+        for (Integer key : keys) {
+            iMapVoState.put(key - 1, iMapVoState.remove(key));
+        }
+        return vo;
+    }
 
-        return false;
+    /**
+     * @return l'index des lignes à jour avec iList. Les lignes ajoutées à la fin sont indexées, l'index est reconstruit si la liste a été
+     *         remplacée ou raccourcie hors du list handler.
+     */
+    private RowIndex getRowIndex() {
+        if (iRowIndex == null || iIndexedList != iList || iRowIndex.size() > iList.size() || iRowIndex.isSparse()) {
+            iRowIndex = new RowIndex();
+            iIndexedList = iList;
+        }
+        for (int index = iRowIndex.size(); index < iList.size(); index++) {
+            IValueObject vo = iList.get(index);
+            iRowIndex.add(vo == null ? null : vo.getId());
+        }
+        return iRowIndex;
+    }
+
+    /**
+     * @param aFieldname
+     *            nom d'un champ
+     * @return true si le champ est l'id des lignes de la liste, qui peuvent alors être cherchées avec l'index
+     */
+    private boolean isIdField(String aFieldname) {
+        if (iList == null || iList.isEmpty() || iList.get(0) == null || iList.get(0).getVOInfo() == null) {
+            return false;
+        }
+        return aFieldname.equals(iList.get(0).getVOInfo().getId());
+    }
+
+    /**
+     * @param aIndex
+     *            position dans la liste
+     * @param aId
+     *            id cherché
+     * @return true si la ligne a l'id
+     */
+    private boolean isRow(int aIndex, Object aId) {
+        IValueObject vo = iList.get(aIndex);
+        return vo != null && aId.equals(vo.getId());
     }
 
     @Override
@@ -15,9 +15,8 @@
 
 package ch.inser.dynaplus.list;
 
+import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -87,14 +86,12 @@ public class GenericListHandler extends AbstractListHandler {
         // la version sont iMaxRowResult est nécessaire pour la compatibilité
         // entre projet (si le getList est redéfini dans le BP et BO)
         if (iMaxRowResult == null) {
-            iList = bp.getList(getQuery(), iUser, new DAOParameter(DAOParameter.Name.SORT_INDEX, sortIdx)).getListObject();
+            setResult(bp.getList(getQuery(), iUser, getParameters(new DAOParameter(DAOParameter.Name.SORT_INDEX, sortIdx))));
         } else {
-            iList = bp.getList(getQuery(), iUser, new DAOParameter(DAOParameter.Name.SORT_INDEX, sortIdx),
-                    new DAOParameter(DAOParameter.Name.ROWNUM_MAX, iMaxRowResult)).getListObject();
+            setResult(bp.getList(getQuery(), iUser, getParameters(new DAOParameter(DAOParameter.Name.SORT_INDEX, sortIdx),
+                    new DAOParameter(DAOParameter.Name.ROWNUM_MAX, iMaxRowResult))));
         }
 
-        iListSize = iList.size();
-
         if (logger.isDebugEnabled()) {
             long timeEllapsed = new Date().getTime() - startTime;
             logger.debug("Refresh end : " + timeEllapsed + "ms");
@@ -118,22 +115,34 @@ public class GenericListHandler extends AbstractListHandler {
         // la version sont iMaxRowResult est nécessaire pour la compatibilité
         // entre projet (si le getList est redéfini dans le BP et BO)
         if (iMaxRowResult == null) {
-            iList = bp.getList(getQuery(), iUser, new DAOParameter(DAOParameter.Name.SORT_KEY, sortKey),
-                    new DAOParameter(DAOParameter.Name.SORT_ORIENTATION, getSortOrientation())).getListObject();
+            setResult(bp.getList(getQuery(), iUser, getParameters(new DAOParameter(DAOParameter.Name.SORT_KEY, sortKey),
+                    new DAOParameter(DAOParameter.Name.SORT_ORIENTATION, getSortOrientation()))));
         } else {
-            iList = bp.getList(getQuery(), iUser, new DAOParameter(DAOParameter.Name.SORT_KEY, sortKey),
+            setResult(bp.getList(getQuery(), iUser, getParameters(new DAOParameter(DAOParameter.Name.SORT_KEY, sortKey),
                     new DAOParameter(DAOParameter.Name.SORT_ORIENTATION, getSortOrientation()),
-                    new DAOParameter(DAOParameter.Name.ROWNUM_MAX, iMaxRowResult)).getListObject();
+                    new DAOParameter(DAOParameter.Name.ROWNUM_MAX, iMaxRowResult))));
         }
 
-        iListSize = iList.size();
-
         if (logger.isDebugEnabled()) {
             long timeEllapsed = new Date().getTime() - startTime;
             logger.debug("Refresh end : " + timeEllapsed + "ms");
         }
     }
 
+    /**
+     * @param aParameters
+     *            paramètres du getList
+     * @return les paramètres, avec DAOParameter.Name.TOTAL_COUNT si isTotalCount
+     */
+    private DAOParameter[] getParameters(DAOParameter... aParameters) {
+        if (!iTotalCount) {
+            return aParameters;
+        }
+        DAOParameter[] parameters = Arrays.copyOf(aParameters, aParameters.length + 1);
+        parameters[aParameters.length] = new DAOParameter(DAOParameter.Name.TOTAL_COUNT, Boolean.TRUE);
+        return parameters;
+    }
+
     /**
      * Création de checkbox, le checkbox est à true si la valeur du champ aNamePropTest est égale à aValuePropTest
      *
@@ -178,29 +187,24 @@ public class GenericListHandler extends AbstractListHandler {
 
     @Override
     public Boolean setState(Object aId, State aState) {
-
-        for (int index = 0; index < iList.size(); index++) {
-            if (iList.get(index).getId().equals(aId)) {
-                iMapVoState.put(index, aState.toString());
-                return true;
-            }
+        int index = indexOf(aId);
+        if (index < 0) {
+            return false;
         }
-
-        return false;
-
+        iMapVoState.put(index, aState.toString());
+        return true;
     }
 
     @Override
     public IValueObject setVO(IValueObject aVo) {
 
         if (aVo.getId() != null) {
-            // Cherche le vo pour modification
-            for (int index = 0; index < iList.size(); index++) {
-                if (iList.get(index).getId().equals(aVo.getId())) {
-                    iList.set(index, aVo);
-                    iMapVoState.put(index, State.UPDATE.toString());
-                    return iList.get(index);
-                }
+            // Cherche le vo pour modification, le remplacement garde l'id et donc l'index
+            int index = indexOf(aVo.getId());
+            if (index >= 0) {
+                iList.set(index, aVo);
+                iMapVoState.put(index, State.UPDATE.toString());
+                return aVo;
             }
         } else {
             // Si le champs n'existe pas, on réalise la création du champ
@@ -214,13 +218,8 @@ public class GenericListHandler extends AbstractListHandler {
     @Override
     public IValueObject getVO(Object aId) {
         // Recherche d'un clone du vo, selon id
-        for (int index = 0; index < iList.size(); index++) {
-            if (iList.get(index).getId().equals(aId)) {
-                return (IValueObject) iList.get(index).clone();
-            }
-        }
-
-        return null;
+        int index = indexOf(aId);
+        return index < 0 ? null : (IValueObject) iList.get(index).clone();
     }
 
     /**
@@ -239,22 +238,7 @@ public class GenericListHandler extends AbstractListHandler {
             removeVO(getList().get(id).getId());
         } else {
             // suppression pas encore dans la db donc simple suppression
-            iList.remove(id);
-            iListSize--;
-            iMapVoState.remove(id);
-            // refaire le MapVoState
-            Map<Integer, String> mapTampon = new HashMap<>();
-
-            for (Map.Entry<Integer, String> val : iMapVoState.entrySet()) {
-                if (val.getKey() > id) {
-                    mapTampon.put(val.getKey() - 1, val.getValue());
-                } else {
-                    mapTampon.put(val.getKey(), val.getValue());
-                }
-            }
-
-            iMapVoState = mapTampon;
-
+            removeRow(id);
         }
         return null;
     }
@@ -0,0 +1,149 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.list;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index des lignes d'un list handler par id. Chaque ligne ajoutée reçoit un numéro d'ordre qui ne change plus; un arbre de Fenwick compte
+ * les lignes encore présentes avant chaque numéro. La position d'un id et la suppression d'une ligne coûtent O(log n), sans décaler les
+ * autres entrées de l'index.
+ *
+ * L'index suit les ajouts en fin de liste et les suppressions faites par le list handler. Il ne voit pas les autres modifications de la
+ * liste, le list handler vérifie donc chaque position retournée. Les lignes sans id ou avec l'id d'une ligne précédente ne sont pas
+ * indexées et comptées, un id absent de l'index n'est alors pas forcément absent de la liste.
+ *
+ * @author INSER SA
+ *
+ */
+final class RowIndex {
+
+    /** Numéro d'ordre par id, à partir de 1 */
+    private final Map<Object, Integer> iSlots = new HashMap<>();
+
+    /** Arbre de Fenwick des lignes présentes par numéro d'ordre, l'index 0 n'est pas utilisé */
+    private int[] iTree = new int[16];
+
+    /** Nombre de numéros d'ordre attribués */
+    private int iSlotCount;
+
+    /** Nombre de lignes présentes */
+    private int iSize;
+
+    /** Nombre de lignes présentes non indexées, sans id ou en doublon */
+    private int iUnindexed;
+
+    /**
+     * Ajoute une ligne à la fin
+     *
+     * @param aId
+     *            id de la ligne, null pour une ligne pas encore enregistrée
+     */
+    void add(Object aId) {
+        int slot = ++iSlotCount;
+        if (slot >= iTree.length) {
+            iTree = Arrays.copyOf(iTree, iTree.length * 2);
+        }
+        // Le noeud couvre les numéros ]slot - lowbit, slot]
+        iTree[slot] = 1 + prefix(slot - 1) - prefix(slot - (slot & -slot));
+        iSize++;
+        if (aId == null || iSlots.putIfAbsent(aId, slot) != null) {
+            iUnindexed++;
+        }
+    }
+
+    /**
+     * @param aId
+     *            id cherché
+     * @return la position de la première ligne avec l'id, -1 si l'id n'est pas indexé
+     */
+    int indexOf(Object aId) {
+        Integer slot = iSlots.get(aId);
+        return slot == null ? -1 : prefix(slot) - 1;
+    }
+
+    /**
+     * Enlève une ligne
+     *
+     * @param aPosition
+     *            position de la ligne
+     * @param aId
+     *            id de la ligne
+     */
+    void remove(int aPosition, Object aId) {
+        int slot = find(aPosition + 1);
+        for (int i = slot; i <= iSlotCount; i += i & -i) {
+            iTree[i]--;
+        }
+        iSize--;
+        if ((aId == null || !iSlots.remove(aId, slot)) && iUnindexed > 0) {
+            iUnindexed--;
+        }
+    }
+
+    /**
+     * @return nombre de lignes présentes
+     */
+    int size() {
+        return iSize;
+    }
+
+    /**
+     * @return true si toutes les lignes présentes sont indexées par leur id
+     */
+    boolean isComplete() {
+        return iUnindexed == 0;
+    }
+
+    /**
+     * @return true si la plupart des numéros d'ordre sont ceux de lignes enlevées, l'index est alors à reconstruire
+     */
+    boolean isSparse() {
+        return iSlotCount > 2 * iSize + 64;
+    }
+
+    /**
+     * @param aSlot
+     *            numéro d'ordre
+     * @return nombre de lignes présentes jusqu'au numéro compris
+     */
+    private int prefix(int aSlot) {
+        int sum = 0;
+        for (int i = aSlot; i > 0; i -= i & -i) {
+            sum += iTree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @param aRank
+     *            rang d'une ligne présente, à partir de 1
+     * @return numéro d'ordre de la ligne
+     */
+    private int find(int aRank) {
+        int slot = 0;
+        int rank = aRank;
+        for (int step = Integer.highestOneBit(iSlotCount); step > 0; step >>= 1) {
+            if (slot + step <= iSlotCount && iTree[slot + step] < rank) {
+                slot += step;
+                rank -= iTree[slot];
+            }
+        }
+        return slot + 1;
+    }
+}
@@ -15,25 +15,35 @@
 
 package ch.inser.dynaplus.mail;
 
+import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.serial.SerialBlob;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import ch.inser.dynamic.common.DynamicDAO.Operator;
 import ch.inser.dynamic.common.IContextManager;
 import ch.inser.dynamic.common.ILoggedUser;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.common.LazyLob;
 import ch.inser.dynamic.util.VOInfo;
 import ch.inser.dynaplus.bo.AbstractBusinessObject;
+import ch.inser.dynaplus.bo.AbstractBusinessProcess;
 import ch.inser.dynaplus.bo.IBusinessObject;
 import ch.inser.jsl.exceptions.ISException;
 import ch.inser.jsl.tools.StringTools;
@@ -53,11 +63,64 @@ public class AbstractMailInfoBusinessObject extends AbstractBusinessObject imple
     /** Définition de la catégorie de logging */
     private static final Log logger = LogFactory.getLog(AbstractMailInfoBusinessObject.class);
 
+    /** Value of the business object to cache the resolved templates, maximum age in seconds or true for the default one */
+    private static final String MAIL_INFO_CACHE = "mailinfocache";
+
+    /** Default maximum age of a cached template in seconds */
+    private static final long DEFAULT_MAX_AGE = 300;
+
+    /** Business objects of the mail configuration, a write on one of them invalidates the cached templates */
+    private static final String[] MAIL_BO_NAMES = { "MailDescription", "MailSubject", "MailText", "MailAttachement", "MailFrom", "MailCC",
+            "MailBCC", "MailReplyTo", "MailTo", "MailAddress", "MailAddressDescription" };
+
+    /** Column prefix of the recipient business objects */
+    private static final Map<String, String> RECIPIENT_PREFIXES = new HashMap<>();
+
+    static {
+        RECIPIENT_PREFIXES.put("MailFrom", "mfr");
+        RECIPIENT_PREFIXES.put("MailCC", "mcc");
+        RECIPIENT_PREFIXES.put("MailBCC", "mbc");
+        RECIPIENT_PREFIXES.put("MailReplyTo", "mre");
+        RECIPIENT_PREFIXES.put("MailTo", "mto");
+    }
+
+    /**
+     * Resolved template with the write count of the mail configuration and the time when it was loaded
+     */
+    private static final class CachedTemplate {
+
+        /** Mail info value object without formatted subject and text */
+        private final IValueObject iTemplate;
+
+        /** Write count of the mail configuration */
+        private final long iWriteCount;
+
+        /** Load time, from System.nanoTime */
+        private final long iLoadTime;
+
+        /**
+         * @param aTemplate
+         *            mail info value object
+         * @param aWriteCount
+         *            write count of the mail configuration
+         * @param aLoadTime
+         *            load time, from System.nanoTime
+         */
+        CachedTemplate(IValueObject aTemplate, long aWriteCount, long aLoadTime) {
+            iTemplate = aTemplate;
+            iWriteCount = aWriteCount;
+            iLoadTime = aLoadTime;
+        }
+    }
+
     /**
      * Context manager
      */
     private IContextManager iContextManager;
 
+    /** Resolved templates by business id and language, created with the first cached template */
+    private transient volatile Map<String, CachedTemplate> iTemplates;
+
     /**
      * Constructor
      *
@@ -148,47 +211,68 @@ public class AbstractMailInfoBusinessObject extends AbstractBusinessObject imple
      */
     private IValueObject getMailInfoValue(String businessId, Object[] subjectArguments, Object[] textArguments, Locale locale,
             Connection con, ILoggedUser user) throws SQLException, ISException {
-        IValueObject initVO = getInitVO(user, con, false);
-        IValueObject voMailInfo = initVO;
-        voMailInfo.setProperty("mai_business_id", businessId);
-        Collection<?> mailInfoCollection = getList(voMailInfo, user, con).getListObject();
+        Locale mailInfoLocale = getMailInfoLocale(locale);
+        String key = businessId + "|" + mailInfoLocale.getLanguage();
+        long maxAge = getCacheMaxAge();
+        boolean cacheEnabled = maxAge > 0;
+
+        IValueObject mailInfoValueObject = cacheEnabled ? getCachedTemplate(key, maxAge) : null;
+        if (mailInfoValueObject == null) {
+            // Counted before loading: a write during the load makes the entry stale at once
+            long writeCount = getWriteCount();
+            long loadTime = System.nanoTime();
+
+            IValueObject voMailInfo = getInitVO(user, con, false);
+            voMailInfo.setProperty("mai_business_id", businessId);
+            Collection<?> mailInfoCollection = getList(voMailInfo, user, con).getListObject();
+            if (mailInfoCollection.isEmpty()) {
+                return null;
+            }
 
-        if (!mailInfoCollection.isEmpty()) {
             IValueObject currentMailInfoValueObject = (IValueObject) mailInfoCollection.iterator().next();
-            IValueObject mailInfoValueObject = getInitVO(user, con, false);
+            mailInfoValueObject = getInitVO(user, con, false);
             mailInfoValueObject.setProperty("mai_id", currentMailInfoValueObject.getId());
+            doWork(mailInfoValueObject, mailInfoLocale, con, user);
 
-            Locale mailInfoLocale = getMailInfoLocale(locale);
-
-            return doWork(mailInfoValueObject, subjectArguments, textArguments, mailInfoLocale, con, user);
+            if (cacheEnabled) {
+                putCachedTemplate(key, mailInfoValueObject, writeCount, loadTime);
+                mailInfoValueObject = copyTemplate(mailInfoValueObject);
+            }
         }
 
-        return null;
+        if (subjectArguments != null && mailInfoValueObject.getProperty("MailSubject.subjectContent") != null) {
+            mailInfoValueObject.setProperty("MailSubject.subjectContent",
+                    getFormattedStringValue(mailInfoValueObject.getProperty("MailSubject.subjectContent"), subjectArguments));
+        }
+        if (textArguments != null && mailInfoValueObject.getProperty("MailText.lobTextContent") != null) {
+            mailInfoValueObject.setProperty("MailText.lobTextContent",
+                    getFormattedStringValue(mailInfoValueObject.getProperty("MailText.lobTextContent"), textArguments));
+        }
+        return mailInfoValueObject;
     }
 
     /**
-     * Do the work to get the relevant information about an email (i.e. value object)
+     * Do the work to get the relevant information about an email (i.e. value object). The subject and text are not formatted, so that the
+     * result can be cached as a template.
+     *
+     * The addresses of all recipient tables are read with two queries, one on MailAddress and one on MailAddressDescription, instead of
+     * two queries per address.
      *
      * @param mailInfoValueObject
      *            mail info value object
-     * @param subjectArguments
-     *            subject arguments
-     * @param textArguments
-     *            text body arguments
      * @param mailInfoLocale
      *            locale (language) for getting mail info
      * @param con
      *            connection
      * @param user
      *            logged user
-     * @return MailInfo value object
      * @throws SQLException
      *             en cas de problème au niveau de la requête à la base de données.
      * @throws ISException
      *             error retrieving mail info from the database
      */
-    private IValueObject doWork(IValueObject mailInfoValueObject, Object[] subjectArguments, Object[] textArguments, Locale mailInfoLocale,
-            Connection con, ILoggedUser user) throws SQLException, ISException {
+    private void doWork(IValueObject mailInfoValueObject, Locale mailInfoLocale, Connection con, ILoggedUser user)
+            throws SQLException, ISException {
         // Get information from MailDescription business object
         IValueObject voMailDescription = getValueObject("MailDescription", mailInfoValueObject.getId(), "mds_mai_id", "mds_lang_code",
                 mailInfoLocale, con, user);
@@ -200,109 +284,76 @@ public class AbstractMailInfoBusinessObject extends AbstractBusinessObject imple
         IValueObject voMailSubject = getValueObject("MailSubject", mailInfoValueObject.getId(), "msu_mai_id", "msu_lang_code",
                 mailInfoLocale, con, user);
         if (voMailSubject != null) {
-            if (subjectArguments != null) {
-                mailInfoValueObject.setProperty("MailSubject.subjectContent",
-                        getFormattedStringValue(voMailSubject.getProperty("msu_subject_content"), subjectArguments));
-            } else {
-                mailInfoValueObject.setProperty("MailSubject.subjectContent", voMailSubject.getProperty("msu_subject_content"));
-            }
+            mailInfoValueObject.setProperty("MailSubject.subjectContent", voMailSubject.getProperty("msu_subject_content"));
         }
 
         // Get information from MailText business object
         IValueObject voMailText = getValueObject("MailText", mailInfoValueObject.getId(), "mte_mai_id", "mte_lang_code", mailInfoLocale,
                 con, user);
         if (voMailText != null) {
-            if (textArguments != null) {
-                mailInfoValueObject.setProperty("MailText.lobTextContent",
-                        getFormattedStringValue(voMailText.getProperty("mte_lob_text_content"), textArguments));
-            } else {
-                mailInfoValueObject.setProperty("MailText.lobTextContent", voMailText.getProperty("mte_lob_text_content"));
-            }
-
+            mailInfoValueObject.setProperty("MailText.lobTextContent", voMailText.getProperty("mte_lob_text_content"));
             mailInfoValueObject.setProperty("MailText.mimeType", voMailText.getProperty("mte_mime_type"));
         }
 
         // Get information from MailAttachement business object
         Collection<IValueObject> voMailAttachementCollection = getValueObjects("MailAttachement", mailInfoValueObject.getId(), "mat_mai_id",
                 "mat_lang_code", mailInfoLocale, con, user);
-        if (!voMailAttachementCollection.isEmpty()) {
-            for (IValueObject voMailAttachement : voMailAttachementCollection) {
-                setPropertyValues(mailInfoValueObject, "MailAttachement", "title", "mat_title", voMailAttachement);
-                setPropertyValues(mailInfoValueObject, "MailAttachement", "fileName", "mat_filename", voMailAttachement);
-                setPropertyValues(mailInfoValueObject, "MailAttachement", "dateUpload", "mat_date_upload", voMailAttachement);
-                setPropertyValues(mailInfoValueObject, "MailAttachement", "lobDoc", "mat_lob_doc", voMailAttachement);
-            }
+        for (IValueObject voMailAttachement : voMailAttachementCollection) {
+            setPropertyValues(mailInfoValueObject, "MailAttachement", "title", "mat_title", voMailAttachement);
+            setPropertyValues(mailInfoValueObject, "MailAttachement", "fileName", "mat_filename", voMailAttachement);
+            setPropertyValues(mailInfoValueObject, "MailAttachement", "dateUpload", "mat_date_upload", voMailAttachement);
+            setPropertyValues(mailInfoValueObject, "MailAttachement", "lobDoc", "mat_lob_doc", voMailAttachement);
         }
 
-        // Get information from MailFrom, MailAddress and MailAddressDescription
-        // business object
+        // Get the address links of MailFrom (only the first one), MailCC, MailBCC, MailReplyTo and MailTo
+        Map<String, List<IValueObject>> recipients = new LinkedHashMap<>();
         IValueObject voMailFrom = getValueObject("MailFrom", mailInfoValueObject.getId(), "mfr_mai_id", "mfr_lang_code", mailInfoLocale,
                 con, user);
-        if (voMailFrom != null) {
-            IValueObject mailAddressValueObject = getMailAddress(voMailFrom.getProperty("mfr_mad_id"), con, user);
-            IValueObject voMailAddressDescription = getValueObject("MailAddressDescription", mailAddressValueObject.getId(), "mde_mad_id",
-                    "mde_lang_code", mailInfoLocale, con, user);
-            setAddressValues(mailInfoValueObject, "MailFrom", "mailAddress", "mad_email_address", mailAddressValueObject,
-                    "mde_address_description", voMailAddressDescription);
-        }
-
-        // Get information from MailCC, MailAddress and MailAddressDescription
-        // business object
-        Collection<IValueObject> voMailCCCollection = getValueObjects("MailCC", mailInfoValueObject.getId(), "mcc_mai_id", "mcc_lang_code",
-                mailInfoLocale, con, user);
-        if (!voMailCCCollection.isEmpty()) {
-            for (IValueObject voMailCC : voMailCCCollection) {
-                IValueObject mailAddressValueObject = getMailAddress(voMailCC.getProperty("mcc_mad_id"), con, user);
-                IValueObject voMailAddressDescription = getValueObject("MailAddressDescription", mailAddressValueObject.getId(),
-                        "mde_mad_id", "mde_lang_code", mailInfoLocale, con, user);
-                setAddressValues(mailInfoValueObject, "MailCC", "mailAddress", "mad_email_address", mailAddressValueObject,
-                        "mde_address_description", voMailAddressDescription);
+        recipients.put("MailFrom", voMailFrom == null ? Collections.emptyList() : Collections.singletonList(voMailFrom));
+        recipients.put("MailCC", getValueObjects("MailCC", mailInfoValueObject.getId(), "mcc_mai_id", "mcc_lang_code", mailInfoLocale, con,
+                user));
+        recipients.put("MailBCC", getValueObjects("MailBCC", mailInfoValueObject.getId(), "mbc_mai_id", "mbc_lang_code", mailInfoLocale,
+                con, user));
+        recipients.put("MailReplyTo", getValueObjects("MailReplyTo", mailInfoValueObject.getId(), "mre_mai_id", "mre_lang_code",
+                mailInfoLocale, con, user));
+        recipients.put("MailTo", getValueObjects("MailTo", mailInfoValueObject.getId(), "mto_mai_id", "mto_lang_code", mailInfoLocale, con,
+                user));
+
+        List<Object> addressIds = new ArrayList<>();
+        for (Map.Entry<String, List<IValueObject>> recipient : recipients.entrySet()) {
+            String madIdProperty = RECIPIENT_PREFIXES.get(recipient.getKey()) + "_mad_id";
+            for (IValueObject vo : recipient.getValue()) {
+                Object madId = vo.getProperty(madIdProperty);
+                if (madId != null && !addressIds.contains(madId)) {
+                    addressIds.add(madId);
+                }
             }
         }
-
-        // Get information from MailBCC, MailAddress and MailAddressDescription
-        // business object
-        Collection<IValueObject> voMailBCCCollection = getValueObjects("MailBCC", mailInfoValueObject.getId(), "mbc_mai_id",
-                "mbc_lang_code", mailInfoLocale, con, user);
-        if (!voMailBCCCollection.isEmpty()) {
-            for (IValueObject voMailBCC : voMailBCCCollection) {
-                IValueObject mailAddressValueObject = getMailAddress(voMailBCC.getProperty("mbc_mad_id"), con, user);
-                IValueObject voMailAddressDescription = getValueObject("MailAddressDescription", mailAddressValueObject.getId(),
-                        "mde_mad_id", "mde_lang_code", mailInfoLocale, con, user);
-                setAddressValues(mailInfoValueObject, "MailBCC", "mailAddress", "mad_email_address", mailAddressValueObject,
-                        "mde_address_description", voMailAddressDescription);
-            }
+        if (addressIds.isEmpty()) {
+            return;
         }
 
-        // Get information from MailReplyTo, MailAddress and
-        // MailAddressDescription business object
-        Collection<IValueObject> voMailReplyToCollection = getValueObjects("MailReplyTo", mailInfoValueObject.getId(), "mre_mai_id",
-                "mre_lang_code", mailInfoLocale, con, user);
-        if (!voMailReplyToCollection.isEmpty()) {
-            for (IValueObject voMailReplyTo : voMailReplyToCollection) {
-                IValueObject mailAddressValueObject = getMailAddress(voMailReplyTo.getProperty("mre_mad_id"), con, user);
-                IValueObject voMailAddressDescription = getValueObject("MailAddressDescription", mailAddressValueObject.getId(),
-                        "mde_mad_id", "mde_lang_code", mailInfoLocale, con, user);
-                setAddressValues(mailInfoValueObject, "MailReplyTo", "mailAddress", "mad_email_address", mailAddressValueObject,
-                        "mde_address_description", voMailAddressDescription);
-            }
+        // Get information from MailAddress and MailAddressDescription business object, for all addresses at once
+        Map<String, IValueObject> addresses = getMailAddresses(addressIds, con, user);
+        Map<String, IValueObject> descriptions = new HashMap<>();
+        for (IValueObject vo : getValueObjects("MailAddressDescription", Operator.getOperator(Operator.IN, addressIds), "mde_mad_id",
+                "mde_lang_code", mailInfoLocale, con, user)) {
+            descriptions.putIfAbsent(String.valueOf(vo.getProperty("mde_mad_id")), vo);
         }
 
-        // Get information from MailTo, MailAddress and
-        // MailAddressDescription business object
-        Collection<IValueObject> voMailToCollection = getValueObjects("MailTo", mailInfoValueObject.getId(), "mto_mai_id", "mto_lang_code",
-                mailInfoLocale, con, user);
-        if (!voMailToCollection.isEmpty()) {
-            for (IValueObject voMailTo : voMailToCollection) {
-                IValueObject mailAddressValueObject = getMailAddress(voMailTo.getProperty("mto_mad_id"), con, user);
-                IValueObject voMailAddressDescription = getValueObject("MailAddressDescription", mailAddressValueObject.getId(),
-                        "mde_mad_id", "mde_lang_code", mailInfoLocale, con, user);
-                setAddressValues(mailInfoValueObject, "MailTo", "mailAddress", "mad_email_address", mailAddressValueObject,
-                        "mde_address_description", voMailAddressDescription);
+        for (Map.Entry<String, List<IValueObject>> recipient : recipients.entrySet()) {
+            String madIdProperty = RECIPIENT_PREFIXES.get(recipient.getKey()) + "_mad_id";
+            for (IValueObject vo : recipient.getValue()) {
+                String madId = String.valueOf(vo.getProperty(madIdProperty));
+                IValueObject mailAddressValueObject = addresses.get(madId);
+                if (mailAddressValueObject == null) {
+                    logger.warn("The email address " + madId + " of " + recipient.getKey() + " does not exist");
+                    continue;
+                }
+                setAddressValues(mailInfoValueObject, recipient.getKey(), "mailAddress", "mad_email_address", mailAddressValueObject,
+                        "mde_address_description", descriptions.get(madId));
             }
         }
-
-        return mailInfoValueObject;
     }
 
     /**
@@ -470,23 +521,164 @@ public class AbstractMailInfoBusinessObject extends AbstractBusinessObject imple
     }
 
     /**
-     * Get value object MailAddress (i.e. email address)
+     * Get value objects MailAddress (i.e. email addresses)
      *
-     * @param id
-     *            Id of value object MailAddress
+     * @param ids
+     *            Ids of value objects MailAddress
      * @param con
      *            connection
      * @param user
      *            logged user
-     * @return value object MailAddress (i.e. email address)
+     * @return value objects MailAddress by id as string
      * @throws SQLException
      *             en cas de problème au niveau de la requête à la base de données.
+     * @throws ISException
+     *             error retrieving mail info
      */
-    private IValueObject getMailAddress(Object id, Connection con, ILoggedUser user) throws SQLException {
+    private Map<String, IValueObject> getMailAddresses(List<Object> ids, Connection con, ILoggedUser user) throws SQLException, ISException {
         IBusinessObject boMailAddress = getBOFactory().getBO("MailAddress");
 
-        IValueObject mailAddress = boMailAddress.getRecord(id, con, user, false).getValueObject();
-        return mailAddress;
+        IValueObject vo = boMailAddress.getInitVO(user, con, false);
+        vo.setProperty(vo.getVOInfo().getId(), Operator.getOperator(Operator.IN, ids));
+
+        Map<String, IValueObject> mailAddresses = new HashMap<>();
+        for (Object object : boMailAddress.getList(vo, user, con).getListObject()) {
+            IValueObject mailAddress = (IValueObject) object;
+            mailAddresses.put(String.valueOf(mailAddress.getId()), mailAddress);
+        }
+        return mailAddresses;
+    }
+
+    /**
+     * Maximum age of a cached template, with the value mailinfocache of the business object: number of seconds, or true for
+     * DEFAULT_MAX_AGE. The write counts only see the commits of the business processes of this node, a template is reloaded after this
+     * age to see the other writes (business object or DAO level, other nodes).
+     *
+     * @return maximum age in nanoseconds, 0 if the resolved templates are not cached
+     */
+    private long getCacheMaxAge() {
+        Object value = iVOInfo.getValue(MAIL_INFO_CACHE);
+        if (value == null || "false".equalsIgnoreCase(value.toString())) {
+            return 0;
+        }
+        if ("true".equalsIgnoreCase(value.toString())) {
+            return TimeUnit.SECONDS.toNanos(DEFAULT_MAX_AGE);
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(Long.parseLong(value.toString().trim()), 0));
+        } catch (NumberFormatException e) {
+            logger.error("Invalid " + MAIL_INFO_CACHE + ": " + value, e);
+            return 0;
+        }
+    }
+
+    /**
+     * @return sum of the write counts of the mail configuration business objects
+     */
+    private long getWriteCount() {
+        long count = AbstractBusinessProcess.getWriteCount(iVOInfo.getName());
+        for (String name : MAIL_BO_NAMES) {
+            count += AbstractBusinessProcess.getWriteCount(name);
+        }
+        return count;
+    }
+
+    /**
+     * Get a copy of a cached template
+     *
+     * @param key
+     *            business id and language
+     * @param maxAge
+     *            maximum age in nanoseconds
+     * @return copy of the template, null if not cached, older than the maximum age or if the mail configuration changed since it was
+     *         loaded
+     */
+    private IValueObject getCachedTemplate(String key, long maxAge) {
+        Map<String, CachedTemplate> templates = iTemplates;
+        CachedTemplate template = templates == null ? null : templates.get(key);
+        if (template == null) {
+            return null;
+        }
+        if (template.iWriteCount != getWriteCount() || System.nanoTime() - template.iLoadTime > maxAge) {
+            templates.remove(key, template);
+            return null;
+        }
+        return copyTemplate(template.iTemplate);
+    }
+
+    /**
+     * Cache a template. The LOB are read before, the template must not depend on the connection.
+     *
+     * @param key
+     *            business id and language
+     * @param template
+     *            mail info value object without formatted subject and text
+     * @param writeCount
+     *            write count of the mail configuration before the template was loaded
+     * @param loadTime
+     *            time before the template was loaded, from System.nanoTime
+     * @throws SQLException
+     *             error reading a LOB
+     */
+    private void putCachedTemplate(String key, IValueObject template, long writeCount, long loadTime) throws SQLException {
+        for (Map.Entry<String, Object> property : template.getProperties().entrySet()) {
+            Object value = property.getValue();
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                List<Object> values = new ArrayList<>(list.size());
+                for (Object element : list) {
+                    values.add(detachLob(element));
+                }
+                property.setValue(values);
+            } else {
+                property.setValue(detachLob(value));
+            }
+        }
+        Map<String, CachedTemplate> templates = iTemplates;
+        if (templates == null) {
+            synchronized (this) {
+                if (iTemplates == null) {
+                    iTemplates = new ConcurrentHashMap<>();
+                }
+                templates = iTemplates;
+            }
+        }
+        templates.put(key, new CachedTemplate(template, writeCount, loadTime));
+    }
+
+    /**
+     * @param value
+     *            property value
+     * @return the value, with a lazy LOB read and a driver BLOB copied in memory
+     * @throws SQLException
+     *             error reading the LOB
+     */
+    private static Object detachLob(Object value) throws SQLException {
+        if (value instanceof LazyLob) {
+            return detachLob(((LazyLob) value).getValue());
+        }
+        if (value instanceof Blob && !(value instanceof SerialBlob)) {
+            return new SerialBlob((Blob) value);
+        }
+        return value;
+    }
+
+    /**
+     * @param template
+     *            cached template
+     * @return copy of the template, with own lists and maps for the properties of the mail tables
+     */
+    @SuppressWarnings("unchecked")
+    private static IValueObject copyTemplate(IValueObject template) {
+        IValueObject copy = (IValueObject) template.clone();
+        for (Map.Entry<String, Object> property : copy.getProperties().entrySet()) {
+            if (property.getValue() instanceof List) {
+                property.setValue(new ArrayList<>((List<Object>) property.getValue()));
+            } else if (property.getValue() instanceof Map) {
+                property.setValue(new HashMap<>((Map<String, String>) property.getValue()));
+            }
+        }
+        return copy;
     }
 
     /**
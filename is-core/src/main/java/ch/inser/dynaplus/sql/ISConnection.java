@@ -37,9 +37,16 @@ import java.util.concurrent.Executor;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import ch.inser.dynamic.metrics.IMetrics;
+
 /**
  * Connection propre qui assure le autocommit à false et qui effectue un autorollback à la fermeture
  *
+ * La connexion suit son état: autocommit connu et utilisation depuis le dernier commit ou rollback (un statement a été créé, les
+ * statements du driver sont retournés tels quels). Les appels sans effet au driver ne sont pas faits: setAutoCommit à la valeur actuelle,
+ * commit ou rollback sans statement créé, getAutoCommit à la fermeture. Ils sont comptés et transmis à la fermeture à
+ * IMetrics.recordSavedCalls. Un accès qui échappe au suivi (unwrap, getMetaData) marque aussi la transaction comme utilisée.
+ *
  * @author INSER SA
  *
  */
@@ -51,6 +58,24 @@ public class ISConnection implements Connection {
     /** Connection encapsulée */
     private Connection iCon;
 
+    /** Unité de travail qui gère commit, rollback et close, null si connexion propre */
+    private UnitOfWork iUnitOfWork;
+
+    /** Valeur de l'autocommit de la connexion encapsulée */
+    private boolean iAutoCommit;
+
+    /** Un statement a été créé depuis le dernier commit ou rollback */
+    private boolean iDirty;
+
+    /** Connexion fermée par close */
+    private boolean iClosed;
+
+    /** Nombre d'appels au driver évités par la connexion */
+    private long iSavedCalls;
+
+    /** Mesures qui reçoivent les appels évités à la fermeture, null si pas transmis */
+    private IMetrics iMetrics;
+
     /**
      * Constructeur permettant d'encapsuler une connection fournie par le système et d'assurer le autocommit false
      *
@@ -59,7 +84,11 @@ public class ISConnection implements Connection {
     public ISConnection(Connection aCon) {
         iCon = aCon;
         try {
-            iCon.setAutoCommit(false);
+            iAutoCommit = iCon.getAutoCommit();
+            if (iAutoCommit) {
+                iCon.setAutoCommit(false);
+                iAutoCommit = false;
+            }
         } catch (SQLException e) {
             logger.error("Error setting autocommit to false", e);
         }
@@ -69,8 +98,40 @@ public class ISConnection implements Connection {
         }
     }
 
+    /**
+     * Connexion partagée d'une unité de travail
+     *
+     * @param aCon
+     *            connexion de l'unité
+     * @param aUnitOfWork
+     *            unité de travail
+     */
+    ISConnection(ISConnection aCon, UnitOfWork aUnitOfWork) {
+        iCon = aCon;
+        iUnitOfWork = aUnitOfWork;
+    }
+
+    /**
+     * @return l'unité de travail de la connexion, null si connexion propre
+     */
+    UnitOfWork getUnitOfWork() {
+        return iUnitOfWork;
+    }
+
+    /**
+     * @param aMetrics
+     *            mesures qui reçoivent les appels évités à la fermeture
+     */
+    void setMetrics(IMetrics aMetrics) {
+        iMetrics = aMetrics;
+    }
+
+    /**
+     * La connexion du driver peut exécuter des requêtes sans passer par le suivi
+     */
     @Override
     public <T> T unwrap(Class<T> aIface) throws SQLException {
+        iDirty = true;
         return iCon.unwrap(aIface);
     }
 
@@ -81,16 +142,19 @@ public class ISConnection implements Connection {
 
     @Override
     public Statement createStatement() throws SQLException {
+        iDirty = true;
         return iCon.createStatement();
     }
 
     @Override
     public PreparedStatement prepareStatement(String aSql) throws SQLException {
+        iDirty = true;
         return iCon.prepareStatement(aSql);
     }
 
     @Override
     public CallableStatement prepareCall(String aSql) throws SQLException {
+        iDirty = true;
         return iCon.prepareCall(aSql);
     }
 
@@ -101,27 +165,56 @@ public class ISConnection implements Connection {
 
     @Override
     public void setAutoCommit(boolean aAutoCommit) throws SQLException {
+        if (iUnitOfWork == null && iAutoCommit == aAutoCommit) {
+            iSavedCalls++;
+            return;
+        }
         iCon.setAutoCommit(aAutoCommit);
-
+        iAutoCommit = aAutoCommit;
+        if (aAutoCommit) {
+            // Le passage en autocommit valide la transaction
+            iDirty = false;
+        }
     }
 
     @Override
     public boolean getAutoCommit() throws SQLException {
-        return iCon.getAutoCommit();
+        if (iUnitOfWork != null) {
+            return iCon.getAutoCommit();
+        }
+        return iAutoCommit;
     }
 
     @Override
     public void commit() throws SQLException {
+        if (iUnitOfWork != null) {
+            // Validé par le commit de l'unité de travail
+            return;
+        }
+        if (!iDirty && !iAutoCommit) {
+            iSavedCalls++;
+            return;
+        }
         iCon.commit();
+        iDirty = false;
     }
 
     @Override
     public void rollback() throws SQLException {
-        if (iCon.isClosed()) {
+        if (iUnitOfWork != null) {
+            iUnitOfWork.setRollbackOnly();
+            return;
+        }
+        if (iClosed) {
             logger.warn("Already closed for rallback");
             return;
         }
+        if (!iDirty && !iAutoCommit) {
+            iSavedCalls++;
+            return;
+        }
         iCon.rollback();
+        iDirty = false;
     }
 
     /**
@@ -133,12 +226,24 @@ public class ISConnection implements Connection {
             StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
             logger.debug("close : " + this + "/" + stackTraceElements[2] + " / " + stackTraceElements[3]);
         }
-        if (iCon.isClosed()) {
+        if (iUnitOfWork != null) {
+            // Fermée par l'unité de travail
+            return;
+        }
+        if (iClosed || iCon.isClosed()) {
             logger.warn("Was already closed!!");
             return;
         }
-        if (!iCon.getAutoCommit()) {
+        iClosed = true;
+        // getAutoCommit n'est plus demandé au driver
+        iSavedCalls++;
+        if (!iAutoCommit && iDirty) {
             iCon.rollback();
+        } else {
+            iSavedCalls++;
+        }
+        if (iMetrics != null) {
+            iMetrics.recordSavedCalls(iSavedCalls);
         }
         iCon.close();
     }
@@ -150,6 +255,8 @@ public class ISConnection implements Connection {
 
     @Override
     public DatabaseMetaData getMetaData() throws SQLException {
+        // Les méthodes de DatabaseMetaData exécutent des requêtes
+        iDirty = true;
         return iCon.getMetaData();
     }
 
@@ -199,16 +306,19 @@ public class ISConnection implements Connection {
 
     @Override
     public Statement createStatement(int aResultSetType, int aResultSetConcurrency) throws SQLException {
+        iDirty = true;
         return iCon.createStatement(aResultSetType, aResultSetConcurrency);
     }
 
     @Override
     public PreparedStatement prepareStatement(String aSql, int aResultSetType, int aResultSetConcurrency) throws SQLException {
+        iDirty = true;
         return iCon.prepareStatement(aSql, aResultSetType, aResultSetConcurrency);
     }
 
     @Override
     public CallableStatement prepareCall(String aSql, int aResultSetType, int aResultSetConcurrency) throws SQLException {
+        iDirty = true;
         return iCon.prepareCall(aSql, aResultSetType, aResultSetConcurrency);
     }
 
@@ -236,11 +346,13 @@ public class ISConnection implements Connection {
 
     @Override
     public Savepoint setSavepoint() throws SQLException {
+        iDirty = true;
         return iCon.setSavepoint();
     }
 
     @Override
     public Savepoint setSavepoint(String aName) throws SQLException {
+        iDirty = true;
         return iCon.setSavepoint(aName);
     }
 
@@ -257,53 +369,63 @@ public class ISConnection implements Connection {
 
     @Override
     public Statement createStatement(int aResultSetType, int aResultSetConcurrency, int aResultSetHoldability) throws SQLException {
+        iDirty = true;
         return iCon.createStatement(aResultSetType, aResultSetConcurrency, aResultSetHoldability);
     }
 
     @Override
     public PreparedStatement prepareStatement(String aSql, int aResultSetType, int aResultSetConcurrency, int aResultSetHoldability)
             throws SQLException {
+        iDirty = true;
         return iCon.prepareStatement(aSql, aResultSetType, aResultSetConcurrency, aResultSetHoldability);
     }
 
     @Override
     public CallableStatement prepareCall(String aSql, int aResultSetType, int aResultSetConcurrency, int aResultSetHoldability)
             throws SQLException {
+        iDirty = true;
         return iCon.prepareCall(aSql, aResultSetType, aResultSetConcurrency, aResultSetHoldability);
     }
 
     @Override
     public PreparedStatement prepareStatement(String aSql, int aAutoGeneratedKeys) throws SQLException {
+        iDirty = true;
         return iCon.prepareStatement(aSql, aAutoGeneratedKeys);
     }
 
     @Override
     public PreparedStatement prepareStatement(String aSql, int[] aColumnIndexes) throws SQLException {
+        iDirty = true;
         return iCon.prepareStatement(aSql, aColumnIndexes);
     }
 
     @Override
     public PreparedStatement prepareStatement(String aSql, String[] aColumnNames) throws SQLException {
+        iDirty = true;
         return iCon.prepareStatement(aSql, aColumnNames);
     }
 
     @Override
     public Clob createClob() throws SQLException {
+        iDirty = true;
         return iCon.createClob();
     }
 
     @Override
     public Blob createBlob() throws SQLException {
+        iDirty = true;
         return iCon.createBlob();
     }
 
     @Override
     public NClob createNClob() throws SQLException {
+        iDirty = true;
         return iCon.createNClob();
     }
 
     @Override
     public SQLXML createSQLXML() throws SQLException {
+        iDirty = true;
         return iCon.createSQLXML();
     }
 
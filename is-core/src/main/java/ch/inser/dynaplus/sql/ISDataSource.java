@@ -23,6 +23,8 @@ import java.util.logging.Logger;
 
 import javax.sql.DataSource;
 
+import ch.inser.dynamic.metrics.IMetrics;
+
 /**
  * Datasource propre permettant de faire appel à la connection ISConnection, connection avec un autocommit à false et un rollback
  * automatique à la fermeture.
@@ -37,6 +39,9 @@ public class ISDataSource implements DataSource {
     /** DataSource encapsulé */
     protected DataSource iDs;
 
+    /** Mesures des connexions, null si pas de mesure */
+    private volatile IMetrics iMetrics;
+
     /**
      * Encapsulation du DataSource fourni par le système
      * 
@@ -47,11 +52,54 @@ public class ISDataSource implements DataSource {
     }
 
     /**
-     * Obtention d'une connection de type ISConnection
+     * @param aMetrics
+     *            mesures qui reçoivent les appels au driver évités par les connexions, null pour aucune
+     */
+    public void setMetrics(IMetrics aMetrics) {
+        iMetrics = aMetrics;
+    }
+
+    /**
+     * Obtention d'une connection de type ISConnection, celle de l'unité de travail du thread s'il y en a une
      */
     @Override
     public Connection getConnection() throws SQLException {
-        return new ISConnection(iDs.getConnection());
+        UnitOfWork unit = UnitOfWork.getCurrent(this);
+        if (unit != null) {
+            if (unit.isReadOnly()) {
+                throw new SQLException("Read-write connection requested inside a read-only unit of work");
+            }
+            return unit.getConnection();
+        }
+        return openConnection();
+    }
+
+    /**
+     * Connexion pour des lectures, sans commit: ce qui est écrit est annulé à la fermeture. Hors d'une unité de travail, c'est une nouvelle
+     * connexion comme celle de getConnection, elle n'est pas en lecture seule pour le driver. Dans une unité de travail, c'est la connexion
+     * de l'unité, aussi pour une unité en lecture seule (getConnection la refuse).
+     *
+     * @return la connexion
+     * @throws SQLException
+     *             erreur de connexion
+     */
+    public Connection getReadOnlyConnection() throws SQLException {
+        UnitOfWork unit = UnitOfWork.getCurrent(this);
+        if (unit != null) {
+            return unit.getConnection();
+        }
+        return openConnection();
+    }
+
+    /**
+     * @return nouvelle connexion du DataSource encapsulé, autocommit à false
+     * @throws SQLException
+     *             erreur de connexion
+     */
+    ISConnection openConnection() throws SQLException {
+        ISConnection con = new ISConnection(iDs.getConnection());
+        con.setMetrics(iMetrics);
+        return con;
     }
 
     /**
@@ -59,7 +107,9 @@ public class ISDataSource implements DataSource {
      */
     @Override
     public Connection getConnection(String aUsername, String aPassword) throws SQLException {
-        return new ISConnection(iDs.getConnection(aUsername, aPassword));
+        ISConnection con = new ISConnection(iDs.getConnection(aUsername, aPassword));
+        con.setMetrics(iMetrics);
+        return con;
     }
 
     @Override
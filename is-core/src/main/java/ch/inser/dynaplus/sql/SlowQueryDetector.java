@@ -0,0 +1,387 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.sql;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Détection des requêtes lentes des DAO. Une exécution plus longue que le seuil est gardée dans un buffer circulaire de taille fixe, avec
+ * le plan d'exécution de la requête: EXPLAIN sur PostgreSQL, EXPLAIN PLAN sur Oracle. Le plan n'est demandé qu'une fois par forme de
+ * requête (le SQL avec des "?", les listes IN de tailles différentes comptent pour une seule forme).
+ *
+ * Le détecteur est activé avec StatementFactory.setSlowQueryDetector, p.ex. par AbstractContextManager.setSlowQueryDetector. Sans
+ * détecteur les statements ne sont pas mesurés.
+ *
+ * Le plan est demandé en arrière-plan par un thread du détecteur, sur une connexion séparée de la DataSource, sans autocommit et annulée
+ * après la lecture du plan: la requête lente n'attend pas l'EXPLAIN et sa transaction n'est pas touchée. Sur Oracle les lignes de
+ * PLAN_TABLE sont aussi supprimées. Une exécution lente dont le plan n'est pas encore lu est complétée quand il arrive.
+ *
+ * @author INSER SA
+ *
+ */
+public class SlowQueryDetector {
+
+    /** Définition de la catégorie de logging */
+    private static final Log logger = LogFactory.getLog(SlowQueryDetector.class);
+
+    /** Liste de "?" d'un IN */
+    private static final Pattern IN_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    /**
+     * Une exécution lente
+     */
+    public static class SlowQuery implements Serializable {
+
+        /**
+         * Serial Version UID
+         */
+        private static final long serialVersionUID = -6214729870917353262L;
+
+        /** Date de l'exécution en millisecondes */
+        private final long iTime;
+
+        /** Durée en millisecondes */
+        private final long iMillis;
+
+        /** Requête avec les valeurs liées */
+        private final String iSql;
+
+        /** Forme de la requête */
+        private final String iShape;
+
+        /** Plan d'exécution de la forme de la requête, null tant qu'il n'est pas lu */
+        private volatile String iPlan;
+
+        /**
+         * @param aTime
+         *            date de l'exécution
+         * @param aMillis
+         *            durée
+         * @param aSql
+         *            requête avec les valeurs liées
+         * @param aShape
+         *            forme de la requête
+         * @param aPlan
+         *            plan d'exécution, null s'il est en cours de lecture
+         */
+        SlowQuery(long aTime, long aMillis, String aSql, String aShape, String aPlan) {
+            iTime = aTime;
+            iMillis = aMillis;
+            iSql = aSql;
+            iShape = aShape;
+            iPlan = aPlan;
+        }
+
+        /**
+         * @return date de l'exécution en millisecondes, comme System.currentTimeMillis
+         */
+        public long getTime() {
+            return iTime;
+        }
+
+        /**
+         * @return durée en millisecondes
+         */
+        public long getMillis() {
+            return iMillis;
+        }
+
+        /**
+         * @return requête avec les valeurs liées
+         */
+        public String getSql() {
+            return iSql;
+        }
+
+        /**
+         * @return plan d'exécution, ou la raison pour laquelle il n'est pas disponible
+         */
+        public String getPlan() {
+            String plan = iPlan;
+            return plan == null ? "EXPLAIN en cours" : plan;
+        }
+
+        @Override
+        public String toString() {
+            return iMillis + " ms: " + iSql + "\n" + getPlan();
+        }
+    }
+
+    /** Seuil en millisecondes */
+    private final long iThreshold;
+
+    /** Buffer circulaire des exécutions lentes */
+    private final SlowQuery[] iQueries;
+
+    /** Nombre d'exécutions lentes enregistrées depuis le début */
+    private long iCount;
+
+    /** Plans par forme de requête, null pour un plan en cours de lecture; les plus anciens sont oubliés au-delà de la taille du buffer */
+    private final Map<String, String> iPlans;
+
+    /** Source des connexions des EXPLAIN, null pour ne pas lire les plans */
+    private final DataSource iDataSource;
+
+    /** Thread des EXPLAIN, la file a la taille du buffer */
+    private final ThreadPoolExecutor iExecutor;
+
+    /**
+     * @param aThreshold
+     *            durée en millisecondes à partir de laquelle une exécution est lente
+     * @param aCapacity
+     *            nombre d'exécutions lentes gardées, et de plans en cache
+     * @param aDataSource
+     *            source des connexions séparées pour les EXPLAIN, p.ex. IContextManager.getDataSource(); null pour ne pas lire les plans
+     */
+    public SlowQueryDetector(long aThreshold, int aCapacity, DataSource aDataSource) {
+        if (aCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + aCapacity);
+        }
+        iThreshold = aThreshold;
+        iDataSource = aDataSource;
+        iExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(aCapacity), aRunnable -> {
+            Thread thread = new Thread(aRunnable, "SlowQueryDetector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        iExecutor.allowCoreThreadTimeOut(true);
+        iQueries = new SlowQuery[aCapacity];
+        iPlans = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> aEldest) {
+                return size() > aCapacity;
+            }
+        };
+    }
+
+    /**
+     * @return durée en millisecondes à partir de laquelle une exécution est lente
+     */
+    public long getThreshold() {
+        return iThreshold;
+    }
+
+    /**
+     * @return les dernières exécutions lentes, de la plus récente à la plus ancienne
+     */
+    public synchronized List<SlowQuery> getSlowQueries() {
+        int size = (int) Math.min(iCount, iQueries.length);
+        List<SlowQuery> list = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            list.add(iQueries[(int) ((iCount - i) % iQueries.length)]);
+        }
+        return list;
+    }
+
+    /**
+     * Vide le buffer et le cache des plans
+     */
+    public synchronized void clear() {
+        iCount = 0;
+        Arrays.fill(iQueries, null);
+        iPlans.clear();
+    }
+
+    /**
+     * Arrête le thread des EXPLAIN, les plans pas encore lus sont abandonnés
+     */
+    public void shutdown() {
+        iExecutor.shutdownNow();
+    }
+
+    /**
+     * Enregistre une exécution lente, et demande en arrière-plan le plan de sa forme s'il n'est pas encore connu
+     *
+     * @param aSql
+     *            requête avec des "?"
+     * @param aValues
+     *            valeurs liées, par index de "?" à partir de 0
+     * @param aMillis
+     *            durée de l'exécution
+     */
+    void record(String aSql, List<Object> aValues, long aMillis) {
+        String shape = IN_LIST.matcher(aSql).replaceAll("?...");
+        boolean explain = false;
+        synchronized (this) {
+            String plan = iPlans.get(shape);
+            if (plan == null && !iPlans.containsKey(shape)) {
+                if (iDataSource == null) {
+                    plan = "EXPLAIN non demandé: pas de DataSource";
+                    iPlans.put(shape, plan);
+                } else {
+                    iPlans.put(shape, null);
+                    explain = true;
+                }
+            }
+            iQueries[(int) (iCount % iQueries.length)] = new SlowQuery(System.currentTimeMillis(), aMillis,
+                    StatementFactory.render(aSql, aValues), shape, plan);
+            iCount++;
+        }
+        if (explain) {
+            try {
+                iExecutor.execute(() -> setPlan(shape, explain(aSql, aValues, shape)));
+            } catch (RejectedExecutionException e) {
+                logger.debug("EXPLAIN non demandé: " + aSql, e);
+                setPlan(shape, "EXPLAIN non demandé: file pleine");
+                synchronized (this) {
+                    // Redemandé à la prochaine exécution lente
+                    iPlans.remove(shape);
+                }
+            }
+        }
+    }
+
+    /**
+     * Garde le plan d'une forme et complète les exécutions lentes qui l'attendent
+     *
+     * @param aShape
+     *            forme de la requête
+     * @param aPlan
+     *            plan d'exécution
+     */
+    private synchronized void setPlan(String aShape, String aPlan) {
+        if (iPlans.containsKey(aShape)) {
+            iPlans.put(aShape, aPlan);
+        }
+        for (SlowQuery query : iQueries) {
+            if (query != null && query.iPlan == null && query.iShape.equals(aShape)) {
+                query.iPlan = aPlan;
+            }
+        }
+    }
+
+    /**
+     * @param aSql
+     *            requête avec des "?"
+     * @param aValues
+     *            valeurs liées
+     * @param aShape
+     *            forme de la requête
+     * @return le plan d'exécution, ou la raison pour laquelle il n'est pas disponible
+     */
+    private String explain(String aSql, List<Object> aValues, String aShape) {
+        try (Connection con = iDataSource.getConnection()) {
+            String product = con.getMetaData().getDatabaseProductName();
+            boolean oracle = product.toLowerCase().contains("oracle");
+            if (!oracle && !product.toLowerCase().contains("postgres")) {
+                return "EXPLAIN non supporté pour " + product;
+            }
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try {
+                return oracle ? explainOracle(con, aSql, Integer.toHexString(aShape.hashCode())) : explainPostgres(con, aSql, aValues);
+            } finally {
+                // Retire aussi les lignes de PLAN_TABLE sur Oracle
+                con.rollback();
+                con.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.debug("EXPLAIN impossible: " + aSql, e);
+            return "EXPLAIN impossible: " + e.getMessage();
+        }
+    }
+
+    /**
+     * @param aConnection
+     *            connexion PostgreSQL
+     * @param aSql
+     *            requête avec des "?"
+     * @param aValues
+     *            valeurs liées
+     * @return le plan, une ligne par noeud
+     * @throws SQLException
+     *             erreur de l'EXPLAIN
+     */
+    private static String explainPostgres(Connection aConnection, String aSql, List<Object> aValues) throws SQLException {
+        try (PreparedStatement ps = aConnection.prepareStatement("EXPLAIN " + aSql)) {
+            for (int i = 0; i < aValues.size(); i++) {
+                ps.setObject(i + 1, aValues.get(i));
+            }
+            return readPlan(ps.executeQuery());
+        }
+    }
+
+    /**
+     * @param aConnection
+     *            connexion Oracle
+     * @param aSql
+     *            requête avec des "?"
+     * @param aStatementId
+     *            identifiant du plan dans PLAN_TABLE
+     * @return le plan de DBMS_XPLAN
+     * @throws SQLException
+     *             erreur de l'EXPLAIN PLAN
+     */
+    private static String explainOracle(Connection aConnection, String aSql, String aStatementId) throws SQLException {
+        // EXPLAIN PLAN n'a pas besoin des valeurs, les "?" deviennent des variables nommées
+        StringBuilder sql = new StringBuilder("EXPLAIN PLAN SET STATEMENT_ID = '").append(aStatementId).append("' FOR ");
+        sql.append(StatementFactory.replacePlaceholders(aSql, aIndex -> ":b" + (aIndex + 1)));
+        try (Statement st = aConnection.createStatement()) {
+            st.execute(sql.toString());
+        }
+        String plan;
+        try (PreparedStatement ps = aConnection
+                .prepareStatement("SELECT PLAN_TABLE_OUTPUT FROM TABLE(DBMS_XPLAN.DISPLAY('PLAN_TABLE', ?, 'TYPICAL'))")) {
+            ps.setString(1, aStatementId);
+            plan = readPlan(ps.executeQuery());
+        }
+        try (PreparedStatement ps = aConnection.prepareStatement("DELETE FROM PLAN_TABLE WHERE STATEMENT_ID = ?")) {
+            ps.setString(1, aStatementId);
+            ps.executeUpdate();
+        }
+        return plan;
+    }
+
+    /**
+     * @param aRs
+     *            résultat d'un EXPLAIN, une ligne de texte par ligne
+     * @return le texte du plan
+     * @throws SQLException
+     *             erreur de lecture
+     */
+    private static String readPlan(ResultSet aRs) throws SQLException {
+        try (ResultSet rs = aRs) {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        }
+    }
+}
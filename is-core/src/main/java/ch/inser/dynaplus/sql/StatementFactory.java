@@ -0,0 +1,291 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Création des PreparedStatement des DAO.
+ *
+ * En production le statement du driver est retourné tel quel. Si le logging debug de cette classe est actif, si setDebug(true) a été
+ * appelé ou si un seuil de requête lente est configuré, le statement garde les valeurs liées: son toString retourne la requête avec les
+ * valeurs, calculée seulement quand elle est demandée, et une exécution plus longue que le seuil est loggée en warning avec la requête et
+ * sa durée. Le seuil est lu par DAOFactory.init dans la propriété slowQueryThreshold du contexte. Un SlowQueryDetector garde en plus les
+ * exécutions lentes avec leur plan d'exécution.
+ *
+ * Les DAO loggent la requête avec debug(logger, ps), qui ne construit le texte que si le logger est en debug.
+ *
+ * @author INSER SA
+ *
+ */
+public final class StatementFactory {
+
+    /** Définition de la catégorie de logging */
+    private static final Log logger = LogFactory.getLog(StatementFactory.class);
+
+    /** Statements avec les valeurs liées même sans logging debug */
+    private static volatile boolean cDebug;
+
+    /** Seuil des requêtes lentes en millisecondes, 0 pour ne pas les logger */
+    private static volatile long cSlowQueryMillis;
+
+    /** Détecteur des requêtes lentes avec leur plan, null si pas actif */
+    private static volatile SlowQueryDetector cSlowQueryDetector;
+
+    /**
+     * Classe utilitaire
+     */
+    private StatementFactory() {
+    }
+
+    /**
+     * @param aConnection
+     *            connexion
+     * @param aSql
+     *            requête avec des "?"
+     * @return le statement du driver, ou un statement qui garde les valeurs liées si le debug ou le log des requêtes lentes est actif
+     * @throws SQLException
+     *             erreur du driver
+     */
+    public static PreparedStatement getStatement(Connection aConnection, String aSql) throws SQLException {
+        PreparedStatement ps = aConnection.prepareStatement(aSql);
+        if (!cDebug && cSlowQueryMillis <= 0 && cSlowQueryDetector == null && !logger.isDebugEnabled()) {
+            return ps;
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(StatementFactory.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                new StatementHandler(ps, aSql));
+    }
+
+    /**
+     * Logge la requête d'un statement avant son exécution
+     *
+     * @param aLogger
+     *            logger du DAO
+     * @param aStatement
+     *            statement à exécuter
+     */
+    public static void debug(Log aLogger, Statement aStatement) {
+        if (aLogger.isDebugEnabled()) {
+            aLogger.debug("Exécute SQL: " + aStatement);
+        }
+    }
+
+    /**
+     * @param aDebug
+     *            true pour garder les valeurs liées des statements même sans logging debug, p.ex. pour les messages d'erreur
+     */
+    public static void setDebug(boolean aDebug) {
+        cDebug = aDebug;
+    }
+
+    /**
+     * @param aMillis
+     *            durée à partir de laquelle une exécution est loggée en warning, 0 pour ne pas logger les requêtes lentes
+     */
+    public static void setSlowQueryThreshold(long aMillis) {
+        cSlowQueryMillis = Math.max(aMillis, 0);
+    }
+
+    /**
+     * @return seuil des requêtes lentes en millisecondes, 0 si pas actif
+     */
+    public static long getSlowQueryThreshold() {
+        return cSlowQueryMillis;
+    }
+
+    /**
+     * @param aDetector
+     *            détecteur des requêtes lentes, null pour le désactiver
+     */
+    public static void setSlowQueryDetector(SlowQueryDetector aDetector) {
+        cSlowQueryDetector = aDetector;
+    }
+
+    /**
+     * @return détecteur des requêtes lentes, null si pas actif
+     */
+    public static SlowQueryDetector getSlowQueryDetector() {
+        return cSlowQueryDetector;
+    }
+
+    /**
+     * @param aSql
+     *            requête avec des "?"
+     * @param aValues
+     *            valeurs liées, par index de "?" à partir de 0
+     * @return la requête avec les valeurs à la place des "?"
+     */
+    static String render(String aSql, List<Object> aValues) {
+        return replacePlaceholders(aSql, aIndex -> aIndex < aValues.size() ? format(aValues.get(aIndex)) : "?");
+    }
+
+    /**
+     * @param aSql
+     *            requête avec des "?"
+     * @param aReplacement
+     *            texte d'un "?" par index à partir de 0
+     * @return la requête avec les "?" hors des chaînes et identifiants entre guillemets remplacés
+     */
+    static String replacePlaceholders(String aSql, IntFunction<String> aReplacement) {
+        StringBuilder sb = new StringBuilder(aSql.length() + 64);
+        int idx = 0;
+        char quote = 0;
+        for (int i = 0; i < aSql.length(); i++) {
+            char c = aSql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+                sb.append(c);
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+                sb.append(c);
+            } else if (c == '?') {
+                sb.append(aReplacement.apply(idx));
+                idx++;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param aValue
+     *            valeur liée
+     * @return la valeur comme littéral SQL
+     */
+    private static String format(Object aValue) {
+        if (aValue == null) {
+            return "NULL";
+        }
+        if (aValue instanceof Number || aValue instanceof Boolean) {
+            return aValue.toString();
+        }
+        if (aValue instanceof byte[]) {
+            return "<" + ((byte[]) aValue).length + " bytes>";
+        }
+        if (aValue instanceof java.io.InputStream || aValue instanceof java.io.Reader || aValue instanceof java.sql.Blob
+                || aValue instanceof java.sql.Clob) {
+            return "<" + aValue.getClass().getSimpleName() + ">";
+        }
+        return "'" + aValue.toString().replace("'", "''") + "'";
+    }
+
+    /**
+     * Garde les valeurs liées et mesure les exécutions
+     */
+    private static class StatementHandler implements InvocationHandler {
+
+        /** Statement du driver */
+        private final PreparedStatement iStatement;
+
+        /** Requête avec des "?" */
+        private final String iSql;
+
+        /** Valeurs liées par index de "?" à partir de 0 */
+        private final List<Object> iValues = new ArrayList<>();
+
+        /**
+         * @param aStatement
+         *            statement du driver
+         * @param aSql
+         *            requête du statement
+         */
+        StatementHandler(PreparedStatement aStatement, String aSql) {
+            iStatement = aStatement;
+            iSql = aSql;
+        }
+
+        @Override
+        public Object invoke(Object aProxy, Method aMethod, Object[] aArgs) throws Throwable {
+            String name = aMethod.getName();
+            if ("toString".equals(name) && aArgs == null) {
+                return render(iSql, iValues);
+            }
+            if ("equals".equals(name) && aArgs != null && aArgs.length == 1) {
+                return aProxy == aArgs[0];
+            }
+            if ("hashCode".equals(name) && aArgs == null) {
+                return System.identityHashCode(aProxy);
+            }
+            if (name.startsWith("set") && aArgs != null && aArgs.length >= 2 && aArgs[0] instanceof Integer) {
+                bind((Integer) aArgs[0], "setNull".equals(name) ? null : aArgs[1]);
+            } else if ("clearParameters".equals(name)) {
+                iValues.clear();
+            }
+            if (!name.startsWith("execute")) {
+                return invokeStatement(aMethod, aArgs);
+            }
+            long start = System.nanoTime();
+            Object result = invokeStatement(aMethod, aArgs);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long threshold = cSlowQueryMillis;
+            if (threshold > 0 && millis >= threshold && logger.isWarnEnabled()) {
+                logger.warn("Requête lente (" + millis + " ms): " + render(iSql, iValues));
+            }
+            SlowQueryDetector detector = cSlowQueryDetector;
+            if (detector != null && millis >= detector.getThreshold()) {
+                detector.record(iSql, new ArrayList<>(iValues), millis);
+            }
+            return result;
+        }
+
+        /**
+         * @param aIndex
+         *            index du "?" à partir de 1
+         * @param aValue
+         *            valeur liée
+         */
+        private void bind(int aIndex, Object aValue) {
+            while (iValues.size() < aIndex) {
+                iValues.add(null);
+            }
+            iValues.set(aIndex - 1, aValue);
+        }
+
+        /**
+         * @param aMethod
+         *            méthode appelée
+         * @param aArgs
+         *            paramètres
+         * @return le résultat du statement du driver
+         * @throws Throwable
+         *             l'exception du driver
+         */
+        private Object invokeStatement(Method aMethod, Object[] aArgs) throws Throwable {
+            try {
+                return aMethod.invoke(iStatement, aArgs);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Unité de travail: une connexion et une transaction partagées par tous les appels de process métier du thread sur la même datasource.
+ *
+ * <pre>
+ * try (UnitOfWork uow = UnitOfWork.begin(ctx.getDataSource(), false)) {
+ *     bpCommande.update(commande, user);
+ *     bpLigne.getList(query, user);
+ *     uow.commit();
+ * }
+ * </pre>
+ *
+ * Pendant l'unité, ISDataSource.getConnection retourne la connexion de l'unité: les commit des process métier sont reportés au commit de
+ * l'unité, un rollback marque l'unité pour un rollback et la fermeture ne fait rien. Une unité ouverte dans une autre unité de la même
+ * datasource la rejoint; un rollback ou une fermeture sans commit de l'unité interne annule toute l'unité. Les actions qui dépendent du
+ * commit (p.ex. vider un cache) sont enregistrées avec afterCommit et exécutées après le commit de l'unité principale.
+ *
+ * Une unité en lecture seule n'est jamais validée: son commit ne fait rien et ce qui a été écrit est annulé à la fermeture. Une connexion
+ * en écriture demandée pendant une unité en lecture seule est refusée.
+ *
+ * @author INSER SA
+ *
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    /** Définition de la catégorie de logging */
+    private static final Log logger = LogFactory.getLog(UnitOfWork.class);
+
+    /** Unités ouvertes du thread par datasource */
+    private static final ThreadLocal<Map<ISDataSource, UnitOfWork>> cUnits = new ThreadLocal<>();
+
+    /** Datasource de l'unité */
+    private final ISDataSource iDataSource;
+
+    /** Unité principale, this pour l'unité qui a ouvert la connexion */
+    private final UnitOfWork iRoot;
+
+    /** Connexion de l'unité principale, null pour une unité interne */
+    private final ISConnection iConnection;
+
+    /** Lecture seule */
+    private final boolean iReadOnly;
+
+    /** L'unité principale doit être annulée */
+    private boolean iRollbackOnly;
+
+    /** Commit fait pour cette unité */
+    private boolean iCommitted;
+
+    /** Unité fermée */
+    private boolean iClosed;
+
+    /** Actions à exécuter après le commit de l'unité principale */
+    private List<Runnable> iAfterCommit;
+
+    /**
+     * Unité principale
+     *
+     * @param aDataSource
+     *            datasource
+     * @param aConnection
+     *            connexion de l'unité
+     * @param aReadOnly
+     *            lecture seule
+     */
+    private UnitOfWork(ISDataSource aDataSource, ISConnection aConnection, boolean aReadOnly) {
+        iDataSource = aDataSource;
+        iRoot = this;
+        iConnection = aConnection;
+        iReadOnly = aReadOnly;
+    }
+
+    /**
+     * Unité interne
+     *
+     * @param aRoot
+     *            unité principale
+     * @param aReadOnly
+     *            lecture seule
+     */
+    private UnitOfWork(UnitOfWork aRoot, boolean aReadOnly) {
+        iDataSource = aRoot.iDataSource;
+        iRoot = aRoot;
+        iConnection = null;
+        iReadOnly = aReadOnly;
+    }
+
+    /**
+     * Ouvre une unité de travail, ou rejoint celle déjà ouverte par le thread sur cette datasource.
+     *
+     * @param aDataSource
+     *            datasource du contexte, de type ISDataSource
+     * @param aReadOnly
+     *            true si l'unité ne fait que des lectures
+     * @return l'unité, à fermer dans un try-with-resources
+     * @throws SQLException
+     *             datasource pas de type ISDataSource, unité en écriture dans une unité en lecture seule ou erreur de connexion
+     */
+    public static UnitOfWork begin(DataSource aDataSource, boolean aReadOnly) throws SQLException {
+        if (!(aDataSource instanceof ISDataSource)) {
+            throw new SQLException("Unit of work needs an ISDataSource: " + aDataSource);
+        }
+        ISDataSource ds = (ISDataSource) aDataSource;
+        UnitOfWork current = getCurrent(ds);
+        if (current != null) {
+            if (current.iReadOnly && !aReadOnly) {
+                throw new SQLException("Read-write unit of work inside a read-only unit of work");
+            }
+            return new UnitOfWork(current, aReadOnly);
+        }
+        UnitOfWork unit = new UnitOfWork(ds, ds.openConnection(), aReadOnly);
+        Map<ISDataSource, UnitOfWork> units = cUnits.get();
+        if (units == null) {
+            units = new HashMap<>();
+            cUnits.set(units);
+        }
+        units.put(ds, unit);
+        return unit;
+    }
+
+    /**
+     * @param aDataSource
+     *            datasource
+     * @return l'unité principale ouverte par le thread sur la datasource, null si aucune
+     */
+    static UnitOfWork getCurrent(ISDataSource aDataSource) {
+        Map<ISDataSource, UnitOfWork> units = cUnits.get();
+        return units == null ? null : units.get(aDataSource);
+    }
+
+    /**
+     * @param aDataSource
+     *            datasource
+     * @return true si le thread a une unité en écriture ouverte sur la datasource, ses lectures voient des écritures pas encore validées
+     */
+    public static boolean isReadWrite(DataSource aDataSource) {
+        UnitOfWork unit = aDataSource instanceof ISDataSource ? getCurrent((ISDataSource) aDataSource) : null;
+        return unit != null && !unit.iReadOnly;
+    }
+
+    /**
+     * Exécute une action après le commit de la connexion: après le commit de l'unité principale si la connexion est celle d'une unité de
+     * travail, sinon tout de suite, le commit de la connexion étant fait.
+     *
+     * @param aConnection
+     *            connexion dont le commit vient d'être demandé
+     * @param aTask
+     *            action à exécuter
+     */
+    public static void afterCommit(Connection aConnection, Runnable aTask) {
+        UnitOfWork unit = aConnection instanceof ISConnection ? ((ISConnection) aConnection).getUnitOfWork() : null;
+        if (unit == null) {
+            aTask.run();
+            return;
+        }
+        UnitOfWork root = unit.iRoot;
+        if (root.iAfterCommit == null) {
+            root.iAfterCommit = new ArrayList<>();
+        }
+        root.iAfterCommit.add(aTask);
+    }
+
+    /**
+     * Connexion de l'unité: commit, rollback et close sont gérés par l'unité
+     *
+     * @return la connexion partagée
+     */
+    public Connection getConnection() {
+        return new ISConnection(iRoot.iConnection, iRoot);
+    }
+
+    /**
+     * @return true si l'unité ne fait que des lectures
+     */
+    public boolean isReadOnly() {
+        return iRoot.iReadOnly;
+    }
+
+    /**
+     * Valide l'unité. Pour une unité interne, le commit est fait par l'unité principale.
+     *
+     * @throws SQLException
+     *             unité marquée pour un rollback ou erreur de commit
+     */
+    public void commit() throws SQLException {
+        if (iRoot.iRollbackOnly) {
+            throw new SQLException("Unit of work marked for rollback");
+        }
+        if (iRoot == this && !iReadOnly) {
+            iConnection.commit();
+        }
+        iCommitted = true;
+        if (iRoot == this) {
+            runAfterCommit();
+        }
+    }
+
+    /**
+     * Exécute les actions enregistrées par afterCommit, une erreur est seulement loggée: la transaction est déjà validée
+     */
+    private void runAfterCommit() {
+        List<Runnable> tasks = iAfterCommit;
+        iAfterCommit = null;
+        if (tasks == null) {
+            return;
+        }
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Error after the commit of the unit of work", e);
+            }
+        }
+    }
+
+    /**
+     * Annule l'unité principale
+     *
+     * @throws SQLException
+     *             erreur de rollback
+     */
+    public void rollback() throws SQLException {
+        if (iRoot == this) {
+            iConnection.rollback();
+            iAfterCommit = null;
+            iRollbackOnly = false;
+            iCommitted = false;
+        } else {
+            setRollbackOnly();
+        }
+    }
+
+    /**
+     * Marque l'unité principale pour un rollback, son commit échouera
+     */
+    void setRollbackOnly() {
+        iRoot.iRollbackOnly = true;
+    }
+
+    /**
+     * Ferme l'unité. Une unité en écriture sans commit est annulée; l'unité principale libère la connexion.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (iClosed) {
+            return;
+        }
+        iClosed = true;
+        if (!iCommitted && !iReadOnly) {
+            setRollbackOnly();
+        }
+        if (iRoot != this) {
+            return;
+        }
+        Map<ISDataSource, UnitOfWork> units = cUnits.get();
+        units.remove(iDataSource);
+        if (units.isEmpty()) {
+            cUnits.remove();
+        }
+        if (iRollbackOnly && iCommitted) {
+            logger.warn("Unit of work committed before an inner rollback");
+        }
+        // Les actions enregistrées après le dernier commit ne sont pas validées
+        iAfterCommit = null;
+        // ISConnection.close fait le rollback de ce qui n'a pas été validé
+        iConnection.close();
+    }
+}
@@ -35,10 +35,14 @@ import org.quartz.SchedulerException;
 import org.quartz.impl.StdSchedulerFactory;
 
 import ch.inser.dynamic.common.IContextManager;
+import ch.inser.dynamic.metrics.IMetrics;
+import ch.inser.dynamic.metrics.NoopMetrics;
 import ch.inser.dynamic.quality.IQualityController;
 import ch.inser.dynamic.quality.IQualityTest;
 import ch.inser.dynaplus.help.IApplicationHelpBean;
 import ch.inser.dynaplus.sql.ISDataSource;
+import ch.inser.dynaplus.sql.SlowQueryDetector;
+import ch.inser.dynaplus.sql.StatementFactory;
 import ch.inser.jsl.logger.INdc;
 
 /**
@@ -123,6 +127,9 @@ public abstract class AbstractContextManager implements IContextManager, Seriali
      */
     private INdc iNdc;
 
+    /** Mesures des opérations d'accès aux données */
+    private IMetrics iMetrics = new NoopMetrics();
+
     /**
      * Liste de messages du démarrage de l'application, permet d'informer l'utilisateur si l'application a bien démarré
      */
@@ -163,7 +170,9 @@ public abstract class AbstractContextManager implements IContextManager, Seriali
             Context myContext;
             try {
                 myContext = new InitialContext();
-                iMapDataSource.put(name, new ISDataSource((DataSource) myContext.lookup(name)));
+                ISDataSource ds = new ISDataSource((DataSource) myContext.lookup(name));
+                ds.setMetrics(iMetrics);
+                iMapDataSource.put(name, ds);
             } catch (NamingException e) {
                 iMapDataSource.remove(name);
                 logger.error("Error looking up the DataSource : " + name, e);
@@ -467,4 +476,39 @@ public abstract class AbstractContextManager implements IContextManager, Seriali
         iNdc = aNdc;
     }
 
+    @Override
+    public IMetrics getMetrics() {
+        return iMetrics;
+    }
+
+    @Override
+    public void setMetrics(IMetrics aMetrics) {
+        iMetrics = aMetrics == null ? new NoopMetrics() : aMetrics;
+        for (DataSource ds : iMapDataSource.values()) {
+            if (ds instanceof ISDataSource) {
+                ((ISDataSource) ds).setMetrics(iMetrics);
+            }
+        }
+    }
+
+    /**
+     * @return le détecteur des requêtes lentes des DAO, avec les dernières requêtes lentes et leur plan; null si pas actif
+     */
+    public SlowQueryDetector getSlowQueryDetector() {
+        return StatementFactory.getSlowQueryDetector();
+    }
+
+    /**
+     * @param aDetector
+     *            détecteur des requêtes lentes à activer pour tous les DAO, p.ex. avec getDataSource() pour les EXPLAIN; null pour le
+     *            désactiver. Le détecteur remplacé est arrêté.
+     */
+    public void setSlowQueryDetector(SlowQueryDetector aDetector) {
+        SlowQueryDetector previous = StatementFactory.getSlowQueryDetector();
+        StatementFactory.setSlowQueryDetector(aDetector);
+        if (previous != null && previous != aDetector) {
+            previous.shutdown();
+        }
+    }
+
 }
\ No newline at end of file
@@ -16,10 +16,18 @@
 package ch.inser.dynaplus.util;
 
 import java.io.File;
-import java.lang.reflect.Constructor;
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -65,6 +73,9 @@ public class AbstractFactory {
     /**
      * Créé ou remplace les objets du factory en initialisant les propriétés des objets à partir des fichiers de configuration
      *
+     * Les fichiers .xsd sont lus en parallèle. Avec la propriété schemaSnapshotDir, les schémas lus sont gardés dans un snapshot sérialisé
+     * et seuls les fichiers modifiés depuis le dernier démarrage sont relus.
+     *
      * @param aConfigDir
      *            chemin de tous les fichiers de config
      * @return true si le factory a été initialisé correctement pour tous les objets métier
@@ -80,13 +91,84 @@ public class AbstractFactory {
             logger.info("No " + iName + "'s");
             return true;
         }
-        boolean configValid = true;
+        List<String> fileNames = new ArrayList<>();
         for (String str : file.list()) {
-            if (!str.endsWith(".xsd")) {
-                continue;
+            if (str.endsWith(".xsd")) {
+                fileNames.add(str);
+            }
+        }
+        Collections.sort(fileNames);
+
+        String snapshotDir = iCtx.getProperty("schemaSnapshotDir");
+        SchemaSnapshot snapshot = snapshotDir == null ? null
+                : SchemaSnapshot.load(new File(snapshotDir, iName + "-schemas.ser"));
+
+        // Schémas du snapshot, les autres sont lus en parallèle
+        Map<String, Object> schemas = new HashMap<>();
+        Map<String, String> checksums = new HashMap<>();
+        Map<String, Future<SchemaInfo>> parsing = new LinkedHashMap<>();
+        ExecutorService executor = null;
+        try {
+            for (String str : fileNames) {
+                SchemaInfo schema = null;
+                if (snapshot != null) {
+                    try {
+                        checksums.put(str, SchemaSnapshot.checksum(new File(file, str)));
+                        schema = snapshot.get(str, checksums.get(str));
+                    } catch (IOException e) {
+                        logger.debug("Checksum of " + str, e);
+                    }
+                }
+                if (schema != null) {
+                    schemas.put(str, schema);
+                } else {
+                    if (executor == null) {
+                        executor = Executors.newFixedThreadPool(Math.min(fileNames.size(), Runtime.getRuntime().availableProcessors()),
+                                aRunnable -> {
+                                    Thread thread = new Thread(aRunnable, "schema-" + iName);
+                                    thread.setDaemon(true);
+                                    return thread;
+                                });
+                    }
+                    String url = getUrlPath(configDir) + iName + File.separator + str;
+                    parsing.put(str, executor.submit(() -> new SchemaInfo(new URL(url))));
+                }
+            }
+            for (Map.Entry<String, Future<SchemaInfo>> entry : parsing.entrySet()) {
+                try {
+                    schemas.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    schemas.put(entry.getKey(), e.getCause() instanceof Exception ? e.getCause() : e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted initialisation of " + iName, e);
+            return false;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
             }
+        }
+
+        // Le snapshot est écrit avant que les objets du factory ne modifient les VOInfo
+        if (snapshot != null) {
+            snapshot.retain(fileNames);
+            for (String str : parsing.keySet()) {
+                if (schemas.get(str) instanceof SchemaInfo && checksums.get(str) != null) {
+                    snapshot.put(str, checksums.get(str), (SchemaInfo) schemas.get(str));
+                }
+            }
+            snapshot.save();
+        }
+
+        boolean configValid = true;
+        for (String str : fileNames) {
             try {
-                initFactoryObjects(new SchemaInfo(new URL(getUrlPath(configDir) + iName + File.separator + str)));
+                if (schemas.get(str) instanceof Exception) {
+                    throw (Exception) schemas.get(str);
+                }
+                initFactoryObjects((SchemaInfo) schemas.get(str));
             } catch (Exception e) {
                 logger.error("Problem by initialisation of " + iName + " : " + str, e);
                 iCtx.getMessageStartApp().add("Initialisation " + iName + " '" + str + "' : FAILED");
@@ -115,11 +197,8 @@ public class AbstractFactory {
      */
     protected void initFactoryObject(VOInfo aVOInfo) {
         if (aVOInfo.getValue("classname") != null) {
-            Class<?> cl;
             try {
-                cl = Class.forName((String) aVOInfo.getValue("classname"));
-                Constructor<?> constr = cl.getConstructor(VOInfo.class);
-                iFactoryObjects.put(aVOInfo.getName(), constr.newInstance(aVOInfo));
+                iFactoryObjects.put(aVOInfo.getName(), ConstructorHandles.getFactory((String) aVOInfo.getValue("classname")).apply(aVOInfo));
             } catch (Exception e) {
                 logger.warn("Error instantiating Class : " + aVOInfo.getValue("classname"), e);
             }
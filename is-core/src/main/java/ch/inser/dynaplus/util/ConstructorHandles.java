@@ -0,0 +1,115 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import ch.inser.dynamic.util.VOInfo;
+
+/**
+ * Constructeurs des classes particulières des factory (valeur appinfo classname), résolus une fois par nom de classe en MethodHandle.
+ * L'instanciation est ensuite un appel du handle, sans Class.forName ni recherche du constructeur. Comme avec Constructor.newInstance, une
+ * erreur du constructeur qui n'est pas une RuntimeException est levée dans une IllegalStateException.
+ *
+ * @author INSER SA
+ *
+ */
+public final class ConstructorHandles {
+
+    /** Constructeurs sans paramètre par nom de classe */
+    private static final Map<String, MethodHandle> cNoArgs = new ConcurrentHashMap<>();
+
+    /** Constructeurs avec un VOInfo par nom de classe */
+    private static final Map<String, MethodHandle> cVOInfos = new ConcurrentHashMap<>();
+
+    /**
+     * Classe utilitaire
+     */
+    private ConstructorHandles() {
+    }
+
+    /**
+     * @param aClassName
+     *            nom de la classe, avec un constructeur public sans paramètre
+     * @param aType
+     *            type des objets créés
+     * @return la création d'un objet de la classe
+     * @throws ReflectiveOperationException
+     *             classe ou constructeur pas trouvé
+     */
+    public static <T> Supplier<T> getSupplier(String aClassName, Class<T> aType) throws ReflectiveOperationException {
+        MethodHandle constructor = cNoArgs.get(aClassName);
+        if (constructor == null) {
+            constructor = findConstructor(aClassName, MethodType.methodType(void.class));
+            cNoArgs.put(aClassName, constructor);
+        }
+        MethodHandle handle = constructor;
+        return () -> {
+            try {
+                return aType.cast(handle.invokeExact());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Error instantiating Class : " + aClassName, e);
+            }
+        };
+    }
+
+    /**
+     * @param aClassName
+     *            nom de la classe, avec un constructeur public qui prend un VOInfo
+     * @return la création d'un objet de la classe pour un VOInfo
+     * @throws ReflectiveOperationException
+     *             classe ou constructeur pas trouvé
+     */
+    public static Function<VOInfo, Object> getFactory(String aClassName) throws ReflectiveOperationException {
+        MethodHandle constructor = cVOInfos.get(aClassName);
+        if (constructor == null) {
+            constructor = findConstructor(aClassName, MethodType.methodType(void.class, VOInfo.class));
+            cVOInfos.put(aClassName, constructor);
+        }
+        MethodHandle handle = constructor;
+        return aVOInfo -> {
+            try {
+                return handle.invokeExact(aVOInfo);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Error instantiating Class : " + aClassName, e);
+            }
+        };
+    }
+
+    /**
+     * @param aClassName
+     *            nom de la classe
+     * @param aType
+     *            paramètres du constructeur, avec void comme retour
+     * @return le constructeur, avec Object comme type de retour pour invokeExact
+     * @throws ReflectiveOperationException
+     *             classe ou constructeur pas trouvé
+     */
+    private static MethodHandle findConstructor(String aClassName, MethodType aType) throws ReflectiveOperationException {
+        Class<?> cl = Class.forName(aClassName);
+        return MethodHandles.publicLookup().findConstructor(cl, aType).asType(aType.changeReturnType(Object.class));
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import ch.inser.dynamic.util.AttributeInfo;
+import ch.inser.dynamic.util.ChildrenInfo;
+import ch.inser.dynamic.util.DelCascadeInfo;
+import ch.inser.dynamic.util.JoinInfo;
+import ch.inser.dynamic.util.LookupInfo;
+import ch.inser.dynamic.util.MultiselectInfo;
+import ch.inser.dynamic.util.ParentInfo;
+import ch.inser.dynamic.util.Sanitizer;
+import ch.inser.dynamic.util.SchemaInfo;
+import ch.inser.dynamic.util.ShellInfo;
+import ch.inser.dynamic.util.SimpleTogglePanelInfo;
+import ch.inser.dynamic.util.SortInfo;
+import ch.inser.dynamic.util.VOInfo;
+
+/**
+ * Copie sérialisée des SchemaInfo d'un répertoire de configuration, pour ne pas relire les fichiers .xsd inchangés au démarrage. Chaque
+ * schéma est gardé avec la somme SHA-256 de son fichier; un fichier modifié est relu et le snapshot réécrit.
+ *
+ * Le snapshot est une simple cache: s'il manque, s'il est d'une autre version ou illisible, tous les schémas sont relus. L'entête contient
+ * la version d'is-core et une somme de la forme sérialisée des classes d'information (serialVersionUID et champs); un snapshot écrit par
+ * une autre version ou avant un changement de ces classes n'est donc pas relu.
+ *
+ * @author INSER SA
+ *
+ */
+final class SchemaSnapshot {
+
+    /** Définition de la catégorie de logging */
+    private static final Log logger = LogFactory.getLog(SchemaSnapshot.class);
+
+    /** Version du format du snapshot */
+    private static final int FORMAT = 2;
+
+    /** Classes d'information sérialisées dans le snapshot */
+    private static final Class<?>[] INFO_CLASSES = { SchemaInfo.class, VOInfo.class, AttributeInfo.class, JoinInfo.class, LookupInfo.class,
+            SortInfo.class, ChildrenInfo.class, MultiselectInfo.class, ParentInfo.class, DelCascadeInfo.class, ShellInfo.class,
+            SimpleTogglePanelInfo.class, Sanitizer.class };
+
+    /** Signature de la version d'is-core et des classes d'information, écrite dans l'entête */
+    private static final String SIGNATURE = signature();
+
+    /** Classes acceptées à la lecture du snapshot */
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config
+            .createFilter("java.lang.*;java.util.*;java.util.regex.*;ch.inser.**;!*");
+
+    /**
+     * Un schéma et la somme de son fichier
+     */
+    private static final class Entry implements Serializable {
+
+        /**
+         * Serial Version UID
+         */
+        private static final long serialVersionUID = 8095312474405622618L;
+
+        /** Somme SHA-256 du fichier */
+        private final String iChecksum;
+
+        /** Schéma lu du fichier */
+        private final SchemaInfo iSchema;
+
+        /**
+         * @param aChecksum
+         *            somme du fichier
+         * @param aSchema
+         *            schéma lu du fichier
+         */
+        Entry(String aChecksum, SchemaInfo aSchema) {
+            iChecksum = aChecksum;
+            iSchema = aSchema;
+        }
+    }
+
+    /** Fichier du snapshot */
+    private final File iFile;
+
+    /** Schémas par nom de fichier .xsd */
+    private final Map<String, Entry> iEntries;
+
+    /** true si les schémas ont changé depuis la lecture */
+    private boolean iModified;
+
+    /**
+     * @param aFile
+     *            fichier du snapshot
+     * @param aEntries
+     *            schémas lus du snapshot
+     */
+    private SchemaSnapshot(File aFile, Map<String, Entry> aEntries) {
+        iFile = aFile;
+        iEntries = aEntries;
+    }
+
+    /**
+     * @param aFile
+     *            fichier du snapshot
+     * @return le snapshot lu, vide si le fichier n'existe pas ou n'est pas valide
+     */
+    @SuppressWarnings("unchecked")
+    static SchemaSnapshot load(File aFile) {
+        if (aFile.isFile()) {
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(aFile.toPath())))) {
+                in.setObjectInputFilter(FILTER);
+                if (in.readInt() == FORMAT && SIGNATURE.equals(in.readUTF())) {
+                    return new SchemaSnapshot(aFile, (Map<String, Entry>) in.readObject());
+                }
+                logger.info("Snapshot " + aFile + " d'un autre format ou d'une autre version, les schémas sont relus");
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                logger.info("Snapshot " + aFile + " illisible, les schémas sont relus", e);
+            }
+        }
+        return new SchemaSnapshot(aFile, new HashMap<>());
+    }
+
+    /**
+     * @param aFileName
+     *            nom du fichier .xsd
+     * @param aChecksum
+     *            somme actuelle du fichier
+     * @return le schéma du snapshot, null s'il manque ou si le fichier a changé
+     */
+    SchemaInfo get(String aFileName, String aChecksum) {
+        Entry entry = iEntries.get(aFileName);
+        return entry != null && entry.iChecksum.equals(aChecksum) ? entry.iSchema : null;
+    }
+
+    /**
+     * Remplace le schéma d'un fichier. Le schéma doit être ajouté avant que les factory ne modifient ses VOInfo.
+     *
+     * @param aFileName
+     *            nom du fichier .xsd
+     * @param aChecksum
+     *            somme du fichier
+     * @param aSchema
+     *            schéma lu du fichier
+     */
+    void put(String aFileName, String aChecksum, SchemaInfo aSchema) {
+        iEntries.put(aFileName, new Entry(aChecksum, aSchema));
+        iModified = true;
+    }
+
+    /**
+     * Enlève les schémas des fichiers qui n'existent plus
+     *
+     * @param aFileNames
+     *            noms des fichiers .xsd actuels
+     */
+    void retain(Collection<String> aFileNames) {
+        iModified |= iEntries.keySet().retainAll(aFileNames);
+    }
+
+    /**
+     * Écrit le snapshot s'il a changé. Le fichier est remplacé d'un coup, une erreur d'écriture est seulement loggée.
+     */
+    void save() {
+        if (!iModified) {
+            return;
+        }
+        File tmp = new File(iFile.getPath() + ".tmp");
+        try {
+            if (iFile.getParentFile() != null) {
+                Files.createDirectories(iFile.getParentFile().toPath());
+            }
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+                out.writeInt(FORMAT);
+                out.writeUTF(SIGNATURE);
+                out.writeObject(iEntries);
+            }
+            Files.move(tmp.toPath(), iFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            iModified = false;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Snapshot " + iFile + " pas écrit", e);
+            tmp.delete();
+        }
+    }
+
+    /**
+     * @param aFile
+     *            fichier
+     * @return somme SHA-256 du contenu en hexadécimal
+     * @throws IOException
+     *             erreur de lecture
+     */
+    static String checksum(File aFile) throws IOException {
+        MessageDigest digest = getDigest();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(aFile.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return la version d'is-core et la somme SHA-256 du serialVersionUID et des champs sérialisés de chaque classe d'information
+     */
+    private static String signature() {
+        StringBuilder form = new StringBuilder(1024);
+        for (Class<?> infoClass : INFO_CLASSES) {
+            ObjectStreamClass streamClass = ObjectStreamClass.lookup(infoClass);
+            form.append(infoClass.getName());
+            if (streamClass != null) {
+                form.append(':').append(streamClass.getSerialVersionUID());
+                for (ObjectStreamField field : streamClass.getFields()) {
+                    form.append(',').append(field.getName()).append(' ').append(field.getTypeCode());
+                    if (field.getTypeString() != null) {
+                        form.append(field.getTypeString());
+                    }
+                }
+            }
+            form.append(';');
+        }
+        String version = SchemaSnapshot.class.getPackage().getImplementationVersion();
+        return (version == null ? "dev" : version) + "/" + toHex(getDigest().digest(form.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return un MessageDigest SHA-256
+     */
+    private static MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param aBytes
+     *            somme
+     * @return la somme en hexadécimal
+     */
+    private static String toHex(byte[] aBytes) {
+        StringBuilder sb = new StringBuilder(aBytes.length * 2);
+        for (byte b : aBytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.commons.logging.LogFactory;
 
 import ch.inser.dynamic.common.AbstractDynamicVO;
 import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.util.Sanitizer;
 import ch.inser.dynamic.util.VOInfo;
 
 /**
@@ -56,6 +57,11 @@ public abstract class AbstractValueObject extends AbstractDynamicVO {
      */
     private String iName;
 
+    /**
+     * true pendant setLoadedProperty si les valeurs lues de la base ne sont pas nettoyées
+     */
+    private transient boolean iLoading;
+
     /**
      * Constructeur par défaut
      */
@@ -66,7 +72,8 @@ public abstract class AbstractValueObject extends AbstractDynamicVO {
 
     /**
      * Modifie la valeur d'une propriété. Pour les String: nettoie le string selon une expression régulière, p.ex. en remplacant les
-     * caractères spéciaux (\t,\n, \r) par un espace.
+     * caractères spéciaux (\t,\n, \r) par un espace. Le nettoyage n'est pas fait pour une valeur lue de la base avec
+     * &lt;cleanonread&gt;false&lt;/cleanonread&gt;, voir setLoadedProperty.
      *
      * @param aName
      *            Le nom de la proriété à modifier.
@@ -77,20 +84,38 @@ public abstract class AbstractValueObject extends AbstractDynamicVO {
     public void setProperty(String aName, Object aValue) {
         Object value = aValue;
 
-        if (value != null && iInfo != null && value instanceof String && iInfo.getAttribute(aName) != null) {
-            String expr = (String) iInfo.getAttribute(aName).getInfo("cleanexpr");
-            if (expr != null) {
-                String replacement = (String) iInfo.getAttribute(aName).getInfo("cleanreplacement");
-                value = ((String) value).replaceAll(expr, replacement == null ? "" : replacement);
-            }
-            if ("true".equals(iInfo.getAttribute(aName).getInfo("cleantrim"))) {
-                value = ((String) value).trim();
+        if (value instanceof String && iInfo != null && !iLoading) {
+            Sanitizer sanitizer = iInfo.getSanitizer(aName);
+            if (sanitizer != null) {
+                value = sanitizer.apply((String) value);
             }
-
         }
         super.setProperty(aName, value);
     }
 
+    /**
+     * Modifie une propriété avec une valeur lue de la base de données. La valeur passe toujours par setProperty, les redéfinitions des
+     * sous-classes sont donc appelées; avec &lt;cleanonread&gt;false&lt;/cleanonread&gt; seul le nettoyage des String est sauté.
+     *
+     * @param aName
+     *            Le nom de la propriété.
+     * @param aValue
+     *            La valeur lue.
+     */
+    @Override
+    public void setLoadedProperty(String aName, Object aValue) {
+        if (iInfo == null || iInfo.isCleanOnRead()) {
+            setProperty(aName, aValue);
+            return;
+        }
+        iLoading = true;
+        try {
+            setProperty(aName, aValue);
+        } finally {
+            iLoading = false;
+        }
+    }
+
     /**
      * Constructeur complet permettant d'indiquer le nom, les types utilisé et les infos issus de la configuration
      *
@@ -108,6 +133,25 @@ public abstract class AbstractValueObject extends AbstractDynamicVO {
         iTypes = types;
     }
 
+    /**
+     * Constructeur complet avec une implémentation particulière de la mappe des propriétés
+     *
+     * @param aName
+     *            nom métier du value object
+     * @param aInfo
+     *            informations issues de la configuration
+     * @param aTypes
+     *            typage des variables
+     * @param aProperties
+     *            mappe vide pour conserver les propriétés
+     */
+    protected AbstractValueObject(String aName, VOInfo aInfo, Map<String, IValueObject.Type> aTypes, Map<String, Object> aProperties) {
+        super(aProperties);
+        iName = aName;
+        iInfo = aInfo;
+        iTypes = aTypes;
+    }
+
     /**
      * Retourne la liste des attributs et de leur type.
      */
@@ -0,0 +1,142 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.vo;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.util.VOInfo;
+import ch.inser.jsl.tools.PropertyTools;
+
+/**
+ * Value object dont les attributs de l'objet métier sont gardés dans un tableau. Les positions sont données par un layout calculé une fois
+ * par objet métier dans le VOFactory, les autres propriétés sont gardées dans une petite mappe.
+ *
+ * Activé par objet métier avec la valeur appinfo <code>&lt;vostorage&gt;array&lt;/vostorage&gt;</code>. Utile pour les listes de
+ * beaucoup d'enregistrements: pas d'entrée de HashMap par propriété, clone et comparaison par position.
+ *
+ * @author INSER SA
+ *
+ */
+public class ArrayValueObject extends AbstractValueObject {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = 7064211592683526718L;
+
+    /**
+     * Mappe des propriétés, même objet que getProperties()
+     */
+    private final SlotMap iSlots;
+
+    /**
+     * @param aName
+     *            nom métier du value object
+     * @param aInfo
+     *            informations issues de la configuration
+     * @param aTypes
+     *            typage des variables
+     * @param aLayout
+     *            positions des attributs
+     */
+    ArrayValueObject(String aName, VOInfo aInfo, Map<String, IValueObject.Type> aTypes, SlotLayout aLayout) {
+        this(aName, aInfo, aTypes, new SlotMap(aLayout));
+    }
+
+    /**
+     * @param aName
+     *            nom métier du value object
+     * @param aInfo
+     *            informations issues de la configuration
+     * @param aTypes
+     *            typage des variables
+     * @param aSlots
+     *            mappe vide des propriétés
+     */
+    private ArrayValueObject(String aName, VOInfo aInfo, Map<String, IValueObject.Type> aTypes, SlotMap aSlots) {
+        super(aName, aInfo, aTypes, aSlots);
+        iSlots = aSlots;
+    }
+
+    /**
+     * Retourne la liste des attributs à omettre des tests des différences.
+     */
+    @Override
+    public Set<String> getOmit() {
+        return null;
+    }
+
+    /**
+     * Retourne une copie profonde (deep copy) de cet objet. Les valeurs immuables sont partagées, les dates et timestamps sont copiés comme
+     * dans GenericValueObject.
+     */
+    @Override
+    public Object clone() {
+        ArrayValueObject vo = new ArrayValueObject(getName(), getVOInfo(), getTypes(), iSlots.getLayout());
+        for (int i = 0; i < iSlots.getLayout().size(); i++) {
+            Object obj = iSlots.getSlot(i);
+            if (obj != null) {
+                vo.iSlots.setSlot(i, copy(obj));
+            }
+        }
+        if (iSlots.getOverflow() != null) {
+            for (Map.Entry<String, Object> entry : iSlots.getOverflow().entrySet()) {
+                if (entry.getValue() != null) {
+                    vo.iSlots.put(entry.getKey(), copy(entry.getValue()));
+                }
+            }
+        }
+        return vo;
+    }
+
+    /**
+     * Compare par position si l'autre vo a le même layout, sinon comme AbstractDynamicVO.
+     */
+    @Override
+    public Map<String, Object> getDiffProperties(IValueObject aVo) {
+        if (!(aVo instanceof ArrayValueObject) || ((ArrayValueObject) aVo).iSlots.getLayout() != iSlots.getLayout()
+                || aVo.getTypes() != getTypes() || getOmit() != null) {
+            return super.getDiffProperties(aVo);
+        }
+        SlotMap other = ((ArrayValueObject) aVo).iSlots;
+        Map<String, Object> diffs = new HashMap<>();
+        for (int i = 0; i < iSlots.getLayout().size(); i++) {
+            if (PropertyTools.arePropertiesNotEqual(iSlots.getSlot(i), other.getSlot(i))) {
+                diffs.put(iSlots.getLayout().getName(i), other.getSlot(i));
+            }
+        }
+        return diffs;
+    }
+
+    /**
+     * @param aObject
+     *            valeur non nulle
+     * @return copie des valeurs mutables, la valeur elle-même sinon
+     */
+    private static Object copy(Object aObject) {
+        if (aObject instanceof Timestamp) {
+            return PropertyTools.getObjectCopy((Timestamp) aObject);
+        }
+        if (aObject instanceof java.sql.Date) {
+            return PropertyTools.getObjectCopy((java.sql.Date) aObject);
+        }
+        return aObject;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.vo;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Position des attributs d'un objet métier dans le tableau des valeurs d'un ArrayValueObject. Le layout est calculé une seule fois par
+ * objet métier et partagé par tous ses vos.
+ *
+ * @author INSER SA
+ *
+ */
+final class SlotLayout implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = 4581186203711590021L;
+
+    /** Noms des attributs par position */
+    private final String[] iNames;
+
+    /** Position par nom d'attribut */
+    private final Map<String, Integer> iIndexes;
+
+    /**
+     * @param aNames
+     *            noms des attributs, dans l'ordre des positions
+     */
+    SlotLayout(Collection<String> aNames) {
+        iNames = aNames.toArray(new String[aNames.size()]);
+        iIndexes = new HashMap<>(iNames.length * 2);
+        for (int i = 0; i < iNames.length; i++) {
+            iIndexes.put(iNames[i], i);
+        }
+    }
+
+    /**
+     * @param aName
+     *            nom de l'attribut
+     * @return position de l'attribut, -1 s'il n'est pas dans le layout
+     */
+    int indexOf(Object aName) {
+        Integer idx = iIndexes.get(aName);
+        return idx == null ? -1 : idx;
+    }
+
+    /**
+     * @param aIndex
+     *            position
+     * @return nom de l'attribut à cette position
+     */
+    String getName(int aIndex) {
+        return iNames[aIndex];
+    }
+
+    /**
+     * @return nombre de positions
+     */
+    int size() {
+        return iNames.length;
+    }
+}
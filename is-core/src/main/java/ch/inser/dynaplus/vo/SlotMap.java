@@ -0,0 +1,356 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.vo;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Mappe des propriétés d'un ArrayValueObject. Les attributs du layout sont gardés dans un tableau, les autres clés (attributs dynamiques,
+ * childrenmap, libellés, etc.) dans une petite mappe créée seulement si nécessaire.
+ *
+ * La mappe a la même sémantique qu'une HashMap: la valeur null est acceptée et une clé avec la valeur null est présente.
+ *
+ * @author INSER SA
+ *
+ */
+class SlotMap extends AbstractMap<String, Object> implements Serializable {
+
+    /**
+     * Serial Version UID
+     */
+    private static final long serialVersionUID = -3318095725413290714L;
+
+    /**
+     * Marque une position contenant la valeur null, une position vide est à null.
+     */
+    private enum Null {
+        /** La valeur null */
+        VALUE
+    }
+
+    /** Layout des positions, partagé */
+    private final SlotLayout iLayout;
+
+    /** Valeurs par position */
+    private final Object[] iValues;
+
+    /** Nombre de positions occupées */
+    private int iSize;
+
+    /** Clés qui ne sont pas dans le layout, null si aucune */
+    private Map<String, Object> iOverflow;
+
+    /** Vue des entrées */
+    private transient Set<Map.Entry<String, Object>> iEntrySet;
+
+    /**
+     * @param aLayout
+     *            layout des positions
+     */
+    SlotMap(SlotLayout aLayout) {
+        iLayout = aLayout;
+        iValues = new Object[aLayout.size()];
+    }
+
+    /**
+     * @return layout des positions
+     */
+    SlotLayout getLayout() {
+        return iLayout;
+    }
+
+    /**
+     * @return les clés hors layout, null si aucune
+     */
+    Map<String, Object> getOverflow() {
+        return iOverflow;
+    }
+
+    /**
+     * Valeur d'une position, sans recherche du nom.
+     *
+     * @param aIndex
+     *            position
+     * @return la valeur, null si vide
+     */
+    Object getSlot(int aIndex) {
+        return unmask(iValues[aIndex]);
+    }
+
+    /**
+     * Modifie une position, sans recherche du nom.
+     *
+     * @param aIndex
+     *            position
+     * @param aValue
+     *            valeur, null vide la position
+     */
+    void setSlot(int aIndex, Object aValue) {
+        if (aValue == null) {
+            if (iValues[aIndex] != null) {
+                iValues[aIndex] = null;
+                iSize--;
+            }
+        } else {
+            if (iValues[aIndex] == null) {
+                iSize++;
+            }
+            iValues[aIndex] = aValue;
+        }
+    }
+
+    @Override
+    public Object get(Object aKey) {
+        int idx = iLayout.indexOf(aKey);
+        if (idx >= 0) {
+            return unmask(iValues[idx]);
+        }
+        return iOverflow == null ? null : iOverflow.get(aKey);
+    }
+
+    @Override
+    public boolean containsKey(Object aKey) {
+        int idx = iLayout.indexOf(aKey);
+        if (idx >= 0) {
+            return iValues[idx] != null;
+        }
+        return iOverflow != null && iOverflow.containsKey(aKey);
+    }
+
+    @Override
+    public Object put(String aKey, Object aValue) {
+        int idx = iLayout.indexOf(aKey);
+        if (idx >= 0) {
+            Object old = iValues[idx];
+            if (old == null) {
+                iSize++;
+            }
+            iValues[idx] = aValue == null ? Null.VALUE : aValue;
+            return unmask(old);
+        }
+        if (iOverflow == null) {
+            iOverflow = new HashMap<>(4);
+        }
+        return iOverflow.put(aKey, aValue);
+    }
+
+    @Override
+    public Object remove(Object aKey) {
+        int idx = iLayout.indexOf(aKey);
+        if (idx >= 0) {
+            Object old = iValues[idx];
+            if (old != null) {
+                iValues[idx] = null;
+                iSize--;
+            }
+            return unmask(old);
+        }
+        return iOverflow == null ? null : iOverflow.remove(aKey);
+    }
+
+    @Override
+    public int size() {
+        return iSize + (iOverflow == null ? 0 : iOverflow.size());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (iSize > 0) {
+            Arrays.fill(iValues, null);
+            iSize = 0;
+        }
+        iOverflow = null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (iEntrySet == null) {
+            iEntrySet = new AbstractSet<Map.Entry<String, Object>>() {
+
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return SlotMap.this.size();
+                }
+
+                @Override
+                public void clear() {
+                    SlotMap.this.clear();
+                }
+            };
+        }
+        return iEntrySet;
+    }
+
+    /**
+     * @param aValue
+     *            valeur d'une position
+     * @return la valeur sans la marque de null
+     */
+    private static Object unmask(Object aValue) {
+        return aValue == Null.VALUE ? null : aValue;
+    }
+
+    /**
+     * Entrée liée à une position du tableau
+     */
+    private class SlotEntry implements Map.Entry<String, Object> {
+
+        /** Position */
+        private final int iIndex;
+
+        /**
+         * @param aIndex
+         *            position
+         */
+        SlotEntry(int aIndex) {
+            iIndex = aIndex;
+        }
+
+        @Override
+        public String getKey() {
+            return iLayout.getName(iIndex);
+        }
+
+        @Override
+        public Object getValue() {
+            return unmask(iValues[iIndex]);
+        }
+
+        @Override
+        public Object setValue(Object aValue) {
+            Object old = unmask(iValues[iIndex]);
+            iValues[iIndex] = aValue == null ? Null.VALUE : aValue;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object aObject) {
+            if (!(aObject instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) aObject;
+            Object value = getValue();
+            return getKey().equals(entry.getKey()) && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /**
+     * Parcourt les positions occupées puis les clés hors layout
+     */
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        /** Prochaine position occupée, iValues.length si plus de position */
+        private int iNext;
+
+        /** Dernière position retournée, -1 si la dernière entrée vient de la mappe hors layout */
+        private int iLast = -1;
+
+        /** Itérateur des clés hors layout, null tant que les positions ne sont pas toutes parcourues */
+        private Iterator<Map.Entry<String, Object>> iOverflowIt;
+
+        /**
+         * Constructeur, cherche la première position occupée
+         */
+        EntryIterator() {
+            iNext = nextSlot(0);
+        }
+
+        /**
+         * @param aFrom
+         *            première position à tester
+         * @return la prochaine position occupée ou iValues.length
+         */
+        private int nextSlot(int aFrom) {
+            int idx = aFrom;
+            while (idx < iValues.length && iValues[idx] == null) {
+                idx++;
+            }
+            return idx;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (iNext < iValues.length) {
+                return true;
+            }
+            if (iOverflowIt == null) {
+                if (iOverflow == null) {
+                    return false;
+                }
+                iOverflowIt = iOverflow.entrySet().iterator();
+            }
+            return iOverflowIt.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (iNext < iValues.length) {
+                iLast = iNext;
+                iNext = nextSlot(iNext + 1);
+                return new SlotEntry(iLast);
+            }
+            iLast = -1;
+            return iOverflowIt.next();
+        }
+
+        @Override
+        public void remove() {
+            if (iLast >= 0) {
+                if (iValues[iLast] == null) {
+                    throw new IllegalStateException();
+                }
+                iValues[iLast] = null;
+                iSize--;
+            } else if (iOverflowIt != null) {
+                iOverflowIt.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+}
@@ -15,22 +15,27 @@
 
 package ch.inser.dynaplus.vo;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import ch.inser.dynamic.common.IValueObject;
-import ch.inser.dynamic.common.IValueObject.Type;
 import ch.inser.dynamic.util.SchemaInfo;
 import ch.inser.dynamic.util.VOInfo;
 import ch.inser.dynaplus.util.AbstractFactory;
 import ch.inser.dynaplus.util.Constants.Entity;
+import ch.inser.dynaplus.util.ConstructorHandles;
 
 /**
  * Factory de Value Objects, implémenté comme un singleton
@@ -74,6 +79,20 @@ public class VOFactory extends AbstractFactory implements IVOFactory, Serializab
      */
     private Map<String, String> iVOClassNames = new HashMap<>();
 
+    /**
+     * Constructeurs des classes particulières des VO, résolus à l'initialisation. Organisé en "nom métier"->"constructeur", recréé vide
+     * par readObject.
+     */
+    private transient Map<String, Supplier<IValueObject>> iVOConstructors = new ConcurrentHashMap<>();
+
+    /**
+     * Positions des attributs des objets métier dont les vos sont des ArrayValueObject (valeur appinfo vostorage=array). Organisé en "nom
+     * métier"->"layout"
+     *
+     * @see ArrayValueObject
+     */
+    private Map<String, SlotLayout> iLayouts = new HashMap<>();
+
     /**
      * Constructeur privé, implémentation du singleton.
      */
@@ -100,12 +119,21 @@ public class VOFactory extends AbstractFactory implements IVOFactory, Serializab
             VOInfo voInfo = aSchema.getVOInfo(str);
             if (voInfo.getValue("classname") != null) {
                 iVOClassNames.put(str, (String) voInfo.getValue("classname"));
+                iVOConstructors.remove(str);
+                getVOConstructor(str);
                 iVOInfos.remove(str);
                 iTypes.remove(str);
+                iLayouts.remove(str);
             } else {
                 iVOInfos.put(str, voInfo);
                 iTypes.put(str, voInfo.getTypes());
                 iVOClassNames.remove(str);
+                iVOConstructors.remove(str);
+                if ("array".equals(voInfo.getValue("vostorage"))) {
+                    iLayouts.put(str, getLayout(voInfo, iTypes.get(str)));
+                } else {
+                    iLayouts.remove(str);
+                }
             }
             logger.debug("VO  '" + str + "' added");
         }
@@ -123,13 +151,16 @@ public class VOFactory extends AbstractFactory implements IVOFactory, Serializab
         }
         VOInfo voInfo = iVOInfos.get(name);
         if (voInfo != null) {
+            SlotLayout layout = iLayouts.get(name);
+            if (layout != null) {
+                return new ArrayValueObject(name, voInfo, iTypes.get(name), layout);
+            }
             return new GenericValueObject(name, voInfo, iTypes.get(name));
         }
-        if (iVOClassNames.get(name) != null) {
+        Supplier<IValueObject> constructor = getVOConstructor(name);
+        if (constructor != null) {
             try {
-                Class<?> cl = Class.forName(iVOClassNames.get(name));
-                Constructor<?> constr = cl.getConstructor((Class[]) null);
-                return (IValueObject) constr.newInstance((Object[]) null);
+                return constructor.get();
             } catch (Exception e) {
                 logger.warn("Error instantiating Class : " + name, e);
                 return null;
@@ -138,6 +169,57 @@ public class VOFactory extends AbstractFactory implements IVOFactory, Serializab
         return null;
     }
 
+    /**
+     * @param aName
+     *            nom métier
+     * @return le constructeur de la classe particulière du VO, null si le VO n'a pas de classe particulière ou si elle ne peut pas être
+     *         chargée
+     */
+    private Supplier<IValueObject> getVOConstructor(String aName) {
+        Supplier<IValueObject> constructor = iVOConstructors.get(aName);
+        String className = iVOClassNames.get(aName);
+        if (constructor == null && className != null) {
+            try {
+                constructor = ConstructorHandles.getSupplier(className, IValueObject.class);
+                iVOConstructors.put(aName, constructor);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.warn("Error instantiating Class : " + aName, e);
+            }
+        }
+        return constructor;
+    }
+
+    /**
+     * Crée la mappe des constructeurs, pas sérialisée; les constructeurs sont résolus à nouveau au premier getVO
+     *
+     * @param aStream
+     *            stream de désérialisation
+     * @throws IOException
+     *             erreur de lecture
+     * @throws ClassNotFoundException
+     *             classe inconnue
+     */
+    private void readObject(ObjectInputStream aStream) throws IOException, ClassNotFoundException {
+        aStream.defaultReadObject();
+        iVOConstructors = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Calcule les positions des attributs typés d'un objet métier, dans l'ordre de la configuration.
+     *
+     * @param aVOInfo
+     *            configuration de l'objet métier
+     * @param aTypes
+     *            types des attributs
+     * @return le layout
+     */
+    private static SlotLayout getLayout(VOInfo aVOInfo, Map<String, IValueObject.Type> aTypes) {
+        Set<String> names = new LinkedHashSet<>(aVOInfo.getOrderedNames());
+        names.retainAll(aTypes.keySet());
+        names.addAll(aTypes.keySet());
+        return new SlotLayout(names);
+    }
+
     @Override
     public IValueObject getVO(Enum<?> name) {
         return getVO(name.toString());
@@ -166,7 +248,7 @@ public class VOFactory extends AbstractFactory implements IVOFactory, Serializab
 
         // Recherche des objets comprenant un champ shape
         for (Map.Entry<String, VOInfo> voInfos : iVOInfos.entrySet()) {
-            if (voInfos.getValue().getTypes().containsValue(Type.SHAPE)) {
+            if (voInfos.getValue().hasShape()) {
                 lstObject.add(voInfos.getKey());
             }
 
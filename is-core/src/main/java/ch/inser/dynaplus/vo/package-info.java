@@ -25,7 +25,6 @@
  * <li>ISjsl</li>
  * <li>commons-logging</li>
  * <li>jdom</li>
- * <li>javaunderground</li>
  * </ul>
  * 
  * <h2>Configuration file</h2>
@@ -23,7 +23,10 @@ import static org.mockito.Mockito.verify;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
@@ -573,6 +576,80 @@ public class DAOToolsTest {
 
     }
 
+    /**
+     * Listes IN: nombre de "?" exact, par palier, tableau et découpage des grandes listes
+     *
+     * @throws SQLException
+     *             erreur de liaison
+     */
+    @Test
+    public void addClauseInList() throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        Map<Operator, Object> map = new HashMap<>();
+        map.put(Operator.IN, Arrays.asList(1L, 2L, 3L));
+
+        DAOTools.addClause("attribute", map, AttributeType.EQUAL, sql);
+        assertTrue(sql.toString(),
+                "attribute IN (?,?,?)".equals(sql.toString()));
+
+        sql.setLength(0);
+        DAOTools.addClause("attribute", map, AttributeType.EQUAL, sql,
+                InListStrategy.PADDED);
+        assertTrue(sql.toString(),
+                "attribute IN (?,?,?,?)".equals(sql.toString()));
+
+        initPreparedStatement();
+        int idx = DAOTools.set(1, map, IValueObject.Type.LONG,
+                AttributeType.EQUAL, iPreparedStatement,
+                InListStrategy.PADDED);
+        assertTrue("idx:" + idx, idx == 5);
+        verify(iPreparedStatement, times(1)).setLong(3, 3L);
+        verify(iPreparedStatement, times(1)).setLong(4, 3L);
+
+        sql.setLength(0);
+        DAOTools.addClause("attribute", map, AttributeType.EQUAL, sql,
+                InListStrategy.ARRAY);
+        assertTrue(sql.toString(),
+                "attribute = ANY(?)".equals(sql.toString()));
+
+        map.clear();
+        map.put(Operator.NOT_IN, Arrays.asList(1L, 2L, 3L));
+        sql.setLength(0);
+        DAOTools.addClause("attribute", map, AttributeType.EQUAL, sql,
+                InListStrategy.ARRAY);
+        assertTrue(sql.toString(),
+                "attribute <> ALL(?)".equals(sql.toString()));
+
+        // Les chaînes et les types sans tableau SQL passent en PADDED
+        assertTrue(InListStrategy.ARRAY.forType(IValueObject.Type.LONG) == InListStrategy.ARRAY);
+        assertTrue(InListStrategy.ARRAY.forType(IValueObject.Type.STRING) == InListStrategy.PADDED);
+        assertTrue(InListStrategy.ARRAY.forType(IValueObject.Type.BYTES) == InListStrategy.PADDED);
+        map.clear();
+        map.put(Operator.IN, Arrays.asList("a", "b", "c"));
+        initPreparedStatement();
+        idx = DAOTools.set(1, map, IValueObject.Type.STRING,
+                AttributeType.EQUAL, iPreparedStatement,
+                InListStrategy.ARRAY);
+        assertTrue("idx:" + idx, idx == 5);
+        verify(iPreparedStatement, times(1)).setString(4, "c");
+
+        // 1500 valeurs: un morceau de 1000 et un de 500 arrondi à 512
+        List<Long> values = new ArrayList<>();
+        for (long i = 0; i < 1500; i++) {
+            values.add(i);
+        }
+        map.clear();
+        map.put(Operator.IN, values);
+        sql.setLength(0);
+        DAOTools.addClause("attribute", map, AttributeType.EQUAL, sql,
+                InListStrategy.PADDED);
+        String str = sql.toString();
+        assertTrue(str, str.startsWith("(attribute IN (?,")
+                && str.contains("?) OR attribute IN (?,")
+                && str.endsWith("?))"));
+        assertTrue(str, str.chars().filter(c -> c == '?').count() == 1512);
+    }
+
     /**
      * Mock prepared statement
      */
@@ -0,0 +1,187 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.common;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ch.inser.dynaplus.vo.GenericValueObject;
+
+/**
+ * Mesure simple de la lecture d'une ligne par RowDecoder (colonnes par index) et par DAOTools.getFromRS (colonnes par nom, l'ancien
+ * chemin de fillRecord). Pas un test unitaire: à lancer à la main, p.ex. depuis l'IDE, la première passe sert de préchauffage.
+ *
+ * Le ResultSet est un proxy: la recherche d'une colonne par nom parcourt les libellés sans tenir compte de la casse comme le findColumn
+ * d'un driver, le coût du proxy est le même pour les deux chemins.
+ *
+ * @author INSER SA
+ *
+ */
+public final class RowDecoderBenchmark {
+
+    /** Nombre de lignes lues par passe */
+    private static final int COUNT = 200_000;
+
+    /** Nombre de passes */
+    private static final int ROUNDS = 3;
+
+    /** Nombre de colonnes par type, une table de 30 colonnes */
+    private static final int COLUMNS_PER_TYPE = 6;
+
+    /** Types des colonnes */
+    private static final IValueObject.Type[] TYPES = { IValueObject.Type.LONG, IValueObject.Type.STRING, IValueObject.Type.DOUBLE,
+            IValueObject.Type.TIMESTAMP, IValueObject.Type.BOOLEAN };
+
+    /**
+     * Classe utilitaire
+     */
+    private RowDecoderBenchmark() {
+    }
+
+    /**
+     * @param aArgs
+     *            nombre de colonnes par type, 6 par défaut
+     * @throws SQLException
+     *             erreur de lecture
+     */
+    public static void main(String[] aArgs) throws SQLException {
+        int perType = aArgs.length > 0 ? Integer.parseInt(aArgs[0]) : COLUMNS_PER_TYPE;
+        List<String> names = new ArrayList<>();
+        List<IValueObject.Type> types = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        Map<String, IValueObject.Type> voTypes = new HashMap<>();
+        for (int i = 0; i < perType; i++) {
+            for (IValueObject.Type type : TYPES) {
+                String name = "col_" + type.toString().toLowerCase() + "_" + i;
+                names.add(name);
+                types.add(type);
+                voTypes.put(name, type);
+                values.add(i % 3 == 2 ? null : getValue(type, i));
+            }
+        }
+        ResultSet rs = getResultSet(names, values);
+        RowDecoder decoder = new RowDecoder(names, names, types, rs.getMetaData());
+        IValueObject empty = new GenericValueObject("test", null, voTypes);
+
+        Object sink = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                IValueObject vo = (IValueObject) empty.clone();
+                for (int j = 0; j < names.size(); j++) {
+                    vo.setProperty(names.get(j), DAOTools.getFromRS(names.get(j), types.get(j), rs));
+                }
+                sink = vo;
+            }
+            long byName = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                sink = decoder.decode((IValueObject) empty.clone(), rs);
+            }
+            long decoded = System.nanoTime() - start;
+            System.out.printf("%d columns: getFromRS %.1f ns/row, RowDecoder %.1f ns/row%n", names.size(), byName / (double) COUNT,
+                    decoded / (double) COUNT);
+        }
+        System.out.println(((IValueObject) sink).getProperties().size());
+    }
+
+    /**
+     * @param aType
+     *            type de la colonne
+     * @param aIndex
+     *            numéro de la colonne du type
+     * @return valeur non nulle de la colonne
+     */
+    private static Object getValue(IValueObject.Type aType, int aIndex) {
+        switch (aType) {
+            case LONG:
+                return Long.valueOf(1000L + aIndex);
+            case DOUBLE:
+                return Double.valueOf(aIndex * 1.5);
+            case TIMESTAMP:
+                return new Timestamp(1_700_000_000_000L + aIndex);
+            case BOOLEAN:
+                return Boolean.valueOf(aIndex % 2 == 0);
+            default:
+                return "valeur " + aIndex;
+        }
+    }
+
+    /**
+     * @param aLabels
+     *            libellés des colonnes
+     * @param aValues
+     *            valeurs de la ligne, null pour une colonne nulle
+     * @return un ResultSet d'une ligne, lecture par index et par nom comme un driver JDBC
+     */
+    private static ResultSet getResultSet(List<String> aLabels, List<Object> aValues) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(RowDecoderBenchmark.class.getClassLoader(),
+                new Class<?>[] { ResultSetMetaData.class }, (aProxy, aMethod, aArgs) -> {
+                    switch (aMethod.getName()) {
+                        case "getColumnCount":
+                            return aLabels.size();
+                        case "getColumnLabel":
+                        case "getColumnName":
+                            return aLabels.get((Integer) aArgs[0] - 1);
+                        default:
+                            throw new UnsupportedOperationException(aMethod.getName());
+                    }
+                });
+        boolean[] wasNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(RowDecoderBenchmark.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (aProxy, aMethod, aArgs) -> {
+                    if ("getMetaData".equals(aMethod.getName())) {
+                        return metaData;
+                    }
+                    if ("wasNull".equals(aMethod.getName())) {
+                        return wasNull[0];
+                    }
+                    int idx = -1;
+                    if (aArgs[0] instanceof Integer) {
+                        idx = (Integer) aArgs[0] - 1;
+                    } else {
+                        for (int i = 0; i < aLabels.size() && idx < 0; i++) {
+                            if (aLabels.get(i).equalsIgnoreCase((String) aArgs[0])) {
+                                idx = i;
+                            }
+                        }
+                        if (idx < 0) {
+                            throw new SQLException("Colonne inconnue: " + aArgs[0]);
+                        }
+                    }
+                    Object value = aValues.get(idx);
+                    wasNull[0] = value == null;
+                    switch (aMethod.getName()) {
+                        case "getLong":
+                            return value == null ? 0L : value;
+                        case "getDouble":
+                            return value == null ? 0d : value;
+                        case "getBoolean":
+                            return value == null ? Boolean.FALSE : value;
+                        default:
+                            return value;
+                    }
+                });
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import ch.inser.dynaplus.vo.GenericValueObject;
+
+/**
+ * Le décodeur par index doit lire les mêmes valeurs que DAOTools.getFromRS par nom.
+ *
+ * @author INSER SA
+ *
+ */
+public class RowDecoderTest {
+
+    /** Libellés des colonnes du résultat */
+    private static final String[] LABELS = { "ID", "nom", "montant", "actif", "modif", "nom" };
+
+    /** Valeurs de la ligne */
+    private static final Object[] VALUES = { 12L, "Dupont", null, Boolean.TRUE, new Timestamp(1000), "doublon" };
+
+    /** Types de l'objet métier de test */
+    private final Map<String, IValueObject.Type> iTypes = new HashMap<>();
+
+    /**
+     * Constructeur, prépare les types
+     */
+    public RowDecoderTest() {
+        iTypes.put("id", IValueObject.Type.LONG);
+        iTypes.put("nom", IValueObject.Type.STRING);
+        iTypes.put("montant", IValueObject.Type.DOUBLE);
+        iTypes.put("actif", IValueObject.Type.BOOLEAN);
+        iTypes.put("modif", IValueObject.Type.TIMESTAMP);
+        iTypes.put("debut", IValueObject.Type.DATE);
+    }
+
+    /**
+     * Même résultat par index et par nom, y compris les null et la première colonne d'un libellé en double
+     *
+     * @throws SQLException
+     *             erreur de lecture
+     */
+    @Test
+    public void testDecode() throws SQLException {
+        ResultSet rs = getResultSet();
+        List<String> names = Arrays.asList("id", "nom", "montant", "actif", "modif");
+        List<IValueObject.Type> types = Arrays.asList(IValueObject.Type.LONG, IValueObject.Type.STRING, IValueObject.Type.DOUBLE,
+                IValueObject.Type.BOOLEAN, IValueObject.Type.TIMESTAMP);
+        RowDecoder decoder = new RowDecoder(names, names, types, rs.getMetaData());
+
+        IValueObject decoded = decoder.decode(new GenericValueObject("test", null, iTypes), rs);
+        IValueObject filled = new GenericValueObject("test", null, iTypes);
+        for (String name : names) {
+            filled.setProperty(name, DAOTools.getFromRS(name, filled.getPropertyType(name), rs));
+        }
+        assertEquals(filled.getProperties(), decoded.getProperties());
+        assertEquals("Dupont", decoded.getProperty("nom"));
+        assertNull(decoded.getProperty("montant"));
+    }
+
+    /**
+     * Une colonne absente du résultat est lue par nom et donne la même erreur qu'avant
+     *
+     * @throws SQLException
+     *             erreur de lecture
+     */
+    @Test(expected = SQLException.class)
+    public void testMissingColumn() throws SQLException {
+        ResultSet rs = getResultSet();
+        List<String> names = Arrays.asList("debut");
+        RowDecoder decoder = new RowDecoder(names, names, Arrays.asList(IValueObject.Type.DATE), rs.getMetaData());
+        decoder.decode(new GenericValueObject("test", null, iTypes), rs);
+    }
+
+    /**
+     * @return un ResultSet d'une ligne, lecture par index et par nom comme un driver JDBC
+     */
+    private static ResultSet getResultSet() {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(RowDecoderTest.class.getClassLoader(),
+                new Class<?>[] { ResultSetMetaData.class }, (aProxy, aMethod, aArgs) -> {
+                    switch (aMethod.getName()) {
+                        case "getColumnCount":
+                            return LABELS.length;
+                        case "getColumnLabel":
+                        case "getColumnName":
+                            return LABELS[(Integer) aArgs[0] - 1];
+                        default:
+                            throw new UnsupportedOperationException(aMethod.getName());
+                    }
+                });
+        boolean[] wasNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(RowDecoderTest.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (aProxy, aMethod, aArgs) -> {
+                    if ("getMetaData".equals(aMethod.getName())) {
+                        return metaData;
+                    }
+                    if ("wasNull".equals(aMethod.getName())) {
+                        return wasNull[0];
+                    }
+                    int idx = -1;
+                    if (aArgs[0] instanceof Integer) {
+                        idx = (Integer) aArgs[0] - 1;
+                    } else {
+                        for (int i = 0; i < LABELS.length && idx < 0; i++) {
+                            if (LABELS[i].equalsIgnoreCase((String) aArgs[0])) {
+                                idx = i;
+                            }
+                        }
+                        if (idx < 0) {
+                            throw new SQLException("Colonne inconnue: " + aArgs[0]);
+                        }
+                    }
+                    Object value = VALUES[idx];
+                    wasNull[0] = value == null;
+                    switch (aMethod.getName()) {
+                        case "getLong":
+                            return value == null ? 0L : value;
+                        case "getDouble":
+                            return value == null ? 0d : value;
+                        case "getBoolean":
+                            return value == null ? Boolean.FALSE : value;
+                        default:
+                            return value;
+                    }
+                });
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Calcul des intervalles de Histogram et percentiles de distributions connues.
+ *
+ * @author INSER SA
+ *
+ */
+public class HistogramTest {
+
+    /** Index du dernier compteur, celui des valeurs trop grandes */
+    private static final int LAST = Histogram.index(Long.MAX_VALUE);
+
+    @Test
+    public void indexTest() {
+        // Valeurs exactes sous 8, puis 8 intervalles par puissance de 2
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, Histogram.index(i));
+        }
+        assertEquals(16, Histogram.index(16));
+        assertEquals(16, Histogram.index(17));
+        assertEquals(17, Histogram.index(18));
+        assertEquals(23, Histogram.index(31));
+        assertEquals(24, Histogram.index(32));
+        assertEquals(303, LAST);
+        assertEquals(LAST, Histogram.index((1L << 40) - 1));
+        assertEquals(LAST, Histogram.index(1L << 40));
+    }
+
+    @Test
+    public void boundaryTest() {
+        // Chaque compteur s'arrête juste avant le suivant
+        assertEquals(0, Histogram.highestValue(0));
+        for (int i = 0; i < LAST; i++) {
+            long highest = Histogram.highestValue(i);
+            assertEquals("highestValue(" + i + ")", i, Histogram.index(highest));
+            assertEquals("highestValue(" + i + ") + 1", i + 1, Histogram.index(highest + 1));
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.highestValue(LAST));
+        // Largeur relative d'au plus 1/8
+        for (int i = 8; i < LAST; i++) {
+            long lowest = Histogram.highestValue(i - 1) + 1;
+            assertTrue("intervalle " + i, (Histogram.highestValue(i) - lowest + 1) * 8 <= lowest);
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getSum());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void uniformTest() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500, histogram.getSum());
+        assertEquals(1000, histogram.getMax());
+        // 500 est compté dans [480, 511], 990 dans [960, 1023] limité à la plus grande valeur
+        assertEquals(511, histogram.getPercentile(50));
+        assertEquals(1000, histogram.getPercentile(99));
+        assertEquals(1000, histogram.getPercentile(100));
+        assertEquals(1, histogram.getPercentile(0));
+    }
+
+    @Test
+    public void skewedTest() {
+        // 99% de valeurs rapides, 1% de valeurs lentes
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(100);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(50_000);
+        }
+        // 100 est compté dans [96, 103], 50000 dans [49152, 53247]
+        assertEquals(103, histogram.getPercentile(50));
+        assertEquals(103, histogram.getPercentile(99));
+        assertEquals(50_000, histogram.getPercentile(99.9));
+    }
+
+    @Test
+    public void overflowTest() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        histogram.record(1L << 45);
+        histogram.record(Long.MAX_VALUE / 2);
+        assertEquals(3, histogram.getCount());
+        assertEquals(Long.MAX_VALUE / 2, histogram.getMax());
+        // Négatif compté pour 0, les grandes valeurs dans le dernier compteur limité à la plus grande valeur
+        assertEquals(0, histogram.getPercentile(33));
+        assertEquals(Long.MAX_VALUE / 2, histogram.getPercentile(50));
+        assertEquals(Long.MAX_VALUE / 2, histogram.getPercentile(100));
+    }
+}
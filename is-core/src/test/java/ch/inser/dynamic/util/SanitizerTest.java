@@ -0,0 +1,80 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynamic.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class SanitizerTest {
+
+    /** Valeurs nettoyées par chaque cas */
+    private static final String[] VALUES = { "", "abc", " a;b;;c ", "x\ty\r\nz", "a.b$c\\d", ";;" };
+
+    @Test
+    public void literalTest() {
+        assertLikeReplaceAll(";", " ", false);
+        assertLikeReplaceAll(";;", "", false);
+        assertLikeReplaceAll("ab", null, false);
+        assertSame("abc", new Sanitizer(";", " ", false).apply("abc"));
+    }
+
+    @Test
+    public void regexTest() {
+        assertLikeReplaceAll("[\\t\\n\\r]", " ", false);
+        assertLikeReplaceAll("\\s+", " ", false);
+        assertLikeReplaceAll(".", "-", false);
+        assertLikeReplaceAll("\\$", "S", false);
+    }
+
+    @Test
+    public void replacementTest() {
+        // $ et \ ont un sens dans le remplacement de replaceAll, même pour une expression sans caractère spécial
+        assertLikeReplaceAll("b", "$0$0", false);
+        assertLikeReplaceAll(";", "\\$", false);
+        assertLikeReplaceAll("(b)", "[$1]", false);
+    }
+
+    @Test
+    public void trimTest() {
+        assertLikeReplaceAll(null, null, true);
+        assertLikeReplaceAll(";", " ", true);
+        assertLikeReplaceAll("[\\t\\n\\r]", " ", true);
+        assertEquals("a;b;;c", new Sanitizer(null, null, true).apply(" a;b;;c "));
+    }
+
+    /**
+     * Compare le nettoyage à String.replaceAll puis trim, pour toutes les valeurs
+     *
+     * @param aExpr
+     *            expression
+     * @param aReplacement
+     *            remplacement
+     * @param aTrim
+     *            trim
+     */
+    private static void assertLikeReplaceAll(String aExpr, String aReplacement, boolean aTrim) {
+        Sanitizer sanitizer = new Sanitizer(aExpr, aReplacement, aTrim);
+        for (String value : VALUES) {
+            String expected = aExpr == null ? value : value.replaceAll(aExpr, aReplacement == null ? "" : aReplacement);
+            if (aTrim) {
+                expected = expected.trim();
+            }
+            assertEquals(aExpr + " -> " + aReplacement + " on '" + value + "'", expected, sanitizer.apply(value));
+        }
+    }
+}
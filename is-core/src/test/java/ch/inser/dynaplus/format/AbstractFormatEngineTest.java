@@ -0,0 +1,195 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.format;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jdom2.Document;
+import org.jdom2.input.SAXBuilder;
+import org.junit.Test;
+
+import ch.inser.dynamic.common.DAOParameter;
+import ch.inser.dynamic.common.DAOParameter.Name;
+import ch.inser.dynamic.common.IDAOResult;
+import ch.inser.dynamic.common.ILoggedUser;
+import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.util.VOInfo;
+import ch.inser.dynaplus.format.IFormatEngine.Format;
+import ch.inser.dynaplus.vo.GenericValueObject;
+
+/**
+ * Le fichier csv écrit en stream depuis un itérateur est identique au byte près à celui de la liste en mémoire.
+ *
+ * @author INSER SA
+ *
+ */
+public class AbstractFormatEngineTest {
+
+    /** Schéma de l'objet métier de test */
+    private static final String SCHEMA = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'><xs:element name='Test'>"
+            + "<xs:annotation><xs:appinfo><id>tst_id</id></xs:appinfo></xs:annotation><xs:complexType><xs:sequence>"
+            + "<xs:element name='tst_id' type='xs:long'/><xs:element name='tst_nom' type='xs:string'/>"
+            + "<xs:element name='tst_date' type='xs:date'/><xs:element name='tst_maj' type='xs:dateTime'/>"
+            + "<xs:element name='tst_montant' type='xs:decimal'/></xs:sequence></xs:complexType></xs:element></xs:schema>";
+
+    /** Champs exportés */
+    private static final String FIELDS = "tst_id,tst_nom,tst_date,tst_maj,tst_montant";
+
+    /** Informations de l'objet métier de test */
+    private final VOInfo iInfo;
+
+    /** Types de l'objet métier de test */
+    private final Map<String, IValueObject.Type> iTypes = new HashMap<>();
+
+    /** Utilisateur qui peut lire tous les champs */
+    private final ILoggedUser iUser = mock(ILoggedUser.class);
+
+    /**
+     * Constructeur, lit le schéma
+     *
+     * @throws Exception
+     *             erreur de lecture du schéma
+     */
+    public AbstractFormatEngineTest() throws Exception {
+        Document document = new SAXBuilder().build(new StringReader(SCHEMA));
+        iInfo = new VOInfo(document.getRootElement().getChildren().get(0));
+        iTypes.put("tst_id", IValueObject.Type.LONG);
+        iTypes.put("tst_nom", IValueObject.Type.STRING);
+        iTypes.put("tst_date", IValueObject.Type.DATE);
+        iTypes.put("tst_maj", IValueObject.Type.TIMESTAMP);
+        iTypes.put("tst_montant", IValueObject.Type.DOUBLE);
+        when(iUser.isReadField(anyString(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    public void rowTest() throws Exception {
+        IValueObject vo = getVo(1L, "a;b \"c\"\r\nd", Date.valueOf("2024-02-29"), Timestamp.valueOf("2024-12-31 23:59:58.5"),
+                new BigDecimal("-1234.50"));
+        IValueObject empty = getVo(2L, null, null, null, null);
+        byte[] expected = ("\"1\";\"a;b \"c\"\nd\";\"29.02.2024\";\"31.12.2024 23:59:58\";\"-1234.50\"\n" + "\"2\";;;;\n")
+                .getBytes(StandardCharsets.ISO_8859_1);
+        assertCsv(expected, ";", vo, empty);
+    }
+
+    @Test
+    public void unmappableTest() throws Exception {
+        // Euro, idéogrammes, paire de substitution et substitut isolé ne sont pas en ISO-8859-1
+        String nom = "é€日本😀\uD800x";
+        IValueObject vo = getVo(3L, nom, null, null, 0.1);
+        // Remplacés par "?" comme avec String.getBytes
+        byte[] expected = ("\"3\",\"" + nom + "\",,,\"0.1\"\n").getBytes(StandardCharsets.ISO_8859_1);
+        assertCsv(expected, ",", vo);
+    }
+
+    @Test
+    public void bufferTest() throws Exception {
+        // Plusieurs fois la taille du buffer d'encodage, avec des lignes à cheval sur deux buffers
+        List<IValueObject> vos = new ArrayList<>();
+        StringBuilder name = new StringBuilder();
+        for (long i = 0; i < 2000; i++) {
+            name.append(i % 10 == 0 ? '€' : (char) ('a' + i % 26));
+            vos.add(getVo(i, name.toString(), new Date(i * 86_400_000L), new Timestamp(i * 1000L), i * 0.25));
+        }
+        assertCsv(null, ";", vos.toArray(new IValueObject[vos.size()]));
+    }
+
+    @Test
+    public void emptyTest() throws Exception {
+        assertCsv(new byte[0], ";");
+    }
+
+    /**
+     * Compare le csv de la liste, du stream et du channel
+     *
+     * @param aExpected
+     *            bytes attendus, null pour seulement comparer
+     * @param aSeparator
+     *            séparateur
+     * @param aVos
+     *            records
+     * @throws Exception
+     *             erreur de formattage
+     */
+    private void assertCsv(byte[] aExpected, String aSeparator, IValueObject... aVos) throws Exception {
+        AbstractFormatEngine engine = new AbstractFormatEngine() {
+            @Override
+            protected Map<String, Map<Object, String>> getCodes(Locale aLang) {
+                return Collections.emptyMap();
+            }
+        };
+        engine.iCSVSeparator = aSeparator;
+        DAOParameter[] params = { new DAOParameter(Name.RESULT_FORMAT, Format.CSV), new DAOParameter(Name.RESULT_LANG, "fr"),
+                new DAOParameter(Name.RESULT_FIELDS, FIELDS) };
+        List<IValueObject> records = new ArrayList<>();
+        Collections.addAll(records, aVos);
+
+        byte[] list = (byte[]) engine.format(records, iUser, params).getValue();
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        IDAOResult result = engine.format(records.iterator(), stream, iUser, params);
+        assertEquals(aVos.length, result.getNbrRecords());
+
+        ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        engine.format(records.iterator(), Channels.newChannel(channel), iUser, params);
+
+        if (aExpected != null) {
+            assertArrayEquals(new String(list, StandardCharsets.ISO_8859_1), aExpected, list);
+        }
+        assertArrayEquals(list, stream.toByteArray());
+        assertArrayEquals(list, channel.toByteArray());
+    }
+
+    /**
+     * @param aId
+     *            id
+     * @param aNom
+     *            nom
+     * @param aDate
+     *            date
+     * @param aMaj
+     *            timestamp
+     * @param aMontant
+     *            nombre
+     * @return un vo avec les valeurs
+     */
+    private IValueObject getVo(Long aId, String aNom, Date aDate, Timestamp aMaj, Object aMontant) {
+        IValueObject vo = new GenericValueObject("Test", iInfo, iTypes);
+        vo.setProperty("tst_id", aId);
+        vo.setProperty("tst_nom", aNom);
+        vo.setProperty("tst_date", aDate);
+        vo.setProperty("tst_maj", aMaj);
+        vo.setProperty("tst_montant", aMontant);
+        return vo;
+    }
+}
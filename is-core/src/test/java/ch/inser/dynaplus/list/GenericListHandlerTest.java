@@ -0,0 +1,193 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.list;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jdom2.Document;
+import org.jdom2.input.SAXBuilder;
+import org.junit.Test;
+
+import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynamic.util.VOInfo;
+import ch.inser.dynaplus.vo.GenericValueObject;
+
+/**
+ * Recherche des lignes par id du list handler, aussi quand la liste est modifiée hors du list handler par getList.
+ *
+ * @author INSER SA
+ *
+ */
+public class GenericListHandlerTest {
+
+    /** Schéma de l'objet métier de test */
+    private static final String SCHEMA = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'><xs:element name='Test'>"
+            + "<xs:annotation><xs:appinfo><id>tst_id</id></xs:appinfo></xs:annotation><xs:complexType><xs:sequence>"
+            + "<xs:element name='tst_id' type='xs:long'/><xs:element name='tst_nom' type='xs:string'/>"
+            + "</xs:sequence></xs:complexType></xs:element></xs:schema>";
+
+    /** Informations de l'objet métier de test */
+    private final VOInfo iInfo;
+
+    /** Types de l'objet métier de test */
+    private final Map<String, IValueObject.Type> iTypes = new HashMap<>();
+
+    /**
+     * Constructeur, lit le schéma
+     *
+     * @throws Exception
+     *             erreur de lecture du schéma
+     */
+    public GenericListHandlerTest() throws Exception {
+        Document document = new SAXBuilder().build(new StringReader(SCHEMA));
+        iInfo = new VOInfo(document.getRootElement().getChildren().get(0));
+        iTypes.put("tst_id", IValueObject.Type.LONG);
+        iTypes.put("tst_nom", IValueObject.Type.STRING);
+    }
+
+    /**
+     * @param aCount
+     *            nombre de lignes
+     * @return un list handler avec les ids 0 à aCount - 1
+     */
+    private GenericListHandler getListHandler(int aCount) {
+        GenericListHandler handler = new GenericListHandler("Test");
+        List<IValueObject> vos = new ArrayList<>();
+        for (long i = 0; i < aCount; i++) {
+            vos.add(getVo(i));
+        }
+        handler.addAll(vos);
+        return handler;
+    }
+
+    /**
+     * @param aId
+     *            id
+     * @return un vo avec l'id
+     */
+    private IValueObject getVo(Long aId) {
+        IValueObject vo = new GenericValueObject("Test", iInfo, iTypes);
+        vo.setProperty("tst_id", aId);
+        vo.setProperty("tst_nom", "nom " + aId);
+        return vo;
+    }
+
+    @Test
+    public void indexOfTest() {
+        GenericListHandler handler = getListHandler(10);
+        assertEquals(3, handler.indexOf(3L));
+        assertEquals(-1, handler.indexOf(10L));
+        assertEquals("nom 7", handler.getVO(7L).getProperty("tst_nom"));
+        assertEquals(Collections.singletonList(5), handler.getLstIndex("tst_id", 5L));
+
+        assertTrue(handler.removeVO(3L));
+        assertFalse(handler.removeVO(3L));
+        assertEquals(3, handler.indexOf(4L));
+        assertEquals(Collections.singletonList(3L), handler.getLstRemoveField());
+
+        handler.addVO(getVo(20L));
+        assertEquals(9, handler.indexOf(20L));
+    }
+
+    @Test
+    public void externalMutationTest() {
+        GenericListHandler handler = getListHandler(10);
+        assertEquals(5, handler.indexOf(5L));
+
+        // Insertion, suppression et remplacement hors du list handler
+        handler.getList().add(0, getVo(100L));
+        assertEquals(6, handler.indexOf(5L));
+        assertEquals(0, handler.indexOf(100L));
+
+        handler.getList().remove(1);
+        assertEquals(-1, handler.indexOf(0L));
+        assertEquals(5, handler.indexOf(5L));
+
+        // Le remplacement ne change pas la taille: le nouvel id n'est pas vu, l'ancien n'est plus trouvé
+        handler.getList().set(2, getVo(200L));
+        assertEquals(-1, handler.indexOf(200L));
+        assertEquals(-1, handler.indexOf(2L));
+
+        // Un ajout change la taille et fait relire la liste
+        handler.getList().add(getVo(300L));
+        assertEquals(2, handler.indexOf(200L));
+        assertEquals(10, handler.indexOf(300L));
+
+        // Le list handler continue de trouver les lignes après ses propres suppressions
+        assertTrue(handler.removeVO(200L));
+        assertEquals(4, handler.indexOf(5L));
+        assertEquals(8, handler.indexOf(9L));
+
+        handler.getList().clear();
+        assertEquals(-1, handler.indexOf(5L));
+        assertNull(handler.getVO(5L));
+    }
+
+    @Test
+    public void unindexedTest() {
+        GenericListHandler handler = getListHandler(5);
+
+        // Ligne créée sans id, qui reçoit son id ensuite
+        IValueObject vo = getVo(null);
+        handler.setVO(vo);
+        assertEquals(-1, handler.indexOf(50L));
+        assertEquals(2, handler.indexOf(2L));
+        vo.setProperty("tst_id", 50L);
+        assertEquals(5, handler.indexOf(50L));
+
+        // Doublon d'id, trouvé dans la liste après la suppression du premier
+        handler.addVO(getVo(3L));
+        assertEquals(3, handler.indexOf(3L));
+        assertTrue(handler.removeVO(3L));
+        assertEquals(5, handler.indexOf(3L));
+        assertTrue(handler.removeVO(3L));
+        assertEquals(-1, handler.indexOf(3L));
+        assertEquals(4, handler.indexOf(50L));
+    }
+
+    @Test
+    public void sparseRebuildTest() {
+        GenericListHandler handler = getListHandler(300);
+        for (long i = 0; i < 250; i++) {
+            assertTrue(handler.removeVO(i));
+        }
+        assertEquals(50, handler.getList().size());
+        for (long i = 250; i < 300; i++) {
+            assertEquals(i - 250, handler.indexOf(i));
+        }
+    }
+
+    @Test
+    public void stateTest() {
+        GenericListHandler handler = getListHandler(5);
+        handler.setState(1L, IListHandler.State.UPDATE);
+        handler.setState(3L, IListHandler.State.ORIGINAL);
+        handler.removeVO(2L);
+        assertEquals(IListHandler.State.UPDATE.toString(), handler.iMapVoState.get(1));
+        assertEquals(IListHandler.State.ORIGINAL.toString(), handler.iMapVoState.get(2));
+        assertNull(handler.iMapVoState.get(3));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.list;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RowIndexTest {
+
+    @Test
+    public void addIndexOfTest() {
+        RowIndex index = new RowIndex();
+        index.add("a");
+        index.add(null);
+        index.add("c");
+        assertEquals(3, index.size());
+        assertEquals(0, index.indexOf("a"));
+        assertEquals(2, index.indexOf("c"));
+        assertEquals(-1, index.indexOf("x"));
+        assertEquals(-1, index.indexOf(null));
+    }
+
+    @Test
+    public void removeTest() {
+        RowIndex index = new RowIndex();
+        for (int i = 0; i < 40; i++) {
+            index.add(i);
+        }
+        index.remove(3, 3);
+        assertEquals(39, index.size());
+        assertEquals(-1, index.indexOf(3));
+        assertEquals(2, index.indexOf(2));
+        assertEquals(3, index.indexOf(4));
+        assertEquals(38, index.indexOf(39));
+
+        // Première et dernière ligne
+        index.remove(0, 0);
+        index.remove(37, 39);
+        assertEquals(37, index.size());
+        assertEquals(0, index.indexOf(1));
+        assertEquals(36, index.indexOf(38));
+        assertEquals(-1, index.indexOf(39));
+
+        // Ajout après des suppressions
+        index.add("z");
+        assertEquals(37, index.indexOf("z"));
+    }
+
+    @Test
+    public void duplicateTest() {
+        RowIndex index = new RowIndex();
+        index.add("a");
+        index.add("b");
+        index.add("a");
+        assertEquals(0, index.indexOf("a"));
+        assertFalse(index.isComplete());
+
+        // Le doublon enlevé ne retire pas la première ligne de l'index
+        index.remove(2, "a");
+        assertEquals(0, index.indexOf("a"));
+        assertEquals(1, index.indexOf("b"));
+        assertTrue(index.isComplete());
+
+        // Le doublon n'est pas indexé, le list handler le cherche dans la liste
+        index.add("a");
+        index.remove(0, "a");
+        assertEquals(-1, index.indexOf("a"));
+        assertEquals(0, index.indexOf("b"));
+        assertFalse(index.isComplete());
+        index.remove(1, "a");
+        assertTrue(index.isComplete());
+    }
+
+    @Test
+    public void compareWithListTest() {
+        RowIndex index = new RowIndex();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            index.add(i);
+            ids.add(i);
+        }
+        // Suppressions réparties, comparées à List.indexOf
+        for (int step = 0; step < 60; step++) {
+            int position = step * 7 % ids.size();
+            index.remove(position, ids.remove(position));
+            for (Integer id : ids) {
+                assertEquals("id " + id, ids.indexOf(id), index.indexOf(id));
+            }
+        }
+        assertEquals(ids.size(), index.size());
+    }
+
+    @Test
+    public void sparseTest() {
+        RowIndex index = new RowIndex();
+        for (int i = 0; i < 200; i++) {
+            index.add(i);
+        }
+        assertFalse(index.isSparse());
+        for (int i = 0; i < 100; i++) {
+            index.remove(0, i);
+        }
+        assertFalse(index.isSparse());
+        for (int i = 100; i < 150; i++) {
+            index.remove(0, i);
+        }
+        assertTrue(index.isSparse());
+        assertEquals(0, index.indexOf(150));
+        assertEquals(49, index.indexOf(199));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import ch.inser.dynamic.metrics.NoopMetrics;
+
+/**
+ * Appels au driver de ISConnection: le rollback de la fermeture n'est fait que si un statement a été créé.
+ *
+ * @author INSER SA
+ *
+ */
+public class ISConnectionTest {
+
+    /** Appels reçus par la connexion du driver, sans les getters */
+    private final List<String> iCalls = new ArrayList<>();
+
+    /** Autocommit de la connexion du driver */
+    private boolean iAutoCommit;
+
+    /** Statement retourné par la connexion du driver, pour createStatement, prepareStatement et prepareCall */
+    private final CallableStatement iStatement = (CallableStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { CallableStatement.class }, (aProxy, aMethod, aArgs) -> null);
+
+    /** Appels évités transmis à la fermeture */
+    private long iSavedCalls = -1;
+
+    /**
+     * @param aAutoCommit
+     *            autocommit de la connexion du driver
+     * @return connexion encapsulée, avec les mesures
+     */
+    private ISConnection getConnection(boolean aAutoCommit) {
+        iAutoCommit = aAutoCommit;
+        Connection driver = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (aProxy, aMethod, aArgs) -> {
+                    switch (aMethod.getName()) {
+                    case "getAutoCommit":
+                        return iAutoCommit;
+                    case "isClosed":
+                        return Boolean.FALSE;
+                    case "setAutoCommit":
+                        iAutoCommit = (Boolean) aArgs[0];
+                        iCalls.add("setAutoCommit " + aArgs[0]);
+                        return null;
+                    case "createStatement":
+                    case "prepareStatement":
+                    case "prepareCall":
+                        return iStatement;
+                    default:
+                        iCalls.add(aMethod.getName());
+                        return null;
+                    }
+                });
+        ISConnection con = new ISConnection(driver);
+        con.setMetrics(new NoopMetrics() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void recordSavedCalls(long aCalls) {
+                iSavedCalls = aCalls;
+            }
+        });
+        return con;
+    }
+
+    @Test
+    public void cleanCloseTest() throws SQLException {
+        ISConnection con = getConnection(false);
+        con.setAutoCommit(false);
+        con.commit();
+        con.rollback();
+        con.close();
+        assertEquals(Collections.singletonList("close"), iCalls);
+        // setAutoCommit, commit, rollback, getAutoCommit et rollback de la fermeture
+        assertEquals(5, iSavedCalls);
+    }
+
+    @Test
+    public void dirtyCloseTest() throws SQLException {
+        ISConnection con = getConnection(false);
+        PreparedStatement ps = con.prepareStatement("SELECT 1 FROM dual");
+        assertSame(iStatement, ps);
+        ps.close();
+        con.close();
+        assertEquals(Arrays.asList("rollback", "close"), iCalls);
+        assertEquals(1, iSavedCalls);
+    }
+
+    @Test
+    public void commitTest() throws SQLException {
+        ISConnection con = getConnection(false);
+        Statement statement = con.createStatement();
+        assertSame(iStatement, statement);
+        con.commit();
+        // Pas de statement depuis le commit
+        con.commit();
+        con.close();
+        assertEquals(Arrays.asList("commit", "close"), iCalls);
+        assertEquals(3, iSavedCalls);
+    }
+
+    @Test
+    public void callTest() throws SQLException {
+        ISConnection con = getConnection(false);
+        assertSame(iStatement, con.prepareCall("{call proc()}"));
+        con.rollback();
+        con.prepareStatement("UPDATE t SET a = 1");
+        con.close();
+        assertEquals(Arrays.asList("rollback", "rollback", "close"), iCalls);
+    }
+
+    @Test
+    public void autoCommitTest() throws SQLException {
+        ISConnection con = getConnection(true);
+        assertEquals(Collections.singletonList("setAutoCommit false"), iCalls);
+        con.setAutoCommit(true);
+        con.prepareStatement("UPDATE t SET a = 1");
+        // En autocommit, la fermeture ne fait pas de rollback
+        con.setAutoCommit(true);
+        con.close();
+        assertEquals(Arrays.asList("setAutoCommit false", "setAutoCommit true", "close"), iCalls);
+    }
+}
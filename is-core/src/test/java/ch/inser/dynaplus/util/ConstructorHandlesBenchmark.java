@@ -0,0 +1,70 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.util;
+
+import java.util.function.Supplier;
+
+import ch.inser.dynamic.common.IValueObject;
+import ch.inser.dynaplus.vo.EmptyValueObject;
+
+/**
+ * Mesure simple de la création d'un VO par réflexion (l'ancien chemin de VOFactory.getVO) et par ConstructorHandles. Pas un test unitaire:
+ * à lancer à la main, p.ex. depuis l'IDE, la première passe sert de préchauffage.
+ *
+ * @author INSER SA
+ *
+ */
+public final class ConstructorHandlesBenchmark {
+
+    /** Nombre de créations par passe */
+    private static final int COUNT = 2_000_000;
+
+    /** Nombre de passes */
+    private static final int ROUNDS = 3;
+
+    /**
+     * Classe utilitaire
+     */
+    private ConstructorHandlesBenchmark() {
+    }
+
+    /**
+     * @param aArgs
+     *            nom de la classe du VO, EmptyValueObject par défaut
+     * @throws ReflectiveOperationException
+     *             classe ou constructeur pas trouvé
+     */
+    public static void main(String[] aArgs) throws ReflectiveOperationException {
+        String className = aArgs.length > 0 ? aArgs[0] : EmptyValueObject.class.getName();
+        Supplier<IValueObject> supplier = ConstructorHandles.getSupplier(className, IValueObject.class);
+        Object sink = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                sink = Class.forName(className).getConstructor().newInstance();
+            }
+            long reflection = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                sink = supplier.get();
+            }
+            long handle = System.nanoTime() - start;
+            System.out.printf("reflection %.1f ns/op, handle %.1f ns/op%n", reflection / (double) COUNT, handle / (double) COUNT);
+        }
+        System.out.println(sink.getClass().getName());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.vo;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ch.inser.dynamic.common.IValueObject;
+
+/**
+ * Mesure simple de ArrayValueObject et GenericValueObject pour le remplissage, la lecture, le clone et getDiffProperties. Pas un test
+ * unitaire: à lancer à la main, p.ex. depuis l'IDE, la première passe sert de préchauffage.
+ *
+ * @author INSER SA
+ *
+ */
+public final class ArrayValueObjectBenchmark {
+
+    /** Nombre d'opérations par passe */
+    private static final int COUNT = 500_000;
+
+    /** Nombre de passes */
+    private static final int ROUNDS = 3;
+
+    /** Nombre d'attributs par défaut */
+    private static final int ATTRIBUTES = 30;
+
+    /**
+     * Classe utilitaire
+     */
+    private ArrayValueObjectBenchmark() {
+    }
+
+    /**
+     * @param aArgs
+     *            nombre d'attributs, 30 par défaut
+     */
+    public static void main(String[] aArgs) {
+        int size = aArgs.length > 0 ? Integer.parseInt(aArgs[0]) : ATTRIBUTES;
+        List<String> names = new ArrayList<>(size);
+        List<Object> values = new ArrayList<>(size);
+        Map<String, IValueObject.Type> types = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String name = "att_" + i;
+            names.add(name);
+            switch (i % 3) {
+                case 0:
+                    types.put(name, IValueObject.Type.LONG);
+                    values.add(Long.valueOf(i));
+                    break;
+                case 1:
+                    types.put(name, IValueObject.Type.STRING);
+                    values.add("valeur " + i);
+                    break;
+                default:
+                    types.put(name, IValueObject.Type.TIMESTAMP);
+                    values.add(new Timestamp(1_700_000_000_000L + i));
+                    break;
+            }
+        }
+        SlotLayout layout = new SlotLayout(names);
+        IValueObject generic = new GenericValueObject("test", null, types);
+        IValueObject array = new ArrayValueObject("test", null, types, layout);
+
+        Object sink = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.printf("%d attributes%n", size);
+            for (IValueObject empty : new IValueObject[] { generic, array }) {
+                String label = empty.getClass().getSimpleName();
+
+                // Remplissage d'un vo vide, comme à la lecture d'une ligne
+                long start = System.nanoTime();
+                IValueObject filled = null;
+                for (int i = 0; i < COUNT; i++) {
+                    filled = (IValueObject) empty.clone();
+                    for (int j = 0; j < size; j++) {
+                        filled.setProperty(names.get(j), values.get(j));
+                    }
+                }
+                long fill = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < COUNT; i++) {
+                    for (int j = 0; j < size; j++) {
+                        sink = filled.getProperty(names.get(j));
+                    }
+                }
+                long get = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < COUNT; i++) {
+                    sink = filled.clone();
+                }
+                long clone = System.nanoTime() - start;
+
+                // Une seule valeur modifiée, comme pour un update
+                IValueObject modified = (IValueObject) filled.clone();
+                modified.setProperty(names.get(size / 2), "modifié");
+                start = System.nanoTime();
+                for (int i = 0; i < COUNT; i++) {
+                    sink = modified.getDiffProperties(filled);
+                }
+                long diff = System.nanoTime() - start;
+
+                System.out.printf("  %-18s fill %.1f, get %.1f, clone %.1f, getDiffProperties %.1f ns/vo%n", label,
+                        fill / (double) COUNT, get / (double) COUNT, clone / (double) COUNT, diff / (double) COUNT);
+            }
+        }
+        System.out.println(sink);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ */
+
+package ch.inser.dynaplus.vo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import ch.inser.dynamic.common.IValueObject;
+
+/**
+ * Compare ArrayValueObject avec GenericValueObject: les deux doivent se comporter de la même façon.
+ *
+ * @author INSER SA
+ *
+ */
+public class ArrayValueObjectTest {
+
+    /** Types de l'objet métier de test */
+    private final Map<String, IValueObject.Type> iTypes = new HashMap<>();
+
+    /** Layout de l'objet métier de test */
+    private final SlotLayout iLayout;
+
+    /**
+     * Constructeur, prépare les types et le layout
+     */
+    public ArrayValueObjectTest() {
+        iTypes.put("id", IValueObject.Type.LONG);
+        iTypes.put("nom", IValueObject.Type.STRING);
+        iTypes.put("nombre", IValueObject.Type.INTEGER);
+        iTypes.put("modif", IValueObject.Type.TIMESTAMP);
+        iLayout = new SlotLayout(Arrays.asList("id", "nom", "nombre", "modif"));
+    }
+
+    /**
+     * @return un vo de chaque implémentation avec les mêmes valeurs
+     */
+    private IValueObject[] getFilledVos() {
+        IValueObject[] vos = { new GenericValueObject("test", null, iTypes), new ArrayValueObject("test", null, iTypes, iLayout) };
+        for (IValueObject vo : vos) {
+            vo.setProperty("id", 12L);
+            vo.setProperty("nom", "Dupont");
+            vo.setProperty("modif", new Timestamp(1000));
+            vo.setProperty("nom_text", "libellé");
+        }
+        return vos;
+    }
+
+    /**
+     * Valeurs dans le layout et hors layout
+     */
+    @Test
+    public void testGetSet() {
+        IValueObject[] vos = getFilledVos();
+        assertEquals(vos[0].getProperties(), vos[1].getProperties());
+        assertEquals(4, vos[1].getProperties().size());
+        assertEquals("libellé", vos[1].getProperty("nom_text"));
+        assertNull(vos[1].getProperty("nombre"));
+
+        vos[1].setProperty("nom", null);
+        assertFalse(vos[1].getProperties().containsKey("nom"));
+        assertEquals(3, vos[1].getProperties().size());
+    }
+
+    /**
+     * La valeur null mise directement dans la mappe est présente, comme dans une HashMap
+     */
+    @Test
+    public void testNullValue() {
+        IValueObject vo = new ArrayValueObject("test", null, iTypes, iLayout);
+        vo.getProperties().put("nombre", null);
+        assertTrue(vo.getProperties().containsKey("nombre"));
+        assertNull(vo.getProperty("nombre"));
+        assertEquals(1, vo.getProperties().size());
+        vo.removeProperty("nombre");
+        assertTrue(vo.getProperties().isEmpty());
+    }
+
+    /**
+     * Suppression par l'itérateur des entrées
+     */
+    @Test
+    public void testIteratorRemove() {
+        IValueObject vo = getFilledVos()[1];
+        Iterator<Map.Entry<String, Object>> it = vo.getProperties().entrySet().iterator();
+        while (it.hasNext()) {
+            if (!"id".equals(it.next().getKey())) {
+                it.remove();
+            }
+        }
+        assertEquals(1, vo.getProperties().size());
+        assertEquals(12L, vo.getProperty("id"));
+    }
+
+    /**
+     * Clone: mêmes valeurs, timestamp copié
+     */
+    @Test
+    public void testClone() {
+        IValueObject[] vos = getFilledVos();
+        IValueObject clone = (IValueObject) vos[1].clone();
+        assertEquals(vos[0].getProperties(), clone.getProperties());
+        assertNotSame(vos[1].getProperty("modif"), clone.getProperty("modif"));
+
+        vos[1].clear();
+        assertTrue(vos[1].isEmpty());
+        assertEquals(4, clone.getProperties().size());
+    }
+
+    /**
+     * Différences: même résultat par position et par nom
+     */
+    @Test
+    public void testDiffProperties() {
+        IValueObject[] vos = getFilledVos();
+        IValueObject[] others = getFilledVos();
+        for (IValueObject vo : others) {
+            vo.setProperty("nom", "Durand");
+            vo.setProperty("nombre", 3);
+        }
+        Map<String, Object> diffs = vos[0].getDiffProperties(others[0]);
+        assertEquals(2, diffs.size());
+        assertEquals(diffs, vos[1].getDiffProperties(others[1]));
+        assertEquals(diffs, vos[1].getDiffProperties(others[0]));
+    }
+}